@@ -0,0 +1,64 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.core;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link PropertySubstitutor#substitute(String, Properties)} on a large template
+ * fragment where every other placeholder has a value.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PropertySubstitutorBenchmark {
+
+	@Param({ "100", "10000" })
+	public int placeholders;
+
+	private String fragment;
+
+	private Properties properties;
+
+	@Setup
+	public void setUp() {
+		StringBuilder sb = new StringBuilder();
+		properties = new Properties();
+		for (int i = 0; i < placeholders; i++) {
+			sb.append("<Connector port=\"${http.port").append(i).append("}\" ");
+			sb.append("maxThreads=\"${maxThreads").append(i).append(":300}\"/>\n");
+			properties.setProperty("http.port" + i, String.valueOf(8080 + i));
+		}
+		fragment = sb.toString();
+	}
+
+	@Benchmark
+	public String substitute() {
+		return PropertySubstitutor.substitute(fragment, properties);
+	}
+
+}
@@ -0,0 +1,74 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.core;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link PropertyWriter#apply(String)} on a large
+ * <code>catalina.properties</code> file that has comments between the
+ * properties. A few existing values are changed and a few new ones are added.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PropertyWriterBenchmark {
+
+	@Param({ "1000", "10000" })
+	public int lines;
+
+	private String content;
+
+	private PropertyWriter writer;
+
+	@Setup
+	public void setUp() {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < lines; i++) {
+			if (i % 10 == 0) {
+				sb.append("# comment for section ").append(i / 10).append("\n\n");
+			}
+			sb.append("bio.http.property").append(i).append("=value").append(i).append("\n");
+		}
+		content = sb.toString();
+
+		Map<String, String> values = new HashMap<String, String>();
+		for (int i = 0; i < 10; i++) {
+			values.put("bio.http.property" + (i * lines / 10), "changed" + i);
+			values.put("added.property" + i, "added" + i);
+		}
+		writer = new PropertyWriter(values);
+	}
+
+	@Benchmark
+	public String apply() throws IOException {
+		return writer.apply(content);
+	}
+
+}
@@ -0,0 +1,69 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.core;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the static resource check that {@link TcPublisher} runs for every
+ * file of a published delta. The delta is simulated by the names of its
+ * changed files with a mix of static and dynamic resources.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StaticResourceFilterBenchmark {
+
+	private static final String[] EXTENSIONS = { "html", "css", "js", "png", "jsp", "properties", "gif", "txt" };
+
+	@Param({ "10000", "100000" })
+	public int resources;
+
+	private String[] names;
+
+	private StaticResourceFilter filter;
+
+	@Setup
+	public void setUp() {
+		names = new String[resources];
+		for (int i = 0; i < resources; i++) {
+			names[i] = "resource" + i + "." + EXTENSIONS[i % EXTENSIONS.length];
+		}
+		filter = new StaticResourceFilter(TcServer.DEFAULT_STATIC_FILENAMES);
+	}
+
+	@Benchmark
+	public int isStatic() {
+		int count = 0;
+		for (String name : names) {
+			if (filter.isStatic(name)) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+}
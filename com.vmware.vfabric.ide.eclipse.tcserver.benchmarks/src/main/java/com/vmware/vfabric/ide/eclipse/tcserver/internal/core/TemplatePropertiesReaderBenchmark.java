@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures reading the configuration prompts of a template with a large server
+ * fragment. Every prompt has a default value in the fragment.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TemplatePropertiesReaderBenchmark {
+
+	@Param({ "10", "500" })
+	public int prompts;
+
+	private File templateDir;
+
+	@Setup
+	public void setUp() throws IOException {
+		templateDir = Files.createTempDirectory("template").toFile();
+		StringBuilder promptsContent = new StringBuilder();
+		StringBuilder fragmentContent = new StringBuilder("<Server>\n");
+		for (int i = 0; i < prompts; i++) {
+			promptsContent.append("connector").append(i).append(".port=Please enter the port for connector ")
+					.append(i).append(":\n");
+			fragmentContent.append("  <Connector port=\"${connector").append(i).append(".port:")
+					.append(8080 + i).append("}\" protocol=\"HTTP/1.1\"/>\n");
+		}
+		fragmentContent.append("</Server>\n");
+		write(new File(templateDir, "configuration-prompts.properties"), promptsContent.toString());
+		write(new File(templateDir, "conf/server-fragment.xml"), fragmentContent.toString());
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		Files.walkFileTree(templateDir.toPath(), new SimpleFileVisitor<Path>() {
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+				Files.delete(file);
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+				Files.delete(dir);
+				return FileVisitResult.CONTINUE;
+			}
+		});
+	}
+
+	@Benchmark
+	public Set<TemplateProperty> read() throws CoreException {
+		return TemplatePropertiesReader.read(templateDir, new NullProgressMonitor());
+	}
+
+	private static void write(File file, String content) throws IOException {
+		file.getParentFile().mkdirs();
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+	}
+
+}
@@ -12,9 +12,11 @@ package com.vmware.vfabric.ide.eclipse.tcserver.configurator;
 
 import java.io.File;
 
+import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.jobs.ISchedulingRule;
 
 import com.vmware.vfabric.ide.eclipse.tcserver.internal.configurator.InstallableItem;
 
@@ -51,6 +53,18 @@ public abstract class ConfigurableExtension {
 		return id;
 	}
 
+	/**
+	 * Returns the rule that is held while {@link #configure(IProgressMonitor)}
+	 * runs during automatic workspace configuration. Extensions with
+	 * non-conflicting rules are configured in parallel, extensions that return
+	 * null acquire the rules they need themselves. By default the workspace
+	 * root is held, i.e. extensions may modify any resource and are configured
+	 * one after the other. Subclasses may override.
+	 */
+	public ISchedulingRule getSchedulingRule() {
+		return ResourcesPlugin.getWorkspace().getRoot();
+	}
+
 	public InstallableItem getInstallableItem() {
 		return installableItem;
 	}
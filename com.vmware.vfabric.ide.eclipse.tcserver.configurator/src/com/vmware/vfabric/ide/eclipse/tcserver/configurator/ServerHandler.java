@@ -18,6 +18,7 @@ import java.util.function.Function;
 
 import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -27,6 +28,8 @@ import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.core.runtime.jobs.ISchedulingRule;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.debug.core.ILaunchManager;
 import org.eclipse.osgi.util.NLS;
 import org.eclipse.ui.dialogs.IOverwriteQuery;
@@ -304,13 +307,6 @@ public class ServerHandler {
 				monitor.worked(1);
 				return server;
 			}
-			else {
-				IFolder serverConfiguration = server.getServerConfiguration();
-				server.delete();
-				if (serverConfiguration != null) {
-					serverConfiguration.delete(true, true, monitor);
-				}
-			}
 		}
 
 		IServerWorkingCopy wc = st.createServer(serverName, null, runtime, SubMonitor.convert(monitor, 1));
@@ -321,7 +317,25 @@ public class ServerHandler {
 				throw new CoreException(status);
 			}
 		}
-		server = wc.save(true, SubMonitor.convert(monitor, 1));
+
+		// the server configuration is stored in the Servers project which may
+		// need to be created, only hold the workspace rule while the project
+		// is modified
+		ISchedulingRule rule = ResourcesPlugin.getWorkspace().getRoot();
+		Job.getJobManager().beginRule(rule, monitor);
+		try {
+			if (server != null) {
+				IFolder serverConfiguration = server.getServerConfiguration();
+				server.delete();
+				if (serverConfiguration != null) {
+					serverConfiguration.delete(true, true, monitor);
+				}
+			}
+			server = wc.save(true, SubMonitor.convert(monitor, 1));
+		}
+		finally {
+			Job.getJobManager().endRule(rule);
+		}
 		return server;
 	}
 
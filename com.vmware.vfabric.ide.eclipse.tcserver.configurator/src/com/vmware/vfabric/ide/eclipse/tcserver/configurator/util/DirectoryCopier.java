@@ -0,0 +1,257 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.configurator.util;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.SubMonitor;
+
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.configurator.Activator;
+
+/**
+ * Copies directory trees. The tree is walked once to create the target
+ * directories and to collect the files which are then copied on a bounded
+ * number of threads using {@link FileChannel#transferTo(long, long,
+ * java.nio.channels.WritableByteChannel)} which lets the operating system copy
+ * the data without passing it through the Java heap.
+ * <p>
+ * Progress is reported from the calling thread in batches, not for every
+ * buffer. Copied files keep their modification time, hence a later copy into
+ * the same target can skip files that are already up-to-date, see
+ * {@link #setSkipUnchanged(boolean)}.
+ * </p>
+ */
+public class DirectoryCopier {
+
+	private static final int DEFAULT_THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+	/** Maximum number of bytes passed to a single transferTo() call. */
+	private static final long TRANSFER_CHUNK_SIZE = 8 * 1024 * 1024;
+
+	/** Interval for reporting progress while waiting for workers. */
+	private static final long PROGRESS_INTERVAL_MILLIS = 100;
+
+	private static final int KB = 1024;
+
+	private int threads = DEFAULT_THREADS;
+
+	private boolean skipUnchanged;
+
+	private int copiedFiles;
+
+	private int skippedFiles;
+
+	/**
+	 * Sets the maximum number of files that are copied concurrently.
+	 */
+	public void setThreads(int threads) {
+		this.threads = Math.max(1, threads);
+	}
+
+	/**
+	 * If true, files that exist in the target with the same size and
+	 * modification time as the source are not copied again. The default is
+	 * false.
+	 */
+	public void setSkipUnchanged(boolean skipUnchanged) {
+		this.skipUnchanged = skipUnchanged;
+	}
+
+	/**
+	 * Returns the number of files copied by the last invocation of
+	 * {@link #copy(Path, Path, IProgressMonitor)}.
+	 */
+	public int getCopiedFiles() {
+		return copiedFiles;
+	}
+
+	/**
+	 * Returns the number of files skipped by the last invocation of
+	 * {@link #copy(Path, Path, IProgressMonitor)} because they were unchanged.
+	 */
+	public int getSkippedFiles() {
+		return skippedFiles;
+	}
+
+	/**
+	 * Copies the contents of <code>source</code> into <code>target</code>.
+	 * Existing files in <code>target</code> are overwritten.
+	 */
+	public void copy(final Path source, final Path target, IProgressMonitor monitor) throws CoreException {
+		final List<Path> files = new ArrayList<Path>();
+		final AtomicLong totalBytes = new AtomicLong();
+		try {
+			Files.walkFileTree(source, new SimpleFileVisitor<Path>() {
+				@Override
+				public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+					Files.createDirectories(target.resolve(source.relativize(dir).toString()));
+					return FileVisitResult.CONTINUE;
+				}
+
+				@Override
+				public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+					if (attrs.isRegularFile()) {
+						files.add(file);
+						totalBytes.addAndGet(attrs.size());
+					}
+					return FileVisitResult.CONTINUE;
+				}
+			});
+		}
+		catch (IOException e) {
+			throw new CoreException(new Status(IStatus.ERROR, Activator.PLUGIN_ID,
+					"Could not copy directory from " + source + " to " + target, e));
+		}
+
+		copiedFiles = 0;
+		skippedFiles = 0;
+		SubMonitor progress = SubMonitor.convert(monitor, "Copying files", toWork(totalBytes.get()));
+		final AtomicLong copiedBytes = new AtomicLong();
+		final AtomicBoolean canceled = new AtomicBoolean();
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, Math.max(1, files.size())));
+		ExecutorCompletionService<Boolean> completionService = new ExecutorCompletionService<Boolean>(executor);
+		try {
+			for (final Path file : files) {
+				completionService.submit(new Callable<Boolean>() {
+					public Boolean call() throws Exception {
+						return copyFile(file, target.resolve(source.relativize(file).toString()), copiedBytes,
+								canceled);
+					}
+				});
+			}
+
+			long reportedWork = 0;
+			int remaining = files.size();
+			while (remaining > 0) {
+				Future<Boolean> result = completionService.poll(PROGRESS_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+				if (result != null) {
+					remaining--;
+					if (result.get()) {
+						copiedFiles++;
+					}
+					else {
+						skippedFiles++;
+					}
+				}
+				long work = toWork(copiedBytes.get());
+				if (work > reportedWork) {
+					progress.worked((int) (work - reportedWork));
+					reportedWork = work;
+				}
+				if (progress.isCanceled()) {
+					canceled.set(true);
+					throw new OperationCanceledException();
+				}
+			}
+		}
+		catch (ExecutionException e) {
+			canceled.set(true);
+			throw new CoreException(new Status(IStatus.ERROR, Activator.PLUGIN_ID,
+					"Could not copy directory from " + source + " to " + target, e.getCause()));
+		}
+		catch (InterruptedException e) {
+			canceled.set(true);
+			throw new OperationCanceledException();
+		}
+		finally {
+			executor.shutdownNow();
+			progress.done();
+		}
+	}
+
+	/**
+	 * Copies <code>source</code> to <code>target</code> and preserves the
+	 * modification time.
+	 *
+	 * @return false, if the file was skipped because it was unchanged
+	 */
+	private boolean copyFile(Path source, Path target, AtomicLong copiedBytes, AtomicBoolean canceled)
+			throws IOException {
+		if (canceled.get()) {
+			throw new OperationCanceledException();
+		}
+		BasicFileAttributes sourceAttributes = Files.readAttributes(source, BasicFileAttributes.class);
+		if (skipUnchanged && isUnchanged(sourceAttributes, target)) {
+			copiedBytes.addAndGet(sourceAttributes.size());
+			return false;
+		}
+		transfer(source, target, copiedBytes, canceled);
+		Files.setLastModifiedTime(target, sourceAttributes.lastModifiedTime());
+		return true;
+	}
+
+	private static boolean isUnchanged(BasicFileAttributes sourceAttributes, Path target) throws IOException {
+		if (!Files.isRegularFile(target)) {
+			return false;
+		}
+		BasicFileAttributes targetAttributes = Files.readAttributes(target, BasicFileAttributes.class);
+		return sourceAttributes.size() == targetAttributes.size()
+				&& sourceAttributes.lastModifiedTime().equals(targetAttributes.lastModifiedTime());
+	}
+
+	/**
+	 * Transfers the contents of <code>source</code> to <code>target</code>
+	 * using {@link FileChannel#transferTo}.
+	 *
+	 * @param copiedBytes incremented as data is transferred, may be null
+	 * @param canceled aborts the transfer when set, may be null
+	 */
+	static void transfer(Path source, Path target, AtomicLong copiedBytes, AtomicBoolean canceled)
+			throws IOException {
+		try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+				FileChannel out = FileChannel.open(target, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+						StandardOpenOption.TRUNCATE_EXISTING)) {
+			long size = in.size();
+			long position = 0;
+			while (position < size) {
+				if (canceled != null && canceled.get()) {
+					throw new OperationCanceledException();
+				}
+				long count = in.transferTo(position, Math.min(TRANSFER_CHUNK_SIZE, size - position), out);
+				if (count <= 0) {
+					break;
+				}
+				position += count;
+				if (copiedBytes != null) {
+					copiedBytes.addAndGet(count);
+				}
+			}
+		}
+	}
+
+	private static int toWork(long bytes) {
+		return (int) Math.min(Integer.MAX_VALUE, bytes / KB);
+	}
+
+}
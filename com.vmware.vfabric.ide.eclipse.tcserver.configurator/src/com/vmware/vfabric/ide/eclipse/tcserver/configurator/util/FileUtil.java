@@ -43,34 +43,25 @@ public class FileUtil {
 
 	public static final int BUFFER_SIZE = 4096;
 
+	/**
+	 * Copies the contents of <code>sourceDirectory</code> into
+	 * <code>targetDirectory</code>. Files are copied in parallel, see
+	 * {@link DirectoryCopier}.
+	 */
 	public static void copyDirectory(File sourceDirectory, File targetDirectory, IProgressMonitor monitor)
 			throws CoreException {
-		File[] files = sourceDirectory.listFiles();
-		if (files != null) {
-			for (File sourceFile : files) {
-				File targetFile = new File(targetDirectory, sourceFile.getName());
-				if (sourceFile.isDirectory()) {
-					targetFile.mkdir();
-					copyDirectory(sourceFile, targetFile, monitor);
-				}
-				else {
-					copyFile(sourceFile, targetFile, monitor);
-				}
-			}
+		if (!sourceDirectory.isDirectory()) {
+			return;
 		}
+		new DirectoryCopier().copy(sourceDirectory.toPath(), targetDirectory.toPath(), monitor);
 	}
 
 	public static void copyFile(File sourceFile, File targetFile, IProgressMonitor monitor) throws CoreException {
 		try {
-			monitor.beginTask("Copying file", (int) sourceFile.length());
-
-			FileInputStream in = new FileInputStream(sourceFile);
-			try {
-				writeToFile(in, targetFile, monitor);
-			}
-			finally {
-				in.close();
-			}
+			monitor.beginTask("Copying file", 1);
+			checkCancelled(monitor);
+			DirectoryCopier.transfer(sourceFile.toPath(), targetFile.toPath(), null, null);
+			monitor.worked(1);
 		}
 		catch (IOException e) {
 			throw new CoreException(new Status(IStatus.ERROR, Activator.PLUGIN_ID,
@@ -0,0 +1,150 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.configurator;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IProjectDescription;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.MultiStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.core.runtime.jobs.ISchedulingRule;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.jobs.JobGroup;
+import org.eclipse.osgi.util.NLS;
+
+import com.vmware.vfabric.ide.eclipse.tcserver.configurator.ConfigurableExtension;
+
+/**
+ * Runs the steps of the initial workspace configuration as a group of jobs.
+ * Every step only holds the scheduling rule it needs: importing a sample
+ * project holds the rule for creating that project and configuring an
+ * extension holds whatever {@link ConfigurableExtension#getSchedulingRule()}
+ * returns. Steps that do not conflict run in parallel. Servers and runtimes are
+ * created without a rule, the workspace is only locked while the server
+ * configuration is saved.
+ */
+public class ConfigurationScheduler {
+
+	private static final int MAX_THREADS = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+	private final JobGroup group;
+
+	private final List<Job> jobs = new ArrayList<Job>();
+
+	public ConfigurationScheduler(String name) {
+		this.group = new JobGroup(name, MAX_THREADS, 0);
+	}
+
+	/**
+	 * Adds a step that imports the project at <code>location</code> into the
+	 * workspace. Does nothing if <code>location</code> does not contain a
+	 * project.
+	 */
+	public void addProjectImport(final File location) {
+		if (!location.isDirectory()) {
+			return;
+		}
+		final IWorkspace workspace = ResourcesPlugin.getWorkspace();
+		final IProjectDescription desc;
+		try {
+			desc = workspace.loadProjectDescription(new Path(location.getAbsolutePath()).append(".project"));
+		}
+		catch (CoreException e) {
+			Activator.log(new Status(IStatus.ERROR, Activator.PLUGIN_ID, "An error occurred creating project", e));
+			return;
+		}
+		final IProject project = workspace.getRoot().getProject(desc.getName());
+		add(new Job(NLS.bind("Importing {0}", desc.getName())) {
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				SubMonitor progress = SubMonitor.convert(monitor, 100);
+				try {
+					project.create(desc, progress.newChild(30));
+					project.open(IResource.BACKGROUND_REFRESH, progress.newChild(70));
+				}
+				catch (CoreException e) {
+					Activator.log(
+							new Status(IStatus.ERROR, Activator.PLUGIN_ID, "An error occurred creating project", e));
+				}
+				return Status.OK_STATUS;
+			}
+		}, workspace.getRuleFactory().createRule(project));
+	}
+
+	/**
+	 * Adds a step that invokes {@link ConfigurableExtension#configure} for
+	 * <code>extension</code>.
+	 */
+	public void addConfiguration(final ConfigurableExtension extension) {
+		String label = (extension.getLabel() != null) ? extension.getLabel() : extension.getId();
+		add(new Job(NLS.bind("Configuring {0}", label)) {
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				IStatus status = extension.configure(monitor);
+				// failures are logged by the extension, don't report them
+				// again through the job framework
+				return (status != null && status.getSeverity() == IStatus.CANCEL) ? status : Status.OK_STATUS;
+			}
+		}, extension.getSchedulingRule());
+	}
+
+	/**
+	 * Schedules all added steps and waits for their completion. Each step
+	 * reports progress through its own job, <code>monitor</code> advances as
+	 * steps complete.
+	 *
+	 * @return the combined result of all steps
+	 */
+	public IStatus run(IProgressMonitor monitor) {
+		SubMonitor progress = SubMonitor.convert(monitor, jobs.size());
+		for (Job job : jobs) {
+			job.schedule();
+		}
+		try {
+			for (Job job : jobs) {
+				progress.subTask(job.getName());
+				job.join(0, progress.newChild(1));
+			}
+		}
+		catch (OperationCanceledException e) {
+			group.cancel();
+			return Status.CANCEL_STATUS;
+		}
+		catch (InterruptedException e) {
+			group.cancel();
+			return Status.CANCEL_STATUS;
+		}
+		MultiStatus result = new MultiStatus(Activator.PLUGIN_ID, 0, group.getName(), null);
+		for (IStatus status : group.getResult()) {
+			result.add(status);
+		}
+		return result;
+	}
+
+	private void add(Job job, ISchedulingRule rule) {
+		job.setRule(rule);
+		job.setJobGroup(group);
+		jobs.add(job);
+	}
+
+}
@@ -14,7 +14,6 @@ import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -23,12 +22,6 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-import org.eclipse.core.resources.IProject;
-import org.eclipse.core.resources.IProjectDescription;
-import org.eclipse.core.resources.IResource;
-import org.eclipse.core.resources.IWorkspace;
-import org.eclipse.core.resources.ResourcesPlugin;
-import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IConfigurationElement;
 import org.eclipse.core.runtime.IExtension;
 import org.eclipse.core.runtime.IExtensionPoint;
@@ -42,7 +35,6 @@ import org.eclipse.core.runtime.Path;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.SafeRunner;
 import org.eclipse.core.runtime.Status;
-import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.osgi.service.datalocation.Location;
 import org.eclipse.osgi.service.resolver.VersionRange;
@@ -157,7 +149,7 @@ public class ConfiguratorImporter implements IStartup, IConfigurationContext, IC
 		return null;
 	}
 
-	private static Version getVersion(String name) {
+	static Version getVersion(String name) {
 		int i = name.lastIndexOf("-");
 		if (i != -1) {
 			try {
@@ -354,8 +346,13 @@ public class ConfiguratorImporter implements IStartup, IConfigurationContext, IC
 		return getInstalledBundles().contains(bundleId);
 	}
 
+	/**
+	 * Returns the directories in the search locations that match
+	 * <code>path</code> and <code>versionRange</code>, highest version first.
+	 * Directory listings are served from {@link InstallLocationIndex} and only
+	 * re-read from disk when a directory was modified.
+	 */
 	public List<File> scan(String path, VersionRange versionRange) {
-		List<File> matches = new ArrayList<File>();
 		List<File> locations = getSearchLocations();
 		if (isScanInstallPath()) {
 			if (!locations.contains(getInstallLocation())) {
@@ -363,6 +360,9 @@ public class ConfiguratorImporter implements IStartup, IConfigurationContext, IC
 			}
 		}
 		String[] pathSegments = path.split("/");
+		String prefix = pathSegments[pathSegments.length - 1];
+		List<InstallLocationIndex.Entry> entries = new ArrayList<InstallLocationIndex.Entry>();
+		InstallLocationIndex index = InstallLocationIndex.getDefault();
 		outerLoop: for (File location : locations) {
 			// Iterate up till dm Server, tc Server or samples dir is found
 			IPath p = new Path(location.toString());
@@ -370,45 +370,26 @@ public class ConfiguratorImporter implements IStartup, IConfigurationContext, IC
 				p = p.append(pathSegments[i]);
 			}
 			File locationContainerFolder = p.toFile();
-			if (locationContainerFolder.exists() && locationContainerFolder.isDirectory()) {
-				while (locationContainerFolder != null) {
-					File[] files = locationContainerFolder.listFiles();
-					if (files != null) {
-						for (File file : files) {
-							if (file.isDirectory()
-									&& matches(file.getName(), pathSegments[pathSegments.length - 1], versionRange)) {
-								matches.add(file);
-							}
-						}
-					}
-					if (!matches.isEmpty() && firstMatchOnly) {
-						break outerLoop;
-					}
-					if (!recurse) {
-						break;
-					}
-					locationContainerFolder = locationContainerFolder.getParentFile();
+			if (!locationContainerFolder.isDirectory()) {
+				continue;
+			}
+			while (locationContainerFolder != null) {
+				entries.addAll(index.getMatches(locationContainerFolder, prefix, versionRange));
+				if (!entries.isEmpty() && firstMatchOnly) {
+					break outerLoop;
+				}
+				if (!recurse) {
+					break;
 				}
+				locationContainerFolder = locationContainerFolder.getParentFile();
 			}
 		}
-		if (!matches.isEmpty()) {
-			Collections.sort(matches, new Comparator<File>() {
-				/**
-				 * Sorts high versions first and path names with invalid
-				 * versions last.
-				 */
-				public int compare(File o1, File o2) {
-					Version v1 = getVersion(o1.getName());
-					Version v2 = getVersion(o2.getName());
-					if (v1 == null) {
-						return (v2 != null) ? 1 : 0;
-					}
-					else if (v2 == null) {
-						return -1;
-					}
-					return -v1.compareTo(v2);
-				}
-			});
+		if (!entries.isEmpty()) {
+			Collections.sort(entries, InstallLocationIndex.VERSION_COMPARATOR);
+			List<File> matches = new ArrayList<File>(entries.size());
+			for (InstallLocationIndex.Entry entry : entries) {
+				matches.add(entry.getFile());
+			}
 			// If installFolder is given by a few segments the install location
 			// is the top
 			// segment.
@@ -452,28 +433,6 @@ public class ConfiguratorImporter implements IStartup, IConfigurationContext, IC
 		this.searchLocations = new ArrayList<File>(searchLocations);
 	}
 
-	private void createProject(IProgressMonitor monitor, File sample) {
-		if (sample.isDirectory()) {
-			try {
-				IProjectDescription desc = ResourcesPlugin.getWorkspace()
-						.loadProjectDescription(new Path(sample.getAbsolutePath()).append(".project"));
-				if (desc != null) {
-					String projectName = desc.getName();
-
-					IWorkspace workspace = ResourcesPlugin.getWorkspace();
-					IProject project = workspace.getRoot().getProject(projectName);
-
-					project.create(desc, SubMonitor.convert(monitor, 30));
-					project.open(IResource.BACKGROUND_REFRESH, SubMonitor.convert(monitor, 70));
-				}
-
-			}
-			catch (CoreException e) {
-				Activator.log(new Status(IStatus.ERROR, Activator.PLUGIN_ID, "An error occurred creating project", e));
-			}
-		}
-	}
-
 	@Override
 	public void earlyStartup() {
 		List<String> commandLineArgs = Arrays.asList(Platform.getCommandLineArgs());
@@ -543,11 +502,13 @@ public class ConfiguratorImporter implements IStartup, IConfigurationContext, IC
 				// Prevent the servers view from showing up
 				ServerUIPlugin.getPreferences().setShowOnActivity(false);
 
+				ConfigurationScheduler scheduler = new ConfigurationScheduler(getName());
+
 				// Import the sample projects
 				List<File> samplesPath = scan(SAMPLES_PATH, null);
 				if (samplesPath.size() > 0) {
 					for (File sample : samplesPath.get(0).listFiles()) {
-						createProject(monitor, sample);
+						scheduler.addProjectImport(sample);
 					}
 				}
 
@@ -557,10 +518,14 @@ public class ConfiguratorImporter implements IStartup, IConfigurationContext, IC
 					// Only configure extensions marked as auto configurable to
 					// avoid adding old runtime/server versions
 					if (extension.isAutoConfigurable()) {
-						extension.configure(monitor);
+						scheduler.addConfiguration(extension);
 					}
 				}
 
+				// Independent steps run in parallel and only lock what they
+				// modify
+				scheduler.run(monitor);
+
 				// Reset the servers view to original state
 				ServerUIPlugin.getPreferences().setShowOnActivity(isShowOnActivity);
 
@@ -571,7 +536,6 @@ public class ConfiguratorImporter implements IStartup, IConfigurationContext, IC
 
 		};
 
-		importJob.setRule(ResourcesPlugin.getWorkspace().getRuleFactory().buildRule());
 		importJob.schedule();
 	}
 
@@ -0,0 +1,187 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.configurator;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.osgi.service.resolver.VersionRange;
+import org.osgi.framework.Version;
+
+/**
+ * Caches the directory listings of install locations that are scanned by
+ * {@link ConfiguratorImporter}. Each container directory is listed once and the
+ * versions encoded in the names of its sub-directories are parsed once. A
+ * listing is refreshed when the modification time of the container directory
+ * changes, i.e. when an entry was added, removed or renamed.
+ * <p>
+ * Matches for an install path prefix are kept sorted with the highest version
+ * first so repeated lookups for different version ranges only filter an
+ * in-memory list.
+ * </p>
+ */
+public class InstallLocationIndex {
+
+	/**
+	 * A directory that was found in an install location together with the
+	 * version parsed from its name.
+	 */
+	public static class Entry {
+
+		private final File file;
+
+		private final Version version;
+
+		Entry(File file, Version version) {
+			this.file = file;
+			this.version = version;
+		}
+
+		public File getFile() {
+			return file;
+		}
+
+		public Version getVersion() {
+			return version;
+		}
+
+		@Override
+		public String toString() {
+			return "Entry [file=" + file + ", version=" + version + "]";
+		}
+
+	}
+
+	private static class DirectoryListing {
+
+		private final long lastModified;
+
+		private final List<Entry> directories;
+
+		private final Map<String, List<Entry>> matchesByPrefix = new HashMap<String, List<Entry>>();
+
+		DirectoryListing(long lastModified, List<Entry> directories) {
+			this.lastModified = lastModified;
+			this.directories = directories;
+		}
+
+		synchronized List<Entry> getMatches(String prefix) {
+			List<Entry> matches = matchesByPrefix.get(prefix);
+			if (matches == null) {
+				matches = new ArrayList<Entry>();
+				for (Entry entry : directories) {
+					if (entry.getFile().getName().startsWith(prefix)) {
+						matches.add(entry);
+					}
+				}
+				Collections.sort(matches, VERSION_COMPARATOR);
+				matches = Collections.unmodifiableList(matches);
+				matchesByPrefix.put(prefix, matches);
+			}
+			return matches;
+		}
+
+	}
+
+	/**
+	 * Sorts high versions first and path names with invalid versions last.
+	 */
+	public static final Comparator<Entry> VERSION_COMPARATOR = new Comparator<Entry>() {
+		public int compare(Entry o1, Entry o2) {
+			Version v1 = o1.getVersion();
+			Version v2 = o2.getVersion();
+			if (v1 == null) {
+				return (v2 != null) ? 1 : 0;
+			}
+			else if (v2 == null) {
+				return -1;
+			}
+			return -v1.compareTo(v2);
+		}
+	};
+
+	private static final InstallLocationIndex INSTANCE = new InstallLocationIndex();
+
+	public static InstallLocationIndex getDefault() {
+		return INSTANCE;
+	}
+
+	private final Map<File, DirectoryListing> listings = new ConcurrentHashMap<File, DirectoryListing>();
+
+	/**
+	 * Returns the sub-directories of <code>container</code> that start with
+	 * <code>prefix</code> and have a version that is included in
+	 * <code>versionRange</code>, highest version first.
+	 *
+	 * @param container the directory to list
+	 * @param prefix the expected name prefix
+	 * @param versionRange the expected version range or null to accept any
+	 * version
+	 * @return the matching entries, never null
+	 */
+	public List<Entry> getMatches(File container, String prefix, VersionRange versionRange) {
+		DirectoryListing listing = getListing(container);
+		if (listing == null || prefix == null) {
+			return Collections.emptyList();
+		}
+		List<Entry> matches = listing.getMatches(prefix);
+		if (versionRange == null) {
+			return matches;
+		}
+		List<Entry> result = new ArrayList<Entry>(matches.size());
+		for (Entry entry : matches) {
+			if (entry.getVersion() == null || versionRange.isIncluded(entry.getVersion())) {
+				result.add(entry);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Discards all cached listings. The next lookup re-reads the file system.
+	 */
+	public void clear() {
+		listings.clear();
+	}
+
+	private DirectoryListing getListing(File container) {
+		long lastModified = container.lastModified();
+		if (lastModified == 0L) {
+			// does not exist or is not accessible
+			listings.remove(container);
+			return null;
+		}
+		DirectoryListing listing = listings.get(container);
+		if (listing == null || listing.lastModified != lastModified) {
+			File[] files = container.listFiles();
+			if (files == null) {
+				listings.remove(container);
+				return null;
+			}
+			List<Entry> directories = new ArrayList<Entry>(files.length);
+			for (File file : files) {
+				if (file.isDirectory()) {
+					directories.add(new Entry(file, ConfiguratorImporter.getVersion(file.getName())));
+				}
+			}
+			listing = new DirectoryListing(lastModified, directories);
+			listings.put(container, listing);
+		}
+		return listing;
+	}
+
+}
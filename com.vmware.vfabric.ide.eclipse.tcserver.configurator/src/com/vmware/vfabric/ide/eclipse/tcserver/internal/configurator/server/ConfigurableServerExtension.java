@@ -17,6 +17,7 @@ import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.ISchedulingRule;
 import org.eclipse.osgi.util.NLS;
 import org.eclipse.ui.IWorkbenchWindow;
 import org.eclipse.ui.PartInitException;
@@ -86,6 +87,16 @@ public class ConfigurableServerExtension extends ConfigurableExtension {
 		return descriptor;
 	}
 
+	/**
+	 * Runtimes and servers are set up without holding a rule so servers are
+	 * created in parallel. Saving the server configuration acquires the
+	 * workspace rule, see {@link ServerHandler}.
+	 */
+	@Override
+	public ISchedulingRule getSchedulingRule() {
+		return null;
+	}
+
 	public IServer getServer() {
 		return createServerHandler().getExistingServer();
 	}
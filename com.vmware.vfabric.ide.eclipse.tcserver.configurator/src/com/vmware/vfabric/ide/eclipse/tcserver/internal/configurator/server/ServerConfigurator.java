@@ -55,6 +55,7 @@ import com.vmware.vfabric.ide.eclipse.tcserver.configurator.ServerHandler;
 import com.vmware.vfabric.ide.eclipse.tcserver.configurator.util.HttpUtil;
 import com.vmware.vfabric.ide.eclipse.tcserver.internal.configurator.Activator;
 import com.vmware.vfabric.ide.eclipse.tcserver.internal.configurator.ConfiguratorImporter;
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.configurator.InstallLocationIndex;
 
 /**
  * Automatically adds server runtimes and sample projects to the workspace by
@@ -479,6 +480,9 @@ public class ServerConfigurator {
 				archiveFile.deleteOnExit();
 				HttpUtil.download(descriptor.getArchiveUrl(), archiveFile, serverLocation, descriptor.getArchivePath(),
 						progress.newChild(70));
+				// the new runtime directory may not change the modification
+				// time of its parent on file systems with coarse timestamps
+				InstallLocationIndex.getDefault().clear();
 				// Path path = new Path(location.getAbsolutePath());
 				// ir.install(path, new SubProgressMonitor(monitor, 70));
 			}
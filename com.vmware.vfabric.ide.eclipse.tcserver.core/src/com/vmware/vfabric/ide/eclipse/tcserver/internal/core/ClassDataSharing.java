@@ -0,0 +1,256 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.core;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+
+/**
+ * Manages an Application Class-Data Sharing archive that reduces the time the
+ * JVM spends loading classes on startup. Archives are specific to a
+ * fingerprint of the VM install and the jars of the runtime, a change of
+ * either selects a new archive and stale archives are deleted.
+ * <p>
+ * On Java 13 and later the archive is written by the JVM when the server
+ * exits. On Java 11 and 12 the first launch records the loaded classes and the
+ * archive is dumped from that list in a separate JVM after the server has
+ * stopped, see {@link #dump(File, String)}. Subsequent launches map the
+ * archive.
+ * </p>
+ */
+public class ClassDataSharing {
+
+	public enum Mode {
+		/** The VM does not support application class data sharing. */
+		UNSUPPORTED,
+		/** The archive is dumped from a class list that is recorded on launch. */
+		CLASS_LIST,
+		/** The archive is written by the VM on exit. */
+		DYNAMIC_ARCHIVE
+	}
+
+	/** The VM arguments that are managed for a launch. */
+	public static final List<String> ARGUMENTS = Collections.unmodifiableList(Arrays.asList(
+			"-XX:SharedArchiveFile", "-XX:ArchiveClassesAtExit", "-XX:DumpLoadedClassList"));
+
+	private static final String PREFIX = "tcserver-";
+
+	private static final String ARCHIVE_SUFFIX = ".jsa";
+
+	private static final String CLASS_LIST_SUFFIX = ".classlist";
+
+	private final File directory;
+
+	private final String fingerprint;
+
+	private final Mode mode;
+
+	public ClassDataSharing(File directory, String fingerprint, Mode mode) {
+		this.directory = directory;
+		this.fingerprint = fingerprint;
+		this.mode = mode;
+	}
+
+	/**
+	 * Returns the mode supported by a VM with the <code>javaVersion</code>, e.g.
+	 * <code>1.8.0_252</code> or <code>11.0.7</code>.
+	 */
+	public static Mode getMode(String javaVersion) {
+		int major = LaunchProfiles.getJavaMajorVersion(javaVersion);
+		if (major >= 13) {
+			return Mode.DYNAMIC_ARCHIVE;
+		}
+		if (major >= 11) {
+			return Mode.CLASS_LIST;
+		}
+		return Mode.UNSUPPORTED;
+	}
+
+	/**
+	 * Computes a fingerprint of the VM install and the size and modification
+	 * time of <code>files</code>. For directories, the contained jars are
+	 * included.
+	 */
+	public static String computeFingerprint(String vmLocation, String javaVersion, List<File> files) {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-1");
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+		update(digest, vmLocation);
+		update(digest, javaVersion);
+		for (File file : files) {
+			if (file.isDirectory()) {
+				File[] jars = file.listFiles();
+				if (jars != null) {
+					Arrays.sort(jars);
+					for (File jar : jars) {
+						if (jar.getName().endsWith(".jar")) {
+							update(digest, jar.getAbsolutePath() + ":" + jar.length() + ":" + jar.lastModified());
+						}
+					}
+				}
+			}
+			else {
+				update(digest, file.getAbsolutePath() + ":" + file.length() + ":" + file.lastModified());
+			}
+		}
+		StringBuilder sb = new StringBuilder();
+		for (byte b : digest.digest()) {
+			sb.append(String.format("%02x", b));
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Returns the java executable of the VM installed at
+	 * <code>installLocation</code> or null, if none was found.
+	 */
+	public static File findJavaExecutable(File installLocation) {
+		for (String path : new String[] { "bin/java", "bin/java.exe", "jre/bin/java", "jre/bin/java.exe" }) {
+			File file = new File(installLocation, path);
+			if (file.isFile()) {
+				return file;
+			}
+		}
+		return null;
+	}
+
+	public File getArchive() {
+		return new File(directory, PREFIX + fingerprint + ARCHIVE_SUFFIX);
+	}
+
+	public File getClassList() {
+		return new File(directory, PREFIX + fingerprint + CLASS_LIST_SUFFIX);
+	}
+
+	public Mode getMode() {
+		return mode;
+	}
+
+	public boolean isArchiveAvailable() {
+		return getArchive().isFile() && getArchive().length() > 0;
+	}
+
+	/**
+	 * Returns true, if a class list was recorded that still needs to be dumped
+	 * to an archive.
+	 */
+	public boolean isDumpRequired() {
+		return mode == Mode.CLASS_LIST && !isArchiveAvailable() && getClassList().length() > 0;
+	}
+
+	/**
+	 * Returns the VM arguments for the next launch. Creates the directory for
+	 * the archive and deletes archives of other fingerprints.
+	 */
+	public List<String> getLaunchArguments() {
+		if (mode == Mode.UNSUPPORTED) {
+			return Collections.emptyList();
+		}
+		directory.mkdirs();
+		deleteStaleFiles();
+		if (isArchiveAvailable()) {
+			return Collections.singletonList("-XX:SharedArchiveFile=\"" + getArchive().getAbsolutePath() + "\"");
+		}
+		if (mode == Mode.DYNAMIC_ARCHIVE) {
+			return Collections.singletonList("-XX:ArchiveClassesAtExit=\"" + getArchive().getAbsolutePath() + "\"");
+		}
+		getClassList().delete();
+		return Collections.singletonList("-XX:DumpLoadedClassList=\"" + getClassList().getAbsolutePath() + "\"");
+	}
+
+	/**
+	 * Dumps the archive from the recorded class list. The
+	 * <code>classpath</code> must match the class path of the server launch.
+	 */
+	public IStatus dump(File javaExecutable, String classpath) {
+		List<String> command = new ArrayList<String>();
+		command.add(javaExecutable.getAbsolutePath());
+		command.add("-Xshare:dump");
+		command.add("-XX:SharedClassListFile=" + getClassList().getAbsolutePath());
+		command.add("-XX:SharedArchiveFile=" + getArchive().getAbsolutePath());
+		command.add("-cp");
+		command.add(classpath);
+		try {
+			Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+			String output = read(process.getInputStream());
+			int exitCode = process.waitFor();
+			if (exitCode != 0 || !isArchiveAvailable()) {
+				getArchive().delete();
+				return new Status(IStatus.WARNING, ITcServerConstants.PLUGIN_ID, "Failed to dump class data archive "
+						+ getArchive() + " (exit code " + exitCode + "): " + output);
+			}
+			getClassList().delete();
+			return Status.OK_STATUS;
+		}
+		catch (IOException e) {
+			return new Status(IStatus.WARNING, ITcServerConstants.PLUGIN_ID, "Failed to dump class data archive "
+					+ getArchive(), e);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return Status.CANCEL_STATUS;
+		}
+	}
+
+	/**
+	 * Deletes archives and class lists that do not match the fingerprint.
+	 */
+	void deleteStaleFiles() {
+		File[] files = directory.listFiles();
+		if (files == null) {
+			return;
+		}
+		for (File file : files) {
+			String name = file.getName();
+			if (name.startsWith(PREFIX) && (name.endsWith(ARCHIVE_SUFFIX) || name.endsWith(CLASS_LIST_SUFFIX))
+					&& !name.startsWith(PREFIX + fingerprint + ".")) {
+				file.delete();
+			}
+		}
+	}
+
+	private static String read(InputStream in) throws IOException {
+		try {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[8192];
+			int len;
+			while ((len = in.read(buffer)) != -1) {
+				out.write(buffer, 0, len);
+			}
+			return new String(out.toByteArray(), StandardCharsets.UTF_8);
+		}
+		finally {
+			in.close();
+		}
+	}
+
+	private static void update(MessageDigest digest, String value) {
+		digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+		digest.update((byte) 0);
+	}
+
+}
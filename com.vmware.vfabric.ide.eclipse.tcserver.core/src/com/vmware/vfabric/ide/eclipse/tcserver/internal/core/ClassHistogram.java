@@ -0,0 +1,179 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A class histogram as printed by the <code>GC.class_histogram</code>
+ * diagnostic command. Histograms of consecutive captures are compared to find
+ * the classes that retain a growing amount of memory.
+ */
+public class ClassHistogram {
+
+	public static class Entry {
+
+		private final String className;
+
+		private final long instances;
+
+		private final long bytes;
+
+		public Entry(String className, long instances, long bytes) {
+			this.className = className;
+			this.instances = instances;
+			this.bytes = bytes;
+		}
+
+		public String getClassName() {
+			return className;
+		}
+
+		public long getInstances() {
+			return instances;
+		}
+
+		public long getBytes() {
+			return bytes;
+		}
+
+	}
+
+	/**
+	 * Matches rows such as <code>   1:   1200   96000  java.lang.String (java.base@11.0.7)</code>.
+	 */
+	private static final Pattern ROW = Pattern.compile("^\\s*\\d+:\\s+(\\d+)\\s+(\\d+)\\s+(\\S+).*$");
+
+	private final Map<String, Entry> entries;
+
+	public ClassHistogram(List<Entry> entries) {
+		this.entries = new LinkedHashMap<String, Entry>();
+		for (Entry entry : entries) {
+			this.entries.put(entry.getClassName(), entry);
+		}
+	}
+
+	/**
+	 * Parses the output of the <code>GC.class_histogram</code> diagnostic
+	 * command. Lines that are not histogram rows are ignored.
+	 */
+	public static ClassHistogram parse(String text) {
+		List<Entry> entries = new ArrayList<Entry>();
+		for (String line : text.split("\r?\n")) {
+			Matcher matcher = ROW.matcher(line);
+			if (matcher.matches()) {
+				entries.add(new Entry(matcher.group(3), Long.parseLong(matcher.group(1)), Long.parseLong(matcher
+						.group(2))));
+			}
+		}
+		return new ClassHistogram(entries);
+	}
+
+	/**
+	 * Returns the entries ordered by size, largest first.
+	 */
+	public List<Entry> getEntries() {
+		return new ArrayList<Entry>(entries.values());
+	}
+
+	public Entry getEntry(String className) {
+		return entries.get(className);
+	}
+
+	public long getTotalBytes() {
+		long total = 0;
+		for (Entry entry : entries.values()) {
+			total += entry.getBytes();
+		}
+		return total;
+	}
+
+	/**
+	 * Returns the change of each class between <code>previous</code> and
+	 * <code>current</code> ordered by the growth in bytes, largest first.
+	 * Classes that no longer appear in <code>current</code> are reported with a
+	 * negative change.
+	 */
+	public static List<Entry> compare(ClassHistogram previous, ClassHistogram current) {
+		Map<String, Entry> deltas = new HashMap<String, Entry>();
+		for (Entry entry : current.entries.values()) {
+			Entry old = previous.getEntry(entry.getClassName());
+			long instances = entry.getInstances() - ((old != null) ? old.getInstances() : 0);
+			long bytes = entry.getBytes() - ((old != null) ? old.getBytes() : 0);
+			deltas.put(entry.getClassName(), new Entry(entry.getClassName(), instances, bytes));
+		}
+		for (Entry old : previous.entries.values()) {
+			if (!deltas.containsKey(old.getClassName())) {
+				deltas.put(old.getClassName(), new Entry(old.getClassName(), -old.getInstances(), -old.getBytes()));
+			}
+		}
+		List<Entry> result = new ArrayList<Entry>(deltas.values());
+		Collections.sort(result, new Comparator<Entry>() {
+			public int compare(Entry o1, Entry o2) {
+				int c = Long.compare(o2.getBytes(), o1.getBytes());
+				return (c != 0) ? c : o1.getClassName().compareTo(o2.getClassName());
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * Formats the size of the <code>limit</code> classes that grew most
+	 * between the first and the last of <code>histograms</code> for each
+	 * histogram, e.g. to show the top allocating classes over a series of
+	 * captures.
+	 * @param labels the labels of the histograms, e.g. the capture times
+	 */
+	public static String formatTrend(List<String> labels, List<ClassHistogram> histograms, int limit) {
+		StringBuilder sb = new StringBuilder();
+		if (histograms.size() < 2) {
+			sb.append("At least two class histograms are required to compare captures.\n");
+			return sb.toString();
+		}
+
+		List<Entry> deltas = compare(histograms.get(0), histograms.get(histograms.size() - 1));
+		sb.append(String.format(Locale.ENGLISH, "Top %d classes by growth in bytes from %s to %s\n\n", limit,
+				labels.get(0), labels.get(labels.size() - 1)));
+		sb.append(String.format(Locale.ENGLISH, "%14s %12s", "delta bytes", "delta inst"));
+		for (String label : labels) {
+			sb.append(String.format(Locale.ENGLISH, " %16s", label));
+		}
+		sb.append("  class name\n");
+		for (int i = 0; i < deltas.size() && i < limit; i++) {
+			Entry delta = deltas.get(i);
+			if (delta.getBytes() <= 0) {
+				break;
+			}
+			sb.append(String.format(Locale.ENGLISH, "%+14d %+12d", delta.getBytes(), delta.getInstances()));
+			for (ClassHistogram histogram : histograms) {
+				Entry entry = histogram.getEntry(delta.getClassName());
+				sb.append(String.format(Locale.ENGLISH, " %16d", (entry != null) ? entry.getBytes() : 0));
+			}
+			sb.append("  ").append(delta.getClassName()).append("\n");
+		}
+		sb.append(String.format(Locale.ENGLISH, "\n%27s", "total bytes"));
+		for (ClassHistogram histogram : histograms) {
+			sb.append(String.format(Locale.ENGLISH, " %16d", histogram.getTotalBytes()));
+		}
+		sb.append("\n");
+		return sb.toString();
+	}
+
+}
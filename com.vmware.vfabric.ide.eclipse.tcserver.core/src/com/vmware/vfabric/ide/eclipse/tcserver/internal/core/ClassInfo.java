@@ -0,0 +1,253 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.core;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The type hierarchy and runtime visible annotations of a class file as far
+ * as they are needed to decide whether Tomcat would process the class when
+ * scanning for annotations and types of <code>@HandlesTypes</code>. Names are
+ * internal names, e.g. <code>java/lang/Object</code>.
+ */
+public class ClassInfo {
+
+	private static final String RUNTIME_VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations";
+
+	private final String name;
+
+	private final List<String> superTypes;
+
+	private final Set<String> annotations;
+
+	private final Map<String, List<String>> classValues;
+
+	private ClassInfo(String name, List<String> superTypes, Set<String> annotations,
+			Map<String, List<String>> classValues) {
+		this.name = name;
+		this.superTypes = superTypes;
+		this.annotations = annotations;
+		this.classValues = classValues;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Returns the super class and the implemented interfaces.
+	 */
+	public List<String> getSuperTypes() {
+		return superTypes;
+	}
+
+	/**
+	 * Returns the types of the annotations of the class, its fields and its
+	 * methods.
+	 */
+	public Set<String> getAnnotations() {
+		return annotations;
+	}
+
+	/**
+	 * Returns the classes that are values of the class annotation of type
+	 * <code>annotation</code>, e.g. the types of <code>@HandlesTypes</code>.
+	 */
+	public List<String> getClassValues(String annotation) {
+		List<String> values = classValues.get(annotation);
+		return (values != null) ? values : Collections.<String> emptyList();
+	}
+
+	/**
+	 * Reads the class file from <code>in</code>.
+	 * @throws IOException if <code>in</code> is not a valid class file
+	 */
+	public static ClassInfo read(InputStream in) throws IOException {
+		DataInputStream data = new DataInputStream(in);
+		if (data.readInt() != 0xCAFEBABE) {
+			throw new IOException("Invalid class file");
+		}
+		data.readUnsignedShort(); // minor version
+		data.readUnsignedShort(); // major version
+
+		int count = data.readUnsignedShort();
+		String[] utf8 = new String[count];
+		int[] classes = new int[count];
+		for (int i = 1; i < count; i++) {
+			int tag = data.readUnsignedByte();
+			switch (tag) {
+			case 1: // Utf8
+				utf8[i] = data.readUTF();
+				break;
+			case 7: // Class
+				classes[i] = data.readUnsignedShort();
+				break;
+			case 8: // String
+			case 16: // MethodType
+			case 19: // Module
+			case 20: // Package
+				skipFully(data, 2);
+				break;
+			case 15: // MethodHandle
+				skipFully(data, 3);
+				break;
+			case 3: // Integer
+			case 4: // Float
+			case 9: // Fieldref
+			case 10: // Methodref
+			case 11: // InterfaceMethodref
+			case 12: // NameAndType
+			case 17: // Dynamic
+			case 18: // InvokeDynamic
+				skipFully(data, 4);
+				break;
+			case 5: // Long
+			case 6: // Double
+				skipFully(data, 8);
+				i++;
+				break;
+			default:
+				throw new IOException("Invalid constant pool tag " + tag);
+			}
+		}
+
+		data.readUnsignedShort(); // access flags
+		String name = getClassName(utf8, classes, data.readUnsignedShort());
+		List<String> superTypes = new ArrayList<String>();
+		int superClass = data.readUnsignedShort();
+		if (superClass != 0) {
+			superTypes.add(getClassName(utf8, classes, superClass));
+		}
+		int interfaces = data.readUnsignedShort();
+		for (int i = 0; i < interfaces; i++) {
+			superTypes.add(getClassName(utf8, classes, data.readUnsignedShort()));
+		}
+
+		Set<String> annotations = new LinkedHashSet<String>();
+		// fields and methods
+		for (int j = 0; j < 2; j++) {
+			int members = data.readUnsignedShort();
+			for (int i = 0; i < members; i++) {
+				skipFully(data, 6); // access flags, name and descriptor
+				readAttributes(data, utf8, annotations, null);
+			}
+		}
+		Map<String, List<String>> classValues = new HashMap<String, List<String>>();
+		readAttributes(data, utf8, annotations, classValues);
+		return new ClassInfo(name, superTypes, annotations, classValues);
+	}
+
+	private static void readAttributes(DataInputStream data, String[] utf8, Set<String> annotations,
+			Map<String, List<String>> classValues) throws IOException {
+		int attributes = data.readUnsignedShort();
+		for (int i = 0; i < attributes; i++) {
+			String attributeName = getUtf8(utf8, data.readUnsignedShort());
+			int length = data.readInt();
+			if (RUNTIME_VISIBLE_ANNOTATIONS.equals(attributeName)) {
+				int count = data.readUnsignedShort();
+				for (int j = 0; j < count; j++) {
+					String type = getTypeName(getUtf8(utf8, data.readUnsignedShort()));
+					annotations.add(type);
+					List<String> values = new ArrayList<String>();
+					readElementValuePairs(data, utf8, values);
+					if (classValues != null) {
+						classValues.put(type, values);
+					}
+				}
+			}
+			else {
+				skipFully(data, length);
+			}
+		}
+	}
+
+	private static void readElementValuePairs(DataInputStream data, String[] utf8, List<String> classValues)
+			throws IOException {
+		int pairs = data.readUnsignedShort();
+		for (int i = 0; i < pairs; i++) {
+			skipFully(data, 2); // element name
+			readElementValue(data, utf8, classValues);
+		}
+	}
+
+	private static void readElementValue(DataInputStream data, String[] utf8, List<String> classValues)
+			throws IOException {
+		int tag = data.readUnsignedByte();
+		switch (tag) {
+		case 'c':
+			classValues.add(getTypeName(getUtf8(utf8, data.readUnsignedShort())));
+			break;
+		case 'e':
+			skipFully(data, 4);
+			break;
+		case '@':
+			skipFully(data, 2); // type
+			// classes of nested annotations are not values of the annotation
+			readElementValuePairs(data, utf8, new ArrayList<String>());
+			break;
+		case '[':
+			int count = data.readUnsignedShort();
+			for (int i = 0; i < count; i++) {
+				readElementValue(data, utf8, classValues);
+			}
+			break;
+		default:
+			skipFully(data, 2);
+			break;
+		}
+	}
+
+	private static void skipFully(DataInputStream data, int length) throws IOException {
+		while (length > 0) {
+			int skipped = data.skipBytes(length);
+			if (skipped <= 0) {
+				throw new IOException("Unexpected end of class file");
+			}
+			length -= skipped;
+		}
+	}
+
+	private static String getUtf8(String[] utf8, int index) throws IOException {
+		if (index <= 0 || index >= utf8.length || utf8[index] == null) {
+			throw new IOException("Invalid constant pool index " + index);
+		}
+		return utf8[index];
+	}
+
+	private static String getClassName(String[] utf8, int[] classes, int index) throws IOException {
+		if (index <= 0 || index >= classes.length) {
+			throw new IOException("Invalid constant pool index " + index);
+		}
+		return getUtf8(utf8, classes[index]);
+	}
+
+	/**
+	 * Returns the internal name for a field descriptor, e.g.
+	 * <code>java/lang/Deprecated</code> for
+	 * <code>Ljava/lang/Deprecated;</code>.
+	 */
+	private static String getTypeName(String descriptor) {
+		if (descriptor.startsWith("L") && descriptor.endsWith(";")) {
+			return descriptor.substring(1, descriptor.length() - 1);
+		}
+		return descriptor;
+	}
+
+}
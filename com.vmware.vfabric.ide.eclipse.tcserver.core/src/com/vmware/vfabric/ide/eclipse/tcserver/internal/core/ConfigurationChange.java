@@ -0,0 +1,125 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.core;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Describes what a change to a file in the configuration folder of a server
+ * requires. Values are ordered by severity.
+ */
+public enum ConfigurationChange {
+
+	/** The change has no effect, e.g. only comments were modified. */
+	NONE,
+
+	/**
+	 * The file needs to be published but the server does not need to be
+	 * restarted. Tomcat reloads applications that were deployed by
+	 * <code>HostConfig</code> from separate context files when the global
+	 * <code>context.xml</code> or <code>web.xml</code> changes. Contexts that
+	 * are published into <code>server.xml</code> are not watched. Since Tomcat
+	 * 8.5 the user database is reloaded when <code>tomcat-users.xml</code>
+	 * changes. JMX access and password files are only read when JMX is
+	 * initialized and require a restart.
+	 */
+	RELOAD,
+
+	/** The server needs to be published and restarted. */
+	RESTART;
+
+	/** The files that <code>HostConfig</code> watches for deployed contexts. */
+	private static final Set<String> RELOAD_FILES = new HashSet<String>(Arrays.asList("context.xml", "web.xml"));
+
+	private static final String TOMCAT_USERS = "tomcat-users.xml";
+
+	private static final Pattern XML_COMMENT_PATTERN = Pattern.compile("<!--.*?-->", Pattern.DOTALL);
+
+	/**
+	 * Returns the change required when the file <code>name</code> is
+	 * modified, added or removed.
+	 * @param tomcatVersion the Tomcat version of the runtime or null, if the
+	 * version is not known
+	 * @param separateContextFiles true, if contexts are published as separate
+	 * context files instead of into <code>server.xml</code>, see
+	 * {@link TcServer#isSaveSeparateContextFiles()}
+	 */
+	public static ConfigurationChange forFile(String name, String tomcatVersion, boolean separateContextFiles) {
+		if (TOMCAT_USERS.equals(name)) {
+			return (isUserDatabaseReloadSupported(tomcatVersion)) ? RELOAD : RESTART;
+		}
+		return (separateContextFiles && RELOAD_FILES.contains(name)) ? RELOAD : RESTART;
+	}
+
+	/**
+	 * Returns true, if the <code>UserDatabaseRealm</code> of
+	 * <code>tomcatVersion</code> reloads <code>tomcat-users.xml</code> when it
+	 * changes by default which is the case since Tomcat 8.5.
+	 */
+	private static boolean isUserDatabaseReloadSupported(String tomcatVersion) {
+		int[] version = ParallelStartup.parseVersion(tomcatVersion);
+		return version != null && (version[0] > 8 || (version[0] == 8 && version[1] >= 5));
+	}
+
+	/**
+	 * Returns the more severe of this and <code>other</code>.
+	 */
+	public ConfigurationChange max(ConfigurationChange other) {
+		return (other.compareTo(this) > 0) ? other : this;
+	}
+
+	/**
+	 * Returns a digest of the parts of <code>content</code> that are
+	 * significant for the server. Comments, blank lines and leading or
+	 * trailing white space are ignored for XML and properties files.
+	 */
+	public static String computeSignature(String name, byte[] content) {
+		byte[] significant = content;
+		if (name.endsWith(".xml")) {
+			String text = new String(content, StandardCharsets.UTF_8);
+			significant = normalizeLines(XML_COMMENT_PATTERN.matcher(text).replaceAll(""), null);
+		}
+		else if (name.endsWith(".properties")) {
+			significant = normalizeLines(new String(content, StandardCharsets.ISO_8859_1), "#!");
+		}
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-1");
+			byte[] hash = digest.digest(significant);
+			StringBuilder sb = new StringBuilder(hash.length * 2);
+			for (byte b : hash) {
+				sb.append(String.format("%02x", b));
+			}
+			return sb.toString();
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static byte[] normalizeLines(String text, String commentPrefixes) {
+		StringBuilder sb = new StringBuilder(text.length());
+		for (String line : text.split("\r\n|\r|\n")) {
+			line = line.trim();
+			if (line.isEmpty() || (commentPrefixes != null && commentPrefixes.indexOf(line.charAt(0)) != -1)) {
+				continue;
+			}
+			sb.append(line).append('\n');
+		}
+		return sb.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+}
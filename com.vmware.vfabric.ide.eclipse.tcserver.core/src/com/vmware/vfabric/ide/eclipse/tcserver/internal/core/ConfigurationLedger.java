@@ -0,0 +1,238 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.core;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+
+/**
+ * Records the state of a server instance after its configuration was
+ * published. The state consists of content hashes of the configuration files
+ * in the workspace and the size and modification time of all files in the
+ * <code>conf</code> directory of the instance as they were left by the
+ * publish. If the state is the same on the next publish, copying and
+ * localizing the configuration again would not change any file and is
+ * skipped.
+ * <p>
+ * Content hashes of workspace files are only recomputed when the
+ * modification stamp of a file changes. Ledgers are kept in memory, the first
+ * publish after a restart always publishes the configuration.
+ * </p>
+ */
+public class ConfigurationLedger {
+
+	private static class SourceEntry {
+
+		private final long modificationStamp;
+
+		private final long localTimeStamp;
+
+		private final String hash;
+
+		public SourceEntry(long modificationStamp, long localTimeStamp, String hash) {
+			this.modificationStamp = modificationStamp;
+			this.localTimeStamp = localTimeStamp;
+			this.hash = hash;
+		}
+
+	}
+
+	private static final ConcurrentMap<File, ConfigurationLedger> ledgers = new ConcurrentHashMap<File, ConfigurationLedger>();
+
+	/**
+	 * Returns the ledger for the instance at <code>baseDir</code>.
+	 */
+	public static ConfigurationLedger getLedger(IPath baseDir) {
+		File key = baseDir.toFile().getAbsoluteFile();
+		ConfigurationLedger ledger = ledgers.get(key);
+		if (ledger == null) {
+			ConfigurationLedger newLedger = new ConfigurationLedger(key);
+			ledger = ledgers.putIfAbsent(key, newLedger);
+			if (ledger == null) {
+				ledger = newLedger;
+			}
+		}
+		return ledger;
+	}
+
+	private final File confDir;
+
+	private final Map<String, SourceEntry> sources = new HashMap<String, SourceEntry>();
+
+	private String committedState;
+
+	ConfigurationLedger(File baseDir) {
+		this.confDir = new File(baseDir, "conf");
+	}
+
+	/**
+	 * Returns true, if the configuration in <code>folder</code> and the
+	 * <code>conf</code> directory are unchanged since the last invocation of
+	 * {@link #commit(IFolder, String)} with the same <code>settings</code>.
+	 */
+	public synchronized boolean isUnchanged(IFolder folder, String settings) {
+		if (committedState == null) {
+			return false;
+		}
+		try {
+			return committedState.equals(computeState(folder, settings));
+		}
+		catch (CoreException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Records the current state. Invoked after the configuration was published
+	 * successfully.
+	 */
+	public synchronized void commit(IFolder folder, String settings) {
+		try {
+			committedState = computeState(folder, settings);
+		}
+		catch (CoreException e) {
+			committedState = null;
+			TcServerCorePlugin.log(new Status(IStatus.WARNING, ITcServerConstants.PLUGIN_ID,
+					"Failed to record state of configuration " + folder.getFullPath(), e));
+		}
+	}
+
+	/**
+	 * Discards the recorded state. The next publish will publish the
+	 * configuration.
+	 */
+	public synchronized void invalidate() {
+		committedState = null;
+	}
+
+	private String computeState(IFolder folder, String settings) throws CoreException {
+		MessageDigest digest = createDigest();
+		update(digest, settings);
+
+		if (folder != null) {
+			IResource[] members = folder.members();
+			Arrays.sort(members, new Comparator<IResource>() {
+				public int compare(IResource o1, IResource o2) {
+					return o1.getName().compareTo(o2.getName());
+				}
+			});
+			for (IResource member : members) {
+				if (member instanceof IFile) {
+					update(digest, member.getName());
+					update(digest, getHash((IFile) member));
+				}
+			}
+		}
+
+		addFiles(digest, confDir, "");
+		return toHex(digest.digest());
+	}
+
+	private String getHash(IFile file) throws CoreException {
+		String name = file.getName();
+		SourceEntry entry = sources.get(name);
+		if (entry == null || entry.modificationStamp != file.getModificationStamp()
+				|| entry.localTimeStamp != file.getLocalTimeStamp()) {
+			MessageDigest digest = createDigest();
+			digest.update(readContents(file));
+			entry = new SourceEntry(file.getModificationStamp(), file.getLocalTimeStamp(), toHex(digest.digest()));
+			sources.put(name, entry);
+		}
+		return entry.hash;
+	}
+
+	private static void addFiles(MessageDigest digest, File directory, String prefix) {
+		File[] files = directory.listFiles();
+		if (files == null) {
+			return;
+		}
+		Arrays.sort(files);
+		for (File file : files) {
+			String name = prefix + file.getName();
+			if (file.isDirectory()) {
+				addFiles(digest, file, name + "/");
+			}
+			else {
+				update(digest, name + ":" + file.length() + ":" + file.lastModified());
+			}
+		}
+	}
+
+	/**
+	 * Returns the contents of <code>file</code>.
+	 */
+	static byte[] readContents(IFile file) throws CoreException {
+		InputStream in = file.getContents(true);
+		try {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[8192];
+			int len;
+			while ((len = in.read(buffer)) != -1) {
+				out.write(buffer, 0, len);
+			}
+			return out.toByteArray();
+		}
+		catch (IOException e) {
+			throw new CoreException(new Status(IStatus.ERROR, ITcServerConstants.PLUGIN_ID,
+					"Failed to read " + file.getFullPath(), e));
+		}
+		finally {
+			try {
+				in.close();
+			}
+			catch (IOException e) {
+				// ignore
+			}
+		}
+	}
+
+	private static void update(MessageDigest digest, String value) {
+		digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+		digest.update((byte) 0);
+	}
+
+	private static MessageDigest createDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-1");
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static String toHex(byte[] hash) {
+		StringBuilder sb = new StringBuilder(hash.length * 2);
+		for (byte b : hash) {
+			sb.append(String.format("%02x", b));
+		}
+		return sb.toString();
+	}
+
+}
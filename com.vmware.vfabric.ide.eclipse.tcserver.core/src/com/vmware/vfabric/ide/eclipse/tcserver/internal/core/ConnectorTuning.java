@@ -0,0 +1,142 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.core;
+
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+/**
+ * Attributes of <code>Connector</code> and <code>Executor</code> elements in
+ * server.xml that affect request throughput and helpers to manage the shared
+ * executors of a <code>Service</code>.
+ */
+public class ConnectorTuning {
+
+	public enum Protocol {
+
+		DEFAULT("HTTP/1.1", "Default"), //
+		NIO("org.apache.coyote.http11.Http11NioProtocol", "NIO"), //
+		NIO2("org.apache.coyote.http11.Http11Nio2Protocol", "NIO2"), //
+		APR("org.apache.coyote.http11.Http11AprProtocol", "APR");
+
+		private final String value;
+
+		private final String label;
+
+		private Protocol(String value, String label) {
+			this.value = value;
+			this.label = label;
+		}
+
+		public String getLabel() {
+			return label;
+		}
+
+		public String getValue() {
+			return value;
+		}
+
+		/**
+		 * Returns the protocol for the <code>protocol</code> attribute of a
+		 * connector or null, if the connector does not use HTTP.
+		 */
+		public static Protocol fromValue(String value) {
+			if (value == null || value.length() == 0) {
+				return DEFAULT;
+			}
+			for (Protocol protocol : values()) {
+				if (protocol.value.equals(value)) {
+					return protocol;
+				}
+			}
+			return null;
+		}
+
+	}
+
+	public static final String ATTRIBUTE_ACCEPT_COUNT = "acceptCount";
+
+	public static final String ATTRIBUTE_COMPRESSION = "compression";
+
+	public static final String ATTRIBUTE_EXECUTOR = "executor";
+
+	public static final String ATTRIBUTE_KEEP_ALIVE_TIMEOUT = "keepAliveTimeout";
+
+	public static final String ATTRIBUTE_MAX_KEEP_ALIVE_REQUESTS = "maxKeepAliveRequests";
+
+	public static final String ATTRIBUTE_MAX_QUEUE_SIZE = "maxQueueSize";
+
+	public static final String ATTRIBUTE_MAX_THREADS = "maxThreads";
+
+	public static final String ATTRIBUTE_MIN_SPARE_THREADS = "minSpareThreads";
+
+	public static final String ATTRIBUTE_NAME = "name";
+
+	public static final String ATTRIBUTE_NAME_PREFIX = "namePrefix";
+
+	public static final String ATTRIBUTE_PROTOCOL = "protocol";
+
+	/**
+	 * Values of the {@link #ATTRIBUTE_COMPRESSION} attribute.
+	 */
+	public static final String[] COMPRESSION_VALUES = { "off", "on", "force" };
+
+	/**
+	 * The name of the executor that is created for connectors that share a
+	 * thread pool, matches the name used in the default server.xml of Tomcat.
+	 */
+	public static final String DEFAULT_EXECUTOR = "tomcatThreadPool";
+
+	public static final String ELEMENT_CONNECTOR = "Connector";
+
+	public static final String ELEMENT_EXECUTOR = "Executor";
+
+	/**
+	 * Returns the <code>Executor</code> element named <code>name</code> of
+	 * <code>service</code> or null, if none exists.
+	 */
+	public static Element getExecutor(Element service, String name) {
+		for (Node node = service.getFirstChild(); node != null; node = node.getNextSibling()) {
+			if (node instanceof Element && ELEMENT_EXECUTOR.equals(node.getNodeName())
+					&& name.equals(((Element) node).getAttribute(ATTRIBUTE_NAME))) {
+				return (Element) node;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the <code>Executor</code> element named <code>name</code> and
+	 * creates it, if it does not exist. Executors are inserted before the
+	 * first connector since Catalina requires executors to be defined before
+	 * they are referenced.
+	 */
+	public static Element getOrCreateExecutor(Element service, String name) {
+		Element executor = getExecutor(service, name);
+		if (executor != null) {
+			return executor;
+		}
+
+		executor = service.getOwnerDocument().createElement(ELEMENT_EXECUTOR);
+		executor.setAttribute(ATTRIBUTE_NAME, name);
+		executor.setAttribute(ATTRIBUTE_NAME_PREFIX, "catalina-exec-");
+		Node connector = null;
+		for (Node node = service.getFirstChild(); node != null; node = node.getNextSibling()) {
+			if (node instanceof Element && ELEMENT_CONNECTOR.equals(node.getNodeName())) {
+				connector = node;
+				break;
+			}
+		}
+		service.insertBefore(executor, connector);
+		return executor;
+	}
+
+}
@@ -0,0 +1,116 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Computes a fingerprint of all files that determine the contexts which are
+ * written to <code>server.xml</code> and to separate context files when a
+ * publish finishes: <code>server.xml</code>, the context files in
+ * <code>conf/Catalina/localhost</code> and the <code>META-INF/context.xml</code>
+ * files of all context document bases.
+ * <p>
+ * The fingerprint is computed after the contexts were updated. If the same
+ * fingerprint is computed before the next update, applying the contexts again
+ * would not change any file. Files are hashed or compared by size and
+ * modification time, they are not parsed as XML.
+ * </p>
+ */
+public class ContextConfigurationFingerprint {
+
+	private static final Pattern DOC_BASE_PATTERN = Pattern.compile("docBase\\s*=\\s*\"([^\"]*)\"");
+
+	/**
+	 * Returns the fingerprint of the context configuration of the instance at
+	 * <code>baseDir</code> or null, if the configuration could not be read.
+	 *
+	 * @param deployDir the directory that relative document bases are
+	 * resolved against
+	 * @param settings a description of the server settings that affect how
+	 * contexts are written
+	 */
+	public static String compute(File baseDir, File deployDir, String settings) {
+		File confDir = new File(baseDir, "conf");
+		File serverXml = new File(confDir, "server.xml");
+		if (!serverXml.isFile()) {
+			return null;
+		}
+
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-1");
+			update(digest, settings);
+
+			Set<String> docBases = new TreeSet<String>();
+			byte[] content = Files.readAllBytes(serverXml.toPath());
+			digest.update(content);
+			addDocBases(docBases, content);
+
+			File[] contextFiles = new File(confDir, "Catalina" + File.separator + "localhost").listFiles();
+			if (contextFiles != null) {
+				Arrays.sort(contextFiles);
+				for (File contextFile : contextFiles) {
+					if (contextFile.isFile() && contextFile.getName().endsWith(".xml")) {
+						content = Files.readAllBytes(contextFile.toPath());
+						update(digest, contextFile.getName());
+						digest.update(content);
+						addDocBases(docBases, content);
+					}
+				}
+			}
+
+			for (String docBase : docBases) {
+				File directory = new File(docBase);
+				if (!directory.isAbsolute()) {
+					directory = new File(deployDir, docBase);
+				}
+				File contextXml = new File(new File(directory, "META-INF"), "context.xml");
+				update(digest, docBase);
+				update(digest, contextXml.lastModified() + ":" + contextXml.length());
+			}
+
+			StringBuilder sb = new StringBuilder();
+			for (byte b : digest.digest()) {
+				sb.append(String.format("%02x", b));
+			}
+			return sb.toString();
+		}
+		catch (IOException e) {
+			return null;
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static void addDocBases(Set<String> docBases, byte[] content) {
+		Matcher matcher = DOC_BASE_PATTERN.matcher(new String(content, StandardCharsets.UTF_8));
+		while (matcher.find()) {
+			docBases.add(matcher.group(1));
+		}
+	}
+
+	private static void update(MessageDigest digest, String value) {
+		digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+		digest.update((byte) 0);
+	}
+
+}
@@ -0,0 +1,78 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.core;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * A snapshot of a histogram collected by {@link PublishMetrics}. Values of
+ * timers are in nanoseconds.
+ */
+public class HistogramSummary {
+
+	private final String name;
+
+	private final long count;
+
+	private final long sum;
+
+	private final long min;
+
+	private final long max;
+
+	private final long p50;
+
+	private final long p99;
+
+	@ConstructorProperties({ "name", "count", "sum", "min", "max", "p50", "p99" })
+	public HistogramSummary(String name, long count, long sum, long min, long max, long p50, long p99) {
+		this.name = name;
+		this.count = count;
+		this.sum = sum;
+		this.min = min;
+		this.max = max;
+		this.p50 = p50;
+		this.p99 = p99;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public long getSum() {
+		return sum;
+	}
+
+	public double getMean() {
+		return (count > 0) ? (double) sum / count : 0;
+	}
+
+	public long getMin() {
+		return min;
+	}
+
+	public long getMax() {
+		return max;
+	}
+
+	public long getP50() {
+		return p50;
+	}
+
+	public long getP99() {
+		return p99;
+	}
+
+}
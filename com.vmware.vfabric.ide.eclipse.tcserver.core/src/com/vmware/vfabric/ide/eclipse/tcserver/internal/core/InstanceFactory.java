@@ -0,0 +1,369 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.SubMonitor;
+
+/**
+ * Creates tc Server instances from cached golden instances. The first creation
+ * for a combination of runtime, templates and template properties runs the
+ * instance creation script into the cache under a unique placeholder name.
+ * Later creations with the same inputs clone the golden instance and only
+ * rewrite the values that are specific to an instance: its name and its
+ * location.
+ * <p>
+ * A golden instance is rebuilt when the content of the instance creation
+ * script or of the templates directory of the runtime changes.
+ * </p>
+ */
+public class InstanceFactory {
+
+	/**
+	 * Arguments of the instance creation script that take a value.
+	 */
+	private static final String ARG_INSTANCE_DIRECTORY = "-i";
+
+	private static final String ARG_FORCE = "--force";
+
+	private static final String COMMAND_CREATE = "create";
+
+	private static final String COMPLETE_MARKER = ".complete";
+
+	private static final String GOLDEN_NAME_PREFIX = "tcgolden";
+
+	private static final String TEMPLATES_FOLDER = "templates";
+
+	/** Files that are larger are not checked for instance-specific values. */
+	private static final long MAX_REWRITE_SIZE = 1024 * 1024;
+
+	private final File cacheDirectory;
+
+	public InstanceFactory(File cacheDirectory) {
+		this.cacheDirectory = cacheDirectory;
+	}
+
+	/**
+	 * Returns true, if <code>arguments</code> describe an instance creation
+	 * that can be served from the cache.
+	 */
+	public static boolean isCacheable(String[] arguments) {
+		return arguments.length >= 2 && COMMAND_CREATE.equals(arguments[0]);
+	}
+
+	/**
+	 * Creates the instance described by <code>arguments</code>. Runs the
+	 * instance creation script only if no golden instance for the same inputs
+	 * exists yet.
+	 *
+	 * @return the directory of the new instance
+	 */
+	public File createInstance(ITcRuntime tcRuntime, String instanceName, String[] arguments, IProgressMonitor monitor)
+			throws CoreException {
+		SubMonitor progress = SubMonitor.convert(monitor, "Creating instance " + instanceName, 100);
+		File target = getInstanceDirectory(tcRuntime, instanceName, arguments);
+
+		String key;
+		try {
+			key = computeKey(tcRuntime, arguments);
+		}
+		catch (IOException e) {
+			throw new CoreException(new Status(IStatus.ERROR, ITcServerConstants.PLUGIN_ID,
+					"Failed to read the templates of " + tcRuntime.runtimeLocation(), e));
+		}
+		File goldenParent = new File(cacheDirectory, key);
+		String goldenName = GOLDEN_NAME_PREFIX + key.substring(0, 12);
+		File golden = new File(goldenParent, goldenName);
+		synchronized (this) {
+			if (!new File(goldenParent, COMPLETE_MARKER).exists()) {
+				render(tcRuntime, goldenParent, goldenName, arguments);
+			}
+		}
+		progress.worked(50);
+
+		InstanceProvisioner provisioner = new InstanceProvisioner(InstanceProvisioner.Mode.LINK);
+		provisioner.setOverwrite(true);
+		provisioner.provision(golden, target, progress.newChild(30));
+		try {
+			rewrite(target.toPath(), golden, goldenName, target, instanceName);
+		}
+		catch (IOException e) {
+			throw new CoreException(new Status(IStatus.ERROR, ITcServerConstants.PLUGIN_ID,
+					"Failed to create instance " + instanceName + " from " + golden, e));
+		}
+		progress.worked(20);
+		return target;
+	}
+
+	/**
+	 * Deletes all golden instances.
+	 */
+	public synchronized void clear() {
+		File[] entries = cacheDirectory.listFiles();
+		if (entries != null) {
+			for (File entry : entries) {
+				delete(entry.toPath());
+			}
+		}
+	}
+
+	private void render(ITcRuntime tcRuntime, File goldenParent, String goldenName, String[] arguments)
+			throws CoreException {
+		delete(goldenParent.toPath());
+		goldenParent.mkdirs();
+
+		List<String> goldenArguments = new ArrayList<String>(arguments.length + 2);
+		goldenArguments.add(COMMAND_CREATE);
+		goldenArguments.add(goldenName);
+		for (int i = 2; i < arguments.length; i++) {
+			if (ARG_INSTANCE_DIRECTORY.equals(arguments[i]) && i + 1 < arguments.length) {
+				i++;
+			}
+			else {
+				goldenArguments.add(arguments[i]);
+			}
+		}
+		goldenArguments.add(ARG_INSTANCE_DIRECTORY);
+		goldenArguments.add(goldenParent.getAbsolutePath());
+
+		TcServerUtil.executeInstanceCreationScript(tcRuntime, goldenName,
+				goldenArguments.toArray(new String[goldenArguments.size()]));
+		try {
+			Files.createFile(new File(goldenParent, COMPLETE_MARKER).toPath());
+		}
+		catch (IOException e) {
+			throw new CoreException(new Status(IStatus.ERROR, ITcServerConstants.PLUGIN_ID,
+					"Failed to cache instance " + goldenName, e));
+		}
+	}
+
+	/**
+	 * Replaces the name and the location of the golden instance in all text
+	 * files and file names of the cloned instance.
+	 */
+	static void rewrite(Path root, File golden, String goldenName, File target, String instanceName)
+			throws IOException {
+		final Map<String, String> replacements = new LinkedHashMap<String, String>();
+		addPathReplacement(replacements, golden.getAbsolutePath(), target.getAbsolutePath());
+		addPathReplacement(replacements, golden.getParentFile().getAbsolutePath(),
+				target.getParentFile().getAbsolutePath());
+		replacements.put(goldenName, instanceName);
+
+		final List<Path> renames = new ArrayList<Path>();
+		Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+				if (attrs.isRegularFile() && attrs.size() <= MAX_REWRITE_SIZE && !InstanceProvisioner.isImmutable(file)) {
+					byte[] content = Files.readAllBytes(file);
+					if (!isBinary(content)) {
+						String text = new String(content, StandardCharsets.ISO_8859_1);
+						String newText = replace(text, replacements);
+						if (!newText.equals(text)) {
+							Files.write(file, newText.getBytes(StandardCharsets.ISO_8859_1));
+						}
+					}
+				}
+				if (file.getFileName().toString().contains(goldenName)) {
+					renames.add(file);
+				}
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+				if (exc != null) {
+					throw exc;
+				}
+				if (dir.getFileName().toString().contains(goldenName)) {
+					renames.add(dir);
+				}
+				return FileVisitResult.CONTINUE;
+			}
+		});
+		// children are visited before their parents
+		for (Path path : renames) {
+			String name = path.getFileName().toString().replace(goldenName, instanceName);
+			Files.move(path, path.resolveSibling(name));
+		}
+	}
+
+	private static void addPathReplacement(Map<String, String> replacements, String from, String to) {
+		replacements.put(from, to);
+		if (File.separatorChar != '/') {
+			replacements.put(from.replace(File.separatorChar, '/'), to.replace(File.separatorChar, '/'));
+		}
+	}
+
+	private static String replace(String text, Map<String, String> replacements) {
+		for (Map.Entry<String, String> entry : replacements.entrySet()) {
+			if (text.contains(entry.getKey())) {
+				text = text.replace(entry.getKey(), entry.getValue());
+			}
+		}
+		return text;
+	}
+
+	private static boolean isBinary(byte[] content) {
+		int length = Math.min(content.length, 8000);
+		for (int i = 0; i < length; i++) {
+			if (content[i] == 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Computes a digest over all inputs that affect the rendered instance. The
+	 * name, location and --force flag are excluded since they are applied when
+	 * cloning. The instance creation script and the templates are keyed by
+	 * their content since modification times are not preserved when a runtime
+	 * is copied or extracted again.
+	 */
+	static String computeKey(ITcRuntime tcRuntime, String[] arguments) throws IOException {
+		StringBuilder sb = new StringBuilder();
+		IPath runtimeLocation = tcRuntime.runtimeLocation();
+		sb.append(runtimeLocation.toOSString()).append('\n');
+		sb.append(computeHash(tcRuntime.instanceCreationScript().toFile())).append('\n');
+		sb.append(computeHash(runtimeLocation.append(TEMPLATES_FOLDER).toFile())).append('\n');
+		for (int i = 2; i < arguments.length; i++) {
+			if (ARG_INSTANCE_DIRECTORY.equals(arguments[i])) {
+				i++;
+			}
+			else if (!ARG_FORCE.equals(arguments[i])) {
+				sb.append(arguments[i]).append('\n');
+			}
+		}
+		MessageDigest digest = createDigest();
+		return toHex(digest.digest(sb.toString().getBytes(StandardCharsets.UTF_8)));
+	}
+
+	/**
+	 * Returns a digest over the relative paths and the contents of all files
+	 * in <code>file</code>, or of <code>file</code> itself if it is not a
+	 * directory. Modification times are ignored.
+	 */
+	static String computeHash(File file) throws IOException {
+		MessageDigest digest = createDigest();
+		final Path root = file.toPath();
+		if (Files.isRegularFile(root)) {
+			update(digest, root);
+		}
+		else if (Files.isDirectory(root)) {
+			// sort by relative path to be independent of the file system order
+			final SortedMap<String, Path> files = new TreeMap<String, Path>();
+			Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+				@Override
+				public FileVisitResult visitFile(Path path, BasicFileAttributes attrs) throws IOException {
+					if (attrs.isRegularFile()) {
+						files.put(root.relativize(path).toString().replace(File.separatorChar, '/'), path);
+					}
+					return FileVisitResult.CONTINUE;
+				}
+			});
+			for (Map.Entry<String, Path> entry : files.entrySet()) {
+				digest.update(entry.getKey().getBytes(StandardCharsets.UTF_8));
+				digest.update((byte) 0);
+				update(digest, entry.getValue());
+			}
+		}
+		return toHex(digest.digest());
+	}
+
+	private static void update(MessageDigest digest, Path file) throws IOException {
+		InputStream in = Files.newInputStream(file);
+		try {
+			byte[] buffer = new byte[8192];
+			int length;
+			while ((length = in.read(buffer)) != -1) {
+				digest.update(buffer, 0, length);
+			}
+		}
+		finally {
+			in.close();
+		}
+		digest.update((byte) 0);
+	}
+
+	private static MessageDigest createDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-1");
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static String toHex(byte[] hash) {
+		StringBuilder hex = new StringBuilder(hash.length * 2);
+		for (byte b : hash) {
+			hex.append(String.format("%02x", b));
+		}
+		return hex.toString();
+	}
+
+	private static File getInstanceDirectory(ITcRuntime tcRuntime, String instanceName, String[] arguments) {
+		for (int i = 0; i < arguments.length - 1; i++) {
+			if (ARG_INSTANCE_DIRECTORY.equals(arguments[i])) {
+				return new File(arguments[i + 1], instanceName);
+			}
+		}
+		return tcRuntime.instanceDirectory(instanceName).toFile();
+	}
+
+	private static void delete(Path path) {
+		if (!Files.exists(path)) {
+			return;
+		}
+		try {
+			Files.walkFileTree(path, new SimpleFileVisitor<Path>() {
+				@Override
+				public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+					Files.delete(file);
+					return FileVisitResult.CONTINUE;
+				}
+
+				@Override
+				public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+					Files.delete(dir);
+					return FileVisitResult.CONTINUE;
+				}
+			});
+		}
+		catch (IOException e) {
+			TcServerCorePlugin.log(new Status(IStatus.WARNING, ITcServerConstants.PLUGIN_ID,
+					"Failed to delete cached instance " + path, e));
+		}
+	}
+
+}
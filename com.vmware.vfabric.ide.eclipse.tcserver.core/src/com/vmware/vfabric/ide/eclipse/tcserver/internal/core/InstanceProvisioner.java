@@ -0,0 +1,217 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.SubMonitor;
+
+/**
+ * Materializes server instance directories from a template tree, e.g. the
+ * instance base directory for test environments or a previously created
+ * instance. In {@link Mode#LINK} files that are never modified in place, such
+ * as jars, are hard linked to the template which makes provisioning
+ * independent of their size. Everything else, in particular the configuration
+ * files, is copied so the new instance can be modified without affecting the
+ * template.
+ */
+public class InstanceProvisioner {
+
+	public enum Mode {
+		/** Copies all files. */
+		COPY,
+		/**
+		 * Hard links immutable files and copies all other files. Falls back to
+		 * copying if the file system does not support links or the template
+		 * resides on a different file system.
+		 */
+		LINK;
+
+		public static Mode fromString(String value) {
+			if (value != null) {
+				for (Mode mode : values()) {
+					if (mode.name().equalsIgnoreCase(value)) {
+						return mode;
+					}
+				}
+			}
+			return COPY;
+		}
+	}
+
+	private static final int MAX_THREADS = Math.max(1, Math.min(8, Runtime.getRuntime().availableProcessors()));
+
+	/**
+	 * Returns true, if <code>file</code> is not expected to be modified in
+	 * place and may be shared between instances.
+	 */
+	public static boolean isImmutable(Path file) {
+		String name = file.getFileName().toString();
+		return name.endsWith(".jar") || name.endsWith(".war") || name.endsWith(".keystore");
+	}
+
+	private final Mode mode;
+
+	private boolean overwrite;
+
+	public InstanceProvisioner(Mode mode) {
+		this.mode = mode;
+	}
+
+	public Mode getMode() {
+		return mode;
+	}
+
+	/**
+	 * If true, existing files in the target are replaced. Otherwise existing
+	 * files are left untouched. The default is false.
+	 */
+	public void setOverwrite(boolean overwrite) {
+		this.overwrite = overwrite;
+	}
+
+	/**
+	 * Materializes the tree rooted at <code>template</code> into
+	 * <code>target</code>. Directories are created first, files are then linked
+	 * or copied in parallel.
+	 */
+	public void provision(File template, File target, IProgressMonitor monitor) throws CoreException {
+		final Path sourceRoot = template.toPath();
+		final Path targetRoot = target.toPath();
+		final List<Path> files = new ArrayList<Path>();
+		try {
+			Files.walkFileTree(sourceRoot, new SimpleFileVisitor<Path>() {
+				@Override
+				public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+					Files.createDirectories(targetRoot.resolve(sourceRoot.relativize(dir)));
+					return FileVisitResult.CONTINUE;
+				}
+
+				@Override
+				public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+					if (attrs.isRegularFile()) {
+						files.add(sourceRoot.relativize(file));
+					}
+					return FileVisitResult.CONTINUE;
+				}
+			});
+		}
+		catch (IOException e) {
+			throw new CoreException(new Status(IStatus.ERROR, ITcServerConstants.PLUGIN_ID,
+					"Failed to read template " + template, e));
+		}
+		provisionFiles(sourceRoot, targetRoot, files, monitor);
+	}
+
+	/**
+	 * Materializes the given files, relative to <code>template</code>, into
+	 * <code>target</code>.
+	 */
+	public void provision(File template, File target, List<String> relativePaths, IProgressMonitor monitor)
+			throws CoreException {
+		Path sourceRoot = template.toPath();
+		List<Path> files = new ArrayList<Path>(relativePaths.size());
+		for (String relativePath : relativePaths) {
+			files.add(sourceRoot.getFileSystem().getPath(relativePath));
+		}
+		provisionFiles(sourceRoot, target.toPath(), files, monitor);
+	}
+
+	private void provisionFiles(final Path sourceRoot, final Path targetRoot, List<Path> files,
+			IProgressMonitor monitor) throws CoreException {
+		if (monitor == null) {
+			monitor = new NullProgressMonitor();
+		}
+		SubMonitor progress = SubMonitor.convert(monitor, files.size());
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(MAX_THREADS, Math.max(1, files.size())));
+		try {
+			List<Future<Void>> results = new ArrayList<Future<Void>>(files.size());
+			for (final Path file : files) {
+				results.add(executor.submit(new Callable<Void>() {
+					public Void call() throws IOException {
+						provisionFile(sourceRoot.resolve(file), targetRoot.resolve(file));
+						return null;
+					}
+				}));
+			}
+			for (Future<Void> result : results) {
+				if (progress.isCanceled()) {
+					throw new OperationCanceledException();
+				}
+				try {
+					result.get();
+				}
+				catch (ExecutionException e) {
+					throw new CoreException(new Status(IStatus.ERROR, ITcServerConstants.PLUGIN_ID,
+							"Failed to provision " + targetRoot, e.getCause()));
+				}
+				catch (InterruptedException e) {
+					throw new OperationCanceledException();
+				}
+				progress.worked(1);
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private void provisionFile(Path source, Path target) throws IOException {
+		if (Files.exists(target)) {
+			if (!overwrite) {
+				return;
+			}
+			Files.delete(target);
+		}
+		else {
+			Files.createDirectories(target.getParent());
+		}
+		if (mode == Mode.LINK && isImmutable(source)) {
+			try {
+				Files.createLink(target, source);
+				return;
+			}
+			catch (FileAlreadyExistsException e) {
+				// provisioned concurrently
+				return;
+			}
+			catch (UnsupportedOperationException e) {
+				// fall back to copy
+			}
+			catch (IOException e) {
+				// different file system or not permitted, fall back to copy
+			}
+		}
+		Files.copy(source, target, StandardCopyOption.COPY_ATTRIBUTES);
+	}
+
+}
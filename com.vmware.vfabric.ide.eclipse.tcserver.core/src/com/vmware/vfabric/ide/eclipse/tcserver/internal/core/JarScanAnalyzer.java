@@ -0,0 +1,436 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.core;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Determines the jars of deployed applications that Tomcat does not need to
+ * scan on startup. A jar needs to be scanned if it contains tag library
+ * descriptors, a web fragment, resources in <code>META-INF/resources</code> or
+ * registers a <code>ServletContainerInitializer</code>. Since
+ * <code>jarsToSkip</code> also excludes jars from annotation scanning, a jar
+ * needs to be scanned as well if it contains classes with servlet or WebSocket
+ * annotations or classes that match the <code>@HandlesTypes</code> of a
+ * container initializer in any of the analyzed jars, see {@link ClassInfo}.
+ * All other jars can be added to the <code>jarsToSkip</code> property in
+ * catalina.properties.
+ * <p>
+ * Results are cached by the size and modification time of a jar, hence
+ * repeated analysis only opens jars that were added or changed since.
+ * </p>
+ */
+public class JarScanAnalyzer {
+
+	/** The jars to skip for Tomcat 8 and later. */
+	public static final String PROPERTY_JARS_TO_SKIP = "tomcat.util.scan.StandardJarScanFilter.jarsToSkip";
+
+	/** The jars to skip for Tomcat 7. */
+	public static final String PROPERTY_JARS_TO_SKIP_TOMCAT_7 = "tomcat.util.scan.DefaultJarScanner.jarsToSkip";
+
+	/**
+	 * Lists the entries of <code>jarsToSkip</code> that were added by the
+	 * analyzer, these are removed again if a jar needs to be scanned later.
+	 */
+	public static final String PROPERTY_GENERATED = "com.springsource.tcserver.jarScan.generated";
+
+	/**
+	 * Annotations that Tomcat processes and the types handled by the WebSocket
+	 * container initializer of Tomcat.
+	 */
+	public static final List<String> CONTAINER_HANDLED_TYPES = Collections.unmodifiableList(Arrays.asList(
+			"javax/servlet/annotation/WebServlet", "javax/servlet/annotation/WebFilter",
+			"javax/servlet/annotation/WebListener", "jakarta/servlet/annotation/WebServlet",
+			"jakarta/servlet/annotation/WebFilter", "jakarta/servlet/annotation/WebListener",
+			"javax/websocket/server/ServerEndpoint", "javax/websocket/server/ServerApplicationConfig",
+			"javax/websocket/Endpoint", "jakarta/websocket/server/ServerEndpoint",
+			"jakarta/websocket/server/ServerApplicationConfig", "jakarta/websocket/Endpoint"));
+
+	private static final List<String> HANDLES_TYPES = Arrays.asList("javax/servlet/annotation/HandlesTypes",
+			"jakarta/servlet/annotation/HandlesTypes");
+
+	private static final List<String> INITIALIZER_SERVICES = Arrays.asList(
+			"META-INF/services/javax.servlet.ServletContainerInitializer",
+			"META-INF/services/jakarta.servlet.ServletContainerInitializer");
+
+	private static final JarScanAnalyzer instance = new JarScanAnalyzer();
+
+	private static class Result {
+
+		private final long lastModified;
+
+		private final long length;
+
+		/** True, if the jar contains resources that Tomcat processes. */
+		private final boolean scanRequired;
+
+		/** Maps the classes of the jar to their super types and annotations. */
+		private final Map<String, List<String>> types;
+
+		/** The <code>@HandlesTypes</code> of initializers in the jar. */
+		private final Set<String> handledTypes;
+
+		Result(long lastModified, long length, boolean scanRequired, Map<String, List<String>> types,
+				Set<String> handledTypes) {
+			this.lastModified = lastModified;
+			this.length = length;
+			this.scanRequired = scanRequired;
+			this.types = types;
+			this.handledTypes = handledTypes;
+		}
+
+	}
+
+	public static JarScanAnalyzer getDefault() {
+		return instance;
+	}
+
+	private final Map<File, Result> results = new HashMap<File, Result>();
+
+	private final Set<String> containerHandledTypes;
+
+	private int analyzedCount;
+
+	public JarScanAnalyzer() {
+		this(CONTAINER_HANDLED_TYPES);
+	}
+
+	/**
+	 * @param containerHandledTypes the annotations and types that are
+	 * processed regardless of the analyzed jars
+	 */
+	public JarScanAnalyzer(Collection<String> containerHandledTypes) {
+		this.containerHandledTypes = new HashSet<String>(containerHandledTypes);
+	}
+
+	/**
+	 * Returns true, if Tomcat needs to scan <code>jar</code> when it is
+	 * deployed by itself. Jars that can not be read are always scanned.
+	 */
+	public boolean isScanRequired(File jar) {
+		return getScanRequired(Collections.singleton(jar)).contains(jar);
+	}
+
+	private synchronized Result getResult(File jar) {
+		long lastModified = jar.lastModified();
+		long length = jar.length();
+		Result result = results.get(jar);
+		if (result != null && result.lastModified == lastModified && result.length == length) {
+			return result;
+		}
+
+		analyzedCount++;
+		result = analyze(jar, lastModified, length);
+		results.put(jar, result);
+		return result;
+	}
+
+	/**
+	 * Returns the number of times a jar was opened for analysis.
+	 */
+	public synchronized int getAnalyzedCount() {
+		return analyzedCount;
+	}
+
+	/**
+	 * Returns the sorted names of <code>jars</code> that do not need to be
+	 * scanned. Since Tomcat matches jars by name, a name is excluded if any of
+	 * the jars with that name needs to be scanned.
+	 */
+	public Set<String> getJarsToSkip(Collection<File> jars) {
+		Set<File> scanRequired = getScanRequired(jars);
+		Set<String> required = new HashSet<String>();
+		Set<String> jarsToSkip = new TreeSet<String>();
+		for (File jar : jars) {
+			if (scanRequired.contains(jar)) {
+				required.add(jar.getName());
+			}
+			else {
+				jarsToSkip.add(jar.getName());
+			}
+		}
+		jarsToSkip.removeAll(required);
+		return jarsToSkip;
+	}
+
+	/**
+	 * Returns the <code>jars</code> that need to be scanned. The type
+	 * hierarchy spans all <code>jars</code>, e.g. a class that extends a class
+	 * in another jar which implements a handled type needs to be scanned.
+	 */
+	private Set<File> getScanRequired(Collection<File> jars) {
+		Map<File, Result> jarResults = new LinkedHashMap<File, Result>();
+		Set<String> handledTypes = new HashSet<String>(containerHandledTypes);
+		Map<String, List<String>> types = new HashMap<String, List<String>>();
+		for (File jar : jars) {
+			Result result = getResult(jar);
+			jarResults.put(jar, result);
+			handledTypes.addAll(result.handledTypes);
+			types.putAll(result.types);
+		}
+
+		Set<File> scanRequired = new HashSet<File>();
+		Map<String, Boolean> handled = new HashMap<String, Boolean>();
+		for (Map.Entry<File, Result> entry : jarResults.entrySet()) {
+			if (entry.getValue().scanRequired) {
+				scanRequired.add(entry.getKey());
+				continue;
+			}
+			for (String type : entry.getValue().types.keySet()) {
+				if (isHandled(type, handledTypes, types, handled)) {
+					scanRequired.add(entry.getKey());
+					break;
+				}
+			}
+		}
+		return scanRequired;
+	}
+
+	private static boolean isHandled(String type, Set<String> handledTypes, Map<String, List<String>> types,
+			Map<String, Boolean> handled) {
+		if (handledTypes.contains(type)) {
+			return true;
+		}
+		Boolean result = handled.get(type);
+		if (result != null) {
+			return result;
+		}
+		// guards against cycles
+		handled.put(type, false);
+		List<String> superTypes = types.get(type);
+		if (superTypes != null) {
+			for (String superType : superTypes) {
+				if (isHandled(superType, handledTypes, types, handled)) {
+					handled.put(type, true);
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Merges <code>jarsToSkip</code> into the current <code>value</code> of
+	 * the property <code>key</code>. Entries that were generated previously
+	 * are replaced, entries that are already matched by a pattern are not
+	 * added again.
+	 *
+	 * @param generated the current value of {@link #PROPERTY_GENERATED} or
+	 * null
+	 * @return the values of <code>key</code> and {@link #PROPERTY_GENERATED};
+	 * properties that are not defined and would be empty are omitted
+	 */
+	public static Map<String, String> merge(String key, String value, String generated, Set<String> jarsToSkip) {
+		List<String> entries = split(value);
+		entries.removeAll(split(generated));
+		List<String> added = new ArrayList<String>();
+		for (String jar : jarsToSkip) {
+			if (!matches(entries, jar)) {
+				added.add(jar);
+			}
+		}
+		entries.addAll(added);
+
+		Map<String, String> values = new LinkedHashMap<String, String>();
+		if (value != null || !entries.isEmpty()) {
+			values.put(key, join(entries));
+		}
+		if (generated != null || !added.isEmpty()) {
+			values.put(PROPERTY_GENERATED, join(added));
+		}
+		return values;
+	}
+
+	/**
+	 * Returns the number of jars listed in <code>generated</code>.
+	 */
+	public static int getGeneratedCount(String generated) {
+		return split(generated).size();
+	}
+
+	static boolean isScanRequired(String entryName) {
+		if (!entryName.startsWith("META-INF/")) {
+			return false;
+		}
+		return entryName.endsWith(".tld") || entryName.equals("META-INF/web-fragment.xml")
+				|| entryName.equals("META-INF/services/javax.servlet.ServletContainerInitializer")
+				|| entryName.equals("META-INF/services/jakarta.servlet.ServletContainerInitializer")
+				|| entryName.startsWith("META-INF/resources/");
+	}
+
+	private static Result analyze(File jar, long lastModified, long length) {
+		Map<String, List<String>> types = new HashMap<String, List<String>>();
+		Set<String> handledTypes = new HashSet<String>();
+		ZipFile zipFile;
+		try {
+			zipFile = new ZipFile(jar);
+		}
+		catch (IOException e) {
+			return new Result(lastModified, length, true, types, handledTypes);
+		}
+		try {
+			boolean scanRequired = false;
+			Map<String, ClassInfo> classes = new HashMap<String, ClassInfo>();
+			Set<String> initializers = new LinkedHashSet<String>();
+			Enumeration<? extends ZipEntry> entries = zipFile.entries();
+			while (entries.hasMoreElements()) {
+				ZipEntry entry = entries.nextElement();
+				String name = entry.getName();
+				if (isScanRequired(name)) {
+					scanRequired = true;
+				}
+				if (name.endsWith(".class")) {
+					try {
+						ClassInfo info = readClass(zipFile, entry);
+						List<String> superTypes = new ArrayList<String>(info.getSuperTypes());
+						superTypes.addAll(info.getAnnotations());
+						types.put(info.getName(), superTypes);
+						classes.put(info.getName(), info);
+					}
+					catch (IOException e) {
+						// Tomcat ignores invalid class files as well
+					}
+				}
+				else if (INITIALIZER_SERVICES.contains(name)) {
+					initializers.addAll(readServices(zipFile, entry));
+				}
+			}
+			for (String initializer : initializers) {
+				ClassInfo info = classes.get(initializer.replace('.', '/'));
+				if (info != null) {
+					for (String annotation : HANDLES_TYPES) {
+						handledTypes.addAll(info.getClassValues(annotation));
+					}
+				}
+			}
+			return new Result(lastModified, length, scanRequired, types, handledTypes);
+		}
+		catch (IOException e) {
+			return new Result(lastModified, length, true, types, handledTypes);
+		}
+		finally {
+			try {
+				zipFile.close();
+			}
+			catch (IOException e) {
+				// ignore
+			}
+		}
+	}
+
+	private static ClassInfo readClass(ZipFile zipFile, ZipEntry entry) throws IOException {
+		InputStream in = new BufferedInputStream(zipFile.getInputStream(entry));
+		try {
+			return ClassInfo.read(in);
+		}
+		finally {
+			in.close();
+		}
+	}
+
+	private static List<String> readServices(ZipFile zipFile, ZipEntry entry) throws IOException {
+		List<String> services = new ArrayList<String>();
+		BufferedReader reader = new BufferedReader(new InputStreamReader(zipFile.getInputStream(entry),
+				StandardCharsets.UTF_8));
+		try {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				int i = line.indexOf('#');
+				line = ((i != -1) ? line.substring(0, i) : line).trim();
+				if (line.length() > 0) {
+					services.add(line);
+				}
+			}
+		}
+		finally {
+			reader.close();
+		}
+		return services;
+	}
+
+	/**
+	 * Returns true, if <code>name</code> matches any of <code>patterns</code>.
+	 * Patterns support the same wildcards as Tomcat, <code>*</code> and
+	 * <code>?</code>.
+	 */
+	static boolean matches(List<String> patterns, String name) {
+		for (String pattern : patterns) {
+			if (pattern.equals(name)) {
+				return true;
+			}
+			if (pattern.indexOf('*') != -1 || pattern.indexOf('?') != -1) {
+				StringBuilder regex = new StringBuilder();
+				for (String part : pattern.split("(?=[*?])|(?<=[*?])")) {
+					if (part.equals("*")) {
+						regex.append(".*");
+					}
+					else if (part.equals("?")) {
+						regex.append('.');
+					}
+					else if (part.length() > 0) {
+						regex.append(Pattern.quote(part));
+					}
+				}
+				if (name.matches(regex.toString())) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private static List<String> split(String value) {
+		List<String> entries = new ArrayList<String>();
+		if (value != null) {
+			for (String entry : value.split(",")) {
+				entry = entry.trim();
+				if (entry.length() > 0) {
+					entries.add(entry);
+				}
+			}
+		}
+		return entries;
+	}
+
+	private static String join(List<String> entries) {
+		StringBuilder sb = new StringBuilder();
+		for (String entry : entries) {
+			if (sb.length() > 0) {
+				sb.append(",");
+			}
+			sb.append(entry);
+		}
+		return sb.toString();
+	}
+
+}
@@ -0,0 +1,200 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.runtime.Platform;
+
+/**
+ * A named set of VM arguments that tunes launched servers for a goal such as
+ * startup time or throughput. Arguments may be limited to a range of Java
+ * versions, profiles that require a later Java version than the VM of the
+ * launch are not applied. Profiles are merged into the VM arguments of the
+ * launch by {@link TcServerBehaviour}.
+ */
+public class LaunchProfile {
+
+	private static class Argument {
+
+		private final String value;
+
+		private final int minJavaVersion;
+
+		private final int maxJavaVersion;
+
+		Argument(String value, int minJavaVersion, int maxJavaVersion) {
+			this.value = value;
+			this.minJavaVersion = minJavaVersion;
+			this.maxJavaVersion = maxJavaVersion;
+		}
+
+	}
+
+	private final String id;
+
+	private final String label;
+
+	private final String description;
+
+	private final List<Argument> arguments = new ArrayList<Argument>();
+
+	private int requiredJavaVersion;
+
+	private final Map<String, Integer> requiredJavaVersionByOs = new HashMap<String, Integer>();
+
+	private boolean classDataSharing;
+
+	private boolean initialHeapMatchesMaximum;
+
+	public LaunchProfile(String id, String label, String description) {
+		this.id = id;
+		this.label = label;
+		this.description = description;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public String getLabel() {
+		return label;
+	}
+
+	public String getDescription() {
+		return description;
+	}
+
+	/**
+	 * Adds an argument that is supported by all Java versions.
+	 */
+	public void addArgument(String value) {
+		addArgument(value, 0, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Adds an argument that is only passed to VMs with a major version between
+	 * <code>minJavaVersion</code> and <code>maxJavaVersion</code>.
+	 */
+	public void addArgument(String value, int minJavaVersion, int maxJavaVersion) {
+		arguments.add(new Argument(value, minJavaVersion, maxJavaVersion));
+	}
+
+	/**
+	 * Returns the arguments for a VM with the major version
+	 * <code>javaVersion</code> on the current operating system, an empty list
+	 * if the profile is not supported by the VM.
+	 */
+	public List<String> getArguments(int javaVersion) {
+		return getArguments(javaVersion, Platform.getOS());
+	}
+
+	/**
+	 * Returns the arguments for a VM with the major version
+	 * <code>javaVersion</code> on <code>os</code>, an empty list if the
+	 * profile is not supported by the VM.
+	 */
+	public List<String> getArguments(int javaVersion, String os) {
+		if (!isSupported(javaVersion, os)) {
+			return Collections.emptyList();
+		}
+		List<String> values = new ArrayList<String>();
+		for (Argument argument : arguments) {
+			if (javaVersion >= argument.minJavaVersion && javaVersion <= argument.maxJavaVersion) {
+				values.add(argument.value);
+			}
+		}
+		return values;
+	}
+
+	/**
+	 * Returns all arguments regardless of the Java version.
+	 */
+	public List<String> getAllArguments() {
+		List<String> values = new ArrayList<String>();
+		for (Argument argument : arguments) {
+			values.add(argument.value);
+		}
+		return values;
+	}
+
+	/**
+	 * Returns the minimum major Java version that supports the profile on the
+	 * current operating system.
+	 */
+	public int getRequiredJavaVersion() {
+		return getRequiredJavaVersion(Platform.getOS());
+	}
+
+	/**
+	 * Returns the minimum major Java version that supports the profile on
+	 * <code>os</code>, e.g. {@link Platform#OS_MACOSX}.
+	 */
+	public int getRequiredJavaVersion(String os) {
+		Integer version = requiredJavaVersionByOs.get(os);
+		return (version != null) ? version : requiredJavaVersion;
+	}
+
+	public void setRequiredJavaVersion(int requiredJavaVersion) {
+		this.requiredJavaVersion = requiredJavaVersion;
+	}
+
+	/**
+	 * Sets the minimum major Java version that supports the profile on
+	 * <code>os</code> if it differs from the version that is required on other
+	 * operating systems.
+	 */
+	public void setRequiredJavaVersion(String os, int requiredJavaVersion) {
+		requiredJavaVersionByOs.put(os, requiredJavaVersion);
+	}
+
+	public boolean isSupported(int javaVersion) {
+		return isSupported(javaVersion, Platform.getOS());
+	}
+
+	public boolean isSupported(int javaVersion, String os) {
+		return javaVersion >= getRequiredJavaVersion(os);
+	}
+
+	/**
+	 * Returns true, if launches use a class data sharing archive, see
+	 * {@link ClassDataSharing}.
+	 */
+	public boolean isClassDataSharing() {
+		return classDataSharing;
+	}
+
+	public void setClassDataSharing(boolean classDataSharing) {
+		this.classDataSharing = classDataSharing;
+	}
+
+	/**
+	 * Returns true, if launches set the initial heap size to the configured
+	 * maximum heap size.
+	 */
+	public boolean isInitialHeapMatchesMaximum() {
+		return initialHeapMatchesMaximum;
+	}
+
+	public void setInitialHeapMatchesMaximum(boolean initialHeapMatchesMaximum) {
+		this.initialHeapMatchesMaximum = initialHeapMatchesMaximum;
+	}
+
+	@Override
+	public String toString() {
+		return id;
+	}
+
+}
@@ -0,0 +1,180 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.eclipse.core.runtime.Platform;
+
+/**
+ * The built-in {@link LaunchProfile}s.
+ */
+public class LaunchProfiles {
+
+	public static final String ID_DEFAULT = "default";
+
+	public static final String ID_FAST_STARTUP = "fastStartup";
+
+	public static final String ID_THROUGHPUT = "throughput";
+
+	public static final String ID_LOW_LATENCY = "lowLatency";
+
+	/**
+	 * Launch configuration attribute that stores the arguments that were added
+	 * by the profile of the last launch.
+	 */
+	public static final String ATTR_PROFILE_ARGUMENTS = ITcServerConstants.PLUGIN_ID + ".launchProfileArguments";
+
+	/**
+	 * The Java version that is assumed if the version of a VM is not known.
+	 */
+	public static final int DEFAULT_JAVA_VERSION = 8;
+
+	/**
+	 * Matches arguments that select or deselect a garbage collector. The VM
+	 * refuses to start if more than one collector is selected.
+	 */
+	private static final Pattern GARBAGE_COLLECTOR_ARGUMENT = Pattern.compile("-XX:[+-]Use\\w+GC");
+
+	private static final List<LaunchProfile> profiles;
+
+	static {
+		List<LaunchProfile> list = new ArrayList<LaunchProfile>();
+
+		list.add(new LaunchProfile(ID_DEFAULT, "Default", "Uses the defaults of the VM."));
+
+		LaunchProfile fastStartup = new LaunchProfile(ID_FAST_STARTUP, "Fast startup",
+				"Limits compilation to the client compiler, uses the serial collector and a class data sharing archive.");
+		fastStartup.addArgument("-XX:TieredStopAtLevel=1");
+		fastStartup.addArgument("-XX:+UseSerialGC");
+		fastStartup.setClassDataSharing(true);
+		list.add(fastStartup);
+
+		LaunchProfile throughput = new LaunchProfile(ID_THROUGHPUT, "Throughput",
+				"Uses the parallel collector with an initial heap that matches the maximum heap.");
+		throughput.addArgument("-XX:+UseParallelGC");
+		throughput.setInitialHeapMatchesMaximum(true);
+		list.add(throughput);
+
+		LaunchProfile lowLatency = new LaunchProfile(ID_LOW_LATENCY, "Low latency",
+				"Uses the Z garbage collector to keep pause times short, requires Java 11 or later (14 on macOS and Windows).");
+		lowLatency.addArgument("-XX:+UnlockExperimentalVMOptions", 11, 14);
+		lowLatency.addArgument("-XX:+UseZGC");
+		lowLatency.setRequiredJavaVersion(11);
+		// ZGC is only available on Linux before Java 14
+		lowLatency.setRequiredJavaVersion(Platform.OS_MACOSX, 14);
+		lowLatency.setRequiredJavaVersion(Platform.OS_WIN32, 14);
+		list.add(lowLatency);
+
+		profiles = Collections.unmodifiableList(list);
+	}
+
+	public static List<LaunchProfile> getProfiles() {
+		return profiles;
+	}
+
+	/**
+	 * Returns the profile with <code>id</code> or the default profile, if no
+	 * profile with <code>id</code> exists.
+	 */
+	public static LaunchProfile getProfile(String id) {
+		for (LaunchProfile profile : profiles) {
+			if (profile.getId().equals(id)) {
+				return profile;
+			}
+		}
+		return profiles.get(0);
+	}
+
+	/**
+	 * Returns the arguments that <code>profile</code> adds to
+	 * <code>vmArgs</code>. Arguments that are present in <code>vmArgs</code>
+	 * but are not contained in <code>previousArgs</code>, the arguments added
+	 * by the profile of the previous launch, were entered by the user and are
+	 * not included. The collector of the profile is not added if the user
+	 * selected a collector.
+	 * @param os the operating system of the VM, e.g.
+	 * {@link Platform#OS_LINUX}
+	 * @param defaultMaximumHeap the maximum heap size that is used if
+	 * <code>vmArgs</code> does not specify <code>-Xmx</code>
+	 */
+	public static List<String> getAddedArguments(LaunchProfile profile, int javaVersion, String os,
+			String[] vmArgs, List<String> previousArgs, String defaultMaximumHeap) {
+		List<String> userArgs = new ArrayList<String>();
+		if (vmArgs != null) {
+			userArgs.addAll(Arrays.asList(vmArgs));
+			userArgs.removeAll(previousArgs);
+		}
+		boolean userGarbageCollector = false;
+		for (String arg : userArgs) {
+			if (isGarbageCollectorArgument(arg)) {
+				userGarbageCollector = true;
+			}
+		}
+		List<String> args = new ArrayList<String>();
+		for (String arg : profile.getArguments(javaVersion, os)) {
+			if (!userArgs.contains(arg) && !(userGarbageCollector && isGarbageCollectorArgument(arg))) {
+				args.add(arg);
+			}
+		}
+		if (profile.isInitialHeapMatchesMaximum() && profile.isSupported(javaVersion, os)) {
+			String maximumHeap = defaultMaximumHeap;
+			boolean userInitialHeap = false;
+			for (String arg : userArgs) {
+				if (arg.startsWith("-Xmx")) {
+					maximumHeap = arg.substring(4);
+				}
+				else if (arg.startsWith("-Xms")) {
+					userInitialHeap = true;
+				}
+			}
+			if (!userInitialHeap) {
+				args.add("-Xms" + maximumHeap);
+			}
+		}
+		return args;
+	}
+
+	/**
+	 * Returns true, if <code>arg</code> selects or deselects a garbage
+	 * collector, e.g. <code>-XX:+UseG1GC</code>.
+	 */
+	public static boolean isGarbageCollectorArgument(String arg) {
+		return GARBAGE_COLLECTOR_ARGUMENT.matcher(arg).matches();
+	}
+
+	/**
+	 * Returns the major version for <code>javaVersion</code>, e.g.
+	 * <code>1.8.0_252</code> or <code>11.0.7</code>, or
+	 * {@link #DEFAULT_JAVA_VERSION} if the version is not known.
+	 */
+	public static int getJavaMajorVersion(String javaVersion) {
+		if (javaVersion == null) {
+			return DEFAULT_JAVA_VERSION;
+		}
+		String[] segments = javaVersion.split("[._+-]");
+		try {
+			int major = Integer.parseInt(segments[0]);
+			if (major == 1 && segments.length > 1) {
+				return Integer.parseInt(segments[1]);
+			}
+			return major;
+		}
+		catch (NumberFormatException e) {
+			return DEFAULT_JAVA_VERSION;
+		}
+	}
+
+}
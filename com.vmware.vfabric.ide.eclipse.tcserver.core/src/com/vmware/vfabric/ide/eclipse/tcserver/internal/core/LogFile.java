@@ -0,0 +1,570 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.core;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Provides access to the lines of a log file without reading the file into
+ * memory. The file is read in chunks into a reused buffer and an index of the
+ * offset, time and level of each line is built incrementally as the file
+ * grows, see {@link #update()}. If the file is truncated or replaced, e.g.
+ * when it is rotated, the index is rebuilt.
+ * <p>
+ * Headers written by the Tomcat <code>OneLineFormatter</code> and ISO
+ * timestamped headers as written by common logging frameworks are recognized.
+ * Lines without a header, e.g. stack traces, continue the record of the
+ * preceding header.
+ * </p>
+ */
+public class LogFile implements Closeable {
+
+	/** Log levels ordered by severity. */
+	public enum Level {
+		UNKNOWN, FINEST, FINER, FINE, CONFIG, INFO, WARNING, SEVERE;
+
+		/**
+		 * Returns the level for a JULI or log4j level name or null.
+		 */
+		public static Level fromName(String name) {
+			if (name.equals("ERROR") || name.equals("FATAL")) {
+				return SEVERE;
+			}
+			else if (name.equals("WARN")) {
+				return WARNING;
+			}
+			else if (name.equals("DEBUG")) {
+				return FINE;
+			}
+			else if (name.equals("TRACE")) {
+				return FINEST;
+			}
+			try {
+				return valueOf(name);
+			}
+			catch (IllegalArgumentException e) {
+				return null;
+			}
+		}
+	}
+
+	public static final int DEFAULT_CHUNK_SIZE = 1024 * 1024;
+
+	/** Matches the suffix of rotated files, e.g. <code>.2020-10-19</code>. */
+	private static final Pattern ROTATION_SUFFIX = Pattern.compile("\\.\\d{4}-\\d{2}-\\d{2}(?=\\.)");
+
+	/**
+	 * Matches headers of the Tomcat <code>OneLineFormatter</code>, e.g.
+	 * <code>19-Oct-2020 10:15:30.123 INFO [main] org.apache.catalina.startup.Catalina.start</code>.
+	 */
+	private static final Pattern JULI_HEADER = Pattern
+			.compile("^(\\d{2}-[A-Za-z]{3}-\\d{4} \\d{2}:\\d{2}:\\d{2}(?:\\.\\d{1,9})?) ([A-Z]+) \\[[^\\]]*\\] (\\S+)");
+
+	/**
+	 * Matches headers with an ISO timestamp, e.g.
+	 * <code>2020-10-19 10:15:30,123 WARN [main] com.example.Service - message</code>.
+	 */
+	private static final Pattern ISO_HEADER = Pattern
+			.compile("^(\\d{4}-\\d{2}-\\d{2}[ T]\\d{2}:\\d{2}:\\d{2}(?:[.,]\\d{1,9})?)\\S*\\s+(?:\\[[^\\]]*\\]\\s+)?"
+					+ "(TRACE|DEBUG|INFO|WARN|WARNING|ERROR|FATAL|SEVERE)\\s+(?:\\d+ --- )?(?:\\[[^\\]]*\\]\\s+)?([\\w.$]+)?");
+
+	private static final DateTimeFormatter JULI_TIME = DateTimeFormatter.ofPattern("dd-MMM-yyyy HH:mm:ss",
+			Locale.ENGLISH);
+
+	private static final DateTimeFormatter ISO_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss",
+			Locale.ENGLISH);
+
+	/** Only the beginning of a line is decoded to parse the header. */
+	private static final int MAX_HEADER_LENGTH = 256;
+
+	/** Marks lines that continue the record of a previous line. */
+	private static final byte CONTINUATION = (byte) 0x80;
+
+	private final File file;
+
+	private final Charset charset;
+
+	private final int chunkSize;
+
+	private FileChannel channel;
+
+	private Object fileKey;
+
+	/** The chunk of the file that was read last. */
+	private ByteBuffer window;
+
+	private long windowStart;
+
+	private long[] offsets = new long[1024];
+
+	private long[] times = new long[1024];
+
+	private byte[] levels = new byte[1024];
+
+	private int lineCount;
+
+	/** The offset after the last indexed line. */
+	private long indexedLength;
+
+	/** Incremented each time the index is rebuilt. */
+	private int generation;
+
+	private final TimeParser timeParser = new TimeParser();
+
+	private long recordTime = -1;
+
+	private Level recordLevel = Level.UNKNOWN;
+
+	public LogFile(File file) {
+		this(file, StandardCharsets.UTF_8, DEFAULT_CHUNK_SIZE);
+	}
+
+	public LogFile(File file, Charset charset, int chunkSize) {
+		this.file = file;
+		this.charset = charset;
+		this.chunkSize = chunkSize;
+	}
+
+	public File getFile() {
+		return file;
+	}
+
+	/**
+	 * Indexes lines that were appended since the last invocation. Returns
+	 * true, if lines were added or the index was rebuilt, see
+	 * {@link #getGeneration()}.
+	 */
+	public synchronized boolean update() throws IOException {
+		if (!file.exists()) {
+			if (channel != null || lineCount > 0) {
+				reset();
+				return true;
+			}
+			return false;
+		}
+		boolean changed = false;
+		Object key = getFileKey();
+		if (channel == null || !key.equals(fileKey) || channel.size() < indexedLength) {
+			changed = channel != null || lineCount > 0;
+			reset();
+			channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+			fileKey = key;
+		}
+
+		long size = channel.size();
+		long position = indexedLength;
+		int readSize = chunkSize;
+		while (position < size) {
+			read(position, (int) Math.min(readSize, size - position));
+			int length = window.limit();
+			byte[] bytes = window.array();
+			int lineStart = 0;
+			for (int i = 0; i < length; i++) {
+				if (bytes[i] == '\n') {
+					addLine(bytes, position, lineStart, i + 1);
+					lineStart = i + 1;
+				}
+			}
+			if (lineStart == 0) {
+				if (position + length >= size) {
+					// incomplete last line or the file was truncated while reading
+					break;
+				}
+				// the line exceeds the chunk
+				readSize = (int) Math.min(readSize * 2L, Integer.MAX_VALUE);
+				continue;
+			}
+			position += lineStart;
+			readSize = chunkSize;
+			changed = true;
+		}
+		indexedLength = position;
+		return changed;
+	}
+
+	private Object getFileKey() throws IOException {
+		BasicFileAttributes attributes = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+		return (attributes.fileKey() != null) ? attributes.fileKey() : attributes.creationTime();
+	}
+
+	/**
+	 * Reads <code>length</code> bytes at <code>position</code> into
+	 * {@link #window}. The buffer is only reallocated if a line exceeds the
+	 * chunk size. Reads stop early at the end of the file.
+	 */
+	private void read(long position, int length) throws IOException {
+		if (channel == null) {
+			throw new IOException("File is closed: " + file);
+		}
+		if (window == null || window.capacity() < length) {
+			window = ByteBuffer.allocate(Math.max(length, chunkSize));
+		}
+		window.clear();
+		window.limit(length);
+		while (window.hasRemaining()) {
+			if (channel.read(window, position + window.position()) == -1) {
+				break;
+			}
+		}
+		window.flip();
+		windowStart = position;
+	}
+
+	private void addLine(byte[] buffer, long base, int start, int end) {
+		if (lineCount == offsets.length) {
+			int capacity = lineCount * 2;
+			offsets = Arrays.copyOf(offsets, capacity);
+			times = Arrays.copyOf(times, capacity);
+			levels = Arrays.copyOf(levels, capacity);
+		}
+
+		Header header = parseHeader(new String(buffer, start, Math.min(end - start, MAX_HEADER_LENGTH), charset),
+				timeParser);
+		byte level;
+		if (header != null) {
+			recordTime = (header.time != -1) ? header.time : recordTime;
+			recordLevel = header.level;
+			level = (byte) recordLevel.ordinal();
+		}
+		else {
+			level = (byte) (recordLevel.ordinal() | CONTINUATION);
+		}
+
+		offsets[lineCount] = base + start;
+		times[lineCount] = recordTime;
+		levels[lineCount] = level;
+		lineCount++;
+	}
+
+	private void reset() throws IOException {
+		close();
+		lineCount = 0;
+		indexedLength = 0;
+		recordTime = -1;
+		recordLevel = Level.UNKNOWN;
+		generation++;
+	}
+
+	public synchronized void close() throws IOException {
+		window = null;
+		if (channel != null) {
+			channel.close();
+			channel = null;
+		}
+	}
+
+	public synchronized int getLineCount() {
+		return lineCount;
+	}
+
+	public synchronized int getGeneration() {
+		return generation;
+	}
+
+	/**
+	 * Returns the time of the record of line <code>index</code> in
+	 * milliseconds or -1, if unknown.
+	 */
+	public synchronized long getTime(int index) {
+		checkIndex(index);
+		return times[index];
+	}
+
+	public synchronized Level getLevel(int index) {
+		checkIndex(index);
+		return Level.values()[levels[index] & ~CONTINUATION];
+	}
+
+	/**
+	 * Returns true, if line <code>index</code> continues the record of a
+	 * previous line.
+	 */
+	public synchronized boolean isContinuation(int index) {
+		checkIndex(index);
+		return (levels[index] & CONTINUATION) != 0;
+	}
+
+	/**
+	 * Returns the text of line <code>index</code> without the line
+	 * terminator.
+	 */
+	public synchronized String getLine(int index) throws IOException {
+		checkIndex(index);
+		long start = offsets[index];
+		long end = (index + 1 < lineCount) ? offsets[index + 1] : indexedLength;
+		if (window == null || start < windowStart || end > windowStart + window.limit()) {
+			// read the chunk that starts with the line to read the following
+			// lines without accessing the file
+			read(start, (int) Math.max(end - start, Math.min(chunkSize, indexedLength - start)));
+			if (end > windowStart + window.limit()) {
+				throw new IOException("File was truncated: " + file);
+			}
+		}
+		byte[] bytes = window.array();
+		int from = (int) (start - windowStart);
+		int to = (int) (end - windowStart);
+		if (to > from && bytes[to - 1] == '\n') {
+			to--;
+		}
+		if (to > from && bytes[to - 1] == '\r') {
+			to--;
+		}
+		return new String(bytes, from, to - from, charset);
+	}
+
+	/**
+	 * Returns the first line of the first record with a time of at least
+	 * <code>time</code> assuming that records are ordered by time.
+	 */
+	public synchronized int findLine(long time) {
+		int low = 0;
+		int high = lineCount;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (times[mid] < time) {
+				low = mid + 1;
+			}
+			else {
+				high = mid;
+			}
+		}
+		// the record of a continuation line starts before the line
+		while (low > 0 && low < lineCount && (levels[low] & CONTINUATION) != 0) {
+			low--;
+		}
+		return low;
+	}
+
+	/**
+	 * Returns the indices of the lines from <code>fromIndex</code> that match
+	 * <code>filter</code>.
+	 */
+	public synchronized int[] filter(LogFilter filter, int fromIndex) throws IOException {
+		return filter(filter, fromIndex, lineCount);
+	}
+
+	/**
+	 * Returns the indices of the lines from <code>fromIndex</code> up to but
+	 * excluding <code>toIndex</code> that match <code>filter</code>. Allows
+	 * filtering large files in batches.
+	 */
+	public synchronized int[] filter(LogFilter filter, int fromIndex, int toIndex) throws IOException {
+		int end = Math.min(toIndex, lineCount);
+		int start = fromIndex;
+		if (filter.getSince() >= 0) {
+			start = Math.max(start, findLine(filter.getSince()));
+		}
+		// evaluate the record of the first line
+		while (start > 0 && start < lineCount && (levels[start] & CONTINUATION) != 0
+				&& filter.getLogger() != null) {
+			start--;
+		}
+
+		int[] result = new int[64];
+		int count = 0;
+		boolean recordMatches = false;
+		for (int i = start; i < end; i++) {
+			if (i == start || (levels[i] & CONTINUATION) == 0) {
+				recordMatches = matchesRecord(filter, i);
+			}
+			if (!recordMatches || i < fromIndex) {
+				continue;
+			}
+			if (filter.getPattern() == null || filter.getPattern().matcher(getLine(i)).find()) {
+				if (count == result.length) {
+					result = Arrays.copyOf(result, count * 2);
+				}
+				result[count++] = i;
+			}
+		}
+		return Arrays.copyOf(result, count);
+	}
+
+	private boolean matchesRecord(LogFilter filter, int index) throws IOException {
+		Level level = filter.getLevel();
+		if (level != null && level != Level.UNKNOWN && (levels[index] & ~CONTINUATION) < level.ordinal()) {
+			return false;
+		}
+		if (filter.getSince() >= 0 && times[index] < filter.getSince()) {
+			return false;
+		}
+		if (filter.getLogger() != null) {
+			Header header = parseHeader(getLine(index), timeParser);
+			return header != null && header.logger != null && header.logger.contains(filter.getLogger());
+		}
+		return true;
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= lineCount) {
+			throw new IndexOutOfBoundsException("index: " + index + ", lines: " + lineCount);
+		}
+	}
+
+	static class Header {
+
+		final long time;
+
+		final Level level;
+
+		final String logger;
+
+		Header(long time, Level level, String logger) {
+			this.time = time;
+			this.level = level;
+			this.logger = logger;
+		}
+
+	}
+
+	/**
+	 * Parses timestamps to milliseconds. Lines that are logged in the same
+	 * second share the parsed date, hence only the fraction is parsed for most
+	 * lines.
+	 */
+	static class TimeParser {
+
+		private DateTimeFormatter formatter;
+
+		private String seconds;
+
+		private long secondsTime;
+
+		long parse(String text, DateTimeFormatter formatter) {
+			int i = text.indexOf('.');
+			String seconds = (i != -1) ? text.substring(0, i) : text;
+			if (formatter != this.formatter || !seconds.equals(this.seconds)) {
+				try {
+					secondsTime = LocalDateTime.parse(seconds, formatter).atZone(ZoneId.systemDefault()).toInstant()
+							.toEpochMilli();
+				}
+				catch (DateTimeParseException e) {
+					return -1;
+				}
+				this.formatter = formatter;
+				this.seconds = seconds;
+			}
+			int millis = 0;
+			if (i != -1) {
+				for (int j = 1; j <= 3; j++) {
+					millis = millis * 10 + ((i + j < text.length()) ? text.charAt(i + j) - '0' : 0);
+				}
+			}
+			return secondsTime + millis;
+		}
+
+	}
+
+	/**
+	 * Parses the time, level and logger of a header line. Returns null, if
+	 * <code>line</code> does not start with a header.
+	 */
+	static Header parseHeader(String line) {
+		return parseHeader(line, new TimeParser());
+	}
+
+	private static Header parseHeader(String line, TimeParser timeParser) {
+		if (line.length() == 0 || !Character.isDigit(line.charAt(0))) {
+			return null;
+		}
+		Matcher matcher = JULI_HEADER.matcher(line);
+		if (matcher.find()) {
+			Level level = Level.fromName(matcher.group(2));
+			if (level != null) {
+				return new Header(timeParser.parse(matcher.group(1), JULI_TIME), level, matcher.group(3));
+			}
+		}
+		matcher = ISO_HEADER.matcher(line);
+		if (matcher.find()) {
+			String time = matcher.group(1).replace('T', ' ').replace(',', '.');
+			return new Header(timeParser.parse(time, ISO_TIME), Level.fromName(matcher.group(2)), matcher.group(3));
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the name of the family of log files that <code>name</code>
+	 * belongs to, e.g. <code>localhost.log</code> for
+	 * <code>localhost.2020-10-19.log</code>.
+	 */
+	public static String getFamily(String name) {
+		return ROTATION_SUFFIX.matcher(name).replaceFirst("");
+	}
+
+	/**
+	 * Returns the names of the log file families in <code>directory</code>.
+	 */
+	public static List<String> getFamilies(File directory) {
+		Set<String> families = new TreeSet<String>();
+		for (File file : listLogFiles(directory)) {
+			families.add(getFamily(file.getName()));
+		}
+		return new ArrayList<String>(families);
+	}
+
+	/**
+	 * Returns the most recently modified file of <code>family</code> in
+	 * <code>directory</code> or null.
+	 */
+	public static File getLatest(File directory, String family) {
+		List<File> files = new ArrayList<File>();
+		for (File file : listLogFiles(directory)) {
+			if (getFamily(file.getName()).equals(family)) {
+				files.add(file);
+			}
+		}
+		if (files.isEmpty()) {
+			return null;
+		}
+		return Collections.max(files, new Comparator<File>() {
+			public int compare(File o1, File o2) {
+				int c = Long.compare(o1.lastModified(), o2.lastModified());
+				// rotated files sort by date
+				return (c != 0) ? c : o1.getName().compareTo(o2.getName());
+			}
+		});
+	}
+
+	private static File[] listLogFiles(File directory) {
+		File[] files = directory.listFiles(new FileFilter() {
+			public boolean accept(File file) {
+				String name = file.getName();
+				return file.isFile() && (name.endsWith(".log") || name.endsWith(".out") || name.endsWith(".txt"));
+			}
+		});
+		return (files != null) ? files : new File[0];
+	}
+
+}
@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.core;
+
+import java.util.regex.Pattern;
+
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.LogFile.Level;
+
+/**
+ * Selects the lines of a {@link LogFile}. The level, logger and time apply to
+ * a record, i.e. a line with a header and the continuation lines that follow
+ * it, such as a stack trace. The pattern applies to each line.
+ */
+public class LogFilter {
+
+	private final Level level;
+
+	private final String logger;
+
+	private final Pattern pattern;
+
+	private final long since;
+
+	/**
+	 * @param level the minimum level or null
+	 * @param logger a part of the logger name or null
+	 * @param pattern a pattern that is found in matching lines or null
+	 * @param since the minimum time in milliseconds or -1
+	 */
+	public LogFilter(Level level, String logger, Pattern pattern, long since) {
+		this.level = level;
+		this.logger = (logger != null && logger.length() > 0) ? logger : null;
+		this.pattern = pattern;
+		this.since = since;
+	}
+
+	public Level getLevel() {
+		return level;
+	}
+
+	public String getLogger() {
+		return logger;
+	}
+
+	public Pattern getPattern() {
+		return pattern;
+	}
+
+	public long getSince() {
+		return since;
+	}
+
+	/**
+	 * Returns true, if all lines match.
+	 */
+	public boolean isEmpty() {
+		return (level == null || level == Level.UNKNOWN) && logger == null && pattern == null && since < 0;
+	}
+
+}
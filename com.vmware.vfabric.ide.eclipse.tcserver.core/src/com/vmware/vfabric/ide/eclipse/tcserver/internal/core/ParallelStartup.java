@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.core;
+
+/**
+ * Computes the settings that let Catalina start the contexts of a host in
+ * parallel. By default contexts are deployed one after another which
+ * dominates the startup time of servers with many modules.
+ */
+public class ParallelStartup {
+
+	/**
+	 * Attribute of the <code>Host</code> element that sets the number of
+	 * threads that start and stop contexts.
+	 */
+	public static final String ATTRIBUTE_START_STOP_THREADS = "startStopThreads";
+
+	/**
+	 * Value of {@link #ATTRIBUTE_START_STOP_THREADS} that lets Catalina use
+	 * one thread per available processor of the machine that runs the server.
+	 */
+	public static final String START_STOP_THREADS_AVAILABLE_PROCESSORS = "0";
+
+	/**
+	 * Attribute of the <code>Context</code> element that enables scanning of
+	 * annotations with the utility executor of the server.
+	 */
+	public static final String ATTRIBUTE_PARALLEL_ANNOTATION_SCANNING = "parallelAnnotationScanning";
+
+	private static final int[] START_STOP_THREADS_VERSION = { 7, 0, 23 };
+
+	private static final int[] PARALLEL_ANNOTATION_SCANNING_VERSION_85 = { 8, 5, 50 };
+
+	private static final int[] PARALLEL_ANNOTATION_SCANNING_VERSION = { 9, 0, 30 };
+
+	/**
+	 * Returns the number of threads that start <code>moduleCount</code>
+	 * contexts if {@link #ATTRIBUTE_START_STOP_THREADS} is set to
+	 * <code>value</code> on a machine with <code>processors</code>. As in
+	 * Catalina, zero and negative values are relative to the number of
+	 * processors and a missing value means a single thread.
+	 */
+	public static int getStartStopThreads(String value, int moduleCount, int processors) {
+		int threads = 1;
+		if (value != null) {
+			try {
+				threads = Integer.parseInt(value.trim());
+			}
+			catch (NumberFormatException e) {
+				threads = 1;
+			}
+			if (threads <= 0) {
+				threads = Math.max(1, processors + threads);
+			}
+		}
+		return Math.max(1, Math.min(moduleCount, threads));
+	}
+
+	/**
+	 * Returns true, if <code>Host</code> elements support
+	 * {@link #ATTRIBUTE_START_STOP_THREADS} in Tomcat
+	 * <code>tomcatVersion</code>.
+	 */
+	public static boolean isStartStopThreadsSupported(String tomcatVersion) {
+		int[] version = parseVersion(tomcatVersion);
+		return version != null && compare(version, START_STOP_THREADS_VERSION) >= 0;
+	}
+
+	/**
+	 * Returns true, if <code>Context</code> elements support
+	 * {@link #ATTRIBUTE_PARALLEL_ANNOTATION_SCANNING} in Tomcat
+	 * <code>tomcatVersion</code>.
+	 */
+	public static boolean isParallelAnnotationScanningSupported(String tomcatVersion) {
+		int[] version = parseVersion(tomcatVersion);
+		if (version == null) {
+			return false;
+		}
+		if (version[0] == 8) {
+			return compare(version, PARALLEL_ANNOTATION_SCANNING_VERSION_85) >= 0;
+		}
+		return compare(version, PARALLEL_ANNOTATION_SCANNING_VERSION) >= 0;
+	}
+
+	/**
+	 * Returns the major, minor and micro segment of <code>version</code>,
+	 * e.g. <code>8.5.51.A.RELEASE</code>, or null if the version is not
+	 * known.
+	 */
+	static int[] parseVersion(String version) {
+		if (version == null) {
+			return null;
+		}
+		String[] segments = version.split("\\.");
+		int[] result = new int[3];
+		for (int i = 0; i < result.length && i < segments.length; i++) {
+			try {
+				result[i] = Integer.parseInt(segments[i]);
+			}
+			catch (NumberFormatException e) {
+				if (i == 0) {
+					return null;
+				}
+				break;
+			}
+		}
+		return result;
+	}
+
+	private static int compare(int[] version, int[] other) {
+		for (int i = 0; i < version.length; i++) {
+			if (version[i] != other[i]) {
+				return version[i] - other[i];
+			}
+		}
+		return 0;
+	}
+
+}
@@ -0,0 +1,347 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An order-preserving model of a file in the Java properties format. The
+ * content is parsed once into entries that keep their original text, including
+ * comments, blank lines and continuation lines. Modifying a property only
+ * replaces the text of its entry, properties that did not exist are appended.
+ * Hence serializing the document reproduces all unchanged lines verbatim.
+ * <p>
+ * Keys and values are decoded and encoded like {@link java.util.Properties}
+ * does. If a key is defined more than once, the last definition is the
+ * effective one and is the one that is modified.
+ * </p>
+ */
+public class PropertiesDocument {
+
+	private static class Entry {
+
+		/** The original or formatted text without the trailing line separator. */
+		private String text;
+
+		/** The decoded key or null for comments and blank lines. */
+		private final String key;
+
+		private String value;
+
+		Entry(String text, String key, String value) {
+			this.text = text;
+			this.key = key;
+			this.value = value;
+		}
+
+	}
+
+	private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+	private final List<Entry> entries = new ArrayList<Entry>();
+
+	/** Maps keys to the effective entry. */
+	private final Map<String, Entry> entryByKey = new HashMap<String, Entry>();
+
+	private final String lineSeparator;
+
+	private PropertiesDocument(String lineSeparator) {
+		this.lineSeparator = lineSeparator;
+	}
+
+	/**
+	 * Parses <code>content</code> in a single pass.
+	 */
+	public static PropertiesDocument parse(String content) {
+		int firstBreak = content.indexOf('\n');
+		boolean crlf = firstBreak > 0 && content.charAt(firstBreak - 1) == '\r';
+		PropertiesDocument document = new PropertiesDocument((crlf) ? "\r\n" : "\n");
+
+		int offset = 0;
+		int length = content.length();
+		while (offset < length) {
+			// collect a logical line which may span several physical lines
+			int start = offset;
+			int end;
+			boolean continued;
+			do {
+				end = endOfLine(content, offset);
+				continued = !isComment(content, start, end) && isContinued(content, offset, end);
+				offset = nextLine(content, end);
+			}
+			while (continued && offset < length);
+			document.add(content.substring(start, end));
+		}
+		return document;
+	}
+
+	/**
+	 * Returns the value of <code>key</code> or null, if the key is not defined.
+	 */
+	public String get(String key) {
+		Entry entry = entryByKey.get(key);
+		return (entry != null) ? entry.value : null;
+	}
+
+	/**
+	 * Returns all properties in the order of their effective definition.
+	 */
+	public Map<String, String> getProperties() {
+		Map<String, String> properties = new LinkedHashMap<String, String>();
+		for (Entry entry : entries) {
+			if (entry.key != null && entryByKey.get(entry.key) == entry) {
+				properties.put(entry.key, entry.value);
+			}
+		}
+		return properties;
+	}
+
+	/**
+	 * Sets the value of <code>key</code>. The entry is only reformatted if the
+	 * value changes.
+	 *
+	 * @return true, if the document was modified
+	 */
+	public boolean set(String key, String value) {
+		Entry entry = entryByKey.get(key);
+		if (entry == null) {
+			entry = new Entry(format(key, value), key, value);
+			entries.add(entry);
+			entryByKey.put(key, entry);
+			return true;
+		}
+		if (value.equals(entry.value)) {
+			return false;
+		}
+		entry.text = format(key, value);
+		entry.value = value;
+		return true;
+	}
+
+	/**
+	 * Sets all <code>values</code> in a single batch.
+	 *
+	 * @return true, if the document was modified
+	 */
+	public boolean setAll(Map<String, String> values) {
+		boolean changed = false;
+		for (Map.Entry<String, String> entry : values.entrySet()) {
+			changed |= set(entry.getKey(), entry.getValue());
+		}
+		return changed;
+	}
+
+	/**
+	 * Returns the document in the properties format. Every line, including the
+	 * last, is terminated by a line separator.
+	 */
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		for (Entry entry : entries) {
+			sb.append(entry.text).append(lineSeparator);
+		}
+		return sb.toString();
+	}
+
+	private void add(String text) {
+		int length = text.length();
+		int i = skipWhitespace(text, 0, length);
+		if (i == length || text.charAt(i) == '#' || text.charAt(i) == '!') {
+			entries.add(new Entry(text, null, null));
+			return;
+		}
+
+		// join continuation lines, leading whitespace of continued lines is
+		// ignored
+		StringBuilder logical = new StringBuilder(length);
+		int start = i;
+		while (start < length) {
+			int end = endOfLine(text, start);
+			if (isContinued(text, start, end)) {
+				logical.append(text, start, end - 1);
+				start = skipWhitespace(text, nextLine(text, end), length);
+			}
+			else {
+				logical.append(text, start, end);
+				break;
+			}
+		}
+
+		String line = logical.toString();
+		int keyEnd = 0;
+		boolean escaped = false;
+		while (keyEnd < line.length()) {
+			char c = line.charAt(keyEnd);
+			if (!escaped && (c == '=' || c == ':' || isWhitespace(c))) {
+				break;
+			}
+			escaped = !escaped && c == '\\';
+			keyEnd++;
+		}
+		int valueStart = skipWhitespace(line, keyEnd, line.length());
+		if (valueStart < line.length() && (line.charAt(valueStart) == '=' || line.charAt(valueStart) == ':')) {
+			valueStart = skipWhitespace(line, valueStart + 1, line.length());
+		}
+
+		String key = decode(line.substring(0, keyEnd));
+		Entry entry = new Entry(text, key, decode(line.substring(valueStart)));
+		entries.add(entry);
+		entryByKey.put(key, entry);
+	}
+
+	private static int endOfLine(String content, int offset) {
+		int end = offset;
+		while (end < content.length() && content.charAt(end) != '\n' && content.charAt(end) != '\r') {
+			end++;
+		}
+		return end;
+	}
+
+	private static int nextLine(String content, int end) {
+		if (end < content.length() && content.charAt(end) == '\r') {
+			end++;
+		}
+		if (end < content.length() && content.charAt(end) == '\n') {
+			end++;
+		}
+		return end;
+	}
+
+	private static boolean isComment(String content, int start, int end) {
+		int i = skipWhitespace(content, start, end);
+		return i < end && (content.charAt(i) == '#' || content.charAt(i) == '!');
+	}
+
+	/**
+	 * Returns true, if the line ends with an odd number of backslashes.
+	 */
+	private static boolean isContinued(String content, int start, int end) {
+		int backslashes = 0;
+		for (int i = end - 1; i >= start && content.charAt(i) == '\\'; i--) {
+			backslashes++;
+		}
+		return backslashes % 2 == 1;
+	}
+
+	private static int skipWhitespace(String content, int offset, int end) {
+		while (offset < end && isWhitespace(content.charAt(offset))) {
+			offset++;
+		}
+		return offset;
+	}
+
+	private static boolean isWhitespace(char c) {
+		return c == ' ' || c == '\t' || c == '\f';
+	}
+
+	private static String decode(String text) {
+		if (text.indexOf('\\') == -1) {
+			return text;
+		}
+		StringBuilder sb = new StringBuilder(text.length());
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (c != '\\' || i + 1 == text.length()) {
+				sb.append(c);
+				continue;
+			}
+			c = text.charAt(++i);
+			switch (c) {
+			case 't':
+				sb.append('\t');
+				break;
+			case 'n':
+				sb.append('\n');
+				break;
+			case 'r':
+				sb.append('\r');
+				break;
+			case 'f':
+				sb.append('\f');
+				break;
+			case 'u':
+				if (i + 4 < text.length()) {
+					try {
+						sb.append((char) Integer.parseInt(text.substring(i + 1, i + 5), 16));
+						i += 4;
+						break;
+					}
+					catch (NumberFormatException e) {
+						// fall through and keep the character
+					}
+				}
+				sb.append(c);
+				break;
+			default:
+				sb.append(c);
+			}
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Formats an entry the same way as {@link java.util.Properties#store}.
+	 */
+	static String format(String key, String value) {
+		StringBuilder sb = new StringBuilder(key.length() + value.length() + 1);
+		encode(sb, key, true);
+		sb.append('=');
+		encode(sb, value, false);
+		return sb.toString();
+	}
+
+	private static void encode(StringBuilder sb, String text, boolean key) {
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			switch (c) {
+			case ' ':
+				if (i == 0 || key) {
+					sb.append('\\');
+				}
+				sb.append(' ');
+				break;
+			case '\t':
+				sb.append("\\t");
+				break;
+			case '\n':
+				sb.append("\\n");
+				break;
+			case '\r':
+				sb.append("\\r");
+				break;
+			case '\f':
+				sb.append("\\f");
+				break;
+			case '=':
+			case ':':
+			case '#':
+			case '!':
+			case '\\':
+				sb.append('\\').append(c);
+				break;
+			default:
+				if (c < 0x20 || c > 0x7e) {
+					sb.append("\\u").append(HEX[(c >> 12) & 0xF]).append(HEX[(c >> 8) & 0xF])
+							.append(HEX[(c >> 4) & 0xF]).append(HEX[c & 0xF]);
+				}
+				else {
+					sb.append(c);
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,46 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.core;
+
+import java.util.Properties;
+
+/**
+ * Replaces <code>${key}</code> placeholders with values from a properties
+ * object. Placeholders without a value are left unchanged.
+ */
+public class PropertySubstitutor {
+
+	public static String substitute(String value, Properties properties) {
+		String[] segments = value.split("\\$\\{");
+		StringBuffer sb = new StringBuffer(value.length());
+		sb.append(segments[0]);
+		for (int i = 1; i < segments.length; i++) {
+			String segment = segments[i];
+			String substitution = null;
+			int brace = segment.indexOf('}');
+			if (brace > 0) {
+				String keyword = segment.substring(0, brace);
+				substitution = properties.getProperty(keyword);
+			}
+
+			if (substitution != null) {
+				sb.append(substitution);
+				sb.append(segment.substring(brace + 1));
+			}
+			else {
+				sb.append("${");
+				sb.append(segment);
+			}
+		}
+		return sb.toString();
+	}
+
+}
@@ -0,0 +1,309 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Collects counters and histograms for the steps of a publish operation.
+ * Recording a value only updates a few atomic variables, hence metrics are
+ * always collected. The metrics are exposed as a platform MBean, see
+ * {@link PublishMetricsMXBean}, and can be dumped as JSON.
+ * <p>
+ * Timers are histograms of durations in nanoseconds. Histograms keep the
+ * count, sum, minimum and maximum of all values and approximate percentiles
+ * using buckets with exponentially growing bounds.
+ * </p>
+ */
+public class PublishMetrics implements PublishMetricsMXBean {
+
+	public static final String OBJECT_NAME = "com.vmware.vfabric.ide.eclipse.tcserver:type=PublishMetrics";
+
+	/** Number of module publish operations handled by {@link TcPublisher}. */
+	public static final String MODULE_PUBLISH = "module.publish";
+
+	/** Number of changed files in a published module delta. */
+	public static final String MODULE_DELTA_SIZE = "module.delta.size";
+
+	/** Number of module deltas that only contained static resources. */
+	public static final String MODULE_STATIC = "module.static";
+
+	/** Number of module deltas that contained dynamic resources. */
+	public static final String MODULE_DYNAMIC = "module.dynamic";
+
+	public static final String MODULE_SPRING_XML_CHECK = "module.springXmlCheck";
+
+	public static final String MODULE_RELOAD = "module.reload";
+
+	public static final String MODULE_WAR_ZIP = "module.warZip";
+
+	public static final String SERVER_PUBLISH = "server.publish";
+
+	public static final String SERVER_CLEANUP = "server.cleanupServer";
+
+	public static final String SERVER_BACKUP_AND_PUBLISH = "server.backupAndPublish";
+
+	public static final String SERVER_LOCALIZE_CONFIGURATION = "server.localizeConfiguration";
+
+	public static final String SERVER_PUBLISH_FINISH = "server.publishFinish";
+
+	/** Number of publish operations that did not need to publish the configuration. */
+	public static final String SERVER_CONFIGURATION_UNCHANGED = "server.configurationUnchanged";
+
+	/** Number of publish operations that did not need to update contexts. */
+	public static final String SERVER_CONTEXTS_UNCHANGED = "server.contextsUnchanged";
+
+	/** Time to determine the jars that are excluded from scanning on startup. */
+	public static final String SERVER_JAR_SCAN_ANALYSIS = "server.jarScanAnalysis";
+
+	/** Time from the launch of the server until it responds to requests. */
+	public static final String SERVER_STARTUP = "server.startup";
+
+	/** Time from the modification of a class file to its reload by the agent. */
+	public static final String AGENT_RELOAD = "agent.reload";
+
+	/** Number of types that the agent could not reload. */
+	public static final String AGENT_RELOAD_FAILED = "agent.reloadFailed";
+
+	private static final PublishMetrics instance = new PublishMetrics();
+
+	public static PublishMetrics getDefault() {
+		return instance;
+	}
+
+	/**
+	 * Measures the duration of an operation. Obtained from
+	 * {@link PublishMetrics#startTimer(String)}.
+	 */
+	public class Timer {
+
+		private final String name;
+
+		private final long start;
+
+		private Timer(String name) {
+			this.name = name;
+			this.start = System.nanoTime();
+		}
+
+		/**
+		 * Records the time elapsed since the timer was started.
+		 */
+		public void stop() {
+			record(name, System.nanoTime() - start);
+		}
+
+	}
+
+	static class Histogram {
+
+		/** Bucket i holds values below 2^(i+1). */
+		private static final int BUCKETS = 64;
+
+		private final AtomicLong count = new AtomicLong();
+
+		private final AtomicLong sum = new AtomicLong();
+
+		private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+
+		private final AtomicLong max = new AtomicLong(Long.MIN_VALUE);
+
+		private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+		void record(long value) {
+			value = Math.max(0, value);
+			count.incrementAndGet();
+			sum.addAndGet(value);
+			long current;
+			while (value < (current = min.get()) && !min.compareAndSet(current, value)) {
+				// retry
+			}
+			while (value > (current = max.get()) && !max.compareAndSet(current, value)) {
+				// retry
+			}
+			buckets.incrementAndGet(Math.min(BUCKETS - 1, 63 - Long.numberOfLeadingZeros(value | 1)));
+		}
+
+		long getCount() {
+			return count.get();
+		}
+
+		long getSum() {
+			return sum.get();
+		}
+
+		long getMin() {
+			return (count.get() > 0) ? min.get() : 0;
+		}
+
+		long getMax() {
+			return (count.get() > 0) ? max.get() : 0;
+		}
+
+		/**
+		 * Returns the upper bound of the bucket that contains the value at
+		 * <code>percentile</code>, limited by the maximum value.
+		 */
+		long getPercentile(double percentile) {
+			long total = count.get();
+			if (total == 0) {
+				return 0;
+			}
+			long rank = (long) Math.ceil(percentile / 100 * total);
+			long seen = 0;
+			for (int i = 0; i < BUCKETS; i++) {
+				seen += buckets.get(i);
+				if (seen >= rank) {
+					long bound = (i >= 62) ? Long.MAX_VALUE : (1L << (i + 1)) - 1;
+					return Math.min(bound, getMax());
+				}
+			}
+			return getMax();
+		}
+
+	}
+
+	private final ConcurrentMap<String, AtomicLong> counters = new ConcurrentHashMap<String, AtomicLong>();
+
+	private final ConcurrentMap<String, Histogram> histograms = new ConcurrentHashMap<String, Histogram>();
+
+	public void increment(String name) {
+		add(name, 1);
+	}
+
+	public void add(String name, long delta) {
+		AtomicLong counter = counters.get(name);
+		if (counter == null) {
+			AtomicLong newCounter = new AtomicLong();
+			counter = counters.putIfAbsent(name, newCounter);
+			if (counter == null) {
+				counter = newCounter;
+			}
+		}
+		counter.addAndGet(delta);
+	}
+
+	public void record(String name, long value) {
+		Histogram histogram = histograms.get(name);
+		if (histogram == null) {
+			Histogram newHistogram = new Histogram();
+			histogram = histograms.putIfAbsent(name, newHistogram);
+			if (histogram == null) {
+				histogram = newHistogram;
+			}
+		}
+		histogram.record(value);
+	}
+
+	/**
+	 * Records the number of changed files of a published module delta and
+	 * counts the delta as {@link #MODULE_DYNAMIC}, if it required a reload of
+	 * the module, or as {@link #MODULE_STATIC} otherwise.
+	 */
+	public void recordModuleDelta(int size, boolean dynamic) {
+		record(MODULE_DELTA_SIZE, size);
+		increment((dynamic) ? MODULE_DYNAMIC : MODULE_STATIC);
+	}
+
+	public Timer startTimer(String name) {
+		return new Timer(name);
+	}
+
+	public long getCounter(String name) {
+		AtomicLong counter = counters.get(name);
+		return (counter != null) ? counter.get() : 0;
+	}
+
+	Histogram getHistogram(String name) {
+		return histograms.get(name);
+	}
+
+	public Map<String, Long> getCounters() {
+		SortedMap<String, Long> result = new TreeMap<String, Long>();
+		for (Map.Entry<String, AtomicLong> entry : counters.entrySet()) {
+			result.put(entry.getKey(), entry.getValue().get());
+		}
+		return result;
+	}
+
+	public List<HistogramSummary> getHistograms() {
+		List<HistogramSummary> result = new ArrayList<HistogramSummary>();
+		for (Map.Entry<String, Histogram> entry : new TreeMap<String, Histogram>(histograms).entrySet()) {
+			Histogram histogram = entry.getValue();
+			result.add(new HistogramSummary(entry.getKey(), histogram.getCount(), histogram.getSum(),
+					histogram.getMin(), histogram.getMax(), histogram.getPercentile(50),
+					histogram.getPercentile(99)));
+		}
+		return result;
+	}
+
+	public void reset() {
+		counters.clear();
+		histograms.clear();
+	}
+
+	/**
+	 * Returns all metrics as a JSON object. Durations are reported in
+	 * milliseconds.
+	 */
+	public String toJson() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("{\n  \"counters\": {");
+		String separator = "\n";
+		for (Map.Entry<String, Long> entry : getCounters().entrySet()) {
+			sb.append(separator).append("    \"").append(entry.getKey()).append("\": ").append(entry.getValue());
+			separator = ",\n";
+		}
+		sb.append("\n  },\n  \"histograms\": {");
+		separator = "\n";
+		for (HistogramSummary summary : getHistograms()) {
+			boolean timer = isTimer(summary.getName());
+			sb.append(separator).append("    \"").append(summary.getName()).append("\": {");
+			sb.append("\"count\": ").append(summary.getCount());
+			sb.append(", \"unit\": \"").append((timer) ? "ms" : "1").append("\"");
+			sb.append(", \"mean\": ").append(format(summary.getMean(), timer));
+			sb.append(", \"min\": ").append(format(summary.getMin(), timer));
+			sb.append(", \"p50\": ").append(format(summary.getP50(), timer));
+			sb.append(", \"p99\": ").append(format(summary.getP99(), timer));
+			sb.append(", \"max\": ").append(format(summary.getMax(), timer));
+			sb.append("}");
+			separator = ",\n";
+		}
+		sb.append("\n  }\n}\n");
+		return sb.toString();
+	}
+
+	public String dumpJson() {
+		return toJson();
+	}
+
+	private static boolean isTimer(String name) {
+		return !MODULE_DELTA_SIZE.equals(name);
+	}
+
+	private static String format(double value, boolean timer) {
+		if (timer) {
+			value = value / TimeUnit.MILLISECONDS.toNanos(1);
+		}
+		return String.format(Locale.ENGLISH, "%.3f", value);
+	}
+
+}
@@ -0,0 +1,32 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.core;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Management interface of {@link PublishMetrics}.
+ */
+public interface PublishMetricsMXBean {
+
+	Map<String, Long> getCounters();
+
+	List<HistogramSummary> getHistograms();
+
+	/**
+	 * Returns all metrics as a JSON object.
+	 */
+	String dumpJson();
+
+	void reset();
+
+}
@@ -0,0 +1,209 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Aggregates the reload events reported by the Spring Loaded agent per module,
+ * see {@link ReloadTelemetry}. Latencies are in milliseconds.
+ */
+public class ReloadStatistics {
+
+	/**
+	 * Notified when an event was recorded or the statistics were reset. Invoked
+	 * on the thread that received the event.
+	 */
+	public interface Listener {
+
+		void statisticsChanged(ReloadStatistics statistics);
+
+	}
+
+	/**
+	 * Reload statistics of a single module.
+	 */
+	public static class ModuleStatistics {
+
+		private final String name;
+
+		private final PublishMetrics.Histogram latencies = new PublishMetrics.Histogram();
+
+		private final AtomicLong reloads = new AtomicLong();
+
+		private final AtomicLong failures = new AtomicLong();
+
+		private volatile String lastType;
+
+		private volatile long lastLatency = -1;
+
+		private volatile String lastFailedType;
+
+		ModuleStatistics(String name) {
+			this.name = name;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * Returns the number of types that were reloaded.
+		 */
+		public long getReloadCount() {
+			return reloads.get();
+		}
+
+		/**
+		 * Returns the number of types that could not be reloaded.
+		 */
+		public long getFailureCount() {
+			return failures.get();
+		}
+
+		/**
+		 * Returns the number of reloads with a known latency.
+		 */
+		public long getLatencyCount() {
+			return latencies.getCount();
+		}
+
+		/**
+		 * Returns the mean latency of all reloads with a known latency.
+		 */
+		public double getMeanLatency() {
+			long count = latencies.getCount();
+			return (count > 0) ? (double) latencies.getSum() / count : 0;
+		}
+
+		/**
+		 * Returns an upper bound of the median latency, see
+		 * {@link PublishMetrics.Histogram#getPercentile(double)}.
+		 */
+		public long getP50Latency() {
+			return latencies.getPercentile(50);
+		}
+
+		/**
+		 * Returns an upper bound of the 99th percentile latency, see
+		 * {@link PublishMetrics.Histogram#getPercentile(double)}.
+		 */
+		public long getP99Latency() {
+			return latencies.getPercentile(99);
+		}
+
+		public long getMaxLatency() {
+			return latencies.getMax();
+		}
+
+		/**
+		 * Returns the type that was reloaded last or null.
+		 */
+		public String getLastType() {
+			return lastType;
+		}
+
+		/**
+		 * Returns the latency of the last reload, -1 if unknown.
+		 */
+		public long getLastLatency() {
+			return lastLatency;
+		}
+
+		/**
+		 * Returns the type that failed to reload last or null.
+		 */
+		public String getLastFailedType() {
+			return lastFailedType;
+		}
+
+	}
+
+	private final ConcurrentMap<String, ModuleStatistics> modules = new ConcurrentHashMap<String, ModuleStatistics>();
+
+	private final List<Listener> listeners = new CopyOnWriteArrayList<Listener>();
+
+	/**
+	 * Records a reload of <code>type</code>.
+	 *
+	 * @param latency the time from the modification of the class file to the
+	 * completed reload in milliseconds, -1 if unknown
+	 */
+	public void recordReload(String module, String type, long latency) {
+		ModuleStatistics statistics = getOrCreate(module);
+		statistics.reloads.incrementAndGet();
+		if (latency >= 0) {
+			statistics.latencies.record(latency);
+		}
+		statistics.lastType = type;
+		statistics.lastLatency = latency;
+		fireChanged();
+	}
+
+	/**
+	 * Records that <code>type</code> could not be reloaded.
+	 */
+	public void recordFailure(String module, String type) {
+		ModuleStatistics statistics = getOrCreate(module);
+		statistics.failures.incrementAndGet();
+		statistics.lastFailedType = type;
+		fireChanged();
+	}
+
+	/**
+	 * Returns the statistics of all modules sorted by name.
+	 */
+	public List<ModuleStatistics> getModules() {
+		return new ArrayList<ModuleStatistics>(new TreeMap<String, ModuleStatistics>(modules).values());
+	}
+
+	public ModuleStatistics getModule(String name) {
+		return modules.get(name);
+	}
+
+	public void reset() {
+		modules.clear();
+		fireChanged();
+	}
+
+	public void addListener(Listener listener) {
+		listeners.add(listener);
+	}
+
+	public void removeListener(Listener listener) {
+		listeners.remove(listener);
+	}
+
+	private ModuleStatistics getOrCreate(String module) {
+		ModuleStatistics statistics = modules.get(module);
+		if (statistics == null) {
+			ModuleStatistics newStatistics = new ModuleStatistics(module);
+			statistics = modules.putIfAbsent(module, newStatistics);
+			if (statistics == null) {
+				statistics = newStatistics;
+			}
+		}
+		return statistics;
+	}
+
+	private void fireChanged() {
+		for (Listener listener : listeners) {
+			listener.statisticsChanged(this);
+		}
+	}
+
+}
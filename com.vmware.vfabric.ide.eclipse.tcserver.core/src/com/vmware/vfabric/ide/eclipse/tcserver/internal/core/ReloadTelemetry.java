@@ -0,0 +1,181 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.core;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+
+/**
+ * Receives reload events from the telemetry agent that is launched with the
+ * Spring Loaded agent and records them in {@link ReloadStatistics}. The agent
+ * connects to a socket on the loopback interface and sends one line of tab
+ * separated values per event: the event kind, the name of the type, the
+ * latency in milliseconds and the location of the code source of the type.
+ */
+public class ReloadTelemetry {
+
+	/**
+	 * Maps the code source location of a reloaded type to a module.
+	 */
+	public interface ModuleResolver {
+
+		/**
+		 * Returns the name of the module that contains <code>location</code>
+		 * or null, if the location does not belong to a module.
+		 */
+		String getModuleName(String location);
+
+	}
+
+	static final String EVENT_RELOAD = "RELOAD";
+
+	static final String EVENT_FAILED = "FAILED";
+
+	/** Used for events that cannot be mapped to a module. */
+	static final String UNKNOWN_MODULE = "(unknown)";
+
+	private final ReloadStatistics statistics;
+
+	private final ModuleResolver resolver;
+
+	private ServerSocket serverSocket;
+
+	public ReloadTelemetry(ReloadStatistics statistics, ModuleResolver resolver) {
+		this.statistics = statistics;
+		this.resolver = resolver;
+	}
+
+	/**
+	 * Starts listening for connections from the agent.
+	 *
+	 * @return the port that needs to be passed to the agent
+	 */
+	public synchronized int start() throws IOException {
+		stop();
+		final ServerSocket socket = new ServerSocket(0, 5, InetAddress.getByName("127.0.0.1"));
+		serverSocket = socket;
+		Thread thread = new Thread("tc Server Reload Telemetry") {
+			@Override
+			public void run() {
+				accept(socket);
+			}
+		};
+		thread.setDaemon(true);
+		thread.start();
+		return socket.getLocalPort();
+	}
+
+	public synchronized void stop() {
+		if (serverSocket != null) {
+			try {
+				serverSocket.close();
+			}
+			catch (IOException e) {
+				// ignore
+			}
+			serverSocket = null;
+		}
+	}
+
+	public synchronized boolean isStarted() {
+		return serverSocket != null;
+	}
+
+	public ReloadStatistics getStatistics() {
+		return statistics;
+	}
+
+	private void accept(ServerSocket socket) {
+		while (!socket.isClosed()) {
+			try {
+				final Socket connection = socket.accept();
+				Thread thread = new Thread("tc Server Reload Telemetry Connection") {
+					@Override
+					public void run() {
+						read(connection);
+					}
+				};
+				thread.setDaemon(true);
+				thread.start();
+			}
+			catch (SocketException e) {
+				// closed
+			}
+			catch (IOException e) {
+				TcServerCorePlugin.log(new Status(IStatus.WARNING, ITcServerConstants.PLUGIN_ID,
+						"Failed to accept reload telemetry connection", e));
+			}
+		}
+	}
+
+	private void read(Socket connection) {
+		try {
+			BufferedReader reader = new BufferedReader(
+					new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8));
+			try {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					process(line);
+				}
+			}
+			finally {
+				reader.close();
+			}
+		}
+		catch (IOException e) {
+			// the server has terminated
+		}
+	}
+
+	/**
+	 * Records the event described by <code>line</code>. Malformed lines are
+	 * ignored.
+	 */
+	void process(String line) {
+		String[] values = line.split("\t", -1);
+		if (values.length < 4) {
+			return;
+		}
+		long latency;
+		try {
+			latency = Long.parseLong(values[2]);
+		}
+		catch (NumberFormatException e) {
+			return;
+		}
+		String module = (values[3].length() > 0) ? resolver.getModuleName(values[3]) : null;
+		if (module == null) {
+			module = UNKNOWN_MODULE;
+		}
+		if (EVENT_RELOAD.equals(values[0])) {
+			statistics.recordReload(module, values[1], latency);
+			if (latency >= 0) {
+				PublishMetrics.getDefault().record(PublishMetrics.AGENT_RELOAD,
+						TimeUnit.MILLISECONDS.toNanos(latency));
+			}
+		}
+		else if (EVENT_FAILED.equals(values[0])) {
+			statistics.recordFailure(module, values[1]);
+			PublishMetrics.getDefault().increment(PublishMetrics.AGENT_RELOAD_FAILED);
+		}
+	}
+
+}
@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.core;
+
+/**
+ * A fixed-size buffer of timestamped samples. Samples are stored in primitive
+ * arrays, once the buffer is full the oldest sample is overwritten, hence
+ * recording a sample does not allocate.
+ */
+public class SampleRing {
+
+	private final long[] times;
+
+	private final double[] values;
+
+	/** The index of the next sample. */
+	private int head;
+
+	private int size;
+
+	public SampleRing(int capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("capacity must be positive");
+		}
+		this.times = new long[capacity];
+		this.values = new double[capacity];
+	}
+
+	public synchronized void add(long time, double value) {
+		times[head] = time;
+		values[head] = value;
+		head = (head + 1) % times.length;
+		if (size < times.length) {
+			size++;
+		}
+	}
+
+	public synchronized void clear() {
+		head = 0;
+		size = 0;
+	}
+
+	public int getCapacity() {
+		return times.length;
+	}
+
+	public synchronized int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the time of the sample at <code>index</code>, 0 is the oldest
+	 * sample.
+	 */
+	public synchronized long getTime(int index) {
+		return times[toOffset(index)];
+	}
+
+	/**
+	 * Returns the value of the sample at <code>index</code>, 0 is the oldest
+	 * sample.
+	 */
+	public synchronized double getValue(int index) {
+		return values[toOffset(index)];
+	}
+
+	/**
+	 * Returns the most recent value or {@link Double#NaN}, if the buffer is
+	 * empty.
+	 */
+	public synchronized double getLastValue() {
+		return (size > 0) ? values[toOffset(size - 1)] : Double.NaN;
+	}
+
+	/**
+	 * Returns the largest value or 0, if the buffer is empty.
+	 */
+	public synchronized double getMaxValue() {
+		double max = 0;
+		for (int i = 0; i < size; i++) {
+			max = Math.max(max, values[i]);
+		}
+		return max;
+	}
+
+	/**
+	 * Copies the values into <code>dest</code> ordered from oldest to newest
+	 * and returns the number of copied values. If <code>dest</code> is
+	 * shorter than the buffer, the most recent values are copied.
+	 */
+	public synchronized int copyValues(double[] dest) {
+		int count = Math.min(size, dest.length);
+		for (int i = 0; i < count; i++) {
+			dest[i] = values[toOffset(size - count + i)];
+		}
+		return count;
+	}
+
+	private int toOffset(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("index: " + index + ", size: " + size);
+		}
+		return (head - size + index + times.length) % times.length;
+	}
+
+}
@@ -0,0 +1,300 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.core;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.lang.management.LockInfo;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MonitorInfo;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+
+import javax.management.JMException;
+import javax.management.MBeanServerConnection;
+import javax.management.ObjectName;
+
+/**
+ * Captures thread dumps, class histograms and heap dumps of a running server
+ * through the platform MBeans and stores them with a timestamp in a directory
+ * of the instance, e.g. to compare captures across runs.
+ */
+public class ServerDiagnostics {
+
+	public enum Kind {
+
+		THREAD_DUMP("threads", ".txt"), CLASS_HISTOGRAM("histogram", ".txt"), HEAP_DUMP("heap", ".hprof"),
+
+		/** A directory of collapsed stacks written by {@link ThreadSampler}. */
+		STACK_SAMPLES("stacks", "");
+
+		private final String prefix;
+
+		private final String suffix;
+
+		private Kind(String prefix, String suffix) {
+			this.prefix = prefix;
+			this.suffix = suffix;
+		}
+
+		public String getPrefix() {
+			return prefix;
+		}
+
+		public String getSuffix() {
+			return suffix;
+		}
+
+	}
+
+	/** The directory relative to the instance that stores captures. */
+	public static final String DIRECTORY = "diagnostics";
+
+	/** The report that compares the most recent class histograms. */
+	public static final String HISTOGRAM_TREND = "histogram-trend.txt";
+
+	public static final String DIAGNOSTIC_COMMAND = "com.sun.management:type=DiagnosticCommand";
+
+	public static final String HOTSPOT_DIAGNOSTIC = "com.sun.management:type=HotSpotDiagnostic";
+
+	private static final String TIMESTAMP_FORMAT = "yyyyMMdd-HHmmss";
+
+	private final File directory;
+
+	public ServerDiagnostics(File directory) {
+		this.directory = directory;
+	}
+
+	public File getDirectory() {
+		return directory;
+	}
+
+	/**
+	 * Returns a file for a capture of <code>kind</code> taken at
+	 * <code>time</code> that does not exist, yet.
+	 */
+	public File getFile(Kind kind, long time) throws IOException {
+		if (!directory.isDirectory() && !directory.mkdirs()) {
+			throw new IOException("Failed to create directory " + directory);
+		}
+		String name = kind.getPrefix() + "-" + formatTimestamp(time);
+		File file = new File(directory, name + kind.getSuffix());
+		for (int i = 1; file.exists(); i++) {
+			file = new File(directory, name + "-" + i + kind.getSuffix());
+		}
+		return file;
+	}
+
+	/**
+	 * Stores <code>content</code> as a capture of <code>kind</code> and returns
+	 * the file.
+	 */
+	public File save(Kind kind, String content, long time) throws IOException {
+		File file = getFile(kind, time);
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+
+	/**
+	 * Returns the captures of <code>kind</code> ordered by time, oldest first.
+	 */
+	public List<File> getCaptures(final Kind kind) {
+		File[] files = directory.listFiles(new FilenameFilter() {
+			public boolean accept(File dir, String name) {
+				return name.startsWith(kind.getPrefix() + "-") && name.endsWith(kind.getSuffix())
+						&& getTimestamp(name) != null;
+			}
+		});
+		if (files == null) {
+			return new ArrayList<File>();
+		}
+		// timestamps sort lexicographically, captures with the same timestamp
+		// are distinguished by a counter suffix
+		Arrays.sort(files, new Comparator<File>() {
+			public int compare(File o1, File o2) {
+				int c = getTimestamp(o1.getName()).compareTo(getTimestamp(o2.getName()));
+				if (c == 0) {
+					c = o1.getName().length() - o2.getName().length();
+				}
+				return (c != 0) ? c : o1.getName().compareTo(o2.getName());
+			}
+		});
+		return new ArrayList<File>(Arrays.asList(files));
+	}
+
+	/**
+	 * Captures <code>kind</code> through <code>connection</code> and returns
+	 * the file of the capture. Runs in the calling thread until the server
+	 * has completed the capture which may take minutes for heap dumps and for
+	 * class histograms of large heaps.
+	 */
+	public File capture(MBeanServerConnection connection, Kind kind, long time) throws IOException, JMException {
+		switch (kind) {
+		case THREAD_DUMP:
+			return save(kind, getThreadDump(connection), time);
+		case CLASS_HISTOGRAM:
+			return save(kind, getClassHistogram(connection), time);
+		case HEAP_DUMP:
+			File file = getFile(kind, time);
+			dumpHeap(connection, file, true);
+			return file;
+		default:
+			throw new IllegalArgumentException("Unsupported capture " + kind);
+		}
+	}
+
+	public String read(File file) throws IOException {
+		return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Compares the most recent class histograms and writes the classes that
+	 * grew most to {@link #HISTOGRAM_TREND}.
+	 * @param captures the maximum number of histograms to compare
+	 * @param limit the maximum number of classes to list
+	 */
+	public File writeHistogramTrend(int captures, int limit) throws IOException {
+		List<File> files = getCaptures(Kind.CLASS_HISTOGRAM);
+		files = files.subList(Math.max(0, files.size() - captures), files.size());
+		List<String> labels = new ArrayList<String>();
+		List<ClassHistogram> histograms = new ArrayList<ClassHistogram>();
+		for (File file : files) {
+			labels.add(getTimestamp(file.getName()));
+			histograms.add(ClassHistogram.parse(read(file)));
+		}
+		File file = new File(directory, HISTOGRAM_TREND);
+		Files.write(file.toPath(), ClassHistogram.formatTrend(labels, histograms, limit)
+				.getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+
+	/**
+	 * Returns the timestamp part of a capture file name or null, if
+	 * <code>name</code> is not the name of a capture.
+	 */
+	public static String getTimestamp(String name) {
+		int start = name.indexOf('-') + 1;
+		int end = start + TIMESTAMP_FORMAT.length();
+		if (start == 0 || end > name.length()) {
+			return null;
+		}
+		String timestamp = name.substring(start, end);
+		SimpleDateFormat format = new SimpleDateFormat(TIMESTAMP_FORMAT);
+		format.setLenient(false);
+		try {
+			format.parse(timestamp);
+			return timestamp;
+		}
+		catch (ParseException e) {
+			return null;
+		}
+	}
+
+	static String formatTimestamp(long time) {
+		return new SimpleDateFormat(TIMESTAMP_FORMAT).format(new Date(time));
+	}
+
+	/**
+	 * Returns a thread dump in a format similar to <code>jstack</code>.
+	 * The ids of deadlocked threads are listed at the top.
+	 */
+	public static String getThreadDump(MBeanServerConnection connection) throws IOException {
+		ThreadMXBean threads = ManagementFactory.newPlatformMXBeanProxy(connection,
+				ManagementFactory.THREAD_MXBEAN_NAME, ThreadMXBean.class);
+		ThreadInfo[] infos = threads.dumpAllThreads(threads.isObjectMonitorUsageSupported(),
+				threads.isSynchronizerUsageSupported());
+		long[] deadlocked = threads.isSynchronizerUsageSupported() ? threads.findDeadlockedThreads() : threads
+				.findMonitorDeadlockedThreads();
+		return formatThreadDump(infos, deadlocked);
+	}
+
+	static String formatThreadDump(ThreadInfo[] infos, long[] deadlocked) {
+		StringBuilder sb = new StringBuilder();
+		sb.append("Full thread dump, ").append(infos.length).append(" threads\n\n");
+		if (deadlocked != null && deadlocked.length > 0) {
+			sb.append("Found ").append(deadlocked.length).append(" deadlocked threads:");
+			for (long id : deadlocked) {
+				sb.append(" #").append(id);
+			}
+			sb.append("\n\n");
+		}
+		for (ThreadInfo info : infos) {
+			if (info == null) {
+				continue;
+			}
+			sb.append('"').append(info.getThreadName()).append("\" #").append(info.getThreadId()).append("\n");
+			sb.append("   java.lang.Thread.State: ").append(info.getThreadState());
+			if (info.getLockName() != null) {
+				sb.append(" on ").append(info.getLockName());
+				if (info.getLockOwnerName() != null) {
+					sb.append(" owned by \"").append(info.getLockOwnerName()).append("\" #")
+							.append(info.getLockOwnerId());
+				}
+			}
+			sb.append("\n");
+			StackTraceElement[] stackTrace = info.getStackTrace();
+			MonitorInfo[] monitors = info.getLockedMonitors();
+			for (int i = 0; i < stackTrace.length; i++) {
+				sb.append("\tat ").append(stackTrace[i]).append("\n");
+				for (MonitorInfo monitor : monitors) {
+					if (monitor.getLockedStackDepth() == i) {
+						sb.append("\t- locked ").append(monitor).append("\n");
+					}
+				}
+			}
+			LockInfo[] synchronizers = info.getLockedSynchronizers();
+			if (synchronizers.length > 0) {
+				sb.append("\n   Locked ownable synchronizers:\n");
+				for (LockInfo synchronizer : synchronizers) {
+					sb.append("\t- ").append(synchronizer).append("\n");
+				}
+			}
+			sb.append("\n");
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Returns the class histogram of live objects. Note that this triggers a
+	 * full garbage collection in the server.
+	 */
+	public static String getClassHistogram(MBeanServerConnection connection) throws IOException, JMException {
+		Object result = connection.invoke(ObjectName.getInstance(DIAGNOSTIC_COMMAND), "gcClassHistogram",
+				new Object[] { new String[0] }, new String[] { String[].class.getName() });
+		if (result == null) {
+			throw new IOException("The server did not return a class histogram");
+		}
+		return result.toString();
+	}
+
+	/**
+	 * Writes a heap dump to <code>file</code> which must not exist. The file
+	 * is written by the server process, hence it needs to run on the local
+	 * host.
+	 * @param live if true, only reachable objects are dumped
+	 */
+	public static void dumpHeap(MBeanServerConnection connection, File file, boolean live) throws IOException,
+			JMException {
+		connection.invoke(ObjectName.getInstance(HOTSPOT_DIAGNOSTIC), "dumpHeap", new Object[] {
+				file.getAbsolutePath(), live }, new String[] { String.class.getName(), boolean.class.getName() });
+	}
+
+}
@@ -0,0 +1,375 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.core;
+
+import java.io.IOException;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.management.JMException;
+import javax.management.MBeanServerConnection;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.remote.JMXConnector;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+
+/**
+ * Samples the platform and Catalina MBeans of a running server and keeps the
+ * samples of each metric in a {@link SampleRing}. Sampling only takes place
+ * while listeners are registered, hence monitoring adds no load to the server
+ * unless the samples are displayed. The JMX connection is acquired from a
+ * {@link SharedJmxConnector} while sampling and released when the last
+ * listener is removed.
+ * <p>
+ * Counters such as the request count or GC time are recorded as rates per
+ * second of the interval since the previous sample.
+ * </p>
+ */
+public class ServerMonitor {
+
+	/**
+	 * Provides access to the JMX connector of the monitored server, see
+	 * {@link SharedJmxConnector}.
+	 */
+	public interface ConnectionProvider {
+
+		/**
+		 * Returns true, if the server is running and accepts JMX connections.
+		 */
+		boolean isAvailable();
+
+		JMXConnector connect() throws IOException;
+
+	}
+
+	public interface Listener {
+
+		/**
+		 * Invoked from a background thread after each sample.
+		 */
+		void samplesChanged(ServerMonitor monitor);
+
+	}
+
+	/** Used heap in bytes. */
+	public static final String HEAP_USED = "heap.used";
+
+	/** Committed heap in bytes. */
+	public static final String HEAP_COMMITTED = "heap.committed";
+
+	/** Milliseconds spent in garbage collection per second. */
+	public static final String GC_TIME = "gc.time";
+
+	/** Number of live threads. */
+	public static final String THREADS = "threads";
+
+	/** Prefix for the number of busy threads of a connector thread pool. */
+	public static final String THREAD_POOL_BUSY = "threadPool.busy.";
+
+	/** Prefix for the requests per second of a context. */
+	public static final String CONTEXT_REQUESTS = "context.requests.";
+
+	/** Prefix for the mean processing time of a request of a context. */
+	public static final String CONTEXT_PROCESSING_TIME = "context.processingTime.";
+
+	/** Prefix for the number of active sessions of a context. */
+	public static final String CONTEXT_SESSIONS = "context.sessions.";
+
+	public static final int DEFAULT_CAPACITY = 300;
+
+	public static final long DEFAULT_INTERVAL = 2000;
+
+	private static final ObjectName MEMORY = objectName("java.lang:type=Memory");
+
+	private static final ObjectName GARBAGE_COLLECTORS = objectName("java.lang:type=GarbageCollector,*");
+
+	private static final ObjectName THREADING = objectName("java.lang:type=Threading");
+
+	private static final ObjectName THREAD_POOLS = objectName("Catalina:type=ThreadPool,*");
+
+	private static final ObjectName WEB_MODULES = objectName("Catalina:j2eeType=WebModule,*");
+
+	private static final ObjectName MANAGERS = objectName("Catalina:type=Manager,*");
+
+	private final SharedJmxConnector connector;
+
+	private final int capacity;
+
+	private final Map<String, SampleRing> series = new ConcurrentSkipListMap<String, SampleRing>();
+
+	/** Previous values of counters, only accessed by the sampling thread. */
+	private final Map<String, double[]> counters = new HashMap<String, double[]>();
+
+	/**
+	 * Set by {@link #disconnect()} to have the sampling thread reset
+	 * {@link #counters} before the next sample.
+	 */
+	private volatile boolean resetCounters;
+
+	private final List<Listener> listeners = new CopyOnWriteArrayList<Listener>();
+
+	private final Job job;
+
+	private volatile long interval = DEFAULT_INTERVAL;
+
+	private volatile IStatus status = Status.OK_STATUS;
+
+	public ServerMonitor(SharedJmxConnector connector) {
+		this(connector, DEFAULT_CAPACITY);
+	}
+
+	public ServerMonitor(SharedJmxConnector connector, int capacity) {
+		this.connector = connector;
+		this.capacity = capacity;
+		this.job = new Job("Sampling server metrics") {
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				return runSample();
+			}
+		};
+		this.job.setSystem(true);
+	}
+
+	/**
+	 * Registers <code>listener</code> and starts sampling, if it is the first
+	 * listener.
+	 */
+	public void addListener(Listener listener) {
+		listeners.add(listener);
+		job.schedule();
+	}
+
+	/**
+	 * Removes <code>listener</code>. Sampling stops and the JMX connection is
+	 * released when the last listener is removed.
+	 */
+	public void removeListener(Listener listener) {
+		listeners.remove(listener);
+		if (listeners.isEmpty()) {
+			job.schedule();
+		}
+	}
+
+	public boolean isSampling() {
+		return !listeners.isEmpty();
+	}
+
+	public long getInterval() {
+		return interval;
+	}
+
+	public void setInterval(long interval) {
+		this.interval = interval;
+	}
+
+	/**
+	 * Returns the samples for metric <code>name</code> or null, if the metric
+	 * has not been sampled.
+	 */
+	public SampleRing getSeries(String name) {
+		return series.get(name);
+	}
+
+	/**
+	 * Returns the sampled names that start with <code>prefix</code> without
+	 * the prefix, e.g. the context paths for {@link #CONTEXT_REQUESTS}.
+	 */
+	public List<String> getNames(String prefix) {
+		List<String> names = new ArrayList<String>();
+		for (String name : series.keySet()) {
+			if (name.startsWith(prefix)) {
+				names.add(name.substring(prefix.length()));
+			}
+		}
+		return names;
+	}
+
+	/**
+	 * Returns the status of the last sample.
+	 */
+	public IStatus getStatus() {
+		return status;
+	}
+
+	/**
+	 * Releases the JMX connection and resets counters, e.g. after the server
+	 * was stopped. Sampled values are retained.
+	 */
+	public void disconnect() {
+		connector.release(this);
+		resetCounters = true;
+	}
+
+	private IStatus runSample() {
+		if (listeners.isEmpty()) {
+			disconnect();
+			return Status.OK_STATUS;
+		}
+		if (connector.isAvailable()) {
+			MBeanServerConnection connection = null;
+			try {
+				connection = connector.acquire(this);
+				sample(connection, System.currentTimeMillis());
+				status = Status.OK_STATUS;
+			}
+			catch (Exception e) {
+				status = new Status(IStatus.WARNING, ITcServerConstants.PLUGIN_ID, "Sampling of server metrics failed",
+						e);
+				connector.invalidate(connection);
+				disconnect();
+			}
+		}
+		else {
+			status = new Status(IStatus.INFO, ITcServerConstants.PLUGIN_ID, "Server is not running");
+			disconnect();
+		}
+		for (Listener listener : listeners) {
+			listener.samplesChanged(this);
+		}
+		job.schedule(interval);
+		return Status.OK_STATUS;
+	}
+
+	/**
+	 * Records one sample of all metrics at <code>time</code>. MBeans that
+	 * disappear while sampling, e.g. contexts that are undeployed, are
+	 * skipped.
+	 */
+	void sample(MBeanServerConnection connection, long time) throws IOException, JMException {
+		if (resetCounters) {
+			resetCounters = false;
+			counters.clear();
+		}
+
+		MemoryUsage heap = MemoryUsage.from((CompositeData) connection.getAttribute(MEMORY, "HeapMemoryUsage"));
+		record(HEAP_USED, time, heap.getUsed());
+		record(HEAP_COMMITTED, time, heap.getCommitted());
+
+		long gcTime = 0;
+		for (ObjectName name : connection.queryNames(GARBAGE_COLLECTORS, null)) {
+			long value = getLong(connection, name, "CollectionTime");
+			if (value > 0) {
+				gcTime += value;
+			}
+		}
+		recordRate(GC_TIME, time, gcTime);
+
+		record(THREADS, time, getLong(connection, THREADING, "ThreadCount"));
+
+		for (ObjectName name : connection.queryNames(THREAD_POOLS, null)) {
+			long busy = getLong(connection, name, "currentThreadsBusy");
+			if (busy >= 0) {
+				record(THREAD_POOL_BUSY + unquote(name.getKeyProperty("name")), time, busy);
+			}
+		}
+
+		for (ObjectName name : connection.queryNames(WEB_MODULES, null)) {
+			String path = getContextPath(name.getKeyProperty("name"));
+			long requests = getLong(connection, name, "requestCount");
+			long processingTime = getLong(connection, name, "processingTime");
+			if (path != null && requests >= 0 && processingTime >= 0) {
+				recordRate(CONTEXT_REQUESTS + path, time, requests);
+				recordMean(CONTEXT_PROCESSING_TIME + path, time, processingTime, requests);
+			}
+		}
+
+		for (ObjectName name : connection.queryNames(MANAGERS, null)) {
+			String path = name.getKeyProperty("context");
+			long sessions = getLong(connection, name, "activeSessions");
+			if (path != null && sessions >= 0) {
+				record(CONTEXT_SESSIONS + normalizePath(path), time, sessions);
+			}
+		}
+	}
+
+	private void record(String name, long time, double value) {
+		SampleRing ring = series.get(name);
+		if (ring == null) {
+			ring = new SampleRing(capacity);
+			series.put(name, ring);
+		}
+		ring.add(time, value);
+	}
+
+	/**
+	 * Records the change of counter <code>value</code> per second since the
+	 * previous sample.
+	 */
+	private void recordRate(String name, long time, long value) {
+		double[] previous = counters.put(name, new double[] { value, time });
+		if (previous != null && time > previous[1] && value >= previous[0]) {
+			record(name, time, (value - previous[0]) * 1000 / (time - previous[1]));
+		}
+	}
+
+	/**
+	 * Records the change of <code>total</code> divided by the change of
+	 * <code>count</code> since the previous sample, e.g. the mean processing
+	 * time of requests.
+	 */
+	private void recordMean(String name, long time, long total, long count) {
+		double[] previous = counters.put(name, new double[] { total, count });
+		if (previous != null && total >= previous[0] && count >= previous[1]) {
+			double delta = count - previous[1];
+			record(name, time, (delta > 0) ? (total - previous[0]) / delta : 0);
+		}
+	}
+
+	private static long getLong(MBeanServerConnection connection, ObjectName name, String attribute)
+			throws IOException {
+		try {
+			Object value = connection.getAttribute(name, attribute);
+			return (value instanceof Number) ? ((Number) value).longValue() : -1;
+		}
+		catch (JMException e) {
+			return -1;
+		}
+	}
+
+	/**
+	 * Returns the context path for the name of a WebModule MBean, e.g.
+	 * <code>//localhost/app</code>.
+	 */
+	static String getContextPath(String name) {
+		if (name == null || !name.startsWith("//")) {
+			return null;
+		}
+		int i = name.indexOf('/', 2);
+		return normalizePath((i != -1) ? name.substring(i) : "");
+	}
+
+	private static String normalizePath(String path) {
+		return (path.length() == 0) ? "/" : path;
+	}
+
+	private static String unquote(String value) {
+		return (value != null && value.startsWith("\"")) ? ObjectName.unquote(value) : value;
+	}
+
+	private static ObjectName objectName(String name) {
+		try {
+			return ObjectName.getInstance(name);
+		}
+		catch (JMException e) {
+			throw new IllegalArgumentException(e);
+		}
+	}
+
+}
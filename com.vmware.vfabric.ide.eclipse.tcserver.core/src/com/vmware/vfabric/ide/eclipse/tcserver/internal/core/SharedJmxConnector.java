@@ -0,0 +1,113 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.core;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.management.MBeanServerConnection;
+import javax.management.remote.JMXConnector;
+
+/**
+ * Shares a single JMX connector to a running server between its users, e.g.
+ * the {@link ServerMonitor} and the {@link ThreadSampler} of a server. The
+ * connector is opened when it is first acquired and closed when the last user
+ * releases it or when a user reports that the connection failed.
+ */
+public class SharedJmxConnector {
+
+	private final ServerMonitor.ConnectionProvider provider;
+
+	private final Set<Object> users = new HashSet<Object>();
+
+	private JMXConnector connector;
+
+	private MBeanServerConnection connection;
+
+	public SharedJmxConnector(ServerMonitor.ConnectionProvider provider) {
+		this.provider = provider;
+	}
+
+	/**
+	 * Returns true, if the server is running and accepts JMX connections.
+	 */
+	public boolean isAvailable() {
+		return provider.isAvailable();
+	}
+
+	/**
+	 * Returns the connection to the server and registers <code>user</code>.
+	 * Opens the connector if it is not open.
+	 */
+	public synchronized MBeanServerConnection acquire(Object user) throws IOException {
+		if (connector == null) {
+			JMXConnector newConnector = provider.connect();
+			try {
+				connection = newConnector.getMBeanServerConnection();
+			}
+			catch (IOException e) {
+				close(newConnector);
+				throw e;
+			}
+			connector = newConnector;
+		}
+		users.add(user);
+		return connection;
+	}
+
+	/**
+	 * Unregisters <code>user</code> and closes the connector if no other user
+	 * remains.
+	 */
+	public synchronized void release(Object user) {
+		users.remove(user);
+		if (users.isEmpty()) {
+			disconnect();
+		}
+	}
+
+	/**
+	 * Closes the connector if <code>failedConnection</code> is the current
+	 * connection, e.g. after the server was restarted. Users acquire a new
+	 * connection for their next request.
+	 */
+	public synchronized void invalidate(MBeanServerConnection failedConnection) {
+		if (failedConnection != null && failedConnection == connection) {
+			disconnect();
+		}
+	}
+
+	/**
+	 * Returns true, if the connector is open.
+	 */
+	public synchronized boolean isConnected() {
+		return connector != null;
+	}
+
+	private void disconnect() {
+		if (connector != null) {
+			close(connector);
+			connector = null;
+			connection = null;
+		}
+	}
+
+	private static void close(JMXConnector connector) {
+		try {
+			connector.close();
+		}
+		catch (IOException e) {
+			// ignore, the server may have already shutdown
+		}
+	}
+
+}
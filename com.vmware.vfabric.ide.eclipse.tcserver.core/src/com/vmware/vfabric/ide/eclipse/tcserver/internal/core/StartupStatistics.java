@@ -0,0 +1,104 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.core;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Records the startup times of a server to measure the savings of skipping
+ * jars that do not need to be scanned, see {@link JarScanAnalyzer}. Durations
+ * are in milliseconds.
+ */
+public class StartupStatistics {
+
+	/**
+	 * Notified when a startup was recorded.
+	 */
+	public interface Listener {
+
+		void statisticsChanged(StartupStatistics statistics);
+
+	}
+
+	private final PublishMetrics.Histogram withSkippedJars = new PublishMetrics.Histogram();
+
+	private final PublishMetrics.Histogram withoutSkippedJars = new PublishMetrics.Histogram();
+
+	private final List<Listener> listeners = new CopyOnWriteArrayList<Listener>();
+
+	private volatile long lastDuration = -1;
+
+	private volatile int lastSkippedJars;
+
+	public void addListener(Listener listener) {
+		listeners.add(listener);
+	}
+
+	public void removeListener(Listener listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * Records a startup that took <code>duration</code> milliseconds while
+	 * <code>skippedJars</code> jars were excluded from scanning.
+	 */
+	public void record(long duration, int skippedJars) {
+		if (skippedJars > 0) {
+			withSkippedJars.record(duration);
+		}
+		else {
+			withoutSkippedJars.record(duration);
+		}
+		lastDuration = duration;
+		lastSkippedJars = skippedJars;
+		for (Listener listener : listeners) {
+			listener.statisticsChanged(this);
+		}
+	}
+
+	/**
+	 * Returns the duration of the last startup, -1 if no startup was recorded.
+	 */
+	public long getLastDuration() {
+		return lastDuration;
+	}
+
+	public int getLastSkippedJars() {
+		return lastSkippedJars;
+	}
+
+	/**
+	 * Returns the mean duration of startups with or without skipped jars, -1
+	 * if no such startup was recorded.
+	 */
+	public long getMeanDuration(boolean skippedJars) {
+		PublishMetrics.Histogram histogram = (skippedJars) ? withSkippedJars : withoutSkippedJars;
+		long count = histogram.getCount();
+		return (count > 0) ? histogram.getSum() / count : -1;
+	}
+
+	/**
+	 * Returns true, if startups with and without skipped jars were recorded.
+	 */
+	public boolean isSavingsKnown() {
+		return withSkippedJars.getCount() > 0 && withoutSkippedJars.getCount() > 0;
+	}
+
+	/**
+	 * Returns the difference of the mean startup durations without and with
+	 * skipped jars. Only meaningful if {@link #isSavingsKnown()} returns true.
+	 */
+	public long getSavings() {
+		return getMeanDuration(false) - getMeanDuration(true);
+	}
+
+}
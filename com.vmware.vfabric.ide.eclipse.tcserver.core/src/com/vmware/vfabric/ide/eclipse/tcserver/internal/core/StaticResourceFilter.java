@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.core;
+
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+
+import org.apache.commons.lang.StringUtils;
+import org.w3c.dom.Attr;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+
+/**
+ * Decides if a changed resource is static, i.e. can be updated without
+ * reloading the application, based on the comma separated glob patterns
+ * configured for a server, see {@link TcServer#getStaticFilenamePatterns()}.
+ * Patterns that start with <code>!</code> exclude resources. The last matching
+ * pattern wins.
+ * <p>
+ * Patterns are compiled once when the filter is created.
+ * </p>
+ */
+public class StaticResourceFilter {
+
+	public static final String SPRING_BEANS_NAMESPACE_URI = "http://www.springframework.org/schema/beans";
+
+	private final PathMatcher[] matchers;
+
+	private final boolean[] excludes;
+
+	public StaticResourceFilter(String patterns) {
+		String[] segments = StringUtils.splitByWholeSeparator(patterns, ",");
+		if (segments == null) {
+			segments = new String[0];
+		}
+		this.matchers = new PathMatcher[segments.length];
+		this.excludes = new boolean[segments.length];
+		for (int i = 0; i < segments.length; i++) {
+			String pattern = segments[i];
+			excludes[i] = pattern.startsWith("!");
+			matchers[i] = FileSystems.getDefault().getPathMatcher(
+					"glob:" + ((excludes[i]) ? pattern.substring(1) : pattern));
+		}
+	}
+
+	/**
+	 * Returns true, if a resource with the given <code>name</code> is static.
+	 */
+	public boolean isStatic(String name) {
+		Path path = Paths.get(name);
+		boolean isStatic = false;
+		for (int i = 0; i < matchers.length; i++) {
+			if (matchers[i].matches(path)) {
+				isStatic = !excludes[i];
+			}
+		}
+		return isStatic;
+	}
+
+	/**
+	 * Returns true, if <code>root</code> or any of its descendants is in the
+	 * Spring beans namespace or declares it. Spring configuration files are
+	 * never static since the application context needs to be refreshed when
+	 * they change.
+	 */
+	public static boolean isSpringConfiguration(Element root) {
+		if (SPRING_BEANS_NAMESPACE_URI.equals(root.getNamespaceURI())) {
+			return true;
+		}
+		NamedNodeMap attributes = root.getAttributes();
+		for (int i = 0; i < attributes.getLength(); i++) {
+			Attr attribute = (Attr) attributes.item(i);
+			String name = attribute.getName();
+			if ((name.equals("xmlns") || name.startsWith("xmlns:"))
+					&& SPRING_BEANS_NAMESPACE_URI.equals(attribute.getValue())) {
+				return true;
+			}
+		}
+		for (Node child = root.getFirstChild(); child != null; child = child.getNextSibling()) {
+			if (child.getNodeType() == Node.ELEMENT_NODE && isSpringConfiguration((Element) child)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+}
@@ -10,13 +10,10 @@
  *******************************************************************************/
 package com.vmware.vfabric.ide.eclipse.tcserver.internal.core;
 
-import java.nio.file.FileSystems;
-import java.nio.file.Paths;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.concurrent.TimeoutException;
 
-import org.apache.commons.lang.StringUtils;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IAdaptable;
@@ -41,7 +38,6 @@ import org.eclipse.wst.server.core.model.ServerBehaviourDelegate;
 import org.eclipse.wst.server.core.util.PublishHelper;
 import org.eclipse.wst.sse.core.StructuredModelManager;
 import org.eclipse.wst.sse.core.internal.provisional.IStructuredModel;
-import org.eclipse.wst.xml.core.internal.contentmodel.util.NamespaceTable;
 import org.eclipse.wst.xml.core.internal.document.DOMModelImpl;
 import org.eclipse.wst.xml.core.internal.provisional.document.IDOMDocument;
 
@@ -56,7 +52,7 @@ import org.eclipse.wst.xml.core.internal.provisional.document.IDOMDocument;
  */
 public class TcPublisher extends PublishOperation2 {
 
-	public static final String DEFAULT_NAMESPACE_URI = "http://www.springframework.org/schema/beans";
+	public static final String DEFAULT_NAMESPACE_URI = StaticResourceFilter.SPRING_BEANS_NAMESPACE_URI;
 
 	private final IModule module2;
 
@@ -111,23 +107,29 @@ public class TcPublisher extends PublishOperation2 {
 			return;
 		}
 
+		PublishMetrics metrics = PublishMetrics.getDefault();
+		metrics.increment(PublishMetrics.MODULE_PUBLISH);
 		Set<IModuleFile> files = new HashSet<IModuleFile>();
 		IModuleResourceDelta[] delta = ((TcServerBehaviour) server).getPublishedResourceDelta(module);
+		TcServer tcServer = (TcServer) server.getServer().loadAdapter(TcServer.class, null);
+		StaticResourceFilter filter = new StaticResourceFilter(tcServer.getStaticFilenamePatterns());
 		int size = delta.length;
 		for (int i = 0; i < size; i++) {
-			if (!onlyStaticResources(delta[i], files)) {
+			if (!onlyStaticResources(delta[i], filter, files)) {
+				metrics.recordModuleDelta(files.size(), true);
 				// a dynamic resource has changed, reload app
 				reload(deployer, monitor);
 				return;
 			}
 		}
+		metrics.recordModuleDelta(files.size(), false);
 	}
 
 	/**
-	 * Checks if the given <code>file</code> is a root node that is a known
-	 * Spring namespace.
+	 * Returns true, if an element of the given <code>file</code> is in the
+	 * Spring beans namespace or declares it.
 	 */
-	private boolean checkIfSpringConfigurationFile(IFile file) {
+	private boolean isSpringConfigurationFile(IFile file) {
 		IStructuredModel model = null;
 		try {
 			model = StructuredModelManager.getModelManager().getExistingModelForRead(file);
@@ -137,12 +139,7 @@ public class TcPublisher extends PublishOperation2 {
 			if (model != null) {
 				IDOMDocument document = ((DOMModelImpl) model).getDocument();
 				if (document != null && document.getDocumentElement() != null) {
-					String namespaceUri = document.getDocumentElement().getNamespaceURI();
-					NamespaceTable table = new NamespaceTable(document);
-					if (DEFAULT_NAMESPACE_URI.equals(namespaceUri)
-							|| table.getNamespaceInfoForURI(DEFAULT_NAMESPACE_URI) != null) {
-						return false;
-					}
+					return StaticResourceFilter.isSpringConfiguration(document.getDocumentElement());
 				}
 			}
 		}
@@ -154,7 +151,7 @@ public class TcPublisher extends PublishOperation2 {
 			}
 			model = null;
 		}
-		return true;
+		return false;
 	}
 
 	private boolean isModuleAutoReloadEnabled() {
@@ -176,10 +173,11 @@ public class TcPublisher extends PublishOperation2 {
 	/**
 	 * Check if resource delta only contains static resources
 	 */
-	private boolean onlyStaticResources(IModuleResourceDelta delta, Set<IModuleFile> files) {
+	private boolean onlyStaticResources(IModuleResourceDelta delta, StaticResourceFilter filter,
+			Set<IModuleFile> files) {
 		if (delta.getModuleResource() instanceof IModuleFolder) {
 			for (IModuleResourceDelta child : delta.getAffectedChildren()) {
-				if (!onlyStaticResources(child, files)) {
+				if (!onlyStaticResources(child, filter, files)) {
 					return false;
 				}
 			}
@@ -195,22 +193,19 @@ public class TcPublisher extends PublishOperation2 {
 			if (name.endsWith(".xml")) {
 				IFile file = (IFile) delta.getModuleResource().getAdapter(IFile.class);
 				// check for spring context xml files first but exclude
-				if (!checkIfSpringConfigurationFile(file)) {
-					return false;
+				boolean isSpringConfigurationFile;
+				PublishMetrics.Timer timer = PublishMetrics.getDefault().startTimer(PublishMetrics.MODULE_SPRING_XML_CHECK);
+				try {
+					isSpringConfigurationFile = isSpringConfigurationFile(file);
 				}
-			}
-			boolean isStatic = false;
-			// Check the configuration options for static resources
-			TcServer tcServer = (TcServer) server.getServer().loadAdapter(TcServer.class, null);
-			for (String pattern : StringUtils.splitByWholeSeparator(tcServer.getStaticFilenamePatterns(), ",")) {
-				if (pattern.startsWith("!") && FileSystems.getDefault().getPathMatcher("glob:" + pattern.substring(1)).matches(Paths.get(name))) {
-					isStatic = false;
+				finally {
+					timer.stop();
 				}
-				else if (FileSystems.getDefault().getPathMatcher("glob:" + pattern).matches(Paths.get(name))) {
-					isStatic = true;
+				if (isSpringConfigurationFile) {
+					return false;
 				}
 			}
-			return isStatic;
+			return filter.isStatic(name);
 		}
 	}
 
@@ -232,7 +227,14 @@ public class TcPublisher extends PublishOperation2 {
 				IPath base = server.getRuntimeBaseDirectory();
 				PublishHelper helper = new PublishHelper(base.append("temp").toFile());
 				IModuleResource[] mr = ((TcServerBehaviour) server).getResources(module);
-				IStatus[] stat = helper.publishZip(mr, path, monitor);
+				IStatus[] stat;
+				PublishMetrics.Timer timer = PublishMetrics.getDefault().startTimer(PublishMetrics.MODULE_WAR_ZIP);
+				try {
+					stat = helper.publishZip(mr, path, monitor);
+				}
+				finally {
+					timer.stop();
+				}
 				if (stat.length > 0) {
 					throw new CoreException(new MultiStatus(ITcServerConstants.PLUGIN_ID, 0, stat, NLS.bind(
 							"Failed to gather resources to publish module ''{0}''", module2.getName()), null));
@@ -243,7 +245,13 @@ public class TcPublisher extends PublishOperation2 {
 			TcReloadModuleCommand command = new TcReloadModuleCommand(deployer.getTcServerBehaviour(),
 					deployer.getService(), deployer.getHost(), deployer.getContextPath(), deployPath);
 			command.setForceDeploy(deployPath != null);
-			command.execute();
+			PublishMetrics.Timer timer = PublishMetrics.getDefault().startTimer(PublishMetrics.MODULE_RELOAD);
+			try {
+				command.execute();
+			}
+			finally {
+				timer.stop();
+			}
 		}
 		catch (TimeoutException e) {
 			throw new CoreException(new Status(IStatus.ERROR, ITcServerConstants.PLUGIN_ID, NLS.bind(
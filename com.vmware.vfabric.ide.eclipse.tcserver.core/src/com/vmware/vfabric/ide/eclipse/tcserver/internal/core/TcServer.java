@@ -38,6 +38,8 @@ import org.eclipse.wst.server.core.IRuntime;
 import org.eclipse.wst.server.core.ServerPort;
 import org.eclipse.wst.server.core.ServerUtil;
 
+import com.vmware.vfabric.ide.eclipse.tcserver.reloading.ReloadingProfiles;
+
 /**
  * @author Steffen Pingel
  * @author Christian Dupuis
@@ -68,8 +70,16 @@ public class TcServer extends TomcatServer {
 
 	public static final String PROPERTY_AGENT_OPTIONS = "com.springsource.tcserver.agent.options";
 
+	public static final String PROPERTY_AGENT_PROFILE = "com.springsource.tcserver.agent.profile";
+
 	public static final String PROPERTY_AGENT_REDEPLOY = "com.springsource.tcserver.agent.deploy";
 
+	/**
+	 * Property key for a boolean that indicates that launches use a class data
+	 * sharing archive, see {@link ClassDataSharing}.
+	 */
+	public static final String PROPERTY_CLASS_DATA_SHARING = "com.springsource.tcserver.cds";
+
 	public static final String PROPERTY_DEPLOYER_HOST = "modifyDeployerHost";
 
 	public static final String PROPERTY_DEPLOYER_SERVICE = "modifyDeployerService";
@@ -80,12 +90,38 @@ public class TcServer extends TomcatServer {
 	 */
 	public static final String PROPERTY_ENHANCED_REDEPLOY = "com.springsource.tcserver.jmx.deploy";
 
+	/**
+	 * Property key for a boolean that indicates that jars without TLDs, web
+	 * fragments, container initializers or classes that Tomcat processes are
+	 * excluded from scanning, see {@link JarScanAnalyzer}.
+	 */
+	public static final String PROPERTY_JAR_SCAN_OPTIMIZATION = "com.springsource.tcserver.jarScan.optimize";
+
 	public static final String PROPERTY_JMX_PASSWORD = "modifyJmxPassowrd";
 
 	public static final String PROPERTY_JMX_PORT = "modifyJmxPort";
 
 	public static final String PROPERTY_JMX_USER = "modifyJmxUser";
 
+	/**
+	 * Property key for the id of the {@link LaunchProfile} that tunes the VM
+	 * of launched servers.
+	 */
+	public static final String PROPERTY_LAUNCH_PROFILE = "com.springsource.tcserver.launch.profile";
+
+	/**
+	 * Property key for starting contexts in parallel, see
+	 * {@link ParallelStartup}.
+	 */
+	public static final String PROPERTY_PARALLEL_STARTUP = "com.springsource.tcserver.parallelStartup";
+
+	/**
+	 * Property key for the {@link InstanceProvisioner.Mode} that is used to
+	 * materialize instance directories. Defaults to
+	 * {@link InstanceProvisioner.Mode#LINK}.
+	 */
+	public static final String PROPERTY_PROVISIONING_MODE = "com.springsource.tcserver.provisioning.mode";
+
 	public static final String PROPERTY_REMOVE_EXTRA_VMARGS = "removeExtraVmArgs";
 
 	/**
@@ -107,6 +143,10 @@ public class TcServer extends TomcatServer {
 		return getAttribute(PROPERTY_AGENT_OPTIONS, "");
 	}
 
+	public String getAgentProfile() {
+		return getAttribute(PROPERTY_AGENT_PROFILE, ReloadingProfiles.ID_DEFAULT);
+	}
+
 	public String getDeployerHost() {
 		return getAttribute(PROPERTY_DEPLOYER_HOST, DEFAULT_DEPLOYER_HOST);
 	}
@@ -164,6 +204,10 @@ public class TcServer extends TomcatServer {
 		return getAttribute(PROPERTY_JMX_USER, "");
 	}
 
+	public String getLaunchProfile() {
+		return getAttribute(PROPERTY_LAUNCH_PROFILE, LaunchProfiles.ID_DEFAULT);
+	}
+
 	public Layout getLayout() {
 		if (isAsfLayout()) {
 			return Layout.ASF;
@@ -179,6 +223,11 @@ public class TcServer extends TomcatServer {
 		}
 	}
 
+	public InstanceProvisioner.Mode getProvisioningMode() {
+		return InstanceProvisioner.Mode.fromString(getAttribute(PROPERTY_PROVISIONING_MODE,
+				InstanceProvisioner.Mode.LINK.name()));
+	}
+
 	@SuppressWarnings("unchecked")
 	public List<String> getRemoveExtraVmArgs() {
 		return getAttribute(PROPERTY_REMOVE_EXTRA_VMARGS, Collections.EMPTY_LIST);
@@ -249,10 +298,22 @@ public class TcServer extends TomcatServer {
 		return getAttribute(TcServer.KEY_ASF_LAYOUT, true);
 	}
 
+	public boolean isClassDataSharingEnabled() {
+		return getAttribute(PROPERTY_CLASS_DATA_SHARING, false);
+	}
+
 	public boolean isEnhancedRedeployEnabled() {
 		return getAttribute(PROPERTY_ENHANCED_REDEPLOY, false);
 	}
 
+	public boolean isJarScanOptimizationEnabled() {
+		return getAttribute(PROPERTY_JAR_SCAN_OPTIMIZATION, false);
+	}
+
+	public boolean isParallelStartupEnabled() {
+		return getAttribute(PROPERTY_PARALLEL_STARTUP, false);
+	}
+
 	public void setAddExtraVmArgs(List<String> value) {
 		setAttribute(PROPERTY_ADD_EXTRA_VMARGS, value);
 	}
@@ -261,10 +322,18 @@ public class TcServer extends TomcatServer {
 		setAttribute(PROPERTY_AGENT_OPTIONS, agentOptions);
 	}
 
+	public void setAgentProfile(String agentProfile) {
+		setAttribute(PROPERTY_AGENT_PROFILE, agentProfile);
+	}
+
 	public void setAgentRedeployEnabled(boolean enable) {
 		setAttribute(PROPERTY_AGENT_REDEPLOY, enable);
 	}
 
+	public void setClassDataSharingEnabled(boolean enable) {
+		setAttribute(PROPERTY_CLASS_DATA_SHARING, enable);
+	}
+
 	@Override
 	public void setDefaults(IProgressMonitor monitor) {
 		super.setDefaults(monitor);
@@ -304,6 +373,10 @@ public class TcServer extends TomcatServer {
 		setAttribute(PROPERTY_ENHANCED_REDEPLOY, enable);
 	}
 
+	public void setJarScanOptimizationEnabled(boolean enable) {
+		setAttribute(PROPERTY_JAR_SCAN_OPTIMIZATION, enable);
+	}
+
 	public void setJmxPassword(String value) {
 		setAttribute(PROPERTY_JMX_PASSWORD, value);
 	}
@@ -316,6 +389,18 @@ public class TcServer extends TomcatServer {
 		setAttribute(PROPERTY_JMX_USER, value);
 	}
 
+	public void setLaunchProfile(String launchProfile) {
+		setAttribute(PROPERTY_LAUNCH_PROFILE, launchProfile);
+	}
+
+	public void setParallelStartupEnabled(boolean enable) {
+		setAttribute(PROPERTY_PARALLEL_STARTUP, enable);
+	}
+
+	public void setProvisioningMode(InstanceProvisioner.Mode mode) {
+		setAttribute(PROPERTY_PROVISIONING_MODE, mode.name());
+	}
+
 	public void setRemoveExtraVmArgs(List<String> value) {
 		setAttribute(PROPERTY_REMOVE_EXTRA_VMARGS, value);
 	}
@@ -368,28 +453,7 @@ public class TcServer extends TomcatServer {
 	}
 	
 	public static String substitute(String value, Properties properties) {
-		String[] segments = value.split("\\$\\{");
-		StringBuffer sb = new StringBuffer(value.length());
-		sb.append(segments[0]);
-		for (int i = 1; i < segments.length; i++) {
-			String segment = segments[i];
-			String substitution = null;
-			int brace = segment.indexOf('}');
-			if (brace > 0) {
-				String keyword = segment.substring(0, brace);
-				substitution = properties.getProperty(keyword);
-			}
-
-			if (substitution != null) {
-				sb.append(substitution);
-				sb.append(segment.substring(brace + 1));
-			}
-			else {
-				sb.append("${");
-				sb.append(segment);
-			}
-		}
-		return sb.toString();
+		return PropertySubstitutor.substitute(value, properties);
 	}
 
 	public enum Layout {
@@ -15,14 +15,23 @@ import java.io.IOException;
 import java.net.ConnectException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.TimeoutException;
 
+import javax.management.remote.JMXConnector;
+
 import org.apache.commons.httpclient.HostConfiguration;
 import org.apache.commons.httpclient.HttpClient;
 import org.apache.commons.httpclient.methods.HeadMethod;
 import org.apache.commons.lang.StringUtils;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
@@ -30,14 +39,18 @@ import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.debug.core.DebugPlugin;
 import org.eclipse.debug.core.ILaunch;
 import org.eclipse.debug.core.ILaunchConfigurationWorkingCopy;
 import org.eclipse.jdt.launching.IJavaLaunchConfigurationConstants;
 import org.eclipse.jdt.launching.IRuntimeClasspathEntry;
+import org.eclipse.jdt.launching.IVMInstall;
+import org.eclipse.jdt.launching.IVMInstall2;
 import org.eclipse.jdt.launching.JavaRuntime;
-import org.eclipse.jst.server.tomcat.core.internal.FileUtil;
+import org.eclipse.jst.server.core.IWebModule;
 import org.eclipse.jst.server.tomcat.core.internal.ITomcatVersionHandler;
 import org.eclipse.jst.server.tomcat.core.internal.Messages;
 import org.eclipse.jst.server.tomcat.core.internal.PingThread;
@@ -49,10 +62,15 @@ import org.eclipse.mylyn.commons.net.WebLocation;
 import org.eclipse.wst.server.core.IModule;
 import org.eclipse.wst.server.core.IServer;
 import org.eclipse.wst.server.core.ServerPort;
+import org.eclipse.wst.server.core.model.IModuleFile;
+import org.eclipse.wst.server.core.model.IModuleFolder;
 import org.eclipse.wst.server.core.model.IModuleResource;
 import org.eclipse.wst.server.core.model.IModuleResourceDelta;
 
 import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.TcServer.Layout;
+import com.vmware.vfabric.ide.eclipse.tcserver.reloading.ReloadingAgent;
+import com.vmware.vfabric.ide.eclipse.tcserver.reloading.ReloadingProfile;
+import com.vmware.vfabric.ide.eclipse.tcserver.reloading.ReloadingProfiles;
 import com.vmware.vfabric.ide.eclipse.tcserver.reloading.TcServerReloadingPlugin;
 
 /**
@@ -133,6 +151,48 @@ public class TcServerBehaviour extends TomcatServerBehaviour {
 
 	}
 
+	/** The maximum heap size if no -Xmx argument is specified. */
+	private static final String DEFAULT_MAXIMUM_HEAP = "768m";
+
+	/**
+	 * Fingerprint of the context configuration that was written by the last
+	 * publish, see {@link ContextConfigurationFingerprint}.
+	 */
+	private String contextFingerprint;
+
+	/**
+	 * True, if the last publish skipped publishing the server configuration
+	 * since it was unchanged, see {@link ConfigurationLedger}.
+	 */
+	private boolean configurationUnchanged;
+
+	private final ReloadStatistics reloadStatistics = new ReloadStatistics();
+
+	private ReloadTelemetry reloadTelemetry;
+
+	/** The class data sharing archive of the last launch or null. */
+	private ClassDataSharing classDataSharing;
+
+	/** The java executable of the last launch. */
+	private File classDataSharingJava;
+
+	/** The class path of the last launch. */
+	private String classDataSharingClasspath;
+
+	private final StartupStatistics startupStatistics = new StartupStatistics();
+
+	/** The value of {@link System#nanoTime()} when the server was launched. */
+	private long launchTime = -1;
+
+	/** The number of jars that were excluded from scanning at launch. */
+	private int launchSkippedJars;
+
+	private SharedJmxConnector jmxConnector;
+
+	private ServerMonitor serverMonitor;
+
+	private ThreadSampler threadSampler;
+
 	public static boolean mergeClasspathIfRequired(List<IRuntimeClasspathEntry> cp, IRuntimeClasspathEntry entry) {
 		return mergeClasspathIfRequired(cp, entry, false);
 	}
@@ -164,6 +224,12 @@ public class TcServerBehaviour extends TomcatServerBehaviour {
 		return true;
 	}
 
+	@Override
+	public void dispose() {
+		stopReloadTelemetry();
+		super.dispose();
+	}
+
 	public String getDeployRoot() {
 		return getServerDeployDirectory().toOSString() + File.separator;
 	}
@@ -214,6 +280,9 @@ public class TcServerBehaviour extends TomcatServerBehaviour {
 		TcServer.getCallback().setupLaunch(getTomcatServer(), launch, launchMode, monitor);
 
 		TcServerConfiguration configuration = getTomcatConfiguration();
+		launchTime = System.nanoTime();
+		launchSkippedJars = JarScanAnalyzer.getGeneratedCount(configuration
+				.getProperty(JarScanAnalyzer.PROPERTY_GENERATED));
 		if (configuration.getMainPort() == null && ping == null) {
 			ServerPort serverPort = configuration.getMainSslPort();
 			if (serverPort != null) {
@@ -252,18 +321,70 @@ public class TcServerBehaviour extends TomcatServerBehaviour {
 		if (getTomcatServer().isAgentRedeployEnabled() && TcServerReloadingPlugin.getAgentJarPath() != null) {
 			argsToAdd.add("-javaagent:\"" + TcServerReloadingPlugin.getAgentJarPath() + "\"");
 			argsToAdd.add("-noverify");
-			String agentOptions = getTomcatServer().getAgentOptions();
+			String agentOptions = getAgentOptions();
 			if (StringUtils.isNotBlank(agentOptions)) {
 				argsToAdd.add("-Dspringloaded=\"" + agentOptions + "\"");
 			}
 			else {
 				argsToRemove.add("-Dspringloaded");
 			}
+			// the telemetry agent needs to follow the Spring Loaded agent
+			String telemetryJarPath = TcServerReloadingPlugin.getTelemetryJarPath();
+			if (telemetryJarPath != null) {
+				int port = startReloadTelemetry();
+				if (port != -1) {
+					argsToAdd.add("-javaagent:\"" + telemetryJarPath + "\"=" + port);
+				}
+				else {
+					argsToRemove.add("-javaagent:\"" + telemetryJarPath + "\"");
+				}
+			}
 		}
 		else {
 			argsToRemove.add("-javaagent:\"" + TcServerReloadingPlugin.getAgentJarPath() + "\"");
 			argsToRemove.add("-noverify");
 			argsToRemove.add("-Dspringloaded");
+			if (TcServerReloadingPlugin.getTelemetryJarPath() != null) {
+				argsToRemove.add("-javaagent:\"" + TcServerReloadingPlugin.getTelemetryJarPath() + "\"");
+			}
+			stopReloadTelemetry();
+		}
+
+		IVMInstall vmInstall = JavaRuntime.computeVMInstall(workingCopy);
+		String javaVersion = (vmInstall instanceof IVMInstall2) ? ((IVMInstall2) vmInstall).getJavaVersion() : null;
+
+		LaunchProfile launchProfile = LaunchProfiles.getProfile(getTomcatServer().getLaunchProfile());
+		int javaMajorVersion = LaunchProfiles.getJavaMajorVersion(javaVersion);
+		String os = Platform.getOS();
+		if (!launchProfile.isSupported(javaMajorVersion, os)) {
+			String vmName = (vmInstall != null) ? vmInstall.getName() : "the default VM";
+			TcServerCorePlugin.log(new Status(IStatus.WARNING, ITcServerConstants.PLUGIN_ID, "The launch profile '"
+					+ launchProfile.getLabel() + "' requires Java " + launchProfile.getRequiredJavaVersion(os)
+					+ " or later and is not applied to '" + vmName + "'"));
+		}
+		// only remove arguments that were added by a profile to retain arguments entered by the user
+		List<String> previousLaunchProfileArgs = workingCopy.getAttribute(LaunchProfiles.ATTR_PROFILE_ARGUMENTS,
+				Collections.<String> emptyList());
+		List<String> launchProfileArgs = LaunchProfiles.getAddedArguments(launchProfile, javaMajorVersion, os,
+				parsedVMArgs, previousLaunchProfileArgs, DEFAULT_MAXIMUM_HEAP);
+		argsToAdd.addAll(launchProfileArgs);
+		for (String arg : previousLaunchProfileArgs) {
+			if (!launchProfileArgs.contains(arg)) {
+				argsToRemove.add(arg);
+			}
+		}
+		workingCopy.setAttribute(LaunchProfiles.ATTR_PROFILE_ARGUMENTS, launchProfileArgs);
+
+		classDataSharing = null;
+		boolean classDataSharingEnabled = getTomcatServer().isClassDataSharingEnabled()
+				|| launchProfile.isClassDataSharing();
+		List<String> classDataSharingArgs = (classDataSharingEnabled) ? getClassDataSharingArguments(workingCopy,
+				vmInstall, javaVersion) : Collections.<String> emptyList();
+		argsToAdd.addAll(classDataSharingArgs);
+		for (String arg : ClassDataSharing.ARGUMENTS) {
+			if (classDataSharingArgs.isEmpty() || !classDataSharingArgs.get(0).startsWith(arg)) {
+				argsToRemove.add(arg);
+			}
 		}
 
 		boolean addXmx = true;
@@ -289,7 +410,7 @@ public class TcServerBehaviour extends TomcatServerBehaviour {
 			}
 		}
 		if (addXmx) {
-			argsToAdd.add("-Xmx768m");
+			argsToAdd.add("-Xmx" + DEFAULT_MAXIMUM_HEAP);
 		}
 		if (addXss) {
 			argsToAdd.add("-Xss256k");
@@ -314,6 +435,74 @@ public class TcServerBehaviour extends TomcatServerBehaviour {
 
 	}
 
+	/**
+	 * Returns the arguments to record or use a class data sharing archive for
+	 * the VM and class path of the launch.
+	 */
+	private List<String> getClassDataSharingArguments(ILaunchConfigurationWorkingCopy workingCopy,
+			IVMInstall vmInstall, String javaVersion) {
+		try {
+			ClassDataSharing.Mode mode = ClassDataSharing.getMode(javaVersion);
+			File javaExecutable = (vmInstall != null) ? ClassDataSharing.findJavaExecutable(vmInstall
+					.getInstallLocation()) : null;
+			if (mode == ClassDataSharing.Mode.UNSUPPORTED || javaExecutable == null) {
+				return Collections.emptyList();
+			}
+
+			List<File> classpath = new ArrayList<File>();
+			IRuntimeClasspathEntry[] entries = JavaRuntime.resolveRuntimeClasspath(
+					JavaRuntime.computeUnresolvedRuntimeClasspath(workingCopy), workingCopy);
+			for (IRuntimeClasspathEntry entry : entries) {
+				if (entry.getClasspathProperty() == IRuntimeClasspathEntry.USER_CLASSES && entry.getLocation() != null) {
+					classpath.add(new File(entry.getLocation()));
+				}
+			}
+
+			// the archive is invalidated if the VM, the class path or the jars
+			// of the runtime change
+			List<File> files = new ArrayList<File>(classpath);
+			files.add(getTomcatRuntime().getTomcatLocation().append("lib").toFile());
+			String fingerprint = ClassDataSharing.computeFingerprint(vmInstall.getInstallLocation().getAbsolutePath(),
+					javaVersion, files);
+			File directory = getRuntimeBaseDirectory().append("work").append("cds").toFile();
+			classDataSharing = new ClassDataSharing(directory, fingerprint, mode);
+			classDataSharingJava = javaExecutable;
+			classDataSharingClasspath = StringUtils.join(classpath, File.pathSeparator);
+			return classDataSharing.getLaunchArguments();
+		}
+		catch (CoreException e) {
+			TcServerCorePlugin.log(new Status(IStatus.WARNING, ITcServerConstants.PLUGIN_ID,
+					"Failed to set up class data sharing", e));
+			return Collections.emptyList();
+		}
+	}
+
+	/**
+	 * Dumps the archive from the class list that was recorded by the last
+	 * launch in the background.
+	 */
+	private void dumpClassDataSharingArchive() {
+		final ClassDataSharing sharing = classDataSharing;
+		final File javaExecutable = classDataSharingJava;
+		final String classpath = classDataSharingClasspath;
+		if (sharing == null || !sharing.isDumpRequired()) {
+			return;
+		}
+
+		Job job = new Job("Creating class data sharing archive") {
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				IStatus status = sharing.dump(javaExecutable, classpath);
+				if (status.getSeverity() == IStatus.WARNING || status.getSeverity() == IStatus.ERROR) {
+					TcServerCorePlugin.log(status);
+				}
+				return Status.OK_STATUS;
+			}
+		};
+		job.setSystem(true);
+		job.schedule();
+	}
+
 	/**
 	 * In test mode webtools creates a temporary directory that is missing
 	 * required jars for tc Server. This method copies the necessary jars from
@@ -418,9 +607,180 @@ public class TcServerBehaviour extends TomcatServerBehaviour {
 		for (IModule[] module : getAllModules()) {
 			setModuleState(module, IServer.STATE_STOPPED);
 		}
+		stopReloadTelemetry();
+		if (serverMonitor != null) {
+			serverMonitor.disconnect();
+		}
+		if (threadSampler != null) {
+			threadSampler.stop();
+		}
+		launchTime = -1;
+		dumpClassDataSharingArchive();
 		super.stopImpl();
 	}
 
+	/**
+	 * Returns the statistics of types reloaded by the agent since the server
+	 * was last started.
+	 */
+	public ReloadStatistics getReloadStatistics() {
+		return reloadStatistics;
+	}
+
+	/**
+	 * Returns the startup times of the server since the workbench was started.
+	 */
+	public StartupStatistics getStartupStatistics() {
+		return startupStatistics;
+	}
+
+	/**
+	 * Returns the monitor that samples the MBeans of the running server.
+	 */
+	public synchronized ServerMonitor getServerMonitor() {
+		if (serverMonitor == null) {
+			serverMonitor = new ServerMonitor(getSharedJmxConnector());
+		}
+		return serverMonitor;
+	}
+
+	/**
+	 * Returns the sampler that aggregates the thread stacks of the running
+	 * server.
+	 */
+	public synchronized ThreadSampler getThreadSampler() {
+		if (threadSampler == null) {
+			threadSampler = new ThreadSampler(getSharedJmxConnector(), new ThreadSampler.PackageProvider() {
+				public Map<String, String> getPackages() {
+					return getModulePackages();
+				}
+			});
+		}
+		return threadSampler;
+	}
+
+	/**
+	 * Returns the JMX connector that is shared by the monitor and the thread
+	 * sampler.
+	 */
+	private synchronized SharedJmxConnector getSharedJmxConnector() {
+		if (jmxConnector == null) {
+			jmxConnector = new SharedJmxConnector(new ServerMonitor.ConnectionProvider() {
+				public boolean isAvailable() {
+					return getServer().getServerState() == IServer.STATE_STARTED;
+				}
+
+				public JMXConnector connect() throws IOException {
+					return JmxUtils.getJmxConnector(TcServerBehaviour.this);
+				}
+			});
+		}
+		return jmxConnector;
+	}
+
+	/**
+	 * Returns the Java packages of the classes in <code>WEB-INF/classes</code>
+	 * of all modules mapped to the context path of the module.
+	 */
+	public Map<String, String> getModulePackages() {
+		Map<String, String> packages = new HashMap<String, String>();
+		for (IModule module : getServer().getModules()) {
+			String contextPath = getContextPath(module);
+			for (IModuleResource resource : getResources(new IModule[] { module })) {
+				if (resource instanceof IModuleFolder && "WEB-INF".equals(resource.getName())) {
+					for (IModuleResource child : ((IModuleFolder) resource).members()) {
+						if (child instanceof IModuleFolder && "classes".equals(child.getName())) {
+							collectPackages(((IModuleFolder) child).members(), "", contextPath, packages);
+						}
+					}
+				}
+			}
+		}
+		return packages;
+	}
+
+	private static void collectPackages(IModuleResource[] resources, String packageName, String contextPath,
+			Map<String, String> packages) {
+		for (IModuleResource resource : resources) {
+			if (resource instanceof IModuleFolder) {
+				String name = (packageName.length() > 0) ? packageName + "." + resource.getName() : resource.getName();
+				collectPackages(((IModuleFolder) resource).members(), name, contextPath, packages);
+			}
+			else if (resource instanceof IModuleFile && resource.getName().endsWith(".class")) {
+				packages.put(packageName, contextPath);
+			}
+		}
+	}
+
+	private static String getContextPath(IModule module) {
+		IWebModule webModule = (IWebModule) module.loadAdapter(IWebModule.class, null);
+		if (webModule != null && webModule.getContextRoot() != null && webModule.getContextRoot().length() > 0) {
+			String contextRoot = webModule.getContextRoot();
+			return !contextRoot.startsWith("/") ? "/" + contextRoot : contextRoot;
+		}
+		return "/" + module.getName();
+	}
+
+	/**
+	 * Returns the store for thread dumps, class histograms and heap dumps
+	 * captured from the server.
+	 */
+	public ServerDiagnostics getServerDiagnostics() {
+		return new ServerDiagnostics(getRuntimeBaseDirectory().append(ServerDiagnostics.DIRECTORY).toFile());
+	}
+
+	/**
+	 * Starts receiving reload events from the telemetry agent.
+	 *
+	 * @return the port that the agent needs to connect to, -1 if the port could
+	 * not be opened
+	 */
+	private synchronized int startReloadTelemetry() {
+		if (reloadTelemetry == null) {
+			reloadTelemetry = new ReloadTelemetry(reloadStatistics, new ReloadTelemetry.ModuleResolver() {
+				public String getModuleName(String location) {
+					return getReloadedModuleName(new Path(location));
+				}
+			});
+		}
+		reloadStatistics.reset();
+		try {
+			return reloadTelemetry.start();
+		}
+		catch (IOException e) {
+			TcServerCorePlugin.log(new Status(IStatus.WARNING, ITcServerConstants.PLUGIN_ID,
+					"Failed to start receiving reload events", e));
+			return -1;
+		}
+	}
+
+	private synchronized void stopReloadTelemetry() {
+		if (reloadTelemetry != null) {
+			reloadTelemetry.stop();
+		}
+	}
+
+	/**
+	 * Returns the name of the module that was deployed to or is served from
+	 * <code>location</code>.
+	 */
+	private String getReloadedModuleName(IPath location) {
+		IPath deployDirectory = getServerDeployDirectory();
+		if (!deployDirectory.isAbsolute()) {
+			deployDirectory = new Path(deployDirectory.toFile().getAbsolutePath());
+		}
+		for (IModule module : getServer().getModules()) {
+			if (deployDirectory.append(module.getName()).isPrefixOf(location)) {
+				return module.getName();
+			}
+			IProject project = module.getProject();
+			if (project != null && project.getLocation() != null && project.getLocation().isPrefixOf(location)) {
+				return module.getName();
+			}
+		}
+		return null;
+	}
+
 	/**
 	 * Public for testing only.
 	 */
@@ -489,41 +849,22 @@ public class TcServerBehaviour extends TomcatServerBehaviour {
 
 			IPath instanceBase = getTomcatServer().getInstanceBase(getServer().getRuntime());
 
-			// copy keystore file in case of ssl instance
-			IPath keystorePath = instanceBase.append("conf").append("tcserver.keystore");
-			if (keystorePath.toFile().exists()) {
-				IPath destPath = confDir.append("conf");
-				if (!destPath.toFile().exists()) {
-					destPath.toFile().mkdirs();
-				}
-
-				File file = keystorePath.toFile();
-				destPath = destPath.append(file.getName());
-				if (!destPath.toFile().exists()) {
-					FileUtil.copyFile(file.getAbsolutePath(), destPath.toFile().getAbsolutePath());
-				}
+			// copy keystore file in case of ssl instance and libraries from
+			// instance base
+			List<String> files = new ArrayList<String>();
+			if (instanceBase.append("conf").append("tcserver.keystore").toFile().exists()) {
+				files.add("conf/tcserver.keystore");
 			}
-
-			// copy libraries from instance base
-			IPath libPath = instanceBase.append("lib");
-			if (libPath.toFile().exists()) {
-				File[] files = libPath.toFile().listFiles();
-				if (files != null) {
-					for (File file : files) {
-						if (file.getName().endsWith(".jar")) {
-							IPath destPath = confDir.append("lib");
-							if (!destPath.toFile().exists()) {
-								destPath.toFile().mkdirs();
-							}
-
-							destPath = destPath.append(file.getName());
-							if (!destPath.toFile().exists()) {
-								FileUtil.copyFile(file.getAbsolutePath(), destPath.toFile().getAbsolutePath());
-							}
-						}
+			String[] libs = instanceBase.append("lib").toFile().list();
+			if (libs != null) {
+				for (String lib : libs) {
+					if (lib.endsWith(".jar")) {
+						files.add("lib/" + lib);
 					}
 				}
 			}
+			InstanceProvisioner provisioner = new InstanceProvisioner(getTomcatServer().getProvisioningMode());
+			provisioner.provision(instanceBase.toFile(), confDir.toFile(), files, null);
 		}
 		else {
 			confDir = installDir;
@@ -538,27 +879,152 @@ public class TcServerBehaviour extends TomcatServerBehaviour {
 		monitor = ProgressUtil.getMonitorFor(monitor);
 		monitor.beginTask(Messages.publishServerTask, 600);
 
-		status = getTomcatConfiguration().cleanupServer(confDir, installDir,
-				!getTomcatServer().isSaveSeparateContextFiles(), ProgressUtil.getSubMonitorFor(monitor, 100));
+		PublishMetrics metrics = PublishMetrics.getDefault();
+		PublishMetrics.Timer publishTimer = metrics.startTimer(PublishMetrics.SERVER_PUBLISH);
+		try {
+			// update the configuration before it is published
+			PublishMetrics.Timer timer = metrics.startTimer(PublishMetrics.SERVER_JAR_SCAN_ANALYSIS);
+			try {
+				updateJarsToSkip(monitor);
+			}
+			finally {
+				timer.stop();
+			}
+
+			ConfigurationLedger ledger = ConfigurationLedger.getLedger(confDir);
+			configurationUnchanged = kind != IServer.PUBLISH_CLEAN
+					&& ledger.isUnchanged(getServer().getServerConfiguration(), getConfigurationSettings());
+			if (configurationUnchanged) {
+				// configuration was published before and the instance has not
+				// been modified since
+				metrics.increment(PublishMetrics.SERVER_CONFIGURATION_UNCHANGED);
+			}
+			else {
+				ledger.invalidate();
+				publishConfiguration(confDir, installDir, monitor);
+			}
+		}
+		finally {
+			publishTimer.stop();
+		}
+		monitor.done();
+
+		setServerPublishState(IServer.PUBLISH_STATE_NONE);
+	}
+
+	/**
+	 * Copies the server configuration from the workspace to
+	 * <code>confDir</code> and localizes it.
+	 */
+	private void publishConfiguration(IPath confDir, IPath installDir, IProgressMonitor monitor)
+			throws CoreException {
+		PublishMetrics metrics = PublishMetrics.getDefault();
+		IStatus status;
+		PublishMetrics.Timer timer = metrics.startTimer(PublishMetrics.SERVER_CLEANUP);
+		try {
+			status = getTomcatConfiguration().cleanupServer(confDir, installDir,
+					!getTomcatServer().isSaveSeparateContextFiles(), ProgressUtil.getSubMonitorFor(monitor, 100));
+		}
+		finally {
+			timer.stop();
+		}
 		if (status != null && !status.isOK()) {
 			throw new CoreException(status);
 		}
 
-		status = getTomcatConfiguration().backupAndPublish(confDir, !getTomcatServer().isTestEnvironment(),
-				ProgressUtil.getSubMonitorFor(monitor, 400));
+		timer = metrics.startTimer(PublishMetrics.SERVER_BACKUP_AND_PUBLISH);
+		try {
+			status = getTomcatConfiguration().backupAndPublish(confDir, !getTomcatServer().isTestEnvironment(),
+					ProgressUtil.getSubMonitorFor(monitor, 400));
+		}
+		finally {
+			timer.stop();
+		}
 		if (status != null && !status.isOK()) {
 			throw new CoreException(status);
 		}
 
-		status = getTomcatConfiguration().localizeConfiguration(confDir, getServerDeployDirectory(), getTomcatServer(),
-				ProgressUtil.getSubMonitorFor(monitor, 100));
+		timer = metrics.startTimer(PublishMetrics.SERVER_LOCALIZE_CONFIGURATION);
+		try {
+			status = getTomcatConfiguration().localizeConfiguration(confDir, getServerDeployDirectory(),
+					getTomcatServer(), ProgressUtil.getSubMonitorFor(monitor, 100));
+		}
+		finally {
+			timer.stop();
+		}
 		if (status != null && !status.isOK()) {
 			throw new CoreException(status);
 		}
+	}
 
-		monitor.done();
+	/**
+	 * Updates the jars that Tomcat skips when scanning for TLDs, web fragments
+	 * and container initializers in catalina.properties. The generated entries
+	 * are removed if the optimization was disabled.
+	 */
+	private void updateJarsToSkip(IProgressMonitor monitor) throws CoreException {
+		TcServerConfiguration configuration = getTomcatConfiguration();
+		String generated = configuration.getProperty(JarScanAnalyzer.PROPERTY_GENERATED);
+		boolean enabled = getTomcatServer().isJarScanOptimizationEnabled();
+		if (!enabled && generated == null) {
+			return;
+		}
 
-		setServerPublishState(IServer.PUBLISH_STATE_NONE);
+		Set<String> jarsToSkip = (enabled) ? JarScanAnalyzer.getDefault().getJarsToSkip(getModuleJars()) : Collections
+				.<String> emptySet();
+		String key = JarScanAnalyzer.PROPERTY_JARS_TO_SKIP;
+		if (configuration.getProperty(key) == null
+				&& configuration.getProperty(JarScanAnalyzer.PROPERTY_JARS_TO_SKIP_TOMCAT_7) != null) {
+			key = JarScanAnalyzer.PROPERTY_JARS_TO_SKIP_TOMCAT_7;
+		}
+		Map<String, String> values = JarScanAnalyzer.merge(key, configuration.getProperty(key), generated, jarsToSkip);
+		// only save the configuration if the skipped jars changed
+		Map<String, String> changedValues = new LinkedHashMap<String, String>();
+		for (Map.Entry<String, String> entry : values.entrySet()) {
+			if (!entry.getValue().equals(configuration.getProperty(entry.getKey()))) {
+				changedValues.put(entry.getKey(), entry.getValue());
+			}
+		}
+		if (!changedValues.isEmpty()) {
+			configuration.modifyProperties(changedValues);
+			configuration.save(getServer().getServerConfiguration(), ProgressUtil.getSubMonitorFor(monitor, 10));
+		}
+	}
+
+	/**
+	 * Returns the jars in <code>WEB-INF/lib</code> of all modules.
+	 */
+	private List<File> getModuleJars() {
+		List<File> jars = new ArrayList<File>();
+		for (IModule module : getServer().getModules()) {
+			for (IModuleResource resource : getResources(new IModule[] { module })) {
+				if (resource instanceof IModuleFolder && "WEB-INF".equals(resource.getName())) {
+					for (IModuleResource child : ((IModuleFolder) resource).members()) {
+						if (child instanceof IModuleFolder && "lib".equals(child.getName())) {
+							collectJars(((IModuleFolder) child).members(), jars);
+						}
+					}
+				}
+			}
+		}
+		return jars;
+	}
+
+	private static void collectJars(IModuleResource[] resources, List<File> jars) {
+		for (IModuleResource resource : resources) {
+			if (resource instanceof IModuleFile && resource.getName().endsWith(".jar")) {
+				File file = (File) resource.getAdapter(File.class);
+				if (file == null) {
+					IFile workspaceFile = (IFile) resource.getAdapter(IFile.class);
+					if (workspaceFile != null && workspaceFile.getLocation() != null) {
+						file = workspaceFile.getLocation().toFile();
+					}
+				}
+				if (file != null) {
+					jars.add(file);
+				}
+			}
+		}
 	}
 
 	@Override
@@ -611,6 +1077,12 @@ public class TcServerBehaviour extends TomcatServerBehaviour {
 
 	@Override
 	protected void setServerStarted() {
+		if (launchTime != -1) {
+			long duration = System.nanoTime() - launchTime;
+			launchTime = -1;
+			PublishMetrics.getDefault().record(PublishMetrics.SERVER_STARTUP, duration);
+			startupStatistics.record(duration / 1000000, launchSkippedJars);
+		}
 		super.setServerStarted();
 		for (IModule[] module : getAllModules()) {
 			setModuleState(module, IServer.STATE_STARTED);
@@ -619,6 +1091,54 @@ public class TcServerBehaviour extends TomcatServerBehaviour {
 	
 	@Override
 	protected void publishFinish(IProgressMonitor monitor) throws CoreException {
+		PublishMetrics.Timer timer = PublishMetrics.getDefault().startTimer(PublishMetrics.SERVER_PUBLISH_FINISH);
+		try {
+			doPublishFinish(monitor);
+			ConfigurationLedger.getLedger(getRuntimeBaseDirectory()).commit(getServer().getServerConfiguration(),
+					getConfigurationSettings());
+		}
+		finally {
+			timer.stop();
+		}
+	}
+
+	/**
+	 * Returns the options for the Spring Loaded agent: the options of the
+	 * selected reloading profile followed by the options entered by the user.
+	 */
+	private String getAgentOptions() {
+		String userOptions = getTomcatServer().getAgentOptions();
+		ReloadingAgent agent = TcServerReloadingPlugin.getAgent();
+		if (agent == null) {
+			return userOptions;
+		}
+
+		ReloadingProfile profile = ReloadingProfiles.getProfile(getTomcatServer().getAgentProfile());
+		ReloadingAgent.Configuration configuration = agent.configure(profile,
+				TcServerReloadingPlugin.getCacheDirectory());
+		if (!configuration.getStatus().isOK()) {
+			TcServerCorePlugin.log(configuration.getStatus());
+		}
+		if (StringUtils.isBlank(userOptions)) {
+			return configuration.getOptions();
+		}
+		else if (configuration.getOptions().isEmpty()) {
+			return userOptions;
+		}
+		return configuration.getOptions() + ";" + userOptions;
+	}
+
+	/**
+	 * Returns a description of the server settings that affect how the
+	 * configuration is published.
+	 */
+	private String getConfigurationSettings() {
+		TcServer tcServer = getTomcatServer();
+		return getServerDeployDirectory().toOSString() + "|" + tcServer.isTestEnvironment() + "|"
+				+ tcServer.isSaveSeparateContextFiles() + "|" + tcServer.isServeModulesWithoutPublish();
+	}
+
+	private void doPublishFinish(IProgressMonitor monitor) throws CoreException {
 		IStatus status;
 		IPath baseDir = getRuntimeBaseDirectory();
 		TcServer ts = getTomcatServer();
@@ -629,9 +1149,35 @@ public class TcServerBehaviour extends TomcatServerBehaviour {
 		// Include or remove loader jar depending on state of serving directly 
 		status = tvh.prepareForServingDirectly(baseDir, ts, tomcatVersion);
 		if (status.isOK()) {
+			// Determine if context's path attribute should be removed
+			boolean noPath = tomcatServerTypeID.indexOf("55") > 0 || tomcatServerTypeID.indexOf("60") > 0;
+			boolean serverStopped = getServer().getServerState() == IServer.STATE_STOPPED;
+			String sharedLoader = (ts.isServeModulesWithoutPublish()) ? tvh.getSharedLoader(baseDir) : null;
+			String settings = ts.isServeModulesWithoutPublish() + "|" + ts.isSaveSeparateContextFiles() + "|" + noPath
+					+ "|" + serverStopped + "|" + tomcatVersion + "|" + sharedLoader;
+			File deployDir = getServerDeployDirectory().toFile();
+			String fingerprint = ContextConfigurationFingerprint.compute(baseDir.toFile(), deployDir, settings);
+			if (fingerprint != null && fingerprint.equals(contextFingerprint)) {
+				// contexts are up-to-date
+				PublishMetrics.getDefault().increment(PublishMetrics.SERVER_CONTEXTS_UNCHANGED);
+				return;
+			}
+			contextFingerprint = null;
+
+			if (configurationUnchanged) {
+				// server.xml still contains the contexts that were merged by
+				// the previous publish, restore the published configuration
+				// before the contexts are updated
+				configurationUnchanged = false;
+				ConfigurationLedger.getLedger(baseDir).invalidate();
+				publishConfiguration(baseDir, baseDir, monitor);
+				doPublishFinish(monitor);
+				return;
+			}
+
 			// If serving modules directly, update server.xml accordingly (includes project context.xmls)
 			if (ts.isServeModulesWithoutPublish()) {
-				status = TomcatVersionHelper.updateContextsToServeDirectly(baseDir, tomcatVersion, tvh.getSharedLoader(baseDir), false, monitor);
+				status = TomcatVersionHelper.updateContextsToServeDirectly(baseDir, tomcatVersion, sharedLoader, false, monitor);
 			}
 			// Else serving normally. Add project context.xmls to server.xml
 			else {
@@ -639,12 +1185,12 @@ public class TcServerBehaviour extends TomcatServerBehaviour {
 				status = TomcatVersionHelper.publishCatalinaContextConfig(baseDir, getServerDeployDirectory(), monitor);
 			}
 			if (status.isOK() && ts.isSaveSeparateContextFiles()) {
-				// Determine if context's path attribute should be removed
-				boolean noPath = tomcatServerTypeID.indexOf("55") > 0 || tomcatServerTypeID.indexOf("60") > 0;
-				boolean serverStopped = getServer().getServerState() == IServer.STATE_STOPPED;
 				// TODO Add a monitor
 				TomcatVersionHelper.moveContextsToSeparateFiles(baseDir, noPath, serverStopped, null);
 			}
+			if (status.isOK()) {
+				contextFingerprint = ContextConfigurationFingerprint.compute(baseDir.toFile(), deployDir, settings);
+			}
 		}
 		if (!status.isOK())
 			throw new CoreException(status);
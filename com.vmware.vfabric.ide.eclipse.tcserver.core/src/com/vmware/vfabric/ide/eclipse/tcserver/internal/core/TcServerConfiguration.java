@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2012, 2018 Pivotal Software, Inc.
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -18,8 +18,11 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -28,10 +31,12 @@ import java.util.Properties;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.MultiStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.jst.server.tomcat.core.internal.Messages;
 import org.eclipse.jst.server.tomcat.core.internal.ProgressUtil;
@@ -40,11 +45,14 @@ import org.eclipse.jst.server.tomcat.core.internal.TomcatVersionHelper;
 import org.eclipse.jst.server.tomcat.core.internal.Trace;
 import org.eclipse.jst.server.tomcat.core.internal.WebModule;
 import org.eclipse.jst.server.tomcat.core.internal.xml.server40.Connector;
+import org.eclipse.jst.server.tomcat.core.internal.xml.server40.Context;
+import org.eclipse.jst.server.tomcat.core.internal.xml.server40.Host;
 import org.eclipse.jst.server.tomcat.core.internal.xml.server40.Listener;
 import org.eclipse.jst.server.tomcat.core.internal.xml.server40.ServerInstance;
 import org.eclipse.jst.server.tomcat.core.internal.xml.server40.Service;
 import org.eclipse.wst.server.core.IModule;
 import org.eclipse.wst.server.core.ServerPort;
+import org.w3c.dom.Element;
 
 /**
  * @author Steffen Pingel
@@ -54,6 +62,12 @@ public class TcServerConfiguration extends Tomcat60Configuration {
 
 	public static final String MODIFY_SERVER_PROPERTY_PROPERTY = "modifyServerProperty";
 
+	public static final String MODIFY_CONNECTOR_PROPERTY = "modifyConnector";
+
+	public static final String MODIFY_START_STOP_THREADS_PROPERTY = "modifyStartStopThreads";
+
+	public static final String MODIFY_PARALLEL_ANNOTATION_SCANNING_PROPERTY = "modifyParallelAnnotationScanning";
+
 	private static final String FILE_JMXREMOTE_ACCESS = "jmxremote.access";
 
 	private static final String FILE_JMXREMOTE_PASSWORD = "jmxremote.password";
@@ -68,6 +82,15 @@ public class TcServerConfiguration extends Tomcat60Configuration {
 
 	private Properties properties = new Properties();
 
+	/**
+	 * The parsed contents of catalina.properties, created on the first
+	 * modification. Modifications are written back to
+	 * <code>propertiesFile</code> when the configuration is saved.
+	 */
+	private PropertiesDocument propertiesDocument;
+
+	private boolean propertiesDocumentDirty;
+
 	private String springInsightFile;
 
 	private final boolean supportsServlet30;
@@ -84,6 +107,118 @@ public class TcServerConfiguration extends Tomcat60Configuration {
 		this.tcServer = server;
 	}
 
+	/**
+	 * Returns the value of attribute <code>name</code> of the connector with
+	 * <code>id</code> or null, if the attribute is not set. Connectors are
+	 * identified by the id of the corresponding {@link TcServerPort}.
+	 */
+	public String getConnectorAttribute(String id, String name) {
+		Connector connector = getConnector(id);
+		return (connector != null) ? connector.getAttributeValue(name) : null;
+	}
+
+	/**
+	 * Sets attribute <code>name</code> of the connector with <code>id</code>
+	 * to <code>value</code> or removes it, if <code>value</code> is null.
+	 * Setting the {@link ConnectorTuning#ATTRIBUTE_EXECUTOR} attribute creates
+	 * the referenced executor, if it does not exist.
+	 */
+	public void modifyConnectorAttribute(String id, String name, String value) {
+		try {
+			Connector connector = getConnector(id);
+			if (connector == null) {
+				return;
+			}
+			if (value == null) {
+				connector.removeAttribute(name);
+			}
+			else {
+				if (ConnectorTuning.ATTRIBUTE_EXECUTOR.equals(name)) {
+					ConnectorTuning.getOrCreateExecutor(getConnectorService(id).getElementNode(), value);
+				}
+				connector.setAttributeValue(name, value);
+			}
+			isServerDirty = true;
+			firePropertyChangeEvent(MODIFY_CONNECTOR_PROPERTY, id, name);
+		}
+		catch (Exception e) {
+			Trace.trace(Trace.SEVERE, "Error modifying connector " + id, e);
+		}
+	}
+
+	/**
+	 * Returns the value of attribute <code>name</code> of the executor that
+	 * is used by the connector with <code>id</code> or null, if the attribute
+	 * is not set or the connector does not use a shared executor.
+	 */
+	public String getExecutorAttribute(String id, String name) {
+		Element executor = getConnectorExecutor(id);
+		if (executor == null || !executor.hasAttribute(name)) {
+			return null;
+		}
+		return executor.getAttribute(name);
+	}
+
+	/**
+	 * Sets attribute <code>name</code> of the executor that is used by the
+	 * connector with <code>id</code> to <code>value</code> or removes it, if
+	 * <code>value</code> is null.
+	 */
+	public void modifyExecutorAttribute(String id, String name, String value) {
+		Element executor = getConnectorExecutor(id);
+		if (executor == null) {
+			return;
+		}
+		if (value == null) {
+			executor.removeAttribute(name);
+		}
+		else {
+			executor.setAttribute(name, value);
+		}
+		isServerDirty = true;
+		firePropertyChangeEvent(MODIFY_CONNECTOR_PROPERTY, id, name);
+	}
+
+	private Connector getConnector(String id) {
+		Service service = getConnectorService(id);
+		if (service == null) {
+			return null;
+		}
+		try {
+			int connNum = Integer.parseInt(id.substring(id.indexOf("/") + 1));
+			return (connNum < service.getConnectorCount()) ? service.getConnector(connNum) : null;
+		}
+		catch (NumberFormatException e) {
+			return null;
+		}
+	}
+
+	private Element getConnectorExecutor(String id) {
+		String name = getConnectorAttribute(id, ConnectorTuning.ATTRIBUTE_EXECUTOR);
+		if (name == null) {
+			return null;
+		}
+		return ConnectorTuning.getExecutor(getConnectorService(id).getElementNode(), name);
+	}
+
+	private Service getConnectorService(String id) {
+		if (id == null || "server".equals(id)) {
+			return null;
+		}
+		try {
+			int i = id.indexOf("/");
+			// If a connector in the instance Service
+			if (i < 0) {
+				return serverInstance.getService();
+			}
+			// Else a connector in another Service
+			return server.getService(Integer.parseInt(id.substring(0, i)));
+		}
+		catch (NumberFormatException e) {
+			return null;
+		}
+	}
+
 	public Listener[] getListeners() {
 		return serverInstance.getListeners();
 	}
@@ -137,6 +272,65 @@ public class TcServerConfiguration extends Tomcat60Configuration {
 		return null;
 	}
 
+	/**
+	 * Returns the number of threads that start the contexts of the host or
+	 * null, if contexts are started by a single thread.
+	 */
+	public String getStartStopThreads() {
+		Host host = serverInstance.getHost();
+		return (host != null) ? host.getAttributeValue(ParallelStartup.ATTRIBUTE_START_STOP_THREADS) : null;
+	}
+
+	public void modifyStartStopThreads(String value) {
+		Host host = serverInstance.getHost();
+		if (host == null) {
+			return;
+		}
+		String oldValue = host.getAttributeValue(ParallelStartup.ATTRIBUTE_START_STOP_THREADS);
+		if (value == null) {
+			host.removeAttribute(ParallelStartup.ATTRIBUTE_START_STOP_THREADS);
+		}
+		else {
+			host.setAttributeValue(ParallelStartup.ATTRIBUTE_START_STOP_THREADS, value);
+		}
+		isServerDirty = true;
+		firePropertyChangeEvent(MODIFY_START_STOP_THREADS_PROPERTY, oldValue, value);
+	}
+
+	/**
+	 * Returns true, if all contexts scan annotations in parallel.
+	 */
+	public boolean isParallelAnnotationScanning() {
+		Context[] contexts = serverInstance.getContexts();
+		if (contexts == null || contexts.length == 0) {
+			return false;
+		}
+		for (Context context : contexts) {
+			if (!Boolean.parseBoolean(context.getAttributeValue(ParallelStartup.ATTRIBUTE_PARALLEL_ANNOTATION_SCANNING))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public void modifyParallelAnnotationScanning(boolean enabled) {
+		Context[] contexts = serverInstance.getContexts();
+		if (contexts == null) {
+			return;
+		}
+		boolean oldValue = isParallelAnnotationScanning();
+		for (Context context : contexts) {
+			if (enabled) {
+				context.setAttributeValue(ParallelStartup.ATTRIBUTE_PARALLEL_ANNOTATION_SCANNING, "true");
+			}
+			else {
+				context.removeAttribute(ParallelStartup.ATTRIBUTE_PARALLEL_ANNOTATION_SCANNING);
+			}
+		}
+		isServerDirty = true;
+		firePropertyChangeEvent(MODIFY_PARALLEL_ANNOTATION_SCANNING_PROPERTY, oldValue, enabled);
+	}
+
 	public int getShutdownPort() {
 		List<TcServerPort> ports = getTcServerPorts();
 		for (TcServerPort port : ports) {
@@ -243,6 +437,8 @@ public class TcServerConfiguration extends Tomcat60Configuration {
 		super.load(folder, monitor);
 
 		properties = new Properties();
+		propertiesDocument = null;
+		propertiesDocumentDirty = false;
 		if (propertiesFile != null) {
 			loadProperties(new ByteArrayInputStream(propertiesFile.getBytes()));
 		}
@@ -283,6 +479,8 @@ public class TcServerConfiguration extends Tomcat60Configuration {
 		super.load(path, monitor);
 
 		properties = new Properties();
+		propertiesDocument = null;
+		propertiesDocumentDirty = false;
 		if (propertiesFile != null) {
 			loadProperties(new ByteArrayInputStream(propertiesFile.getBytes()));
 		}
@@ -332,18 +530,42 @@ public class TcServerConfiguration extends Tomcat60Configuration {
 		}
 	}
 
+	/**
+	 * Returns the value of <code>key</code> in catalina.properties or null.
+	 */
+	public String getProperty(String key) {
+		return properties.getProperty(key);
+	}
+
 	public void modifyProperty(String key, String value) {
-		Map<String, String> values = new HashMap<String, String>();
-		values.put(key, value);
-		PropertyWriter writer = new PropertyWriter(values);
-		try {
-			propertiesFile = writer.apply((propertiesFile != null) ? propertiesFile : "");
+		modifyProperties(Collections.singletonMap(key, value));
+	}
+
+	/**
+	 * Sets all <code>values</code> in catalina.properties. The file is parsed
+	 * once and only serialized when the configuration is saved, hence the cost
+	 * of a modification does not depend on the size of the file.
+	 */
+	public void modifyProperties(Map<String, String> values) {
+		if (propertiesDocument == null) {
+			propertiesDocument = PropertiesDocument.parse((propertiesFile != null) ? propertiesFile : "");
 		}
-		catch (IOException e) {
-			Trace.trace(Trace.SEVERE, "Could not read properties", e);
+		propertiesDocumentDirty |= propertiesDocument.setAll(values);
+		for (Entry<String, String> entry : values.entrySet()) {
+			properties.put(entry.getKey(), entry.getValue());
+			firePropertyChangeEvent(MODIFY_SERVER_PROPERTY_PROPERTY, entry.getKey(), entry.getValue());
+		}
+	}
+
+	/**
+	 * Writes pending modifications of properties to
+	 * <code>propertiesFile</code>.
+	 */
+	private void flushProperties() {
+		if (propertiesDocumentDirty) {
+			propertiesFile = propertiesDocument.toString();
+			propertiesDocumentDirty = false;
 		}
-		properties.put(key, value);
-		firePropertyChangeEvent(MODIFY_SERVER_PROPERTY_PROPERTY, key, value);
 	}
 
 	public void modifyServerPort(String id, String portString) {
@@ -387,6 +609,8 @@ public class TcServerConfiguration extends Tomcat60Configuration {
 	@Override
 	public void save(IFolder folder, IProgressMonitor monitor) throws CoreException {
 		checkModuleReloadState();
+		checkParallelStartupState();
+		flushProperties();
 		super.save(folder, monitor);
 
 		try {
@@ -432,6 +656,8 @@ public class TcServerConfiguration extends Tomcat60Configuration {
 	@Override
 	public void save(IPath path, IProgressMonitor monitor) throws CoreException {
 		checkModuleReloadState();
+		checkParallelStartupState();
+		flushProperties();
 		super.save(path, monitor);
 	}
 
@@ -450,6 +676,41 @@ public class TcServerConfiguration extends Tomcat60Configuration {
 		}
 	}
 
+	/**
+	 * Sizes the start stop threads of the host for the deployed modules and
+	 * enables parallel annotation scanning for all contexts, if supported by
+	 * the Tomcat version of the runtime.
+	 */
+	private void checkParallelStartupState() {
+		if (!tcServer.isParallelStartupEnabled()) {
+			return;
+		}
+		String tomcatVersion = getTomcatVersion();
+		if (ParallelStartup.isStartStopThreadsSupported(tomcatVersion)) {
+			if (!ParallelStartup.START_STOP_THREADS_AVAILABLE_PROCESSORS.equals(getStartStopThreads())) {
+				modifyStartStopThreads(ParallelStartup.START_STOP_THREADS_AVAILABLE_PROCESSORS);
+			}
+		}
+		if (ParallelStartup.isParallelAnnotationScanningSupported(tomcatVersion) && !getWebModules().isEmpty()
+				&& !isParallelAnnotationScanning()) {
+			modifyParallelAnnotationScanning(true);
+		}
+	}
+
+	/**
+	 * Returns the Tomcat version of the runtime or null, if the version is not
+	 * known.
+	 */
+	public String getTomcatVersion() {
+		TcServerRuntime runtime = tcServer.getTomcatRuntime();
+		if (runtime == null || tcServer.getServer() == null) {
+			return null;
+		}
+		IPath tomcatLocation = runtime.getTomcatLocation();
+		return TcServerUtil.getCatalinaVersion(tomcatLocation, TcServerVersionHandler.mapToTomcatServerId(
+				tomcatLocation, tcServer.getServer().getServerType().getId()));
+	}
+
 	private int getPort(String portString) {
 		int port = -1;
 		try {
@@ -461,9 +722,73 @@ public class TcServerConfiguration extends Tomcat60Configuration {
 		return port;
 	}
 
+	/**
+	 * Copies the configuration files from the workspace to the
+	 * <code>conf</code> directory of the instance. Unlike the super class
+	 * files are only written if their contents differ which preserves the
+	 * modification time of unchanged files, e.g. to avoid triggering reloads
+	 * of watched resources. A file is backed up before it is overwritten for
+	 * the first time.
+	 */
 	@Override
 	protected IStatus backupAndPublish(IPath tomcatDir, boolean doBackup, IProgressMonitor monitor) {
-		return super.backupAndPublish(tomcatDir, doBackup, monitor);
+		IFolder folder = tcServer.getServer().getServerConfiguration();
+		if (folder == null) {
+			return super.backupAndPublish(tomcatDir, doBackup, monitor);
+		}
+
+		MultiStatus ms = new MultiStatus(ITcServerConstants.PLUGIN_ID, 0, "Publishing configuration", null);
+		monitor = ProgressUtil.getMonitorFor(monitor);
+		try {
+			IPath backup = null;
+			if (doBackup) {
+				backup = tomcatDir.append("backup");
+				if (!backup.toFile().exists()) {
+					backup.toFile().mkdir();
+				}
+			}
+			IPath confDir = tomcatDir.append("conf");
+			IResource[] members = folder.members();
+			monitor.beginTask("Publishing configuration", members.length * 100);
+			for (IResource member : members) {
+				if (member instanceof IFile) {
+					publishFile((IFile) member, confDir, backup, ms);
+				}
+				monitor.worked(100);
+			}
+		}
+		catch (CoreException e) {
+			ms.add(e.getStatus());
+		}
+		monitor.done();
+		return ms;
+	}
+
+	private void publishFile(IFile file, IPath confDir, IPath backup, MultiStatus ms) {
+		String name = file.getName();
+		File target = confDir.append(name).toFile();
+		try {
+			byte[] content = ConfigurationLedger.readContents(file);
+			if (target.isFile()) {
+				if (target.length() == content.length && Arrays.equals(content, Files.readAllBytes(target.toPath()))) {
+					return;
+				}
+				if (backup != null) {
+					File backupFile = backup.append(name).toFile();
+					if (!backupFile.exists()) {
+						Files.copy(target.toPath(), backupFile.toPath(), StandardCopyOption.COPY_ATTRIBUTES);
+					}
+				}
+			}
+			Files.write(target.toPath(), content);
+		}
+		catch (CoreException e) {
+			ms.add(e.getStatus());
+		}
+		catch (IOException e) {
+			ms.add(new Status(IStatus.ERROR, ITcServerConstants.PLUGIN_ID, "Could not publish " + name + " to "
+					+ target, e));
+		}
 	}
 
 	@Override
@@ -1,18 +1,37 @@
 package com.vmware.vfabric.ide.eclipse.tcserver.internal.core;
 
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.IResourceChangeEvent;
 import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IResourceDeltaVisitor;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
 import org.eclipse.jst.server.tomcat.core.internal.ConfigurationResourceListener;
 import org.eclipse.wst.server.core.IServer;
+import org.eclipse.wst.server.core.IServerLifecycleListener;
 import org.eclipse.wst.server.core.IServerType;
 import org.eclipse.wst.server.core.ServerCore;
 import org.eclipse.wst.server.core.internal.ServerType;
 
+/**
+ * Updates the publish and restart state of tc Server instances when files in
+ * their configuration folder change. Configuration folders are looked up in an
+ * index that is rebuilt when servers are added, changed or removed. Changed
+ * files are classified by {@link ConfigurationChange}: a server is only
+ * flagged for restart if a changed file requires it and changes that only
+ * affect comments are ignored.
+ */
 // Alas, ConfigurationResourceListener has a value hard-coded in that makes it Tomcat-specific
-public class TcServerConfigurationResourceListener extends ConfigurationResourceListener {
+public class TcServerConfigurationResourceListener extends ConfigurationResourceListener implements
+		IServerLifecycleListener {
 
 	private IProject serversProject;
 
@@ -20,6 +39,18 @@ public class TcServerConfigurationResourceListener extends ConfigurationResource
 
 	private final String SPRINGSOURCE_SERVER_ID_PREFIX = "com.springsource.tcserver.";
 
+	/** Maps the path of a configuration folder to its server. */
+	private Map<IPath, IServer> serverByConfigurationFolder;
+
+	/**
+	 * Signatures of configuration files as of the last change, see
+	 * {@link ConfigurationChange#computeSignature(String, byte[])}. Signatures
+	 * are recorded when a configuration folder is changed for the first time.
+	 */
+	private final Map<IPath, String> signatures = new HashMap<IPath, String>();
+
+	private boolean lifecycleListenerRegistered;
+
 	public void resourceChanged(IResourceChangeEvent event) {
 		if (event.getType() == IResourceChangeEvent.POST_CHANGE) {
 			IProject project = getServersProject();
@@ -31,35 +62,13 @@ public class TcServerConfigurationResourceListener extends ConfigurationResource
 						// The change occurred within the Servers project.
 						IResourceDelta[] childDelta = serversProjectDelta.getAffectedChildren();
 						if (childDelta.length > 0) {
-							IServer[] servers = ServerCore.getServers();
+							Map<IPath, IServer> index = getIndex();
 							for (IResourceDelta element : childDelta) {
 								// Check if this subfolder of the Servers folder
-								// matches a Tomcat configuration folder
-								for (IServer server : servers) {
-									IServerType serverType = server.getServerType();
-									if (serverType.getId().startsWith(VMWARE_SERVER_ID_PREFIX)
-											|| serverType.getId().startsWith(SPRINGSOURCE_SERVER_ID_PREFIX)) {
-										IFolder configFolder = server.getServerConfiguration();
-										if (configFolder != null) {
-											if (element.getFullPath().equals(configFolder.getFullPath())) {
-												// Found a Tomcat server
-												// affected by this delta.
-												// Update this server's publish
-												// state.
-												TcServerBehaviour tcServerBehaviour = (TcServerBehaviour) server
-														.loadAdapter(TcServerBehaviour.class, null);
-												if (tcServerBehaviour != null) {
-													// Indicate that this server
-													// needs to publish and
-													// restart if running
-													tcServerBehaviour
-															.setTomcatServerPublishState(IServer.PUBLISH_STATE_INCREMENTAL);
-													tcServerBehaviour.setTomcatServerRestartState(true);
-												}
-												break;
-											}
-										}
-									}
+								// matches a tc Server configuration folder
+								IServer server = index.get(element.getFullPath());
+								if (server != null) {
+									configurationChanged(server, element);
 								}
 							}
 						}
@@ -69,6 +78,155 @@ public class TcServerConfigurationResourceListener extends ConfigurationResource
 		}
 	}
 
+	private void configurationChanged(IServer server, IResourceDelta folderDelta) {
+		TcServerBehaviour tcServerBehaviour = (TcServerBehaviour) server.loadAdapter(TcServerBehaviour.class, null);
+		boolean separateContextFiles = tcServerBehaviour != null
+				&& tcServerBehaviour.getTomcatServer().isSaveSeparateContextFiles();
+		ConfigurationChange change = classify(folderDelta, getTomcatVersion(tcServerBehaviour), separateContextFiles);
+		if (change == ConfigurationChange.NONE) {
+			return;
+		}
+
+		if (tcServerBehaviour != null) {
+			// Indicate that this server needs to publish and restart if
+			// running
+			tcServerBehaviour.setTomcatServerPublishState(IServer.PUBLISH_STATE_INCREMENTAL);
+			if (change == ConfigurationChange.RESTART) {
+				tcServerBehaviour.setTomcatServerRestartState(true);
+			}
+		}
+	}
+
+	private String getTomcatVersion(TcServerBehaviour tcServerBehaviour) {
+		if (tcServerBehaviour == null) {
+			return null;
+		}
+		try {
+			return tcServerBehaviour.getTomcatConfiguration().getTomcatVersion();
+		}
+		catch (CoreException e) {
+			// assume the version does not support reloading
+			return null;
+		}
+	}
+
+	private synchronized ConfigurationChange classify(IResourceDelta folderDelta, final String tomcatVersion,
+			final boolean separateContextFiles) {
+		final boolean hasSignatures = hasSignatures(folderDelta.getFullPath());
+		final ConfigurationChange[] result = new ConfigurationChange[] { ConfigurationChange.NONE };
+		try {
+			folderDelta.accept(new IResourceDeltaVisitor() {
+				public boolean visit(IResourceDelta delta) throws CoreException {
+					IResource resource = delta.getResource();
+					if (resource.getType() != IResource.FILE) {
+						return true;
+					}
+					ConfigurationChange change = ConfigurationChange.forFile(resource.getName(), tomcatVersion,
+							separateContextFiles);
+					if (delta.getKind() == IResourceDelta.CHANGED
+							&& (delta.getFlags() & IResourceDelta.CONTENT) == 0) {
+						// markers or sync info changed
+						change = ConfigurationChange.NONE;
+					}
+					else if (delta.getKind() == IResourceDelta.REMOVED) {
+						signatures.remove(resource.getFullPath());
+					}
+					else if (resource.exists()) {
+						String signature = ConfigurationChange.computeSignature(resource.getName(),
+								ConfigurationLedger.readContents((IFile) resource));
+						String previous = signatures.put(resource.getFullPath(), signature);
+						if (hasSignatures && delta.getKind() == IResourceDelta.CHANGED && signature.equals(previous)) {
+							change = ConfigurationChange.NONE;
+						}
+					}
+					result[0] = result[0].max(change);
+					return true;
+				}
+			});
+		}
+		catch (CoreException e) {
+			TcServerCorePlugin.log(new Status(IStatus.WARNING, ITcServerConstants.PLUGIN_ID,
+					"Failed to process change of " + folderDelta.getFullPath(), e));
+			result[0] = ConfigurationChange.RESTART;
+		}
+		if (!hasSignatures) {
+			recordSignatures(folderDelta.getResource());
+		}
+		return result[0];
+	}
+
+	private boolean hasSignatures(IPath folderPath) {
+		for (IPath path : signatures.keySet()) {
+			if (folderPath.isPrefixOf(path)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void recordSignatures(IResource folder) {
+		if (!(folder instanceof IFolder) || !folder.exists()) {
+			return;
+		}
+		try {
+			for (IResource member : ((IFolder) folder).members()) {
+				if (member instanceof IFile && !signatures.containsKey(member.getFullPath())) {
+					signatures.put(member.getFullPath(), ConfigurationChange.computeSignature(member.getName(),
+							ConfigurationLedger.readContents((IFile) member)));
+				}
+			}
+		}
+		catch (CoreException e) {
+			// ignore, changes will be classified by file name
+		}
+	}
+
+	private synchronized Map<IPath, IServer> getIndex() {
+		if (serverByConfigurationFolder == null) {
+			if (!lifecycleListenerRegistered) {
+				ServerCore.addServerLifecycleListener(this);
+				lifecycleListenerRegistered = true;
+			}
+			Map<IPath, IServer> index = new HashMap<IPath, IServer>();
+			for (IServer server : ServerCore.getServers()) {
+				IServerType serverType = server.getServerType();
+				if (serverType != null
+						&& (serverType.getId().startsWith(VMWARE_SERVER_ID_PREFIX) || serverType.getId().startsWith(
+								SPRINGSOURCE_SERVER_ID_PREFIX))) {
+					IFolder configFolder = server.getServerConfiguration();
+					if (configFolder != null) {
+						index.put(configFolder.getFullPath(), server);
+					}
+				}
+			}
+			serverByConfigurationFolder = index;
+		}
+		return serverByConfigurationFolder;
+	}
+
+	private synchronized void invalidateIndex() {
+		serverByConfigurationFolder = null;
+	}
+
+	public void serverAdded(IServer server) {
+		invalidateIndex();
+	}
+
+	public void serverChanged(IServer server) {
+		invalidateIndex();
+	}
+
+	public void serverRemoved(IServer server) {
+		invalidateIndex();
+	}
+
+	public synchronized void dispose() {
+		if (lifecycleListenerRegistered) {
+			ServerCore.removeServerLifecycleListener(this);
+			lifecycleListenerRegistered = false;
+		}
+	}
+
 	private IProject getServersProject() {
 		if (serversProject == null) {
 			IProject project;
@@ -10,21 +10,42 @@
  *******************************************************************************/
 package com.vmware.vfabric.ide.eclipse.tcserver.internal.core;
 
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
 import org.eclipse.core.resources.IResourceChangeEvent;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.ILog;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
 import org.eclipse.ui.plugin.AbstractUIPlugin;
+import org.eclipse.wst.server.core.IRuntimeLifecycleListener;
+import org.eclipse.wst.server.core.ServerCore;
 import org.osgi.framework.BundleContext;
 
 public class TcServerCorePlugin extends AbstractUIPlugin  {
 
 	public static final String PLUGIN_ID = "com.vmware.vfabric.ide.eclipse.tcserver.core";
 
+	/**
+	 * If true, new instances are cloned from cached golden instances instead
+	 * of running the instance creation script every time. Enabled by default.
+	 */
+	public static final String PROPERTY_INSTANCE_TEMPLATE_CACHE = PLUGIN_ID + ".instanceTemplateCache";
+
+	private static final String INSTANCE_TEMPLATES_FOLDER = "instance-templates";
+
 	private static TcServerCorePlugin plugin;
 
 	private static TcServerConfigurationResourceListener configurationListener;
 
+	private static IRuntimeLifecycleListener classpathCacheInvalidator;
+
+	private InstanceFactory instanceFactory;
+
 	public static TcServerCorePlugin getDefault() {
 		return plugin;
 	}
@@ -33,19 +54,66 @@ public class TcServerCorePlugin extends AbstractUIPlugin  {
 	public void start(BundleContext context) throws Exception {
 		super.start(context);
 		plugin = this;
+		getPreferenceStore().setDefault(PROPERTY_INSTANCE_TEMPLATE_CACHE, true);
 		configurationListener = new TcServerConfigurationResourceListener();
 		ResourcesPlugin.getWorkspace().addResourceChangeListener(configurationListener,
 				IResourceChangeEvent.POST_CHANGE);
-
+		classpathCacheInvalidator = new TcServerRuntimeClasspathProvider.CacheInvalidator();
+		ServerCore.addRuntimeLifecycleListener(classpathCacheInvalidator);
+		registerMetrics();
 	}
 
 	@Override
 	public void stop(BundleContext context) throws Exception {
 		ResourcesPlugin.getWorkspace().removeResourceChangeListener(configurationListener);
+		configurationListener.dispose();
+		ServerCore.removeRuntimeLifecycleListener(classpathCacheInvalidator);
+		unregisterMetrics();
 		plugin = null;
 		super.stop(context);
 	}
 	
+	private void registerMetrics() {
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName name = ObjectName.getInstance(PublishMetrics.OBJECT_NAME);
+			if (!server.isRegistered(name)) {
+				server.registerMBean(PublishMetrics.getDefault(), name);
+			}
+		}
+		catch (JMException e) {
+			log(new Status(IStatus.WARNING, PLUGIN_ID, "Failed to register publish metrics", e));
+		}
+	}
+
+	private void unregisterMetrics() {
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName name = ObjectName.getInstance(PublishMetrics.OBJECT_NAME);
+			if (server.isRegistered(name)) {
+				server.unregisterMBean(name);
+			}
+		}
+		catch (JMException e) {
+			// ignore
+		}
+	}
+
+	public boolean isInstanceTemplateCacheEnabled() {
+		return getPreferenceStore().getBoolean(PROPERTY_INSTANCE_TEMPLATE_CACHE);
+	}
+
+	public void setInstanceTemplateCacheEnabled(boolean enabled) {
+		getPreferenceStore().setValue(PROPERTY_INSTANCE_TEMPLATE_CACHE, enabled);
+	}
+
+	public synchronized InstanceFactory getInstanceFactory() {
+		if (instanceFactory == null) {
+			instanceFactory = new InstanceFactory(getStateLocation().append(INSTANCE_TEMPLATES_FOLDER).toFile());
+		}
+		return instanceFactory;
+	}
+
 	public static void log(IStatus status) {
 		TcServerCorePlugin plugin = getDefault();
 		if (plugin!=null) {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2012, 2018 Pivotal Software, Inc.
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,31 +10,98 @@
  *******************************************************************************/
 package com.vmware.vfabric.ide.eclipse.tcserver.internal.core;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.jdt.core.IClasspathEntry;
 import org.eclipse.jst.server.core.RuntimeClasspathProviderDelegate;
 import org.eclipse.wst.server.core.IRuntime;
+import org.eclipse.wst.server.core.IRuntimeLifecycleListener;
 
 /**
+ * Resolves the libraries of a tc Server runtime. The resolved entries are
+ * cached per runtime since the container is resolved for every web project
+ * that targets the runtime. The cache is invalidated when the Tomcat location
+ * or the modification time of the <code>lib</code> directory changes, and when
+ * the runtime is changed or deleted.
+ * <p>
+ * Entries are returned without source and javadoc attachments which are
+ * applied by {@link RuntimeClasspathProviderDelegate} when a container is
+ * resolved.
+ * </p>
  * @author Steffen Pingel
  */
 public class TcServerRuntimeClasspathProvider extends RuntimeClasspathProviderDelegate {
 
+	/**
+	 * Discards the cached container of runtimes that are changed or deleted.
+	 */
+	static class CacheInvalidator implements IRuntimeLifecycleListener {
+
+		public void runtimeAdded(IRuntime runtime) {
+			// ignore
+		}
+
+		public void runtimeChanged(IRuntime runtime) {
+			invalidate(runtime);
+		}
+
+		public void runtimeRemoved(IRuntime runtime) {
+			invalidate(runtime);
+		}
+
+	}
+
+	private static class CachedContainer {
+
+		private final IPath installPath;
+
+		private final long lastModified;
+
+		private final IClasspathEntry[] entries;
+
+		public CachedContainer(IPath installPath, long lastModified, IClasspathEntry[] entries) {
+			this.installPath = installPath;
+			this.lastModified = lastModified;
+			this.entries = entries;
+		}
+
+	}
+
+	private static final IClasspathEntry[] NO_ENTRIES = new IClasspathEntry[0];
+
+	private static final ConcurrentMap<String, CachedContainer> cache = new ConcurrentHashMap<String, CachedContainer>();
+
 	public IClasspathEntry[] resolveClasspathContainer(IProject project, IRuntime runtime) {
 		ITcRuntime tcRuntime = TcServerUtil.getTcRuntime(runtime);
 		IPath installPath = tcRuntime.getTomcatLocation();
 		if (installPath == null) {
-			return new IClasspathEntry[0];
+			return NO_ENTRIES;
 		}
 
-		List<IClasspathEntry> list = new ArrayList<IClasspathEntry>();
-		IPath path = installPath.append("lib");
-		addLibraryEntries(list, path.toFile(), true);
-		return list.toArray(new IClasspathEntry[list.size()]);
+		File libDirectory = installPath.append("lib").toFile();
+		long lastModified = libDirectory.lastModified();
+		CachedContainer container = cache.get(runtime.getId());
+		if (container == null || !container.installPath.equals(installPath)
+				|| container.lastModified != lastModified) {
+			List<IClasspathEntry> list = new ArrayList<IClasspathEntry>();
+			addLibraryEntries(list, libDirectory, true);
+			container = new CachedContainer(installPath, lastModified, list.toArray(new IClasspathEntry[list.size()]));
+			cache.put(runtime.getId(), container);
+		}
+		return container.entries.clone();
+	}
+
+	/**
+	 * Discards the cached container of <code>runtime</code>.
+	 */
+	static void invalidate(IRuntime runtime) {
+		cache.remove(runtime.getId());
 	}
 
 }
@@ -94,6 +94,31 @@ public class TcServerUtil {
 	public static void executeInstanceCreation(IRuntime runtime, String instanceName, String[] arguments)
 			throws CoreException {
 		ITcRuntime tcRuntime = getTcRuntime(runtime);
+		TcServerCorePlugin plugin = TcServerCorePlugin.getDefault();
+		if (plugin != null && plugin.isInstanceTemplateCacheEnabled() && InstanceFactory.isCacheable(arguments)) {
+			IPath instanceDirectory = getInstanceDirectory(arguments, instanceName);
+			if (instanceDirectory == null) {
+				instanceDirectory = tcRuntime.instanceDirectory(instanceName);
+			}
+			// the script decides how to handle existing instances
+			if (!instanceDirectory.toFile().exists()) {
+				File instance = plugin.getInstanceFactory().createInstance(tcRuntime, instanceName, arguments, null);
+				IStatus status = validateInstance(instance, true);
+				if (!status.isOK()) {
+					throw new CoreException(status);
+				}
+				return;
+			}
+		}
+		executeInstanceCreationScript(tcRuntime, instanceName, arguments);
+	}
+
+	/**
+	 * Runs the instance creation script of <code>tcRuntime</code> and
+	 * validates the created instance.
+	 */
+	static void executeInstanceCreationScript(ITcRuntime tcRuntime, String instanceName, String[] arguments)
+			throws CoreException {
 		ServerInstanceCommand command = new ServerInstanceCommand(tcRuntime);
 
 		// execute
@@ -158,6 +183,10 @@ public class TcServerUtil {
 	}
 
 	public static String getInstanceTomcatVersion(File instanceFolder) {
+		return TomcatVersionRegistry.getDefault().getInstanceTomcatVersion(instanceFolder);
+	}
+
+	static String readInstanceTomcatVersion(File instanceFolder) {
 		File tomcatVersionFile = new File(new File(instanceFolder, "conf"), "tomcat.version");
 		Scanner scanner = null;
 		try {
@@ -237,6 +266,10 @@ public class TcServerUtil {
 	}
 
 	public static String getCatalinaVersion(IPath tomcatLocation, String serverTypeID) {
+		return TomcatVersionRegistry.getDefault().getCatalinaVersion(tomcatLocation, serverTypeID);
+	}
+
+	static String readCatalinaVersion(IPath tomcatLocation, String serverTypeID) {
 		String version = TomcatVersionHelper.getCatalinaVersion(tomcatLocation, serverTypeID);
 		if ((version == null || version.isEmpty()) && (tomcatLocation != null && !tomcatLocation.isEmpty())) {
 			version = getServerVersion(tomcatLocation.lastSegment());
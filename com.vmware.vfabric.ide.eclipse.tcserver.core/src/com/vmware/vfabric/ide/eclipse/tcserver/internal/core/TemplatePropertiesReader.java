@@ -91,7 +91,10 @@ public class TemplatePropertiesReader {
 		return null;
 	}
 
-	private Set<TemplateProperty> read(File templateDir, IProgressMonitor monitor) throws CoreException {
+	/**
+	 * Reads the properties of the template in <code>templateDir</code>.
+	 */
+	static Set<TemplateProperty> read(File templateDir, IProgressMonitor monitor) throws CoreException {
 		File configurationPromptsFile = new File(templateDir, CONFIGURATION_PROMPTS_PROPERTIES);
 		Properties props = new TemplatePropertiesReader.OrderedProperties();
 		if (!configurationPromptsFile.exists()) {
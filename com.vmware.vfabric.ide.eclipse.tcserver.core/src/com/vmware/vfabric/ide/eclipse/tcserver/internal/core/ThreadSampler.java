@@ -0,0 +1,422 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.Thread.State;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.management.MBeanServerConnection;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.ServerDiagnostics.Kind;
+
+/**
+ * Periodically samples the stacks of all threads of a running server to find
+ * contended monitors and the frames that consume most time. The JMX
+ * connection is shared with other users through a {@link SharedJmxConnector}
+ * while sampling, each sample retrieves the stacks and lock information of
+ * all threads in one request.
+ * <p>
+ * Threads that are waiting, e.g. idle pool threads, and runnable threads
+ * that wait in native I/O calls, e.g. connector acceptors, are not counted.
+ * Samples are attributed to the context of the innermost frame that belongs
+ * to a package of a deployed module, see {@link PackageProvider}, and are
+ * aggregated in the collapsed stack format that is processed by flame graph
+ * tools.
+ * </p>
+ */
+public class ThreadSampler {
+
+	/**
+	 * Provides the packages of the deployed modules.
+	 */
+	public interface PackageProvider {
+
+		/**
+		 * Returns the packages of the deployed modules mapped to the context
+		 * path of the module. Invoked from the sampling thread when sampling
+		 * starts.
+		 */
+		Map<String, String> getPackages();
+
+	}
+
+	public static class Count {
+
+		private final String name;
+
+		private final long count;
+
+		public Count(String name, long count) {
+			this.name = name;
+			this.count = count;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public long getCount() {
+			return count;
+		}
+
+	}
+
+	public static final long DEFAULT_INTERVAL = 100;
+
+	public static final long MIN_INTERVAL = 10;
+
+	/** The context of samples that do not belong to a deployed module. */
+	public static final String SERVER_CONTEXT = "server";
+
+	public static final String COLLAPSED_STACKS_SUFFIX = ".collapsed";
+
+	private final SharedJmxConnector connector;
+
+	private final PackageProvider packageProvider;
+
+	private final Job job;
+
+	private volatile long interval = DEFAULT_INTERVAL;
+
+	private volatile boolean running;
+
+	private volatile boolean packagesChanged;
+
+	private volatile IStatus status = Status.OK_STATUS;
+
+	private volatile Map<String, String> packages = Collections.emptyMap();
+
+	private MBeanServerConnection connection;
+
+	private ThreadMXBean threads;
+
+	/** Context path to collapsed stack to number of samples. */
+	private final Map<String, Map<String, long[]>> stacks = new TreeMap<String, Map<String, long[]>>();
+
+	private final Map<String, long[]> blockedMonitors = new HashMap<String, long[]>();
+
+	private final Map<String, long[]> frames = new HashMap<String, long[]>();
+
+	private long samples;
+
+	public ThreadSampler(SharedJmxConnector connector, PackageProvider packageProvider) {
+		this.connector = connector;
+		this.packageProvider = packageProvider;
+		this.job = new Job("Sampling server threads") {
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				return runSample();
+			}
+		};
+		this.job.setSystem(true);
+	}
+
+	public long getInterval() {
+		return interval;
+	}
+
+	/**
+	 * Sets the time between samples in milliseconds.
+	 */
+	public void setInterval(long interval) {
+		this.interval = Math.max(MIN_INTERVAL, interval);
+	}
+
+	/**
+	 * Sets the packages of the deployed modules, mapped to the context path
+	 * of the module, that are used to attribute samples to a context.
+	 */
+	public void setPackages(Map<String, String> packages) {
+		this.packages = new HashMap<String, String>(packages);
+	}
+
+	public boolean isRunning() {
+		return running;
+	}
+
+	/**
+	 * Starts sampling. The packages are retrieved from the
+	 * {@link PackageProvider} before the first sample.
+	 */
+	public void start() {
+		packagesChanged = packageProvider != null;
+		running = true;
+		job.schedule();
+	}
+
+	/**
+	 * Stops sampling and releases the JMX connection. Aggregated samples are
+	 * retained until {@link #reset()} is invoked.
+	 */
+	public void stop() {
+		running = false;
+		job.cancel();
+		disconnect();
+	}
+
+	/**
+	 * Returns the status of the last sample.
+	 */
+	public IStatus getStatus() {
+		return status;
+	}
+
+	private synchronized void disconnect() {
+		connector.release(this);
+		connection = null;
+		threads = null;
+	}
+
+	private IStatus runSample() {
+		if (!running) {
+			return Status.OK_STATUS;
+		}
+		if (!connector.isAvailable()) {
+			status = new Status(IStatus.INFO, ITcServerConstants.PLUGIN_ID, "Server is not running");
+			stop();
+			return Status.OK_STATUS;
+		}
+		if (packagesChanged) {
+			packagesChanged = false;
+			setPackages(packageProvider.getPackages());
+		}
+		long start = System.currentTimeMillis();
+		MBeanServerConnection current = null;
+		try {
+			current = connector.acquire(this);
+			ThreadMXBean bean;
+			synchronized (this) {
+				if (current != connection) {
+					// the shared connection was reopened
+					connection = current;
+					threads = ManagementFactory.newPlatformMXBeanProxy(current, ManagementFactory.THREAD_MXBEAN_NAME,
+							ThreadMXBean.class);
+				}
+				bean = threads;
+			}
+			record(bean.dumpAllThreads(false, false));
+			status = Status.OK_STATUS;
+		}
+		catch (Exception e) {
+			status = new Status(IStatus.WARNING, ITcServerConstants.PLUGIN_ID, "Sampling of server threads failed", e);
+			connector.invalidate(current);
+			disconnect();
+		}
+		if (running) {
+			// keep the configured rate unless sampling takes longer
+			job.schedule(Math.max(0, interval - (System.currentTimeMillis() - start)));
+		}
+		else {
+			// stopped while sampling
+			disconnect();
+		}
+		return Status.OK_STATUS;
+	}
+
+	/**
+	 * Samples the threads of <code>connection</code> once.
+	 */
+	void sample(MBeanServerConnection connection) throws IOException {
+		ThreadMXBean bean = ManagementFactory.newPlatformMXBeanProxy(connection, ManagementFactory.THREAD_MXBEAN_NAME,
+				ThreadMXBean.class);
+		record(bean.dumpAllThreads(false, false));
+	}
+
+	synchronized void record(ThreadInfo[] infos) {
+		samples++;
+		for (ThreadInfo info : infos) {
+			if (info == null || isIgnored(info)) {
+				continue;
+			}
+			StackTraceElement[] stack = info.getStackTrace();
+			if (info.getThreadState() == State.BLOCKED) {
+				increment(blockedMonitors, info.getLockName());
+			}
+			else if (info.getThreadState() == State.RUNNABLE && stack.length > 0) {
+				increment(frames, getFrame(stack[0]));
+			}
+			else {
+				continue;
+			}
+
+			StringBuilder sb = new StringBuilder();
+			for (int i = stack.length - 1; i >= 0; i--) {
+				if (sb.length() > 0) {
+					sb.append(';');
+				}
+				sb.append(getFrame(stack[i]));
+			}
+			if (info.getThreadState() == State.BLOCKED && info.getLockInfo() != null) {
+				sb.append(";[blocked on ").append(info.getLockInfo().getClassName()).append("]");
+			}
+			String context = getContext(stack);
+			Map<String, long[]> contextStacks = stacks.get(context);
+			if (contextStacks == null) {
+				contextStacks = new HashMap<String, long[]>();
+				stacks.put(context, contextStacks);
+			}
+			increment(contextStacks, sb.toString());
+		}
+	}
+
+	private boolean isIgnored(ThreadInfo info) {
+		String name = info.getThreadName();
+		if (name.startsWith("RMI ") || name.startsWith("JMX ")) {
+			// threads that serve the sampler
+			return true;
+		}
+		StackTraceElement[] stack = info.getStackTrace();
+		return info.getThreadState() == State.RUNNABLE && stack.length > 0 && stack[0].isNativeMethod();
+	}
+
+	/**
+	 * Returns the context path of the innermost frame that belongs to a
+	 * package of a deployed module or {@link #SERVER_CONTEXT}.
+	 */
+	String getContext(StackTraceElement[] stack) {
+		Map<String, String> packages = this.packages;
+		if (!packages.isEmpty()) {
+			for (StackTraceElement frame : stack) {
+				String className = frame.getClassName();
+				int i = className.lastIndexOf('.');
+				String context = packages.get((i != -1) ? className.substring(0, i) : "");
+				if (context != null) {
+					return context;
+				}
+			}
+		}
+		return SERVER_CONTEXT;
+	}
+
+	private static String getFrame(StackTraceElement element) {
+		return element.getClassName() + "." + element.getMethodName();
+	}
+
+	private static void increment(Map<String, long[]> counts, String key) {
+		long[] count = counts.get(key);
+		if (count == null) {
+			counts.put(key, new long[] { 1 });
+		}
+		else {
+			count[0]++;
+		}
+	}
+
+	public synchronized void reset() {
+		samples = 0;
+		stacks.clear();
+		blockedMonitors.clear();
+		frames.clear();
+	}
+
+	/**
+	 * Returns the number of times all threads were sampled.
+	 */
+	public synchronized long getSampleCount() {
+		return samples;
+	}
+
+	/**
+	 * Returns the monitors that threads were most often blocked on.
+	 */
+	public synchronized List<Count> getTopBlockedMonitors(int limit) {
+		return getTop(blockedMonitors, limit);
+	}
+
+	/**
+	 * Returns the frames that were most often executing.
+	 */
+	public synchronized List<Count> getTopFrames(int limit) {
+		return getTop(frames, limit);
+	}
+
+	private static List<Count> getTop(Map<String, long[]> counts, int limit) {
+		List<Count> result = new ArrayList<Count>(counts.size());
+		for (Map.Entry<String, long[]> entry : counts.entrySet()) {
+			result.add(new Count(entry.getKey(), entry.getValue()[0]));
+		}
+		Collections.sort(result, new Comparator<Count>() {
+			public int compare(Count o1, Count o2) {
+				int c = Long.compare(o2.getCount(), o1.getCount());
+				return (c != 0) ? c : o1.getName().compareTo(o2.getName());
+			}
+		});
+		return (result.size() > limit) ? new ArrayList<Count>(result.subList(0, limit)) : result;
+	}
+
+	public synchronized List<String> getContexts() {
+		return new ArrayList<String>(stacks.keySet());
+	}
+
+	/**
+	 * Returns the samples of <code>context</code> in the collapsed stack
+	 * format, one line per distinct stack with frames separated by
+	 * <code>;</code> from the outermost frame followed by the number of
+	 * samples.
+	 */
+	public synchronized String getCollapsedStacks(String context) {
+		StringBuilder sb = new StringBuilder();
+		Map<String, long[]> contextStacks = stacks.get(context);
+		if (contextStacks != null) {
+			for (Map.Entry<String, long[]> entry : new TreeMap<String, long[]>(contextStacks).entrySet()) {
+				sb.append(entry.getKey()).append(' ').append(entry.getValue()[0]).append('\n');
+			}
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Writes the collapsed stacks of each context to a file in a new
+	 * directory of <code>diagnostics</code> and returns the directory.
+	 */
+	public File writeCollapsedStacks(ServerDiagnostics diagnostics, long time) throws IOException {
+		File directory = diagnostics.getFile(Kind.STACK_SAMPLES, time);
+		if (!directory.mkdirs()) {
+			throw new IOException("Failed to create directory " + directory);
+		}
+		for (String context : getContexts()) {
+			File file = new File(directory, getFileName(context) + COLLAPSED_STACKS_SUFFIX);
+			Files.write(file.toPath(), getCollapsedStacks(context).getBytes(StandardCharsets.UTF_8));
+		}
+		return directory;
+	}
+
+	/**
+	 * Returns the file name for a context path using the same conventions as
+	 * Tomcat uses for the names of web application directories, e.g.
+	 * <code>ROOT</code> for the root context.
+	 */
+	static String getFileName(String context) {
+		if (context.equals("/")) {
+			return "ROOT";
+		}
+		return (context.startsWith("/") ? context.substring(1) : context).replace('/', '#');
+	}
+
+}
@@ -0,0 +1,105 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.core;
+
+import java.io.File;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.eclipse.core.runtime.IPath;
+
+/**
+ * Caches the Tomcat versions of runtimes and instances. Detecting the version
+ * of a runtime requires opening <code>catalina.jar</code> which is too
+ * expensive to do on every publish. A cached version is detected again when
+ * the modification time or size of the file it was read from changes.
+ */
+public class TomcatVersionRegistry {
+
+	private static class VersionEntry {
+
+		private final long lastModified;
+
+		private final long length;
+
+		private final String version;
+
+		public VersionEntry(long lastModified, long length, String version) {
+			this.lastModified = lastModified;
+			this.length = length;
+			this.version = version;
+		}
+
+		public boolean isCurrent(File file) {
+			return lastModified == file.lastModified() && length == file.length();
+		}
+
+	}
+
+	private static final TomcatVersionRegistry instance = new TomcatVersionRegistry();
+
+	public static TomcatVersionRegistry getDefault() {
+		return instance;
+	}
+
+	private final ConcurrentMap<String, VersionEntry> catalinaVersions = new ConcurrentHashMap<String, VersionEntry>();
+
+	private final ConcurrentMap<File, VersionEntry> instanceVersions = new ConcurrentHashMap<File, VersionEntry>();
+
+	/**
+	 * Returns the version of the Tomcat installation at
+	 * <code>tomcatLocation</code>, see
+	 * {@link TcServerUtil#getCatalinaVersion(IPath, String)}.
+	 */
+	public String getCatalinaVersion(IPath tomcatLocation, String serverTypeID) {
+		if (tomcatLocation == null || tomcatLocation.isEmpty()) {
+			return TcServerUtil.readCatalinaVersion(tomcatLocation, serverTypeID);
+		}
+
+		File catalinaJar = tomcatLocation.append("lib").append("catalina.jar").toFile();
+		String key = tomcatLocation.toOSString() + "|" + serverTypeID;
+		VersionEntry entry = catalinaVersions.get(key);
+		if (entry == null || !entry.isCurrent(catalinaJar)) {
+			long lastModified = catalinaJar.lastModified();
+			long length = catalinaJar.length();
+			entry = new VersionEntry(lastModified, length, TcServerUtil.readCatalinaVersion(tomcatLocation,
+					serverTypeID));
+			catalinaVersions.put(key, entry);
+		}
+		return entry.version;
+	}
+
+	/**
+	 * Returns the Tomcat version of the instance at
+	 * <code>instanceFolder</code>, see
+	 * {@link TcServerUtil#getInstanceTomcatVersion(File)}.
+	 */
+	public String getInstanceTomcatVersion(File instanceFolder) {
+		File tomcatVersionFile = new File(new File(instanceFolder, "conf"), "tomcat.version");
+		VersionEntry entry = instanceVersions.get(tomcatVersionFile);
+		if (entry == null || !entry.isCurrent(tomcatVersionFile)) {
+			long lastModified = tomcatVersionFile.lastModified();
+			long length = tomcatVersionFile.length();
+			entry = new VersionEntry(lastModified, length, TcServerUtil.readInstanceTomcatVersion(instanceFolder));
+			instanceVersions.put(tomcatVersionFile, entry);
+		}
+		return entry.version;
+	}
+
+	/**
+	 * Discards all cached versions.
+	 */
+	public void clear() {
+		catalinaVersions.clear();
+		instanceVersions.clear();
+	}
+
+}
@@ -0,0 +1,42 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.reloading.agent;
+
+import java.lang.instrument.Instrumentation;
+
+/**
+ * Java agent that registers a {@link ReloadTelemetryPlugin} with Spring
+ * Loaded. The agent must be specified after the Spring Loaded agent, the
+ * argument is the port that the IDE listens on, e.g.
+ * <code>-javaagent:tcserver-reloading-telemetry.jar=4711</code>.
+ */
+public class ReloadTelemetryAgent {
+
+	public static void premain(String args, Instrumentation instrumentation) {
+		int port;
+		try {
+			port = Integer.parseInt((args != null) ? args.trim() : "");
+		}
+		catch (NumberFormatException e) {
+			System.err.println("tc Server reload telemetry disabled, invalid port: " + args);
+			return;
+		}
+		try {
+			// Spring Loaded types are only referenced by the plug-in so a missing
+			// agent can be detected here
+			ReloadTelemetryPlugin.register(port);
+		}
+		catch (NoClassDefFoundError e) {
+			System.err.println("tc Server reload telemetry disabled, Spring Loaded agent is not available");
+		}
+	}
+
+}
@@ -0,0 +1,153 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.reloading.agent;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.security.CodeSource;
+
+import org.springsource.loaded.Plugins;
+import org.springsource.loaded.ReloadEventProcessorPlugin;
+import org.springsource.loaded.TypeDelta;
+import org.springsource.loaded.UnableToReloadEventProcessorPlugin;
+
+/**
+ * Reports reload events of the Spring Loaded agent to the IDE. Each event is
+ * sent as a line of tab separated values over a socket on the loopback
+ * interface: the event kind, the name of the type, the latency in
+ * milliseconds and the location of the code source of the type.
+ * <p>
+ * The latency is the time from the last modification of the class file to the
+ * completed reload, -1 if the class file is not known. Events are dropped
+ * while the IDE is not reachable, reporting never affects the application.
+ * </p>
+ */
+public class ReloadTelemetryPlugin implements ReloadEventProcessorPlugin, UnableToReloadEventProcessorPlugin {
+
+	/** Must match <code>ReloadTelemetry.EVENT_RELOAD</code> in the core plug-in. */
+	static final String EVENT_RELOAD = "RELOAD";
+
+	/** Must match <code>ReloadTelemetry.EVENT_FAILED</code> in the core plug-in. */
+	static final String EVENT_FAILED = "FAILED";
+
+	private static final int CONNECT_TIMEOUT = 1000;
+
+	private final int port;
+
+	private Socket socket;
+
+	private Writer writer;
+
+	public ReloadTelemetryPlugin(int port) {
+		this.port = port;
+	}
+
+	/**
+	 * Registers a plug-in that reports to <code>port</code> with Spring Loaded.
+	 */
+	static void register(int port) {
+		Plugins.registerGlobalPlugin(new ReloadTelemetryPlugin(port));
+	}
+
+	public boolean shouldRerunStaticInitializer(String typename, Class<?> clazz, String encodedTimestamp) {
+		return false;
+	}
+
+	public void reloadEvent(String typename, Class<?> clazz, String encodedTimestamp) {
+		File location = getLocation(clazz);
+		send(EVENT_RELOAD, typename, getLatency(typename, location), location);
+	}
+
+	public void unableToReloadEvent(String typename, Class<?> clazz, TypeDelta typeDelta, String encodedTimestamp) {
+		File location = getLocation(clazz);
+		send(EVENT_FAILED, typename, getLatency(typename, location), location);
+	}
+
+	private synchronized void send(String event, String typename, long latency, File location) {
+		StringBuilder sb = new StringBuilder();
+		sb.append(event).append('\t');
+		sb.append(clean(typename)).append('\t');
+		sb.append(latency).append('\t');
+		sb.append((location != null) ? clean(location.getAbsolutePath()) : "").append('\n');
+		try {
+			if (writer == null) {
+				socket = new Socket();
+				socket.connect(new InetSocketAddress("127.0.0.1", port), CONNECT_TIMEOUT);
+				writer = new OutputStreamWriter(socket.getOutputStream(), "UTF-8");
+			}
+			writer.write(sb.toString());
+			writer.flush();
+		}
+		catch (IOException e) {
+			close();
+		}
+	}
+
+	private void close() {
+		writer = null;
+		if (socket != null) {
+			try {
+				socket.close();
+			}
+			catch (IOException e) {
+				// ignore
+			}
+			socket = null;
+		}
+	}
+
+	/**
+	 * Returns the directory or jar that <code>clazz</code> was loaded from or
+	 * null, if the location is not a local file.
+	 */
+	static File getLocation(Class<?> clazz) {
+		try {
+			CodeSource codeSource = (clazz != null) ? clazz.getProtectionDomain().getCodeSource() : null;
+			URL url = (codeSource != null) ? codeSource.getLocation() : null;
+			if (url != null && "file".equals(url.getProtocol())) {
+				return new File(url.toURI());
+			}
+		}
+		catch (SecurityException e) {
+			// ignore
+		}
+		catch (URISyntaxException e) {
+			// ignore
+		}
+		catch (IllegalArgumentException e) {
+			// ignore
+		}
+		return null;
+	}
+
+	static long getLatency(String typename, File location) {
+		if (typename == null || location == null || !location.isDirectory()) {
+			return -1;
+		}
+		File classFile = new File(location, typename.replace('.', '/') + ".class");
+		long lastModified = classFile.lastModified();
+		if (lastModified == 0) {
+			return -1;
+		}
+		return Math.max(0, System.currentTimeMillis() - lastModified);
+	}
+
+	private static String clean(String value) {
+		return (value != null) ? value.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ') : "";
+	}
+
+}
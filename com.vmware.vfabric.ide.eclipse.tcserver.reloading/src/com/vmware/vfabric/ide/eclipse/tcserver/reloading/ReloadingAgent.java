@@ -0,0 +1,185 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.reloading;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.MultiStatus;
+import org.eclipse.core.runtime.Status;
+
+/**
+ * Translates {@link ReloadingProfile}s into options for a version of the
+ * Spring Loaded agent. Settings of a profile that the agent does not support
+ * are omitted and reported in the status of the result.
+ */
+public class ReloadingAgent {
+
+	/**
+	 * The options and status computed for a profile.
+	 */
+	public static class Configuration {
+
+		private final String options;
+
+		private final IStatus status;
+
+		public Configuration(String options, IStatus status) {
+			this.options = options;
+			this.status = status;
+		}
+
+		/**
+		 * Returns the value for the <code>springloaded</code> system
+		 * property, an empty string if no options are needed.
+		 */
+		public String getOptions() {
+			return options;
+		}
+
+		/**
+		 * Returns a status that contains a warning for each setting that is
+		 * not supported by the agent.
+		 */
+		public IStatus getStatus() {
+			return status;
+		}
+
+	}
+
+	private static final String PLUGIN_ID = "com.vmware.vfabric.ide.eclipse.tcserver.reloading";
+
+	/** The first version that supports reloading of types in jars. */
+	private static final int[] VERSION_WATCH_JARS = { 1, 2, 1 };
+
+	private final String version;
+
+	private final int[] versionSegments;
+
+	public ReloadingAgent(String version) {
+		this.version = version;
+		this.versionSegments = parseVersion(version);
+	}
+
+	/**
+	 * Returns the agent for the jar at <code>path</code>. The version is read
+	 * from the manifest of the jar.
+	 */
+	public static ReloadingAgent fromJar(String path) throws IOException {
+		JarFile jar = new JarFile(new File(path));
+		try {
+			Manifest manifest = jar.getManifest();
+			String version = (manifest != null) ? manifest.getMainAttributes().getValue("Implementation-Version")
+					: null;
+			return new ReloadingAgent(version);
+		}
+		finally {
+			jar.close();
+		}
+	}
+
+	public String getVersion() {
+		return version;
+	}
+
+	/**
+	 * Returns the options for <code>profile</code>.
+	 *
+	 * @param defaultCacheDirectory the cache directory if the profile does not
+	 * specify one
+	 */
+	public Configuration configure(ReloadingProfile profile, File defaultCacheDirectory) {
+		MultiStatus status = new MultiStatus(PLUGIN_ID, 0, "Reloading profile " + profile.getLabel()
+				+ " is not fully supported by Spring Loaded " + version, null);
+		StringBuilder sb = new StringBuilder();
+		if (!profile.getInclusions().isEmpty()) {
+			append(sb, "inclusions", join(profile.getInclusions()));
+		}
+		if (!profile.getExclusions().isEmpty()) {
+			append(sb, "exclusions", join(profile.getExclusions()));
+		}
+		if (profile.isCaching()) {
+			append(sb, "caching", "true");
+			String cacheDirectory = profile.getCacheDirectory();
+			if (cacheDirectory == null && defaultCacheDirectory != null) {
+				defaultCacheDirectory.mkdirs();
+				cacheDirectory = defaultCacheDirectory.getAbsolutePath();
+			}
+			if (cacheDirectory != null) {
+				append(sb, "cacheDir", cacheDirectory);
+			}
+		}
+		if (profile.isReloadJars()) {
+			if (isAtLeast(VERSION_WATCH_JARS)) {
+				append(sb, "watchJars", "*.jar");
+			}
+			else {
+				status.add(new Status(IStatus.WARNING, PLUGIN_ID, "Reloading of types in jars requires Spring Loaded "
+						+ "1.2.1 or later, types in jars will not be reloaded"));
+			}
+		}
+		if (profile.getWatcherInterval() > 0) {
+			status.add(new Status(IStatus.WARNING, PLUGIN_ID, "The interval for detecting changes is not "
+					+ "configurable, the default of the agent is used"));
+		}
+		return new Configuration(sb.toString(), status);
+	}
+
+	boolean isAtLeast(int[] required) {
+		for (int i = 0; i < required.length; i++) {
+			int segment = (i < versionSegments.length) ? versionSegments[i] : 0;
+			if (segment != required[i]) {
+				return segment > required[i];
+			}
+		}
+		return true;
+	}
+
+	private static int[] parseVersion(String version) {
+		if (version == null) {
+			return new int[0];
+		}
+		String[] segments = version.split("\\.");
+		int[] result = new int[Math.min(3, segments.length)];
+		for (int i = 0; i < result.length; i++) {
+			try {
+				result[i] = Integer.parseInt(segments[i]);
+			}
+			catch (NumberFormatException e) {
+				return new int[0];
+			}
+		}
+		return result;
+	}
+
+	private static void append(StringBuilder sb, String key, String value) {
+		if (sb.length() > 0) {
+			sb.append(';');
+		}
+		sb.append(key).append('=').append(value);
+	}
+
+	private static String join(List<String> values) {
+		StringBuilder sb = new StringBuilder();
+		for (String value : values) {
+			if (sb.length() > 0) {
+				sb.append(',');
+			}
+			sb.append(value);
+		}
+		return sb.toString();
+	}
+
+}
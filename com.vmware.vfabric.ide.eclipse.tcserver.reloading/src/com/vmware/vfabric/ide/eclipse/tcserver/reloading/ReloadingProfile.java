@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.reloading;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A set of settings for the Spring Loaded agent. Profiles limit which types
+ * are instrumented and enable caching of instrumented types to reduce the
+ * overhead of agent-based reloading for large applications. Profiles are
+ * translated into agent options by {@link ReloadingAgent}.
+ */
+public class ReloadingProfile {
+
+	private final String id;
+
+	private final String label;
+
+	private final String description;
+
+	private final List<String> inclusions = new ArrayList<String>();
+
+	private final List<String> exclusions = new ArrayList<String>();
+
+	private boolean caching;
+
+	private String cacheDirectory;
+
+	private boolean reloadJars;
+
+	private int watcherInterval;
+
+	public ReloadingProfile(String id, String label, String description) {
+		this.id = id;
+		this.label = label;
+		this.description = description;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public String getLabel() {
+		return label;
+	}
+
+	public String getDescription() {
+		return description;
+	}
+
+	/**
+	 * Returns the type patterns that are made reloadable, e.g.
+	 * <code>com.example..*</code>. If empty, all types that are not excluded
+	 * are reloadable.
+	 */
+	public List<String> getInclusions() {
+		return Collections.unmodifiableList(inclusions);
+	}
+
+	public void addInclusion(String pattern) {
+		inclusions.add(pattern);
+	}
+
+	/**
+	 * Returns the type patterns that are never instrumented.
+	 */
+	public List<String> getExclusions() {
+		return Collections.unmodifiableList(exclusions);
+	}
+
+	public void addExclusion(String pattern) {
+		exclusions.add(pattern);
+	}
+
+	/**
+	 * Returns true, if instrumented types are cached across launches.
+	 */
+	public boolean isCaching() {
+		return caching;
+	}
+
+	public void setCaching(boolean caching) {
+		this.caching = caching;
+	}
+
+	/**
+	 * Returns the directory for cached types or null, to use the default
+	 * cache directory.
+	 */
+	public String getCacheDirectory() {
+		return cacheDirectory;
+	}
+
+	public void setCacheDirectory(String cacheDirectory) {
+		this.cacheDirectory = cacheDirectory;
+	}
+
+	/**
+	 * Returns true, if types loaded from jars are reloadable.
+	 */
+	public boolean isReloadJars() {
+		return reloadJars;
+	}
+
+	public void setReloadJars(boolean reloadJars) {
+		this.reloadJars = reloadJars;
+	}
+
+	/**
+	 * Returns the interval in milliseconds in which the agent polls for
+	 * changed class files or 0, to use the default of the agent.
+	 */
+	public int getWatcherInterval() {
+		return watcherInterval;
+	}
+
+	public void setWatcherInterval(int watcherInterval) {
+		this.watcherInterval = watcherInterval;
+	}
+
+	@Override
+	public String toString() {
+		return id;
+	}
+
+}
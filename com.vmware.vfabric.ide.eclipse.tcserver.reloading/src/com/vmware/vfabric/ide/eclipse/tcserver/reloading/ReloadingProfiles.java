@@ -0,0 +1,78 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.reloading;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The built-in {@link ReloadingProfile}s.
+ */
+public class ReloadingProfiles {
+
+	public static final String ID_DEFAULT = "default";
+
+	public static final String ID_CACHED = "cached";
+
+	public static final String ID_LARGE_APPLICATION = "large";
+
+	/**
+	 * Packages of common libraries and frameworks that are excluded by the
+	 * large application profile. Types of these packages are usually loaded
+	 * from jars which are not reloadable anyways but instrumenting them when
+	 * they are deployed as classes is expensive.
+	 */
+	private static final String[] LIBRARY_PACKAGES = { "org.springframework", "org.hibernate", "org.apache",
+			"org.aspectj", "org.slf4j", "ch.qos.logback", "com.fasterxml.jackson", "com.google", "io.netty",
+			"net.bytebuddy", "org.jboss", "org.thymeleaf", "reactor", "javax" };
+
+	private static final List<ReloadingProfile> profiles;
+
+	static {
+		List<ReloadingProfile> list = new ArrayList<ReloadingProfile>();
+
+		list.add(new ReloadingProfile(ID_DEFAULT, "Default", "Uses the defaults of the agent."));
+
+		ReloadingProfile cached = new ReloadingProfile(ID_CACHED, "Cached",
+				"Caches instrumented types across launches.");
+		cached.setCaching(true);
+		list.add(cached);
+
+		ReloadingProfile large = new ReloadingProfile(ID_LARGE_APPLICATION, "Large application",
+				"Caches instrumented types and does not instrument common libraries and frameworks.");
+		large.setCaching(true);
+		for (String name : LIBRARY_PACKAGES) {
+			large.addExclusion(name + "..*");
+		}
+		list.add(large);
+
+		profiles = Collections.unmodifiableList(list);
+	}
+
+	public static List<ReloadingProfile> getProfiles() {
+		return profiles;
+	}
+
+	/**
+	 * Returns the profile with <code>id</code> or the default profile, if no
+	 * profile with <code>id</code> exists.
+	 */
+	public static ReloadingProfile getProfile(String id) {
+		for (ReloadingProfile profile : profiles) {
+			if (profile.getId().equals(id)) {
+				return profile;
+			}
+		}
+		return profiles.get(0);
+	}
+
+}
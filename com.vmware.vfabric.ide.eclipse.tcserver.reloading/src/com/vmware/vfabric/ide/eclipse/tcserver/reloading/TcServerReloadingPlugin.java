@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2012 Pivotal Software, Inc.
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,6 +11,7 @@
 package com.vmware.vfabric.ide.eclipse.tcserver.reloading;
 
 import java.io.File;
+import java.io.IOException;
 import java.net.URL;
 import java.util.Enumeration;
 
@@ -29,8 +30,14 @@ public class TcServerReloadingPlugin extends Plugin {
 
 	private static TcServerReloadingPlugin plugin;
 
+	private static final String TELEMETRY_JAR = "tcserver-reloading-telemetry.jar";
+
 	private static String agentJarPath;
 
+	private static String telemetryJarPath;
+
+	private static ReloadingAgent agent;
+
 	public void start(BundleContext context) throws Exception {
 		super.start(context);
 		plugin = this;
@@ -58,4 +65,53 @@ public class TcServerReloadingPlugin extends Plugin {
 		return agentJarPath;
 	}
 
+	/**
+	 * Returns the path of the agent that reports reload events to the IDE or
+	 * null, if the agent is not available.
+	 */
+	public synchronized static String getTelemetryJarPath() {
+		if (telemetryJarPath == null) {
+			URL lib = plugin.getBundle().getEntry("/lib/" + TELEMETRY_JAR);
+			if (lib != null) {
+				try {
+					telemetryJarPath = new File(FileLocator.toFileURL(lib).getPath()).getCanonicalPath();
+				}
+				catch (Exception e) {
+					plugin.getLog().log(
+							new Status(IStatus.ERROR, PLUGIN_ID, "Error loading tc Server reload telemetry jar", e));
+				}
+			}
+		}
+		return telemetryJarPath;
+	}
+
+	/**
+	 * Returns the bundled agent or null, if the agent is not available.
+	 */
+	public synchronized static ReloadingAgent getAgent() {
+		if (agent == null) {
+			String path = getAgentJarPath();
+			if (path != null) {
+				try {
+					agent = ReloadingAgent.fromJar(path);
+				}
+				catch (IOException e) {
+					plugin.getLog().log(new Status(IStatus.ERROR, PLUGIN_ID, "Error reading tc Server Agent Jar", e));
+				}
+			}
+		}
+		return agent;
+	}
+
+	/**
+	 * Returns the default directory for types cached by the agent.
+	 */
+	public static File getCacheDirectory() {
+		return plugin.getStateLocation().append("cache").toFile();
+	}
+
+	public static void log(IStatus status) {
+		plugin.getLog().log(status);
+	}
+
 }
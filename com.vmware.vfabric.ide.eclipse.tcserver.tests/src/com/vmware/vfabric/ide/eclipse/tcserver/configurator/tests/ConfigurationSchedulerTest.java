@@ -0,0 +1,157 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.configurator.tests;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.wst.server.core.IServer;
+import org.eclipse.wst.server.core.IServerWorkingCopy;
+import org.eclipse.wst.server.core.ServerCore;
+import org.eclipse.wst.server.core.internal.ServerWorkingCopy;
+import org.junit.After;
+import org.junit.Test;
+
+import com.vmware.vfabric.ide.eclipse.tcserver.configurator.ConfigurableExtension;
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.configurator.ConfigurationScheduler;
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.configurator.server.ConfigurableServerExtension;
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.configurator.server.ServerDescriptor;
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.TcServer;
+import com.vmware.vfabric.ide.eclipse.tcserver.tests.support.StsTestUtil;
+import com.vmware.vfabric.ide.eclipse.tcserver.tests.support.TcServerFixture;
+
+/**
+ * Tests for {@link ConfigurationScheduler}.
+ */
+public class ConfigurationSchedulerTest {
+
+	private static class TestServerDescriptor extends ServerDescriptor {
+
+		public TestServerDescriptor(String name) {
+			super(name);
+			setServerTypeId(TcServerFixture.V_6_0.getServerType());
+			setRuntimeName(name + " runtime");
+			setServerName(name);
+			setCallback(new Function<IServerWorkingCopy, IStatus>() {
+				public IStatus apply(IServerWorkingCopy wc) {
+					try {
+						((ServerWorkingCopy) wc).setAttribute(TcServer.KEY_ASF_LAYOUT, true);
+						((ServerWorkingCopy) wc).setAttribute(TcServer.PROPERTY_TEST_ENVIRONMENT, false);
+						((ServerWorkingCopy) wc).importRuntimeConfiguration(wc.getRuntime(), null);
+						return Status.OK_STATUS;
+					}
+					catch (CoreException e) {
+						return e.getStatus();
+					}
+				}
+			});
+		}
+
+	}
+
+	private static class ProjectExtension extends ConfigurableExtension {
+
+		private final IProject project;
+
+		public ProjectExtension(IProject project) {
+			super(project.getName());
+			this.project = project;
+		}
+
+		@Override
+		public IStatus configure(IProgressMonitor monitor) {
+			try {
+				project.create(monitor);
+				project.open(monitor);
+				return Status.OK_STATUS;
+			}
+			catch (CoreException e) {
+				return e.getStatus();
+			}
+		}
+
+		@Override
+		public IStatus unConfigure(IProgressMonitor monitor) {
+			return Status.OK_STATUS;
+		}
+
+	}
+
+	private final List<IServer> servers = new ArrayList<IServer>();
+
+	private final List<IProject> projects = new ArrayList<IProject>();
+
+	@After
+	public void tearDown() throws Exception {
+		for (IServer server : servers) {
+			TcServerFixture.deleteServerAndRuntime(server);
+		}
+		for (IProject project : projects) {
+			project.delete(true, true, null);
+		}
+	}
+
+	@Test
+	public void testConfigureDefaultRule() throws Exception {
+		ConfigurationScheduler scheduler = new ConfigurationScheduler("Configuring");
+		for (String name : new String[] { "scheduler-project-1", "scheduler-project-2" }) {
+			IProject project = ResourcesPlugin.getWorkspace().getRoot().getProject(name);
+			projects.add(project);
+			scheduler.addConfiguration(new ProjectExtension(project));
+		}
+		IStatus result = scheduler.run(new NullProgressMonitor());
+		assertTrue(result.toString(), result.isOK());
+		for (IProject project : projects) {
+			assertTrue(project.isOpen());
+		}
+	}
+
+	@Test
+	public void testConfigureServers() throws Exception {
+		File baseDir = StsTestUtil.createTempDirectory(TcServerFixture.V_6_0.getDescription(), null);
+		TcServerFixture.V_6_0.createHarness().provisionRuntime(baseDir);
+
+		ConfigurationScheduler scheduler = new ConfigurationScheduler("Configuring");
+		String[] names = new String[] { "scheduler-server-1", "scheduler-server-2" };
+		for (String name : names) {
+			ConfigurableServerExtension extension = new ConfigurableServerExtension(new TestServerDescriptor(name),
+					baseDir, name);
+			assertFalse(extension.isConfigured());
+			scheduler.addConfiguration(extension);
+		}
+		IStatus result = scheduler.run(new NullProgressMonitor());
+		assertTrue(result.toString(), result.isOK());
+
+		// failures are logged and not reported in the result, verify that
+		// the servers were saved into the Servers project
+		for (String name : names) {
+			IServer server = ServerCore.findServer(name);
+			assertNotNull("Expected server " + name, server);
+			servers.add(server);
+			assertNotNull(server.getServerConfiguration());
+			assertTrue(server.getServerConfiguration().exists());
+		}
+	}
+
+}
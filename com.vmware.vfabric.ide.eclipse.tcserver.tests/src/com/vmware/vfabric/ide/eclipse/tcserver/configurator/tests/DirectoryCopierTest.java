@@ -0,0 +1,120 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.configurator.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import org.eclipse.core.runtime.CoreException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.vmware.vfabric.ide.eclipse.tcserver.configurator.util.DirectoryCopier;
+
+public class DirectoryCopierTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final DirectoryCopier copier = new DirectoryCopier();
+
+	@Test
+	public void testCopyNested() throws Exception {
+		Path source = folder.newFolder("source").toPath();
+		write(source.resolve("a.txt"), "a");
+		write(source.resolve("conf/b.txt"), "b");
+		write(source.resolve("conf/Catalina/localhost/c.xml"), "<Context/>");
+		Files.createDirectories(source.resolve("logs"));
+		FileTime time = FileTime.fromMillis(1000000000000L);
+		Files.setLastModifiedTime(source.resolve("conf/b.txt"), time);
+
+		Path target = folder.getRoot().toPath().resolve("target");
+		copier.copy(source, target, null);
+
+		assertEquals(3, copier.getCopiedFiles());
+		assertEquals("a", read(target.resolve("a.txt")));
+		assertEquals("b", read(target.resolve("conf/b.txt")));
+		assertEquals("<Context/>", read(target.resolve("conf/Catalina/localhost/c.xml")));
+		assertTrue(Files.isDirectory(target.resolve("logs")));
+		assertEquals(time, Files.getLastModifiedTime(target.resolve("conf/b.txt")));
+	}
+
+	@Test
+	public void testCopyExistingTarget() throws Exception {
+		Path source = folder.newFolder("source").toPath();
+		write(source.resolve("conf/server.xml"), "<Server/>");
+		Path target = folder.newFolder("target").toPath();
+		write(target.resolve("conf/server.xml"), "<Server port=\"8005\"/>");
+		write(target.resolve("conf/other.xml"), "other");
+
+		copier.copy(source, target, null);
+
+		assertEquals(1, copier.getCopiedFiles());
+		assertEquals("<Server/>", read(target.resolve("conf/server.xml")));
+		// files that only exist in the target are retained
+		assertEquals("other", read(target.resolve("conf/other.xml")));
+	}
+
+	@Test
+	public void testCopySkipUnchanged() throws Exception {
+		Path source = folder.newFolder("source").toPath();
+		write(source.resolve("a.txt"), "a");
+		write(source.resolve("b.txt"), "b");
+		Path target = folder.newFolder("target").toPath();
+		copier.copy(source, target, null);
+
+		write(source.resolve("b.txt"), "bb");
+		copier.setSkipUnchanged(true);
+		copier.copy(source, target, null);
+
+		assertEquals(1, copier.getCopiedFiles());
+		assertEquals(1, copier.getSkippedFiles());
+		assertEquals("bb", read(target.resolve("b.txt")));
+	}
+
+	@Test
+	public void testCopyPartialFailure() throws Exception {
+		Path source = folder.newFolder("source").toPath();
+		write(source.resolve("a.txt"), "a");
+		write(source.resolve("b.txt"), "b");
+		Path target = folder.newFolder("target").toPath();
+		// a directory in place of a file can not be overwritten
+		Files.createDirectories(target.resolve("b.txt"));
+
+		copier.setThreads(1);
+		try {
+			copier.copy(source, target, null);
+			fail("Expected CoreException");
+		}
+		catch (CoreException e) {
+			assertTrue(e.getStatus().getMessage(), e.getStatus().getMessage().contains(source.toString()));
+		}
+		assertTrue(Files.isDirectory(target.resolve("b.txt")));
+	}
+
+	private static String read(Path file) throws Exception {
+		return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+	}
+
+	private static void write(Path file, String content) throws Exception {
+		Files.createDirectories(file.getParent());
+		Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+	}
+
+}
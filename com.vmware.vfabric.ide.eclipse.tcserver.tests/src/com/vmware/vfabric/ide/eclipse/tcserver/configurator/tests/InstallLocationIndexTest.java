@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.configurator.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.List;
+
+import org.eclipse.osgi.service.resolver.VersionRange;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.configurator.InstallLocationIndex;
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.configurator.InstallLocationIndex.Entry;
+
+public class InstallLocationIndexTest {
+
+	@Rule
+	public TemporaryFolder location = new TemporaryFolder();
+
+	private final InstallLocationIndex index = new InstallLocationIndex();
+
+	@After
+	public void tearDown() {
+		index.clear();
+	}
+
+	@Test
+	public void testGetMatchesSortedByVersion() throws Exception {
+		location.newFolder("tc-server-2.9.0");
+		location.newFolder("tc-server-3.1.0");
+		location.newFolder("tc-server-2.7.1");
+		location.newFolder("other-3.0.0");
+		location.newFile("tc-server-4.0.0");
+
+		List<Entry> matches = index.getMatches(location.getRoot(), "tc-server-", null);
+		assertEquals(3, matches.size());
+		assertEquals("tc-server-3.1.0", matches.get(0).getFile().getName());
+		assertEquals("tc-server-2.9.0", matches.get(1).getFile().getName());
+		assertEquals("tc-server-2.7.1", matches.get(2).getFile().getName());
+	}
+
+	@Test
+	public void testGetMatchesVersionRange() throws Exception {
+		location.newFolder("tc-server-2.9.0");
+		location.newFolder("tc-server-3.1.0");
+
+		List<Entry> matches = index.getMatches(location.getRoot(), "tc-server-", new VersionRange("[3.0.0,4.0.0)"));
+		assertEquals(1, matches.size());
+		assertEquals("tc-server-3.1.0", matches.get(0).getFile().getName());
+	}
+
+	@Test
+	public void testGetMatchesRefreshedOnModification() throws Exception {
+		location.newFolder("tc-server-2.9.0");
+		assertEquals(1, index.getMatches(location.getRoot(), "tc-server-", null).size());
+
+		location.newFolder("tc-server-3.1.0");
+		// make sure the change is visible on file systems with coarse
+		// timestamps
+		File root = location.getRoot();
+		assertTrue(root.setLastModified(root.lastModified() + 2000));
+
+		assertEquals(2, index.getMatches(location.getRoot(), "tc-server-", null).size());
+	}
+
+	@Test
+	public void testGetMatchesMissingContainer() {
+		assertTrue(index.getMatches(new File(location.getRoot(), "missing"), "tc-server-", null).isEmpty());
+	}
+
+}
@@ -0,0 +1,137 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.ClassDataSharing.Mode;
+
+public class ClassDataSharingTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testGetMode() {
+		assertEquals(Mode.UNSUPPORTED, ClassDataSharing.getMode(null));
+		assertEquals(Mode.UNSUPPORTED, ClassDataSharing.getMode("1.8.0_252"));
+		assertEquals(Mode.UNSUPPORTED, ClassDataSharing.getMode("10.0.2"));
+		assertEquals(Mode.CLASS_LIST, ClassDataSharing.getMode("11.0.7"));
+		assertEquals(Mode.CLASS_LIST, ClassDataSharing.getMode("12"));
+		assertEquals(Mode.DYNAMIC_ARCHIVE, ClassDataSharing.getMode("14.0.1+7"));
+		assertEquals(Mode.DYNAMIC_ARCHIVE, ClassDataSharing.getMode("17-ea"));
+		assertEquals(Mode.UNSUPPORTED, ClassDataSharing.getMode("unknown"));
+	}
+
+	@Test
+	public void testComputeFingerprint() throws Exception {
+		File lib = folder.newFolder("lib");
+		File jar = new File(lib, "catalina.jar");
+		write(jar, "a");
+		List<File> files = Collections.singletonList(lib);
+
+		String fingerprint = ClassDataSharing.computeFingerprint("/jdk", "11.0.7", files);
+		assertEquals(fingerprint, ClassDataSharing.computeFingerprint("/jdk", "11.0.7", files));
+		assertNotEquals(fingerprint, ClassDataSharing.computeFingerprint("/jdk", "11.0.8", files));
+		assertNotEquals(fingerprint, ClassDataSharing.computeFingerprint("/other", "11.0.7", files));
+
+		write(jar, "ab");
+		assertNotEquals(fingerprint, ClassDataSharing.computeFingerprint("/jdk", "11.0.7", files));
+	}
+
+	@Test
+	public void testLaunchArgumentsDynamicArchive() throws Exception {
+		File directory = new File(folder.getRoot(), "work/cds");
+		ClassDataSharing sharing = new ClassDataSharing(directory, "abc", Mode.DYNAMIC_ARCHIVE);
+		assertEquals(Collections.singletonList("-XX:ArchiveClassesAtExit=\"" + sharing.getArchive().getAbsolutePath()
+				+ "\""), sharing.getLaunchArguments());
+		assertTrue(directory.isDirectory());
+
+		write(sharing.getArchive(), "archive");
+		assertEquals(Collections.singletonList("-XX:SharedArchiveFile=\"" + sharing.getArchive().getAbsolutePath()
+				+ "\""), sharing.getLaunchArguments());
+	}
+
+	@Test
+	public void testLaunchArgumentsClassList() throws Exception {
+		ClassDataSharing sharing = new ClassDataSharing(folder.getRoot(), "abc", Mode.CLASS_LIST);
+		assertEquals(Collections.singletonList("-XX:DumpLoadedClassList=\"" + sharing.getClassList().getAbsolutePath()
+				+ "\""), sharing.getLaunchArguments());
+		assertFalse(sharing.isDumpRequired());
+
+		write(sharing.getClassList(), "java/lang/Object\n");
+		assertTrue(sharing.isDumpRequired());
+	}
+
+	@Test
+	public void testLaunchArgumentsUnsupported() {
+		ClassDataSharing sharing = new ClassDataSharing(folder.getRoot(), "abc", Mode.UNSUPPORTED);
+		assertEquals(Collections.emptyList(), sharing.getLaunchArguments());
+	}
+
+	@Test
+	public void testDeleteStaleFiles() throws Exception {
+		ClassDataSharing old = new ClassDataSharing(folder.getRoot(), "old", Mode.CLASS_LIST);
+		write(old.getArchive(), "archive");
+		write(old.getClassList(), "list");
+		File other = folder.newFile("other.jsa");
+
+		ClassDataSharing sharing = new ClassDataSharing(folder.getRoot(), "new", Mode.CLASS_LIST);
+		write(sharing.getArchive(), "archive");
+		sharing.getLaunchArguments();
+
+		assertFalse(old.getArchive().exists());
+		assertFalse(old.getClassList().exists());
+		assertTrue(sharing.getArchive().exists());
+		assertTrue(other.exists());
+	}
+
+	@Test
+	public void testDump() throws Exception {
+		File javaExecutable = ClassDataSharing.findJavaExecutable(new File(System.getProperty("java.home")));
+		if (javaExecutable == null || ClassDataSharing.getMode(System.getProperty("java.version")) == Mode.UNSUPPORTED) {
+			return;
+		}
+
+		ClassDataSharing sharing = new ClassDataSharing(folder.getRoot(), "abc", Mode.CLASS_LIST);
+		write(sharing.getClassList(), "java/lang/Object\njava/lang/String\n");
+		assertTrue(sharing.dump(javaExecutable, folder.getRoot().getAbsolutePath()).isOK());
+		assertTrue(sharing.isArchiveAvailable());
+		assertFalse(sharing.getClassList().exists());
+		assertEquals(Arrays.asList("-XX:SharedArchiveFile=\"" + sharing.getArchive().getAbsolutePath() + "\""),
+				sharing.getLaunchArguments());
+	}
+
+	private static void write(File file, String content) throws IOException {
+		FileWriter writer = new FileWriter(file);
+		try {
+			writer.write(content);
+		}
+		finally {
+			writer.close();
+		}
+	}
+
+}
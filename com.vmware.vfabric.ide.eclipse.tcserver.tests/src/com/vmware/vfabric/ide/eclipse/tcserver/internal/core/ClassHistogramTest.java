@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.ClassHistogram.Entry;
+
+public class ClassHistogramTest {
+
+	private static final String HISTOGRAM_1 = " num     #instances         #bytes  class name (module)\n"
+			+ "-------------------------------------------------------\n"
+			+ "   1:          1000          80000  [B (java.base@11.0.7)\n"
+			+ "   2:           500          12000  java.lang.String (java.base@11.0.7)\n"
+			+ "   3:            10            240  com.example.Cache\n" + "Total          1510          92240\n";
+
+	private static final String HISTOGRAM_2 = " num     #instances         #bytes  class name\n"
+			+ "----------------------------------------------\n" + "   1:          1100          88000  [B\n"
+			+ "   2:          2000          48000  com.example.Cache\n"
+			+ "   3:           400           9600  java.lang.String\n" + "Total          3500         145600\n";
+
+	@Test
+	public void testParse() {
+		ClassHistogram histogram = ClassHistogram.parse(HISTOGRAM_1);
+		List<Entry> entries = histogram.getEntries();
+		assertEquals(3, entries.size());
+		assertEquals("[B", entries.get(0).getClassName());
+		assertEquals(1000, entries.get(0).getInstances());
+		assertEquals(80000, entries.get(0).getBytes());
+		assertEquals("java.lang.String", entries.get(1).getClassName());
+		assertEquals(92240, histogram.getTotalBytes());
+		assertNull(histogram.getEntry("Total"));
+	}
+
+	@Test
+	public void testCompare() {
+		ClassHistogram previous = ClassHistogram.parse(HISTOGRAM_1);
+		ClassHistogram current = ClassHistogram.parse(HISTOGRAM_2 + "   4:             1             16  Gone\n");
+		List<Entry> deltas = ClassHistogram.compare(current, previous);
+		assertEquals("java.lang.String", deltas.get(0).getClassName());
+		assertEquals(2400, deltas.get(0).getBytes());
+
+		deltas = ClassHistogram.compare(previous, current);
+		assertEquals(4, deltas.size());
+		assertEquals("com.example.Cache", deltas.get(0).getClassName());
+		assertEquals(47760, deltas.get(0).getBytes());
+		assertEquals(1990, deltas.get(0).getInstances());
+		assertEquals("[B", deltas.get(1).getClassName());
+		assertEquals(8000, deltas.get(1).getBytes());
+		assertEquals("java.lang.String", deltas.get(3).getClassName());
+		assertEquals(-2400, deltas.get(3).getBytes());
+	}
+
+	@Test
+	public void testFormatTrend() {
+		String trend = ClassHistogram.formatTrend(Arrays.asList("a", "b"),
+				Arrays.asList(ClassHistogram.parse(HISTOGRAM_1), ClassHistogram.parse(HISTOGRAM_2)), 1);
+		String[] lines = trend.split("\n");
+		assertTrue(trend, lines[3].endsWith("com.example.Cache"));
+		assertTrue(trend, lines[3].contains("+47760"));
+		// classes beyond the limit are omitted
+		assertTrue(trend, !trend.contains("[B"));
+		assertTrue(trend, trend.contains("145600"));
+	}
+
+	@Test
+	public void testFormatTrendSingleHistogram() {
+		String trend = ClassHistogram.formatTrend(Arrays.asList("a"),
+				Arrays.asList(ClassHistogram.parse(HISTOGRAM_1)), 10);
+		assertTrue(trend, trend.startsWith("At least two"));
+	}
+
+}
@@ -0,0 +1,89 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+public class ConfigurationChangeTest {
+
+	@Test
+	public void testForFile() {
+		assertEquals(ConfigurationChange.RESTART, ConfigurationChange.forFile("server.xml", "9.0.31", true));
+		assertEquals(ConfigurationChange.RESTART, ConfigurationChange.forFile("catalina.properties", "9.0.31", true));
+		assertEquals(ConfigurationChange.RESTART, ConfigurationChange.forFile("spring-insight.yml", "9.0.31", true));
+	}
+
+	@Test
+	public void testForFileSeparateContextFiles() {
+		assertEquals(ConfigurationChange.RELOAD, ConfigurationChange.forFile("context.xml", "9.0.31", true));
+		assertEquals(ConfigurationChange.RELOAD, ConfigurationChange.forFile("web.xml", null, true));
+	}
+
+	@Test
+	public void testForFileContextsInServerXml() {
+		// contexts in server.xml are not deployed by HostConfig and do not
+		// watch the global context.xml and web.xml
+		assertEquals(ConfigurationChange.RESTART, ConfigurationChange.forFile("context.xml", "9.0.31", false));
+		assertEquals(ConfigurationChange.RESTART, ConfigurationChange.forFile("web.xml", null, false));
+	}
+
+	@Test
+	public void testForFileJmxRemote() {
+		assertEquals(ConfigurationChange.RESTART, ConfigurationChange.forFile("jmxremote.access", "9.0.31", false));
+		assertEquals(ConfigurationChange.RESTART, ConfigurationChange.forFile("jmxremote.password", "9.0.31", false));
+	}
+
+	@Test
+	public void testForFileTomcatUsers() {
+		assertEquals(ConfigurationChange.RELOAD, ConfigurationChange.forFile("tomcat-users.xml", "8.5.51.A.RELEASE", false));
+		assertEquals(ConfigurationChange.RELOAD, ConfigurationChange.forFile("tomcat-users.xml", "9.0.31", false));
+		assertEquals(ConfigurationChange.RESTART, ConfigurationChange.forFile("tomcat-users.xml", "8.0.53", false));
+		assertEquals(ConfigurationChange.RESTART, ConfigurationChange.forFile("tomcat-users.xml", "7.0.100", false));
+		assertEquals(ConfigurationChange.RESTART, ConfigurationChange.forFile("tomcat-users.xml", null, false));
+	}
+
+	@Test
+	public void testMax() {
+		assertEquals(ConfigurationChange.RESTART, ConfigurationChange.NONE.max(ConfigurationChange.RESTART));
+		assertEquals(ConfigurationChange.RELOAD, ConfigurationChange.RELOAD.max(ConfigurationChange.NONE));
+	}
+
+	@Test
+	public void testComputeSignatureXmlComments() {
+		String signature = signature("server.xml", "<Server port=\"8005\">\n  <Service/>\n</Server>\n");
+		assertEquals(signature, signature("server.xml",
+				"<!-- shutdown port -->\n<Server port=\"8005\">\n\n    <Service/> <!--\n multi\n line -->\n</Server>"));
+		assertFalse(signature.equals(signature("server.xml", "<Server port=\"8006\">\n  <Service/>\n</Server>\n")));
+	}
+
+	@Test
+	public void testComputeSignatureProperties() {
+		String signature = signature("catalina.properties", "bio.http.port=8080\n");
+		assertEquals(signature, signature("catalina.properties", "# HTTP\n! port\n\n  bio.http.port=8080  \n"));
+		assertFalse(signature.equals(signature("catalina.properties", "bio.http.port=8081\n")));
+	}
+
+	@Test
+	public void testComputeSignatureOther() {
+		assertFalse(signature("jmxremote.access", "admin readwrite\n").equals(
+				signature("jmxremote.access", "# admin readwrite\n")));
+	}
+
+	private static String signature(String name, String content) {
+		return ConfigurationChange.computeSignature(name, content.getBytes(StandardCharsets.UTF_8));
+	}
+
+}
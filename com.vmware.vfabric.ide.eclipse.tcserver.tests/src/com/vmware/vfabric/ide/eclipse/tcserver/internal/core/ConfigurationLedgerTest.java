@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.core;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IProject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.vmware.vfabric.ide.eclipse.tcserver.tests.support.StsTestUtil;
+
+public class ConfigurationLedgerTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private IProject project;
+
+	private IFolder configuration;
+
+	private File baseDir;
+
+	@Before
+	public void setUp() throws Exception {
+		project = StsTestUtil.getWorkspaceRoot().getProject("ConfigurationLedgerTest");
+		project.create(null);
+		project.open(null);
+		configuration = project.getFolder("config");
+		configuration.create(true, true, null);
+		configuration.getFile("server.xml").create(stream("<Server/>"), true, null);
+
+		baseDir = folder.newFolder("instance");
+		write(new File(baseDir, "conf/server.xml"), "<Server/>");
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		project.delete(true, null);
+	}
+
+	@Test
+	public void testIsUnchanged() throws Exception {
+		ConfigurationLedger ledger = new ConfigurationLedger(baseDir);
+		assertFalse(ledger.isUnchanged(configuration, "settings"));
+
+		ledger.commit(configuration, "settings");
+		assertTrue(ledger.isUnchanged(configuration, "settings"));
+		assertFalse(ledger.isUnchanged(configuration, "changed"));
+
+		ledger.invalidate();
+		assertFalse(ledger.isUnchanged(configuration, "settings"));
+	}
+
+	@Test
+	public void testIsUnchangedWorkspaceFileModified() throws Exception {
+		ConfigurationLedger ledger = new ConfigurationLedger(baseDir);
+		ledger.commit(configuration, "");
+
+		IFile file = configuration.getFile("server.xml");
+		// same contents
+		file.setContents(stream("<Server/>"), true, false, null);
+		assertTrue(ledger.isUnchanged(configuration, ""));
+
+		file.setContents(stream("<Server port=\"8005\"/>"), true, false, null);
+		assertFalse(ledger.isUnchanged(configuration, ""));
+	}
+
+	@Test
+	public void testIsUnchangedInstanceFileModified() throws Exception {
+		ConfigurationLedger ledger = new ConfigurationLedger(baseDir);
+		ledger.commit(configuration, "");
+
+		write(new File(baseDir, "conf/catalina.properties"), "bio.http.port=8080");
+		assertFalse(ledger.isUnchanged(configuration, ""));
+	}
+
+	private static ByteArrayInputStream stream(String content) {
+		return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static void write(File file, String content) throws Exception {
+		file.getParentFile().mkdirs();
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+	}
+
+}
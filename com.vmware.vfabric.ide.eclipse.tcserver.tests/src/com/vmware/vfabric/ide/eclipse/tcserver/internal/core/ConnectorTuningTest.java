@@ -0,0 +1,67 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.ByteArrayInputStream;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.junit.Test;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.ConnectorTuning.Protocol;
+
+public class ConnectorTuningTest {
+
+	@Test
+	public void testProtocolFromValue() {
+		assertEquals(Protocol.DEFAULT, Protocol.fromValue(null));
+		assertEquals(Protocol.DEFAULT, Protocol.fromValue("HTTP/1.1"));
+		assertEquals(Protocol.NIO2, Protocol.fromValue("org.apache.coyote.http11.Http11Nio2Protocol"));
+		assertNull(Protocol.fromValue("AJP/1.3"));
+	}
+
+	@Test
+	public void testGetOrCreateExecutor() throws Exception {
+		Element service = parse("<Service name=\"Catalina\"><Listener/><Connector port=\"8080\"/>"
+				+ "<Connector port=\"8443\"/><Engine/></Service>");
+		assertNull(ConnectorTuning.getExecutor(service, ConnectorTuning.DEFAULT_EXECUTOR));
+
+		Element executor = ConnectorTuning.getOrCreateExecutor(service, ConnectorTuning.DEFAULT_EXECUTOR);
+		assertEquals(ConnectorTuning.DEFAULT_EXECUTOR, executor.getAttribute(ConnectorTuning.ATTRIBUTE_NAME));
+		assertSame(executor, ConnectorTuning.getExecutor(service, ConnectorTuning.DEFAULT_EXECUTOR));
+		assertSame(executor, ConnectorTuning.getOrCreateExecutor(service, ConnectorTuning.DEFAULT_EXECUTOR));
+
+		// executors must be defined before the connectors that reference them
+		Node next = executor.getNextSibling();
+		assertEquals(ConnectorTuning.ELEMENT_CONNECTOR, next.getNodeName());
+		assertEquals("8080", ((Element) next).getAttribute("port"));
+		assertEquals(1, service.getElementsByTagName(ConnectorTuning.ELEMENT_EXECUTOR).getLength());
+	}
+
+	@Test
+	public void testGetOrCreateExecutorNoConnector() throws Exception {
+		Element service = parse("<Service name=\"Catalina\"><Engine/></Service>");
+		Element executor = ConnectorTuning.getOrCreateExecutor(service, "pool");
+		assertSame(executor, service.getLastChild());
+	}
+
+	private static Element parse(String xml) throws Exception {
+		return DocumentBuilderFactory.newInstance().newDocumentBuilder()
+				.parse(new ByteArrayInputStream(xml.getBytes("UTF-8"))).getDocumentElement();
+	}
+
+}
@@ -0,0 +1,79 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ContextConfigurationFingerprintTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File baseDir;
+
+	private File deployDir;
+
+	@Before
+	public void setUp() throws Exception {
+		baseDir = folder.newFolder("instance");
+		deployDir = new File(baseDir, "wtpwebapps");
+		write(new File(baseDir, "conf/server.xml"),
+				"<Server><Service><Engine><Host><Context docBase=\"app\" path=\"/app\"/></Host></Engine></Service></Server>");
+		write(new File(deployDir, "app/META-INF/context.xml"), "<Context/>");
+	}
+
+	@Test
+	public void testComputeMissingServerXml() throws Exception {
+		assertNull(ContextConfigurationFingerprint.compute(folder.newFolder("empty"), deployDir, ""));
+	}
+
+	@Test
+	public void testComputeUnchanged() throws Exception {
+		String fingerprint = ContextConfigurationFingerprint.compute(baseDir, deployDir, "settings");
+		assertNotNull(fingerprint);
+		assertEquals(fingerprint, ContextConfigurationFingerprint.compute(baseDir, deployDir, "settings"));
+		assertFalse(fingerprint.equals(ContextConfigurationFingerprint.compute(baseDir, deployDir, "changed")));
+	}
+
+	@Test
+	public void testComputeContextXmlChanged() throws Exception {
+		String fingerprint = ContextConfigurationFingerprint.compute(baseDir, deployDir, "");
+		write(new File(deployDir, "app/META-INF/context.xml"), "<Context reloadable=\"true\"/>");
+		assertFalse(fingerprint.equals(ContextConfigurationFingerprint.compute(baseDir, deployDir, "")));
+	}
+
+	@Test
+	public void testComputeSeparateContextFileChanged() throws Exception {
+		File contextFile = new File(baseDir, "conf/Catalina/localhost/app.xml");
+		write(contextFile, "<Context docBase=\"app\"/>");
+		String fingerprint = ContextConfigurationFingerprint.compute(baseDir, deployDir, "");
+		write(contextFile, "<Context docBase=\"app\" reloadable=\"true\"/>");
+		assertFalse(fingerprint.equals(ContextConfigurationFingerprint.compute(baseDir, deployDir, "")));
+	}
+
+	private static void write(File file, String content) throws Exception {
+		file.getParentFile().mkdirs();
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+	}
+
+}
@@ -0,0 +1,205 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.core;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.MBeanServerConnection;
+import javax.management.remote.JMXConnector;
+import javax.management.remote.JMXConnectorFactory;
+import javax.management.remote.JMXServiceURL;
+
+import com.vmware.vfabric.ide.eclipse.tcserver.tests.support.FakeTcServerJmx;
+
+/**
+ * Drives deployer commands concurrently against a {@link FakeTcServerJmx} and
+ * measures throughput and latency. Commands are executed through
+ * {@link AbstractJmxServerCommand#doOperation(MBeanServerConnection)} which
+ * bypasses the job and the server configuration lookup of
+ * {@link AbstractJmxServerCommand#execute()}.
+ * <p>
+ * By default every command opens its own connection like
+ * {@link AbstractJmxServerCommand#execute()} does. With
+ * {@link #setSharedConnection(boolean)} all commands use a single connection.
+ * </p>
+ */
+public class DeployerLoadHarness {
+
+	public interface CommandFactory {
+
+		/**
+		 * Returns the command for the <code>index</code>-th operation.
+		 */
+		AbstractTcDeployerCommand create(int index);
+
+	}
+
+	public static class Result {
+
+		private final int operations;
+
+		private final int failures;
+
+		private final long elapsedNanos;
+
+		private final long[] latencyNanos;
+
+		private final int openedConnections;
+
+		private final int peakConnections;
+
+		Result(int operations, int failures, long elapsedNanos, long[] latencyNanos, int openedConnections,
+				int peakConnections) {
+			this.operations = operations;
+			this.failures = failures;
+			this.elapsedNanos = elapsedNanos;
+			this.latencyNanos = latencyNanos;
+			this.openedConnections = openedConnections;
+			this.peakConnections = peakConnections;
+			Arrays.sort(this.latencyNanos);
+		}
+
+		public int getOperations() {
+			return operations;
+		}
+
+		public int getFailures() {
+			return failures;
+		}
+
+		public double getThroughput() {
+			return (elapsedNanos > 0) ? operations * 1e9 / elapsedNanos : 0;
+		}
+
+		/**
+		 * Returns the latency in milliseconds that <code>percentile</code>
+		 * percent of the operations did not exceed.
+		 */
+		public double getLatencyMillis(double percentile) {
+			if (latencyNanos.length == 0) {
+				return 0;
+			}
+			int index = (int) Math.ceil(percentile / 100 * latencyNanos.length) - 1;
+			return latencyNanos[Math.max(0, Math.min(latencyNanos.length - 1, index))] / 1e6;
+		}
+
+		public int getOpenedConnections() {
+			return openedConnections;
+		}
+
+		public int getPeakConnections() {
+			return peakConnections;
+		}
+
+		@Override
+		public String toString() {
+			return String.format(Locale.ENGLISH,
+					"operations=%d failures=%d throughput=%.1f/s p50=%.2fms p99=%.2fms connections=%d peak=%d",
+					operations, failures, getThroughput(), getLatencyMillis(50), getLatencyMillis(99),
+					openedConnections, peakConnections);
+		}
+
+	}
+
+	private final FakeTcServerJmx server;
+
+	private int threads = 4;
+
+	private boolean sharedConnection;
+
+	public DeployerLoadHarness(FakeTcServerJmx server) {
+		this.server = server;
+	}
+
+	public void setThreads(int threads) {
+		this.threads = threads;
+	}
+
+	public void setSharedConnection(boolean sharedConnection) {
+		this.sharedConnection = sharedConnection;
+	}
+
+	/**
+	 * Executes <code>operations</code> commands created by
+	 * <code>factory</code> and waits for their completion.
+	 */
+	public Result run(final CommandFactory factory, int operations) throws IOException, InterruptedException {
+		server.resetConnectionCounts();
+		final JMXConnector shared = (sharedConnection) ? connect() : null;
+		final long[] latencies = new long[operations];
+		final AtomicInteger failures = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<?>> results = new ArrayList<Future<?>>(operations);
+			long start = System.nanoTime();
+			for (int i = 0; i < operations; i++) {
+				final int index = i;
+				results.add(executor.submit(new Callable<Void>() {
+					public Void call() throws Exception {
+						AbstractTcDeployerCommand command = factory.create(index);
+						long operationStart = System.nanoTime();
+						try {
+							if (shared != null) {
+								command.doOperation(shared.getMBeanServerConnection());
+							}
+							else {
+								JMXConnector connector = connect();
+								try {
+									command.doOperation(connector.getMBeanServerConnection());
+								}
+								finally {
+									connector.close();
+								}
+							}
+						}
+						catch (Exception e) {
+							failures.incrementAndGet();
+						}
+						latencies[index] = System.nanoTime() - operationStart;
+						return null;
+					}
+				}));
+			}
+			for (Future<?> result : results) {
+				try {
+					result.get();
+				}
+				catch (ExecutionException e) {
+					throw new IOException(e.getCause());
+				}
+			}
+			long elapsed = System.nanoTime() - start;
+			return new Result(operations, failures.get(), elapsed, latencies, server.getOpenedConnections(),
+					server.getPeakConnections());
+		}
+		finally {
+			executor.shutdownNow();
+			if (shared != null) {
+				shared.close();
+			}
+		}
+	}
+
+	private JMXConnector connect() throws IOException {
+		return JMXConnectorFactory.connect(new JMXServiceURL(server.getJmxUrl()));
+	}
+
+}
@@ -0,0 +1,102 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.vmware.vfabric.ide.eclipse.tcserver.tests.support.FakeTcServerJmx;
+
+public class DeployerLoadHarnessTest {
+
+	private FakeTcServerJmx server;
+
+	@Before
+	public void setUp() throws Exception {
+		server = new FakeTcServerJmx();
+		server.start();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		server.stop();
+	}
+
+	@Test
+	public void testReloadStartsConfiguredApplication() throws Exception {
+		server.getDeployer().setApplicationState("Catalina", "localhost", "/app0",
+				AbstractTcDeployerCommand.STATE_CONFIGURED);
+
+		DeployerLoadHarness.Result result = new DeployerLoadHarness(server).run(reloadCommands(1), 1);
+
+		assertEquals(0, result.getFailures());
+		// failed reload, state lookup and start
+		assertEquals(3, server.getDeployer().getInvocationCount());
+		assertEquals(AbstractTcDeployerCommand.STATE_AVAILABLE,
+				server.getDeployer().getApplicationState("Catalina", "localhost", "/app0"));
+	}
+
+	@Test
+	public void testConnectionPerCommand() throws Exception {
+		deploy(5);
+		DeployerLoadHarness harness = new DeployerLoadHarness(server);
+		harness.setThreads(4);
+
+		DeployerLoadHarness.Result result = harness.run(reloadCommands(5), 20);
+
+		assertEquals(20, result.getOperations());
+		assertEquals(0, result.getFailures());
+		assertEquals(20, result.getOpenedConnections());
+		assertTrue(result.getLatencyMillis(50) <= result.getLatencyMillis(99));
+	}
+
+	@Test
+	public void testSharedConnection() throws Exception {
+		deploy(5);
+		DeployerLoadHarness harness = new DeployerLoadHarness(server);
+		harness.setSharedConnection(true);
+
+		DeployerLoadHarness.Result result = harness.run(reloadCommands(5), 20);
+
+		assertEquals(0, result.getFailures());
+		assertEquals(1, result.getOpenedConnections());
+	}
+
+	@Test
+	public void testFailureInjection() throws Exception {
+		deploy(5);
+		server.getDeployer().setFailureRate(1);
+
+		DeployerLoadHarness.Result result = new DeployerLoadHarness(server).run(reloadCommands(5), 10);
+
+		assertEquals(10, result.getFailures());
+	}
+
+	private void deploy(int applications) {
+		for (int i = 0; i < applications; i++) {
+			server.getDeployer().setApplicationState("Catalina", "localhost", "/app" + i,
+					AbstractTcDeployerCommand.STATE_AVAILABLE);
+		}
+	}
+
+	private static DeployerLoadHarness.CommandFactory reloadCommands(final int applications) {
+		return new DeployerLoadHarness.CommandFactory() {
+			public AbstractTcDeployerCommand create(int index) {
+				return new TcReloadModuleCommand(null, "Catalina", "localhost", "/app" + (index % applications), null);
+			}
+		};
+	}
+
+}
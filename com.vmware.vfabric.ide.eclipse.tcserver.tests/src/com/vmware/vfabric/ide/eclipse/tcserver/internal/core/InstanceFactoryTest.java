@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class InstanceFactoryTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testIsCacheable() {
+		assertTrue(InstanceFactory.isCacheable(new String[] { "create", "instance", "-t", "base" }));
+		assertFalse(InstanceFactory.isCacheable(new String[] { "modify-version", "instance" }));
+		assertFalse(InstanceFactory.isCacheable(new String[] { "create" }));
+	}
+
+	@Test
+	public void testRewrite() throws Exception {
+		File golden = new File(folder.newFolder("cache"), "tcgolden123");
+		File target = new File(folder.newFolder("instances"), "myserver");
+		write(new File(target, "bin/setenv.sh"), "CATALINA_BASE=" + golden.getAbsolutePath() + "\nNAME=tcgolden123");
+		write(new File(target, "conf/tcgolden123.xml"), "<Context/>");
+		write(new File(target, "lib/a.jar"), "tcgolden123");
+
+		InstanceFactory.rewrite(target.toPath(), golden, "tcgolden123", target, "myserver");
+
+		assertEquals("CATALINA_BASE=" + target.getAbsolutePath() + "\nNAME=myserver",
+				read(new File(target, "bin/setenv.sh")));
+		assertTrue(new File(target, "conf/myserver.xml").exists());
+		assertFalse(new File(target, "conf/tcgolden123.xml").exists());
+		// immutable files are shared with the golden instance and never modified
+		assertEquals("tcgolden123", read(new File(target, "lib/a.jar")));
+	}
+
+	@Test
+	public void testComputeHash() throws Exception {
+		File templates = folder.newFolder("templates");
+		write(new File(templates, "base/conf/server.xml"), "<Server/>");
+		write(new File(templates, "base/conf/catalina.properties"), "bio.http.port=8080");
+		String hash = InstanceFactory.computeHash(templates);
+
+		File copy = folder.newFolder("copy");
+		write(new File(copy, "base/conf/catalina.properties"), "bio.http.port=8080");
+		write(new File(copy, "base/conf/server.xml"), "<Server/>");
+		new File(copy, "base/conf/server.xml").setLastModified(0);
+		assertEquals(hash, InstanceFactory.computeHash(copy));
+
+		write(new File(copy, "base/conf/catalina.properties"), "bio.http.port=8081");
+		assertFalse(hash.equals(InstanceFactory.computeHash(copy)));
+	}
+
+	@Test
+	public void testComputeHashRename() throws Exception {
+		File templates = folder.newFolder("templates");
+		write(new File(templates, "base/conf/server.xml"), "<Server/>");
+		String hash = InstanceFactory.computeHash(templates);
+
+		assertTrue(new File(templates, "base").renameTo(new File(templates, "other")));
+		assertFalse(hash.equals(InstanceFactory.computeHash(templates)));
+	}
+
+	private static String read(File file) throws Exception {
+		return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+	}
+
+	private static void write(File file, String content) throws Exception {
+		file.getParentFile().mkdirs();
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+	}
+
+}
@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class InstanceProvisionerTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testProvisionCopy() throws Exception {
+		File template = createTemplate();
+		File target = new File(folder.getRoot(), "target");
+
+		new InstanceProvisioner(InstanceProvisioner.Mode.COPY).provision(template, target, null);
+
+		assertEquals("jar", read(new File(target, "lib/a.jar")));
+		assertEquals("port=8080", read(new File(target, "conf/catalina.properties")));
+		assertFalse(Files.isSameFile(new File(template, "lib/a.jar").toPath(), new File(target, "lib/a.jar").toPath()));
+	}
+
+	@Test
+	public void testProvisionLink() throws Exception {
+		File template = createTemplate();
+		File target = new File(folder.getRoot(), "target");
+
+		new InstanceProvisioner(InstanceProvisioner.Mode.LINK).provision(template, target, null);
+
+		assertEquals("jar", read(new File(target, "lib/a.jar")));
+		// immutable files are hard links to the template
+		assertTrue(Files.isSameFile(new File(template, "lib/a.jar").toPath(), new File(target, "lib/a.jar").toPath()));
+		// configuration files must never be shared with the template
+		assertFalse(Files.isSameFile(new File(template, "conf/catalina.properties").toPath(),
+				new File(target, "conf/catalina.properties").toPath()));
+	}
+
+	@Test
+	public void testProvisionSelectedFilesKeepsExisting() throws Exception {
+		File template = createTemplate();
+		File target = new File(folder.getRoot(), "target");
+		write(new File(target, "conf/catalina.properties"), "port=9090");
+
+		new InstanceProvisioner(InstanceProvisioner.Mode.COPY).provision(template, target,
+				Arrays.asList("lib/a.jar", "conf/catalina.properties"), null);
+
+		assertTrue(new File(target, "lib/a.jar").exists());
+		assertEquals("port=9090", read(new File(target, "conf/catalina.properties")));
+	}
+
+	private File createTemplate() throws Exception {
+		File template = folder.newFolder("template");
+		write(new File(template, "lib/a.jar"), "jar");
+		write(new File(template, "conf/catalina.properties"), "port=8080");
+		return template;
+	}
+
+	private static String read(File file) throws Exception {
+		return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+	}
+
+	private static void write(File file, String content) throws Exception {
+		file.getParentFile().mkdirs();
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+	}
+
+}
@@ -0,0 +1,246 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class JarScanAnalyzerTest {
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@interface Types {
+		Class<?>[] value();
+	}
+
+	@Types({ Runnable.class, String.class })
+	static class Task implements Runnable {
+
+		@Deprecated
+		public void run() {
+		}
+
+	}
+
+	static class SubTask extends Task {
+	}
+
+	static class Plain {
+	}
+
+	private static final String TASK = JarScanAnalyzerTest.class.getName().replace('.', '/') + "$Task";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testIsScanRequiredEntry() {
+		assertTrue(JarScanAnalyzer.isScanRequired("META-INF/c.tld"));
+		assertTrue(JarScanAnalyzer.isScanRequired("META-INF/tags/fmt.tld"));
+		assertTrue(JarScanAnalyzer.isScanRequired("META-INF/web-fragment.xml"));
+		assertTrue(JarScanAnalyzer.isScanRequired("META-INF/services/javax.servlet.ServletContainerInitializer"));
+		assertTrue(JarScanAnalyzer.isScanRequired("META-INF/resources/index.html"));
+		assertFalse(JarScanAnalyzer.isScanRequired("META-INF/MANIFEST.MF"));
+		assertFalse(JarScanAnalyzer.isScanRequired("META-INF/services/java.sql.Driver"));
+		assertFalse(JarScanAnalyzer.isScanRequired("WEB-INF/c.tld"));
+	}
+
+	@Test
+	public void testGetJarsToSkip() throws Exception {
+		File plain = createJar("lib/plain.jar", "META-INF/MANIFEST.MF", "a/A.class");
+		File taglib = createJar("lib/taglib.jar", "META-INF/c.tld");
+		File fragment = createJar("lib/fragment.jar", "META-INF/web-fragment.xml");
+		File broken = folder.newFile("broken.jar");
+
+		JarScanAnalyzer analyzer = new JarScanAnalyzer();
+		assertEquals(Collections.singleton("plain.jar"),
+				analyzer.getJarsToSkip(Arrays.asList(plain, taglib, fragment, broken)));
+	}
+
+	@Test
+	public void testGetJarsToSkipSameName() throws Exception {
+		File plain = createJar("app1/common.jar", "a/A.class");
+		File taglib = createJar("app2/common.jar", "META-INF/c.tld");
+
+		JarScanAnalyzer analyzer = new JarScanAnalyzer();
+		assertEquals(Collections.emptySet(), analyzer.getJarsToSkip(Arrays.asList(plain, taglib)));
+	}
+
+	@Test
+	public void testIncrementalAnalysis() throws Exception {
+		File jar = createJar("lib/lib.jar", "a/A.class");
+		JarScanAnalyzer analyzer = new JarScanAnalyzer();
+		assertFalse(analyzer.isScanRequired(jar));
+		assertFalse(analyzer.isScanRequired(jar));
+		assertEquals(1, analyzer.getAnalyzedCount());
+
+		createJar("lib/lib.jar", "a/A.class", "META-INF/web-fragment.xml");
+		jar.setLastModified(jar.lastModified() + 2000);
+		assertTrue(analyzer.isScanRequired(jar));
+		assertEquals(2, analyzer.getAnalyzedCount());
+	}
+
+	@Test
+	public void testGetJarsToSkipHandledTypes() throws Exception {
+		File task = createJar("lib/task.jar", Task.class);
+		File subTask = createJar("lib/subtask.jar", SubTask.class);
+		File plain = createJar("lib/plain.jar", Plain.class);
+
+		JarScanAnalyzer analyzer = new JarScanAnalyzer(Collections.singleton("java/lang/Runnable"));
+		assertEquals(Collections.singleton("plain.jar"), analyzer.getJarsToSkip(Arrays.asList(task, subTask, plain)));
+		// the super class is not known without task.jar
+		assertFalse(analyzer.isScanRequired(subTask));
+		assertEquals(3, analyzer.getAnalyzedCount());
+	}
+
+	@Test
+	public void testGetJarsToSkipAnnotations() throws Exception {
+		File task = createJar("lib/task.jar", Task.class);
+		File plain = createJar("lib/plain.jar", Plain.class);
+
+		JarScanAnalyzer analyzer = new JarScanAnalyzer(Collections.singleton("java/lang/Deprecated"));
+		assertEquals(Collections.singleton("plain.jar"), analyzer.getJarsToSkip(Arrays.asList(task, plain)));
+	}
+
+	@Test
+	public void testClassInfo() throws Exception {
+		ClassInfo info = ClassInfo.read(getClassFile(Task.class));
+		assertEquals(TASK, info.getName());
+		assertEquals(Arrays.asList("java/lang/Object", "java/lang/Runnable"), info.getSuperTypes());
+		assertTrue(info.getAnnotations().contains("java/lang/Deprecated"));
+		assertEquals(Arrays.asList("java/lang/Runnable", "java/lang/String"),
+				info.getClassValues(Types.class.getName().replace('.', '/')));
+		assertEquals(Collections.emptyList(), info.getClassValues("java/lang/Deprecated"));
+
+		assertEquals(Arrays.asList(TASK), ClassInfo.read(getClassFile(SubTask.class)).getSuperTypes());
+	}
+
+	@Test(expected = IOException.class)
+	public void testClassInfoInvalid() throws Exception {
+		ClassInfo.read(new ByteArrayInputStream(new byte[] { 1, 2, 3, 4 }));
+	}
+
+	@Test
+	public void testMerge() {
+		Set<String> jarsToSkip = new TreeSet<String>(Arrays.asList("commons-io.jar", "guava.jar", "a.jar"));
+		Map<String, String> values = JarScanAnalyzer.merge(JarScanAnalyzer.PROPERTY_JARS_TO_SKIP,
+				"bootstrap.jar, commons-*.jar,old.jar", "old.jar", jarsToSkip);
+
+		Map<String, String> expected = new LinkedHashMap<String, String>();
+		expected.put(JarScanAnalyzer.PROPERTY_JARS_TO_SKIP, "bootstrap.jar,commons-*.jar,a.jar,guava.jar");
+		expected.put(JarScanAnalyzer.PROPERTY_GENERATED, "a.jar,guava.jar");
+		assertEquals(expected, values);
+	}
+
+	@Test
+	public void testMergeRemoveGenerated() {
+		Map<String, String> values = JarScanAnalyzer.merge(JarScanAnalyzer.PROPERTY_JARS_TO_SKIP,
+				"bootstrap.jar,a.jar", "a.jar", Collections.<String> emptySet());
+		assertEquals("bootstrap.jar", values.get(JarScanAnalyzer.PROPERTY_JARS_TO_SKIP));
+		assertEquals("", values.get(JarScanAnalyzer.PROPERTY_GENERATED));
+	}
+
+	@Test
+	public void testMergeUndefined() {
+		assertEquals(Collections.emptyMap(), JarScanAnalyzer.merge(JarScanAnalyzer.PROPERTY_JARS_TO_SKIP, null,
+				null, Collections.<String> emptySet()));
+	}
+
+	@Test
+	public void testMatches() {
+		assertTrue(JarScanAnalyzer.matches(Arrays.asList("commons-*.jar"), "commons-io.jar"));
+		assertTrue(JarScanAnalyzer.matches(Arrays.asList("log4j-?.jar"), "log4j-1.jar"));
+		assertFalse(JarScanAnalyzer.matches(Arrays.asList("commons-*.jar"), "commons.jar"));
+		assertFalse(JarScanAnalyzer.matches(Arrays.asList("a.jar"), "axjar"));
+	}
+
+	@Test
+	public void testStartupStatistics() {
+		StartupStatistics statistics = new StartupStatistics();
+		assertEquals(-1, statistics.getLastDuration());
+		statistics.record(6000, 0);
+		statistics.record(8000, 0);
+		assertFalse(statistics.isSavingsKnown());
+		statistics.record(5000, 12);
+		assertTrue(statistics.isSavingsKnown());
+		assertEquals(2000, statistics.getSavings());
+		assertEquals(12, statistics.getLastSkippedJars());
+	}
+
+	private File createJar(String path, Class<?>... classes) throws Exception {
+		File file = new File(folder.getRoot(), path);
+		file.getParentFile().mkdirs();
+		ZipOutputStream out = new ZipOutputStream(new FileOutputStream(file));
+		try {
+			for (Class<?> clazz : classes) {
+				out.putNextEntry(new ZipEntry(clazz.getName().replace('.', '/') + ".class"));
+				InputStream in = getClassFile(clazz);
+				try {
+					byte[] buffer = new byte[4096];
+					int len;
+					while ((len = in.read(buffer)) != -1) {
+						out.write(buffer, 0, len);
+					}
+				}
+				finally {
+					in.close();
+				}
+				out.closeEntry();
+			}
+		}
+		finally {
+			out.close();
+		}
+		return file;
+	}
+
+	private InputStream getClassFile(Class<?> clazz) {
+		return clazz.getResourceAsStream(clazz.getName().substring(clazz.getName().lastIndexOf('.') + 1) + ".class");
+	}
+
+	private File createJar(String path, String... entries) throws Exception {
+		File file = new File(folder.getRoot(), path);
+		file.getParentFile().mkdirs();
+		ZipOutputStream out = new ZipOutputStream(new FileOutputStream(file));
+		try {
+			for (String entry : entries) {
+				out.putNextEntry(new ZipEntry(entry));
+				out.write(1);
+				out.closeEntry();
+			}
+		}
+		finally {
+			out.close();
+		}
+		return file;
+	}
+
+}
@@ -0,0 +1,138 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.core.runtime.Platform;
+import org.junit.Test;
+
+public class LaunchProfilesTest {
+
+	@Test
+	public void testGetJavaMajorVersion() {
+		assertEquals(8, LaunchProfiles.getJavaMajorVersion("1.8.0_252"));
+		assertEquals(11, LaunchProfiles.getJavaMajorVersion("11.0.7"));
+		assertEquals(14, LaunchProfiles.getJavaMajorVersion("14.0.1+7"));
+		assertEquals(15, LaunchProfiles.getJavaMajorVersion("15-ea"));
+		assertEquals(LaunchProfiles.DEFAULT_JAVA_VERSION, LaunchProfiles.getJavaMajorVersion(null));
+		assertEquals(LaunchProfiles.DEFAULT_JAVA_VERSION, LaunchProfiles.getJavaMajorVersion("unknown"));
+	}
+
+	@Test
+	public void testGetProfile() {
+		assertEquals(LaunchProfiles.ID_THROUGHPUT, LaunchProfiles.getProfile(LaunchProfiles.ID_THROUGHPUT).getId());
+		assertEquals(LaunchProfiles.ID_DEFAULT, LaunchProfiles.getProfile("unknown").getId());
+		assertEquals(LaunchProfiles.ID_DEFAULT, LaunchProfiles.getProfile(null).getId());
+	}
+
+	@Test
+	public void testDefaultProfile() {
+		LaunchProfile profile = LaunchProfiles.getProfile(LaunchProfiles.ID_DEFAULT);
+		assertEquals(Collections.emptyList(), profile.getArguments(8, Platform.OS_LINUX));
+		assertFalse(profile.isClassDataSharing());
+	}
+
+	@Test
+	public void testFastStartupProfile() {
+		LaunchProfile profile = LaunchProfiles.getProfile(LaunchProfiles.ID_FAST_STARTUP);
+		assertEquals(Arrays.asList("-XX:TieredStopAtLevel=1", "-XX:+UseSerialGC"), profile.getArguments(8, Platform.OS_LINUX));
+		assertTrue(profile.isClassDataSharing());
+	}
+
+	@Test
+	public void testLowLatencyProfile() {
+		LaunchProfile profile = LaunchProfiles.getProfile(LaunchProfiles.ID_LOW_LATENCY);
+		assertFalse(profile.isSupported(8, Platform.OS_LINUX));
+		assertEquals(Collections.emptyList(), profile.getArguments(8, Platform.OS_LINUX));
+		assertEquals(Arrays.asList("-XX:+UnlockExperimentalVMOptions", "-XX:+UseZGC"), profile.getArguments(11, Platform.OS_LINUX));
+		assertEquals(Arrays.asList("-XX:+UseZGC"), profile.getArguments(15, Platform.OS_LINUX));
+	}
+
+	@Test
+	public void testLowLatencyProfileOs() {
+		LaunchProfile profile = LaunchProfiles.getProfile(LaunchProfiles.ID_LOW_LATENCY);
+		assertTrue(profile.isSupported(11, Platform.OS_LINUX));
+		assertFalse(profile.isSupported(11, Platform.OS_MACOSX));
+		assertFalse(profile.isSupported(13, Platform.OS_WIN32));
+		assertEquals(14, profile.getRequiredJavaVersion(Platform.OS_WIN32));
+		assertEquals(Collections.emptyList(), profile.getArguments(11, Platform.OS_MACOSX));
+		assertEquals(Arrays.asList("-XX:+UnlockExperimentalVMOptions", "-XX:+UseZGC"),
+				profile.getArguments(14, Platform.OS_MACOSX));
+	}
+
+	@Test
+	public void testThroughputProfile() {
+		LaunchProfile profile = LaunchProfiles.getProfile(LaunchProfiles.ID_THROUGHPUT);
+		assertEquals(Arrays.asList("-XX:+UseParallelGC"), profile.getArguments(8, Platform.OS_LINUX));
+		assertTrue(profile.isInitialHeapMatchesMaximum());
+	}
+
+	@Test
+	public void testGetAddedArgumentsInitialHeap() {
+		LaunchProfile profile = LaunchProfiles.getProfile(LaunchProfiles.ID_THROUGHPUT);
+		List<String> none = Collections.emptyList();
+		assertEquals(Arrays.asList("-XX:+UseParallelGC", "-Xms768m"),
+				LaunchProfiles.getAddedArguments(profile, 8, Platform.OS_LINUX, null, none, "768m"));
+		assertEquals(Arrays.asList("-XX:+UseParallelGC", "-Xms2g"),
+				LaunchProfiles.getAddedArguments(profile, 8, Platform.OS_LINUX, new String[] { "-Xmx2g" }, none, "768m"));
+		assertEquals(Arrays.asList("-XX:+UseParallelGC"),
+				LaunchProfiles.getAddedArguments(profile, 8, Platform.OS_LINUX, new String[] { "-Xms1g", "-Xmx2g" }, none, "768m"));
+		// the initial heap follows changes of the maximum heap
+		assertEquals(Arrays.asList("-XX:+UseParallelGC", "-Xms4g"), LaunchProfiles.getAddedArguments(profile, 8, Platform.OS_LINUX,
+				new String[] { "-XX:+UseParallelGC", "-Xms2g", "-Xmx4g" }, Arrays.asList("-XX:+UseParallelGC",
+						"-Xms2g"), "768m"));
+	}
+
+	@Test
+	public void testGetAddedArgumentsRetainsUserArguments() {
+		LaunchProfile profile = LaunchProfiles.getProfile(LaunchProfiles.ID_LOW_LATENCY);
+		List<String> none = Collections.emptyList();
+		assertEquals(Arrays.asList("-XX:+UseZGC"), LaunchProfiles.getAddedArguments(profile, 11, Platform.OS_LINUX, new String[] {
+				"-XX:+UnlockExperimentalVMOptions" }, none, "768m"));
+		assertEquals(Arrays.asList("-XX:+UnlockExperimentalVMOptions", "-XX:+UseZGC"), LaunchProfiles
+				.getAddedArguments(profile, 11, Platform.OS_LINUX, new String[] { "-XX:+UnlockExperimentalVMOptions", "-XX:+UseZGC" },
+						Arrays.asList("-XX:+UnlockExperimentalVMOptions", "-XX:+UseZGC"), "768m"));
+		assertEquals(Collections.emptyList(),
+				LaunchProfiles.getAddedArguments(profile, 8, Platform.OS_LINUX, new String[] { "-XX:+UseZGC" }, none, "768m"));
+	}
+
+	@Test
+	public void testGetAddedArgumentsUserGarbageCollector() {
+		List<String> none = Collections.emptyList();
+		assertEquals(Arrays.asList("-Xms768m"), LaunchProfiles.getAddedArguments(
+				LaunchProfiles.getProfile(LaunchProfiles.ID_THROUGHPUT), 8, Platform.OS_LINUX,
+				new String[] { "-XX:+UseG1GC" }, none, "768m"));
+		assertEquals(Arrays.asList("-XX:TieredStopAtLevel=1"), LaunchProfiles.getAddedArguments(
+				LaunchProfiles.getProfile(LaunchProfiles.ID_FAST_STARTUP), 8, Platform.OS_LINUX,
+				new String[] { "-XX:-UseParallelOldGC" }, none, "768m"));
+		// collectors added by a previous launch are replaced
+		assertEquals(Arrays.asList("-XX:+UseParallelGC", "-Xms768m"), LaunchProfiles.getAddedArguments(
+				LaunchProfiles.getProfile(LaunchProfiles.ID_THROUGHPUT), 8, Platform.OS_LINUX,
+				new String[] { "-XX:+UseSerialGC" }, Arrays.asList("-XX:+UseSerialGC"), "768m"));
+	}
+
+	@Test
+	public void testIsGarbageCollectorArgument() {
+		assertTrue(LaunchProfiles.isGarbageCollectorArgument("-XX:+UseG1GC"));
+		assertTrue(LaunchProfiles.isGarbageCollectorArgument("-XX:+UseConcMarkSweepGC"));
+		assertTrue(LaunchProfiles.isGarbageCollectorArgument("-XX:-UseParallelGC"));
+		assertFalse(LaunchProfiles.isGarbageCollectorArgument("-XX:+UseGCOverheadLimit"));
+		assertFalse(LaunchProfiles.isGarbageCollectorArgument("-XX:+UnlockExperimentalVMOptions"));
+	}
+
+}
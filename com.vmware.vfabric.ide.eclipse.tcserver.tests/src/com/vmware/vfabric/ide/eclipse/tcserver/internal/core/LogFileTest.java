@@ -0,0 +1,183 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.core;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.regex.Pattern;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.LogFile.Header;
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.LogFile.Level;
+
+public class LogFileTest {
+
+	private static final String LOG = "19-Oct-2020 10:15:30.123 INFO [main] org.apache.catalina.startup.Catalina.load Initialization processed\n"
+			+ "19-Oct-2020 10:15:31.000 SEVERE [main] org.apache.catalina.core.StandardContext.startInternal Failed\r\n"
+			+ "java.lang.IllegalStateException: broken\n"
+			+ "\tat com.example.Service.start(Service.java:10)\n"
+			+ "Hello from System.out\n"
+			+ "19-Oct-2020 10:15:32.500 WARNING [main] org.apache.catalina.loader.WebappClassLoaderBase.clearReferences Leak\n";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File file;
+
+	private LogFile log;
+
+	@Before
+	public void setUp() throws Exception {
+		file = folder.newFile("catalina.out");
+		// a small chunk size exercises lines that span chunks
+		log = new LogFile(file, StandardCharsets.UTF_8, 32);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		log.close();
+	}
+
+	@Test
+	public void testUpdate() throws Exception {
+		assertFalse(log.update());
+		append(LOG);
+		assertTrue(log.update());
+		assertEquals(6, log.getLineCount());
+		assertEquals("19-Oct-2020 10:15:31.000 SEVERE [main] org.apache.catalina.core.StandardContext.startInternal Failed",
+				log.getLine(1));
+		assertEquals("\tat com.example.Service.start(Service.java:10)", log.getLine(3));
+		assertEquals(Level.INFO, log.getLevel(0));
+		assertEquals(Level.SEVERE, log.getLevel(3));
+		assertTrue(log.isContinuation(3));
+		assertFalse(log.isContinuation(5));
+		assertEquals(log.getTime(1), log.getTime(4));
+		assertEquals(1000, log.getTime(1) - log.getTime(0) + 123);
+		assertFalse(log.update());
+	}
+
+	@Test
+	public void testUpdateIncompleteLine() throws Exception {
+		append("first\nsec");
+		log.update();
+		assertEquals(1, log.getLineCount());
+		append("ond\n");
+		assertTrue(log.update());
+		assertEquals(2, log.getLineCount());
+		assertEquals("second", log.getLine(1));
+	}
+
+	@Test
+	public void testUpdateTruncated() throws Exception {
+		append(LOG);
+		log.update();
+		int generation = log.getGeneration();
+		Files.write(file.toPath(), "new\n".getBytes(StandardCharsets.UTF_8));
+		assertTrue(log.update());
+		assertEquals(generation + 1, log.getGeneration());
+		assertEquals(1, log.getLineCount());
+		assertEquals("new", log.getLine(0));
+	}
+
+	@Test
+	public void testUpdateLongLine() throws Exception {
+		char[] line = new char[100];
+		Arrays.fill(line, 'x');
+		append(new String(line) + "\nend\n");
+		log.update();
+		assertEquals("end", log.getLine(log.getLineCount() - 1));
+	}
+
+	@Test
+	public void testFilter() throws Exception {
+		append(LOG);
+		log.update();
+		assertArrayEquals(new int[] { 1, 2, 3, 4, 5 }, log.filter(new LogFilter(Level.WARNING, null, null, -1), 0));
+		assertArrayEquals(new int[] { 1, 2, 3, 4 },
+				log.filter(new LogFilter(null, "StandardContext", null, -1), 0));
+		assertArrayEquals(new int[] { 3, 4 }, log.filter(new LogFilter(null, "StandardContext", null, -1), 3));
+		assertArrayEquals(new int[] { 3 }, log.filter(new LogFilter(Level.SEVERE, null, Pattern.compile("example"),
+				-1), 0));
+		assertArrayEquals(new int[] { 5 }, log.filter(new LogFilter(null, null, null, log.getTime(5)), 0));
+		assertTrue(new LogFilter(Level.UNKNOWN, "", null, -1).isEmpty());
+	}
+
+	@Test
+	public void testFilterBatches() throws Exception {
+		append(LOG);
+		log.update();
+		LogFilter filter = new LogFilter(null, "StandardContext", null, -1);
+		assertArrayEquals(new int[] { 1, 2 }, log.filter(filter, 0, 3));
+		assertArrayEquals(new int[] { 3, 4 }, log.filter(filter, 3, log.getLineCount() + 1));
+	}
+
+	@Test
+	public void testFindLine() throws Exception {
+		append(LOG);
+		log.update();
+		assertEquals(0, log.findLine(0));
+		assertEquals(1, log.findLine(log.getTime(0) + 1));
+		assertEquals(6, log.findLine(Long.MAX_VALUE));
+	}
+
+	@Test
+	public void testParseHeaderIso() {
+		Header header = LogFile.parseHeader("2020-10-19 10:15:30,123 WARN [main] com.example.Service - message");
+		assertEquals(Level.WARNING, header.level);
+		assertEquals("com.example.Service", header.logger);
+		assertTrue(header.time > 0);
+
+		header = LogFile.parseHeader("2020-10-19T10:15:30.123+02:00  INFO 1234 --- [main] o.s.b.StartupInfoLogger : Started");
+		assertEquals(Level.INFO, header.level);
+		assertEquals("o.s.b.StartupInfoLogger", header.logger);
+
+		assertNull(LogFile.parseHeader("\tat com.example.Service.start(Service.java:10)"));
+		assertNull(LogFile.parseHeader("2020 was a year"));
+	}
+
+	@Test
+	public void testFamilies() throws Exception {
+		File directory = folder.newFolder("logs");
+		new File(directory, "catalina.out").createNewFile();
+		File old = new File(directory, "localhost.2020-10-18.log");
+		old.createNewFile();
+		old.setLastModified(System.currentTimeMillis() - 24 * 60 * 60 * 1000);
+		File latest = new File(directory, "localhost.2020-10-19.log");
+		latest.createNewFile();
+		new File(directory, "catalina.pid").createNewFile();
+
+		assertEquals("localhost.log", LogFile.getFamily("localhost.2020-10-19.log"));
+		assertEquals("localhost_access_log.txt", LogFile.getFamily("localhost_access_log.2020-10-19.txt"));
+		assertEquals(Arrays.asList("catalina.out", "localhost.log"), LogFile.getFamilies(directory));
+		assertEquals(latest, LogFile.getLatest(directory, "localhost.log"));
+		assertNull(LogFile.getLatest(directory, "manager.log"));
+	}
+
+	private void append(String text) throws IOException {
+		Files.write(file.toPath(), text.getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+	}
+
+}
@@ -0,0 +1,72 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.core;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class ParallelStartupTest {
+
+	@Test
+	public void testGetStartStopThreads() {
+		assertEquals(1, ParallelStartup.getStartStopThreads("0", 0, 8));
+		assertEquals(1, ParallelStartup.getStartStopThreads("0", 1, 8));
+		assertEquals(5, ParallelStartup.getStartStopThreads("0", 5, 8));
+		assertEquals(8, ParallelStartup.getStartStopThreads("0", 40, 8));
+		assertEquals(1, ParallelStartup.getStartStopThreads("0", 40, 1));
+	}
+
+	@Test
+	public void testGetStartStopThreadsValue() {
+		assertEquals(1, ParallelStartup.getStartStopThreads(null, 40, 8));
+		assertEquals(3, ParallelStartup.getStartStopThreads("3", 40, 8));
+		assertEquals(6, ParallelStartup.getStartStopThreads("-2", 40, 8));
+		assertEquals(1, ParallelStartup.getStartStopThreads("-10", 40, 8));
+		assertEquals(1, ParallelStartup.getStartStopThreads("invalid", 40, 8));
+		assertEquals(8, ParallelStartup.getStartStopThreads(
+				ParallelStartup.START_STOP_THREADS_AVAILABLE_PROCESSORS, 40, 8));
+	}
+
+	@Test
+	public void testParseVersion() {
+		assertArrayEquals(new int[] { 8, 5, 51 }, ParallelStartup.parseVersion("8.5.51.A.RELEASE"));
+		assertArrayEquals(new int[] { 9, 0, 0 }, ParallelStartup.parseVersion("9.0.M1"));
+		assertArrayEquals(new int[] { 10, 0, 0 }, ParallelStartup.parseVersion("10"));
+		assertNull(ParallelStartup.parseVersion("unknown"));
+		assertNull(ParallelStartup.parseVersion(null));
+	}
+
+	@Test
+	public void testIsStartStopThreadsSupported() {
+		assertFalse(ParallelStartup.isStartStopThreadsSupported("6.0.35.A.RELEASE"));
+		assertFalse(ParallelStartup.isStartStopThreadsSupported("7.0.22"));
+		assertTrue(ParallelStartup.isStartStopThreadsSupported("7.0.23"));
+		assertTrue(ParallelStartup.isStartStopThreadsSupported("8.5.51.A.RELEASE"));
+		assertFalse(ParallelStartup.isStartStopThreadsSupported(null));
+	}
+
+	@Test
+	public void testIsParallelAnnotationScanningSupported() {
+		assertFalse(ParallelStartup.isParallelAnnotationScanningSupported("7.0.100"));
+		assertFalse(ParallelStartup.isParallelAnnotationScanningSupported("8.5.49"));
+		assertTrue(ParallelStartup.isParallelAnnotationScanningSupported("8.5.51.A.RELEASE"));
+		assertFalse(ParallelStartup.isParallelAnnotationScanningSupported("9.0.29"));
+		assertTrue(ParallelStartup.isParallelAnnotationScanningSupported("9.0.30"));
+		assertTrue(ParallelStartup.isParallelAnnotationScanningSupported("10.0.0"));
+		assertFalse(ParallelStartup.isParallelAnnotationScanningSupported(null));
+	}
+
+}
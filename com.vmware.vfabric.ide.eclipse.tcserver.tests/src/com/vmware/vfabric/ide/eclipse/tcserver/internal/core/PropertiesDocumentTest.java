@@ -0,0 +1,120 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringReader;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.junit.Test;
+
+public class PropertiesDocumentTest {
+
+	@Test
+	public void testParse() throws Exception {
+		String content = "# comment\n! other comment\n\nkey=value\n  spaced   :  value 2\nescaped\\ key=a\\tb\\u0041\nempty\n";
+		PropertiesDocument document = PropertiesDocument.parse(content);
+
+		assertEquals(load(content), toProperties(document.getProperties()));
+		assertEquals("value", document.get("key"));
+		assertEquals("value 2", document.get("spaced"));
+		assertEquals("a\tbA", document.get("escaped key"));
+		assertEquals("", document.get("empty"));
+		assertNull(document.get("comment"));
+		assertEquals(content, document.toString());
+	}
+
+	@Test
+	public void testContinuationLines() throws Exception {
+		String content = "list=a,\\\n    b,\\\n    c\nnext=1\n# comment \\\nlast=2\n";
+		PropertiesDocument document = PropertiesDocument.parse(content);
+
+		assertEquals(load(content), toProperties(document.getProperties()));
+		assertEquals("a,b,c", document.get("list"));
+		assertEquals("2", document.get("last"));
+
+		document.set("next", "3");
+		assertEquals("list=a,\\\n    b,\\\n    c\nnext=3\n# comment \\\nlast=2\n", document.toString());
+	}
+
+	@Test
+	public void testSetOnlyRewritesChangedLines() {
+		PropertiesDocument document = PropertiesDocument.parse("#c\na   =   1\nb : 2\n");
+
+		assertFalse(document.set("a", "1"));
+		assertEquals("#c\na   =   1\nb : 2\n", document.toString());
+
+		assertTrue(document.set("b", "3"));
+		assertEquals("#c\na   =   1\nb=3\n", document.toString());
+	}
+
+	@Test
+	public void testSetAll() throws Exception {
+		PropertiesDocument document = PropertiesDocument.parse("a=1\nb=2\n");
+		Map<String, String> values = new LinkedHashMap<String, String>();
+		values.put("b", "20");
+		values.put("c", "30");
+		values.put("d", "40");
+
+		assertTrue(document.setAll(values));
+		assertEquals("a=1\nb=20\nc=30\nd=40\n", document.toString());
+	}
+
+	@Test
+	public void testSetDuplicateKey() throws Exception {
+		PropertiesDocument document = PropertiesDocument.parse("a=1\na=2\n");
+		assertEquals("2", document.get("a"));
+
+		document.set("a", "3");
+		assertEquals("a=1\na=3\n", document.toString());
+		assertEquals("3", load(document.toString()).getProperty("a"));
+	}
+
+	@Test
+	public void testPreserveLineSeparator() {
+		PropertiesDocument document = PropertiesDocument.parse("a=1\r\nb=2\r\n");
+		document.set("c", "3");
+		assertEquals("a=1\r\nb=2\r\nc=3\r\n", document.toString());
+	}
+
+	@Test
+	public void testFormatMatchesProperties() throws Exception {
+		String[] values = { "plain", " leading", "trailing ", "a=b:c#d!e", "back\\slash", "tab\tnew\nline",
+				"\u00e9\u4e2d", "" };
+		for (String value : values) {
+			String key = "key " + value;
+			PropertiesDocument document = PropertiesDocument.parse("");
+			document.set(key, value);
+			Properties properties = load(document.toString());
+			assertEquals(value, properties.getProperty(key));
+			assertEquals(value, PropertiesDocument.parse(document.toString()).get(key));
+		}
+	}
+
+	private static Properties load(String content) throws Exception {
+		Properties properties = new Properties();
+		properties.load(new StringReader(content));
+		return properties;
+	}
+
+	private static Properties toProperties(Map<String, String> values) {
+		Properties properties = new Properties();
+		properties.putAll(values);
+		return properties;
+	}
+
+}
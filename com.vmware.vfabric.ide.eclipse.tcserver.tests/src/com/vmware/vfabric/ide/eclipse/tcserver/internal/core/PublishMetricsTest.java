@@ -0,0 +1,121 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.junit.Test;
+import org.w3c.dom.Element;
+
+public class PublishMetricsTest {
+
+	@Test
+	public void testCounters() {
+		PublishMetrics metrics = new PublishMetrics();
+		metrics.increment(PublishMetrics.MODULE_STATIC);
+		metrics.increment(PublishMetrics.MODULE_STATIC);
+		metrics.add(PublishMetrics.MODULE_DYNAMIC, 3);
+
+		assertEquals(2, metrics.getCounter(PublishMetrics.MODULE_STATIC));
+		assertEquals(3, metrics.getCounter(PublishMetrics.MODULE_DYNAMIC));
+		assertEquals(0, metrics.getCounter(PublishMetrics.MODULE_PUBLISH));
+
+		metrics.reset();
+		assertEquals(0, metrics.getCounter(PublishMetrics.MODULE_STATIC));
+		assertTrue(metrics.getCounters().isEmpty());
+	}
+
+	@Test
+	public void testRecordModuleDelta() {
+		PublishMetrics metrics = new PublishMetrics();
+		metrics.recordModuleDelta(2, false);
+		metrics.recordModuleDelta(1, true);
+		metrics.recordModuleDelta(3, true);
+
+		assertEquals(1, metrics.getCounter(PublishMetrics.MODULE_STATIC));
+		assertEquals(2, metrics.getCounter(PublishMetrics.MODULE_DYNAMIC));
+		assertEquals(3, metrics.getHistogram(PublishMetrics.MODULE_DELTA_SIZE).getCount());
+		assertEquals(6, metrics.getHistogram(PublishMetrics.MODULE_DELTA_SIZE).getSum());
+	}
+
+	@Test
+	public void testSpringConfigurationIsDynamic() throws Exception {
+		assertTrue(StaticResourceFilter.isSpringConfiguration(parse(
+				"<beans xmlns=\"http://www.springframework.org/schema/beans\"/>")));
+		assertTrue(StaticResourceFilter.isSpringConfiguration(parse(
+				"<b:beans xmlns:b=\"http://www.springframework.org/schema/beans\"/>")));
+		assertTrue(StaticResourceFilter.isSpringConfiguration(parse(
+				"<context xmlns=\"urn:other\" xmlns:b=\"http://www.springframework.org/schema/beans\"/>")));
+		assertFalse(StaticResourceFilter.isSpringConfiguration(parse("<web-app version=\"3.0\"/>")));
+		assertFalse(StaticResourceFilter.isSpringConfiguration(parse("<beans xmlns=\"urn:other\"/>")));
+	}
+
+	@Test
+	public void testSpringConfigurationNestedNamespace() throws Exception {
+		assertTrue(StaticResourceFilter.isSpringConfiguration(parse("<config xmlns=\"urn:other\"><modules>"
+				+ "<beans xmlns=\"http://www.springframework.org/schema/beans\"><bean id=\"a\"/></beans>"
+				+ "</modules></config>")));
+		assertTrue(StaticResourceFilter.isSpringConfiguration(parse("<config xmlns=\"urn:other\">"
+				+ "<b:beans xmlns:b=\"http://www.springframework.org/schema/beans\"/></config>")));
+		assertFalse(StaticResourceFilter.isSpringConfiguration(parse("<config xmlns=\"urn:other\"><modules>"
+				+ "<beans xmlns=\"urn:other\"/></modules></config>")));
+	}
+
+	@Test
+	public void testHistogram() {
+		PublishMetrics metrics = new PublishMetrics();
+		for (int i = 1; i <= 100; i++) {
+			metrics.record(PublishMetrics.MODULE_DELTA_SIZE, i);
+		}
+
+		PublishMetrics.Histogram histogram = metrics.getHistogram(PublishMetrics.MODULE_DELTA_SIZE);
+		assertEquals(100, histogram.getCount());
+		assertEquals(5050, histogram.getSum());
+		assertEquals(1, histogram.getMin());
+		assertEquals(100, histogram.getMax());
+		// percentiles are reported as the upper bound of a bucket
+		assertEquals(63, histogram.getPercentile(50));
+		assertEquals(100, histogram.getPercentile(99));
+
+		List<HistogramSummary> summaries = metrics.getHistograms();
+		assertEquals(1, summaries.size());
+		assertEquals(50.5, summaries.get(0).getMean(), 0.001);
+	}
+
+	@Test
+	public void testToJson() {
+		PublishMetrics metrics = new PublishMetrics();
+		metrics.increment(PublishMetrics.MODULE_PUBLISH);
+		metrics.record(PublishMetrics.SERVER_PUBLISH, 2000000);
+		metrics.record(PublishMetrics.MODULE_DELTA_SIZE, 4);
+
+		String json = metrics.toJson();
+		assertTrue(json, json.contains("\"module.publish\": 1"));
+		assertTrue(json, json.contains("\"server.publish\": {\"count\": 1, \"unit\": \"ms\", \"mean\": 2.000"));
+		assertTrue(json, json.contains("\"module.delta.size\": {\"count\": 1, \"unit\": \"1\", \"mean\": 4.000"));
+	}
+
+	private static Element parse(String xml) throws Exception {
+		DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+		factory.setNamespaceAware(true);
+		return factory.newDocumentBuilder().parse(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)))
+				.getDocumentElement();
+	}
+
+}
@@ -0,0 +1,122 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.ReloadStatistics.ModuleStatistics;
+
+public class ReloadTelemetryTest {
+
+	private ReloadStatistics statistics;
+
+	private ReloadTelemetry telemetry;
+
+	@Before
+	public void setUp() {
+		statistics = new ReloadStatistics();
+		telemetry = new ReloadTelemetry(statistics, new ReloadTelemetry.ModuleResolver() {
+			public String getModuleName(String location) {
+				return location.startsWith("/deploy/app/") ? "app" : null;
+			}
+		});
+	}
+
+	@After
+	public void tearDown() {
+		telemetry.stop();
+	}
+
+	@Test
+	public void testProcessReload() {
+		telemetry.process("RELOAD\tcom.example.A\t120\t/deploy/app/WEB-INF/classes");
+		telemetry.process("RELOAD\tcom.example.B\t80\t/deploy/app/WEB-INF/classes");
+		telemetry.process("RELOAD\tcom.example.C\t-1\t/deploy/app/WEB-INF/classes");
+
+		ModuleStatistics module = statistics.getModule("app");
+		assertEquals(3, module.getReloadCount());
+		assertEquals(2, module.getLatencyCount());
+		assertEquals(100.0, module.getMeanLatency(), 0.001);
+		assertEquals(120, module.getMaxLatency());
+		assertEquals("com.example.C", module.getLastType());
+		assertEquals(-1, module.getLastLatency());
+		assertEquals(0, module.getFailureCount());
+	}
+
+	@Test
+	public void testProcessFailure() {
+		telemetry.process("FAILED\tcom.example.A\t50\t/deploy/app/WEB-INF/classes");
+
+		ModuleStatistics module = statistics.getModule("app");
+		assertEquals(0, module.getReloadCount());
+		assertEquals(1, module.getFailureCount());
+		assertEquals("com.example.A", module.getLastFailedType());
+	}
+
+	@Test
+	public void testProcessUnknownModule() {
+		telemetry.process("RELOAD\tcom.example.A\t10\t/other/classes");
+		telemetry.process("RELOAD\tcom.example.B\t10\t");
+
+		assertEquals(2, statistics.getModule(ReloadTelemetry.UNKNOWN_MODULE).getReloadCount());
+	}
+
+	@Test
+	public void testProcessMalformed() {
+		telemetry.process("");
+		telemetry.process("RELOAD\tcom.example.A");
+		telemetry.process("RELOAD\tcom.example.A\tfast\t/deploy/app/WEB-INF/classes");
+		telemetry.process("UNLOAD\tcom.example.A\t10\t/deploy/app/WEB-INF/classes");
+
+		assertNull(statistics.getModule("app"));
+	}
+
+	@Test
+	public void testReceive() throws Exception {
+		final CountDownLatch latch = new CountDownLatch(2);
+		statistics.addListener(new ReloadStatistics.Listener() {
+			public void statisticsChanged(ReloadStatistics statistics) {
+				latch.countDown();
+			}
+		});
+		int port = telemetry.start();
+		assertTrue(telemetry.isStarted());
+
+		Socket socket = new Socket("127.0.0.1", port);
+		try {
+			OutputStream out = socket.getOutputStream();
+			out.write(("RELOAD\tcom.example.A\t30\t/deploy/app/WEB-INF/classes\n"
+					+ "FAILED\tcom.example.B\t-1\t/deploy/app/WEB-INF/classes\n").getBytes(StandardCharsets.UTF_8));
+			out.flush();
+			assertTrue(latch.await(10, TimeUnit.SECONDS));
+		}
+		finally {
+			socket.close();
+		}
+
+		ModuleStatistics module = statistics.getModule("app");
+		assertEquals(1, module.getReloadCount());
+		assertEquals(1, module.getFailureCount());
+	}
+
+}
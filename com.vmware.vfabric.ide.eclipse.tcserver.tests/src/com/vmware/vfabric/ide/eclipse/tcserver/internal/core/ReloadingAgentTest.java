@@ -0,0 +1,71 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+
+import org.eclipse.core.runtime.IStatus;
+import org.junit.Test;
+
+import com.vmware.vfabric.ide.eclipse.tcserver.reloading.ReloadingAgent;
+import com.vmware.vfabric.ide.eclipse.tcserver.reloading.ReloadingProfile;
+import com.vmware.vfabric.ide.eclipse.tcserver.reloading.ReloadingProfiles;
+
+public class ReloadingAgentTest {
+
+	private final File cacheDirectory = new File(System.getProperty("java.io.tmpdir"), "springloaded-cache");
+
+	@Test
+	public void testConfigureDefault() {
+		ReloadingAgent agent = new ReloadingAgent("1.2.0.RELEASE");
+		ReloadingAgent.Configuration configuration = agent.configure(
+				ReloadingProfiles.getProfile(ReloadingProfiles.ID_DEFAULT), cacheDirectory);
+		assertEquals("", configuration.getOptions());
+		assertTrue(configuration.getStatus().isOK());
+	}
+
+	@Test
+	public void testConfigureLargeApplication() {
+		ReloadingAgent agent = new ReloadingAgent("1.2.0.RELEASE");
+		ReloadingAgent.Configuration configuration = agent.configure(
+				ReloadingProfiles.getProfile(ReloadingProfiles.ID_LARGE_APPLICATION), cacheDirectory);
+		String options = configuration.getOptions();
+		assertTrue(options, options.startsWith("exclusions=org.springframework..*,org.hibernate..*,"));
+		assertTrue(options, options.endsWith(";caching=true;cacheDir=" + cacheDirectory.getAbsolutePath()));
+		assertTrue(configuration.getStatus().isOK());
+	}
+
+	@Test
+	public void testConfigureUnsupported() {
+		ReloadingProfile profile = new ReloadingProfile("test", "Test", "");
+		profile.addInclusion("com.example..*");
+		profile.setReloadJars(true);
+		profile.setWatcherInterval(500);
+
+		ReloadingAgent.Configuration configuration = new ReloadingAgent("1.2.0.RELEASE").configure(profile, null);
+		assertEquals("inclusions=com.example..*", configuration.getOptions());
+		assertEquals(IStatus.WARNING, configuration.getStatus().getSeverity());
+		assertEquals(2, configuration.getStatus().getChildren().length);
+
+		configuration = new ReloadingAgent("1.2.5.RELEASE").configure(profile, null);
+		assertEquals("inclusions=com.example..*;watchJars=*.jar", configuration.getOptions());
+		assertEquals(1, configuration.getStatus().getChildren().length);
+	}
+
+	@Test
+	public void testGetProfileUnknown() {
+		assertEquals(ReloadingProfiles.ID_DEFAULT, ReloadingProfiles.getProfile("unknown").getId());
+	}
+
+}
@@ -0,0 +1,86 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class SampleRingTest {
+
+	@Test
+	public void testEmpty() {
+		SampleRing ring = new SampleRing(3);
+		assertEquals(0, ring.size());
+		assertEquals(3, ring.getCapacity());
+		assertTrue(Double.isNaN(ring.getLastValue()));
+		assertEquals(0, ring.getMaxValue(), 0);
+		assertEquals(0, ring.copyValues(new double[3]));
+	}
+
+	@Test
+	public void testAddWrapsAround() {
+		SampleRing ring = new SampleRing(3);
+		for (int i = 1; i <= 5; i++) {
+			ring.add(i * 1000, i);
+		}
+		assertEquals(3, ring.size());
+		assertEquals(3000, ring.getTime(0));
+		assertEquals(3, ring.getValue(0), 0);
+		assertEquals(5, ring.getValue(2), 0);
+		assertEquals(5, ring.getLastValue(), 0);
+		assertEquals(5, ring.getMaxValue(), 0);
+	}
+
+	@Test
+	public void testCopyValues() {
+		SampleRing ring = new SampleRing(4);
+		for (int i = 1; i <= 6; i++) {
+			ring.add(i, i * 10);
+		}
+		double[] values = new double[2];
+		assertEquals(2, ring.copyValues(values));
+		assertEquals(50, values[0], 0);
+		assertEquals(60, values[1], 0);
+
+		values = new double[8];
+		assertEquals(4, ring.copyValues(values));
+		assertEquals(30, values[0], 0);
+		assertEquals(60, values[3], 0);
+	}
+
+	@Test
+	public void testClear() {
+		SampleRing ring = new SampleRing(2);
+		ring.add(1, 10);
+		ring.add(2, 20);
+		ring.clear();
+		ring.add(3, 5);
+		assertEquals(1, ring.size());
+		assertEquals(5, ring.getMaxValue(), 0);
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testGetValueInvalidIndex() {
+		SampleRing ring = new SampleRing(2);
+		ring.add(1, 1);
+		ring.getValue(1);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidCapacity() {
+		new SampleRing(0);
+	}
+
+}
@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import javax.management.MBeanServer;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.ServerDiagnostics.Kind;
+
+public class ServerDiagnosticsTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private ServerDiagnostics diagnostics;
+
+	@Before
+	public void setUp() throws Exception {
+		diagnostics = new ServerDiagnostics(new File(folder.getRoot(), ServerDiagnostics.DIRECTORY));
+	}
+
+	@Test
+	public void testGetCapturesEmpty() {
+		assertEquals(0, diagnostics.getCaptures(Kind.THREAD_DUMP).size());
+	}
+
+	@Test
+	public void testSave() throws Exception {
+		long time = System.currentTimeMillis();
+		File first = diagnostics.save(Kind.THREAD_DUMP, "first", time);
+		File second = diagnostics.save(Kind.THREAD_DUMP, "second", time);
+		File later = diagnostics.save(Kind.THREAD_DUMP, "later", time + 60 * 1000);
+		diagnostics.save(Kind.CLASS_HISTOGRAM, "histogram", time);
+
+		assertFalse(first.equals(second));
+		assertTrue(first.getName().startsWith("threads-" + ServerDiagnostics.formatTimestamp(time)));
+		List<File> captures = diagnostics.getCaptures(Kind.THREAD_DUMP);
+		assertEquals(3, captures.size());
+		assertEquals(first, captures.get(0));
+		assertEquals(later, captures.get(2));
+		assertEquals("second", diagnostics.read(captures.get(1)));
+	}
+
+	@Test
+	public void testGetTimestamp() {
+		assertEquals("20201019-101530", ServerDiagnostics.getTimestamp("histogram-20201019-101530.txt"));
+		assertEquals("20201019-101530", ServerDiagnostics.getTimestamp("heap-20201019-101530-1.hprof"));
+		assertNull(ServerDiagnostics.getTimestamp(ServerDiagnostics.HISTOGRAM_TREND));
+		assertNull(ServerDiagnostics.getTimestamp("threads.txt"));
+	}
+
+	@Test
+	public void testGetThreadDump() throws Exception {
+		String dump = ServerDiagnostics.getThreadDump(ManagementFactory.getPlatformMBeanServer());
+		assertTrue(dump, dump.contains("\"" + Thread.currentThread().getName() + "\""));
+		assertTrue(dump, dump.contains(ServerDiagnosticsTest.class.getName() + ".testGetThreadDump("));
+	}
+
+	@Test
+	public void testCapture() throws Exception {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		long time = System.currentTimeMillis();
+		File threadDump = diagnostics.capture(server, Kind.THREAD_DUMP, time);
+		assertEquals(threadDump, diagnostics.getCaptures(Kind.THREAD_DUMP).get(0));
+		assertTrue(diagnostics.read(threadDump).contains(ServerDiagnosticsTest.class.getName() + ".testCapture("));
+		File histogram = diagnostics.capture(server, Kind.CLASS_HISTOGRAM, time);
+		assertTrue(ClassHistogram.parse(diagnostics.read(histogram)).getTotalBytes() > 0);
+	}
+
+	@Test
+	public void testHistogramTrend() throws Exception {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		long time = System.currentTimeMillis();
+		diagnostics.save(Kind.CLASS_HISTOGRAM, ServerDiagnostics.getClassHistogram(server), time);
+		diagnostics.save(Kind.CLASS_HISTOGRAM, ServerDiagnostics.getClassHistogram(server), time + 1000);
+		assertTrue(ClassHistogram.parse(diagnostics.read(diagnostics.getCaptures(Kind.CLASS_HISTOGRAM).get(0)))
+				.getTotalBytes() > 0);
+
+		File trend = diagnostics.writeHistogramTrend(10, 20);
+		assertEquals(ServerDiagnostics.HISTOGRAM_TREND, trend.getName());
+		assertTrue(diagnostics.read(trend).contains("total bytes"));
+		assertEquals(2, diagnostics.getCaptures(Kind.CLASS_HISTOGRAM).size());
+	}
+
+}
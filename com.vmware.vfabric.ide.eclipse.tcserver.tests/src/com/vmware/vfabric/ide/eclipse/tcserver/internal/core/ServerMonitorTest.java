@@ -0,0 +1,190 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.MBeanInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.remote.JMXConnector;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ServerMonitorTest {
+
+	/**
+	 * Exposes attributes with the lower case names used by the Tomcat
+	 * modeler.
+	 */
+	private static class AttributeMBean implements DynamicMBean {
+
+		private final Map<String, Object> attributes = new HashMap<String, Object>();
+
+		public Object getAttribute(String attribute) throws AttributeNotFoundException {
+			if (!attributes.containsKey(attribute)) {
+				throw new AttributeNotFoundException(attribute);
+			}
+			return attributes.get(attribute);
+		}
+
+		public void setAttribute(Attribute attribute) {
+			attributes.put(attribute.getName(), attribute.getValue());
+		}
+
+		public AttributeList getAttributes(String[] names) {
+			AttributeList list = new AttributeList();
+			for (String name : names) {
+				list.add(new Attribute(name, attributes.get(name)));
+			}
+			return list;
+		}
+
+		public AttributeList setAttributes(AttributeList list) {
+			for (Attribute attribute : list.asList()) {
+				setAttribute(attribute);
+			}
+			return list;
+		}
+
+		public Object invoke(String actionName, Object[] params, String[] signature) {
+			return null;
+		}
+
+		public MBeanInfo getMBeanInfo() {
+			return new MBeanInfo(getClass().getName(), null, null, null, null, null);
+		}
+
+		void set(String name, Object value) {
+			attributes.put(name, value);
+		}
+
+	}
+
+	private MBeanServer server;
+
+	private final List<ObjectName> registeredNames = new ArrayList<ObjectName>();
+
+	private ServerMonitor monitor;
+
+	@Before
+	public void setUp() {
+		server = ManagementFactory.getPlatformMBeanServer();
+		monitor = new ServerMonitor(new SharedJmxConnector(new ServerMonitor.ConnectionProvider() {
+			public boolean isAvailable() {
+				return false;
+			}
+
+			public JMXConnector connect() throws IOException {
+				throw new IOException();
+			}
+		}), 10);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		for (ObjectName name : registeredNames) {
+			server.unregisterMBean(name);
+		}
+	}
+
+	@Test
+	public void testSamplePlatform() throws Exception {
+		monitor.sample(server, 1000);
+		assertTrue(monitor.getSeries(ServerMonitor.HEAP_USED).getLastValue() > 0);
+		assertTrue(monitor.getSeries(ServerMonitor.THREADS).getLastValue() > 0);
+		// rates require two samples
+		assertNull(monitor.getSeries(ServerMonitor.GC_TIME));
+
+		monitor.sample(server, 2000);
+		assertEquals(2, monitor.getSeries(ServerMonitor.HEAP_USED).size());
+		assertNotNull(monitor.getSeries(ServerMonitor.GC_TIME));
+	}
+
+	@Test
+	public void testSampleContexts() throws Exception {
+		AttributeMBean module = new AttributeMBean();
+		register("Catalina:j2eeType=WebModule,name=//localhost/app,J2EEApplication=none,J2EEServer=none", module);
+		AttributeMBean manager = new AttributeMBean();
+		register("Catalina:type=Manager,context=/app,host=localhost", manager);
+
+		module.set("requestCount", 10);
+		module.set("processingTime", 100L);
+		manager.set("activeSessions", 2);
+		monitor.sample(server, 1000);
+
+		module.set("requestCount", 30);
+		module.set("processingTime", 500L);
+		manager.set("activeSessions", 3);
+		monitor.sample(server, 3000);
+
+		assertEquals(Arrays.asList("/app"), monitor.getNames(ServerMonitor.CONTEXT_REQUESTS));
+		assertEquals(10, monitor.getSeries(ServerMonitor.CONTEXT_REQUESTS + "/app").getLastValue(), 0.001);
+		assertEquals(20, monitor.getSeries(ServerMonitor.CONTEXT_PROCESSING_TIME + "/app").getLastValue(), 0.001);
+		assertEquals(3, monitor.getSeries(ServerMonitor.CONTEXT_SESSIONS + "/app").getLastValue(), 0);
+		assertEquals(2, monitor.getSeries(ServerMonitor.CONTEXT_SESSIONS + "/app").size());
+	}
+
+	@Test
+	public void testDisconnectResetsCounters() throws Exception {
+		AttributeMBean module = new AttributeMBean();
+		register("Catalina:j2eeType=WebModule,name=//localhost/app,J2EEApplication=none,J2EEServer=none", module);
+		module.set("requestCount", 10);
+		module.set("processingTime", 100L);
+		monitor.sample(server, 1000);
+		module.set("requestCount", 30);
+		monitor.sample(server, 2000);
+		assertEquals(1, monitor.getSeries(ServerMonitor.CONTEXT_REQUESTS + "/app").size());
+
+		// the counters of a restarted server start from zero
+		monitor.disconnect();
+		module.set("requestCount", 5);
+		monitor.sample(server, 3000);
+		assertEquals(1, monitor.getSeries(ServerMonitor.CONTEXT_REQUESTS + "/app").size());
+
+		module.set("requestCount", 15);
+		monitor.sample(server, 4000);
+		assertEquals(2, monitor.getSeries(ServerMonitor.CONTEXT_REQUESTS + "/app").size());
+		assertEquals(10, monitor.getSeries(ServerMonitor.CONTEXT_REQUESTS + "/app").getLastValue(), 0.001);
+	}
+
+	@Test
+	public void testGetContextPath() {
+		assertEquals("/app", ServerMonitor.getContextPath("//localhost/app"));
+		assertEquals("/", ServerMonitor.getContextPath("//localhost/"));
+		assertEquals("/", ServerMonitor.getContextPath("//localhost"));
+		assertNull(ServerMonitor.getContextPath("app"));
+	}
+
+	private void register(String name, Object mbean) throws Exception {
+		ObjectName objectName = ObjectName.getInstance(name);
+		server.registerMBean(mbean, objectName);
+		registeredNames.add(objectName);
+	}
+
+}
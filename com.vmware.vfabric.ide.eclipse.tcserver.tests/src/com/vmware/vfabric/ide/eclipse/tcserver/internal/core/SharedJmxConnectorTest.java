@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.management.MBeanServerConnection;
+import javax.management.MBeanServerFactory;
+import javax.management.NotificationFilter;
+import javax.management.NotificationListener;
+import javax.management.remote.JMXConnector;
+import javax.security.auth.Subject;
+
+import org.junit.Test;
+
+public class SharedJmxConnectorTest {
+
+	private static class StubConnector implements JMXConnector {
+
+		private final MBeanServerConnection connection = MBeanServerFactory.newMBeanServer();
+
+		private boolean closed;
+
+		public void connect() {
+		}
+
+		public void connect(Map<String, ?> env) {
+		}
+
+		public MBeanServerConnection getMBeanServerConnection() {
+			return connection;
+		}
+
+		public MBeanServerConnection getMBeanServerConnection(Subject delegationSubject) {
+			return connection;
+		}
+
+		public void close() {
+			closed = true;
+		}
+
+		public void addConnectionNotificationListener(NotificationListener listener, NotificationFilter filter,
+				Object handback) {
+		}
+
+		public void removeConnectionNotificationListener(NotificationListener listener) {
+		}
+
+		public void removeConnectionNotificationListener(NotificationListener l, NotificationFilter f, Object handback) {
+		}
+
+		public String getConnectionId() {
+			return "stub";
+		}
+
+	}
+
+	private final List<StubConnector> connectors = new ArrayList<StubConnector>();
+
+	private final SharedJmxConnector connector = new SharedJmxConnector(new ServerMonitor.ConnectionProvider() {
+		public boolean isAvailable() {
+			return true;
+		}
+
+		public JMXConnector connect() throws IOException {
+			StubConnector connector = new StubConnector();
+			connectors.add(connector);
+			return connector;
+		}
+	});
+
+	@Test
+	public void testAcquireShared() throws Exception {
+		Object monitor = new Object();
+		Object sampler = new Object();
+		MBeanServerConnection connection = connector.acquire(monitor);
+		assertSame(connection, connector.acquire(sampler));
+		assertEquals(1, connectors.size());
+
+		connector.release(monitor);
+		assertTrue(connector.isConnected());
+		connector.release(sampler);
+		assertFalse(connector.isConnected());
+		assertTrue(connectors.get(0).closed);
+	}
+
+	@Test
+	public void testInvalidate() throws Exception {
+		Object monitor = new Object();
+		Object sampler = new Object();
+		MBeanServerConnection failed = connector.acquire(monitor);
+		connector.acquire(sampler);
+
+		connector.invalidate(failed);
+		assertFalse(connector.isConnected());
+		MBeanServerConnection connection = connector.acquire(monitor);
+		assertNotSame(failed, connection);
+
+		// a user that fails on the stale connection does not close the new one
+		connector.invalidate(failed);
+		assertTrue(connector.isConnected());
+		assertSame(connection, connector.acquire(sampler));
+		assertEquals(2, connectors.size());
+	}
+
+}
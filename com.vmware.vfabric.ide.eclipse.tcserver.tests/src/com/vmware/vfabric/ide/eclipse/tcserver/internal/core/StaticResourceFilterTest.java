@@ -0,0 +1,43 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.core;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class StaticResourceFilterTest {
+
+	@Test
+	public void testDefaultPatterns() {
+		StaticResourceFilter filter = new StaticResourceFilter(TcServer.DEFAULT_STATIC_FILENAMES);
+		assertTrue(filter.isStatic("index.html"));
+		assertTrue(filter.isStatic("application.properties"));
+		assertTrue(filter.isStatic("beans.xml"));
+		assertFalse(filter.isStatic("web.xml"));
+		assertFalse(filter.isStatic("tiles.xml"));
+		assertFalse(filter.isStatic("Main.class"));
+	}
+
+	@Test
+	public void testLastMatchWins() {
+		StaticResourceFilter filter = new StaticResourceFilter("!*.css,*.css");
+		assertTrue(filter.isStatic("style.css"));
+	}
+
+	@Test
+	public void testEmpty() {
+		assertFalse(new StaticResourceFilter("").isStatic("index.html"));
+		assertFalse(new StaticResourceFilter(null).isStatic("index.html"));
+	}
+
+}
@@ -10,13 +10,18 @@
  *******************************************************************************/
 package com.vmware.vfabric.ide.eclipse.tcserver.internal.core;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.io.File;
 import java.util.Arrays;
 
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.jdt.core.IClasspathEntry;
+import org.eclipse.wst.server.core.IRuntimeWorkingCopy;
 import org.eclipse.wst.server.core.IServer;
 import org.junit.After;
 import org.junit.Before;
@@ -89,4 +94,44 @@ public class TcServerRuntimeClasspathProviderTest {
 		IClasspathEntry[] cp = classPathProvider.resolveClasspathContainer(null, server.getRuntime());
 		assertHasServletApi(server.getRuntime().getLocation(), cp);
 	}
+
+	@Test
+	public void testResolveClasspathCached() throws Exception {
+		server = TcServerFixture.V_4_0.createServer(TcServerFixture.INST_SEPARATE);
+		IClasspathEntry[] cp = classPathProvider.resolveClasspathContainer(null, server.getRuntime());
+		IClasspathEntry[] cachedCp = classPathProvider.resolveClasspathContainer(null, server.getRuntime());
+		assertNotSame(cp, cachedCp);
+		assertSame(cp[0], cachedCp[0]);
+		assertArrayEquals(cp, cachedCp);
+	}
+
+	@Test
+	public void testResolveClasspathLibModified() throws Exception {
+		server = TcServerFixture.V_4_0.createServer(TcServerFixture.INST_SEPARATE);
+		File libDirectory = TcServerUtil.getTcRuntime(server.getRuntime()).getTomcatLocation().append("lib").toFile();
+		long lastModified = libDirectory.lastModified();
+		IClasspathEntry[] cp = classPathProvider.resolveClasspathContainer(null, server.getRuntime());
+		try {
+			assertTrue(libDirectory.setLastModified(lastModified + 2000));
+			IClasspathEntry[] resolvedCp = classPathProvider.resolveClasspathContainer(null, server.getRuntime());
+			assertNotSame(cp[0], resolvedCp[0]);
+			assertArrayEquals(cp, resolvedCp);
+		}
+		finally {
+			libDirectory.setLastModified(lastModified);
+		}
+	}
+
+	@Test
+	public void testResolveClasspathRuntimeChanged() throws Exception {
+		server = TcServerFixture.V_4_0.createServer(TcServerFixture.INST_SEPARATE);
+		IClasspathEntry[] cp = classPathProvider.resolveClasspathContainer(null, server.getRuntime());
+		IRuntimeWorkingCopy wc = server.getRuntime().createWorkingCopy();
+		wc.setName(wc.getName() + " (renamed)");
+		wc.save(true, null);
+		IClasspathEntry[] resolvedCp = classPathProvider.resolveClasspathContainer(null, server.getRuntime());
+		assertNotSame(cp[0], resolvedCp[0]);
+		assertArrayEquals(cp, resolvedCp);
+	}
+
 }
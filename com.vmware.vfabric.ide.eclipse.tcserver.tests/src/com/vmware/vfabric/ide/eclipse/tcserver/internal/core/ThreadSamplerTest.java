@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.ThreadSampler.Count;
+
+public class ThreadSamplerTest {
+
+	private static class Lock {
+	}
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private volatile boolean spinning;
+
+	private final ThreadSampler sampler = new ThreadSampler(null, null);
+
+	@Test
+	public void testSampleBlockedThread() throws Exception {
+		final Lock lock = new Lock();
+		Thread thread = new Thread("blocked") {
+			@Override
+			public void run() {
+				synchronized (lock) {
+					// acquire
+				}
+			}
+		};
+		synchronized (lock) {
+			thread.start();
+			while (thread.getState() != Thread.State.BLOCKED) {
+				Thread.sleep(10);
+			}
+			sampler.sample(ManagementFactory.getPlatformMBeanServer());
+		}
+		thread.join();
+
+		assertEquals(1, sampler.getSampleCount());
+		List<Count> monitors = sampler.getTopBlockedMonitors(10);
+		assertEquals(1, monitors.size());
+		assertTrue(monitors.get(0).getName(), monitors.get(0).getName().startsWith(Lock.class.getName() + "@"));
+		assertEquals(1, monitors.get(0).getCount());
+		assertTrue(sampler.getCollapsedStacks(ThreadSampler.SERVER_CONTEXT).contains(
+				ThreadSamplerTest.class.getName() + "$1.run;[blocked on " + Lock.class.getName() + "] 1\n"));
+	}
+
+	@Test
+	public void testSampleRunnableThread() throws Exception {
+		sampler.setPackages(Collections.singletonMap(ThreadSamplerTest.class.getPackage().getName(), "/app"));
+		spinning = true;
+		Thread thread = new Thread("spinning") {
+			@Override
+			public void run() {
+				spin();
+			}
+		};
+		thread.start();
+		try {
+			for (int i = 0; i < 5; i++) {
+				sampler.sample(ManagementFactory.getPlatformMBeanServer());
+			}
+		}
+		finally {
+			spinning = false;
+			thread.join();
+		}
+
+		assertEquals(5, sampler.getSampleCount());
+		boolean found = false;
+		for (Count frame : sampler.getTopFrames(100)) {
+			found |= frame.getName().equals(ThreadSamplerTest.class.getName() + ".spin");
+		}
+		assertTrue(found);
+		assertTrue(sampler.getContexts().contains("/app"));
+		assertTrue(sampler.getCollapsedStacks("/app"), sampler.getCollapsedStacks("/app").contains(ThreadSamplerTest.class.getName() + "$2.run;"
+				+ ThreadSamplerTest.class.getName() + ".spin "));
+
+		File directory = sampler.writeCollapsedStacks(
+				new ServerDiagnostics(new File(folder.getRoot(), ServerDiagnostics.DIRECTORY)),
+				System.currentTimeMillis());
+		assertTrue(new File(directory, "app" + ThreadSampler.COLLAPSED_STACKS_SUFFIX).exists());
+
+		sampler.reset();
+		assertEquals(0, sampler.getSampleCount());
+		assertEquals(0, sampler.getTopFrames(10).size());
+	}
+
+	@Test
+	public void testGetContext() {
+		sampler.setPackages(Collections.singletonMap("com.example", "/app"));
+		StackTraceElement[] stack = new StackTraceElement[] {
+				new StackTraceElement("java.lang.Object", "wait", null, -1),
+				new StackTraceElement("com.example.Service", "run", null, -1),
+				new StackTraceElement("org.apache.catalina.core.StandardWrapperValve", "invoke", null, -1) };
+		assertEquals("/app", sampler.getContext(stack));
+		assertEquals(ThreadSampler.SERVER_CONTEXT, sampler.getContext(new StackTraceElement[] { stack[0] }));
+	}
+
+	@Test
+	public void testGetFileName() {
+		assertEquals("ROOT", ThreadSampler.getFileName("/"));
+		assertEquals("app", ThreadSampler.getFileName("/app"));
+		assertEquals("app#v1", ThreadSampler.getFileName("/app/v1"));
+		assertEquals("server", ThreadSampler.getFileName(ThreadSampler.SERVER_CONTEXT));
+	}
+
+	void spin() {
+		long i = 0;
+		while (spinning) {
+			i++;
+		}
+		assertTrue(i > 0);
+	}
+
+}
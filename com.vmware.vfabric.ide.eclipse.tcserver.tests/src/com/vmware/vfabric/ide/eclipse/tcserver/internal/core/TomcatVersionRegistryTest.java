@@ -0,0 +1,48 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TomcatVersionRegistryTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testGetInstanceTomcatVersion() throws Exception {
+		TomcatVersionRegistry registry = new TomcatVersionRegistry();
+		File instance = folder.newFolder("instance");
+		assertNull(registry.getInstanceTomcatVersion(instance));
+
+		File versionFile = new File(instance, "conf/tomcat.version");
+		write(versionFile, "8.5.31.A.RELEASE\n");
+		assertEquals("8.5.31.A.RELEASE", registry.getInstanceTomcatVersion(instance));
+
+		write(versionFile, "9.0.12.C.RELEASE\n\n");
+		assertEquals("9.0.12.C.RELEASE", registry.getInstanceTomcatVersion(instance));
+	}
+
+	private static void write(File file, String content) throws Exception {
+		file.getParentFile().mkdirs();
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+	}
+
+}
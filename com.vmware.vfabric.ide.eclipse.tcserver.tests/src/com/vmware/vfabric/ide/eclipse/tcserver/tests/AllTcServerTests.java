@@ -14,9 +14,34 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
 
+import com.vmware.vfabric.ide.eclipse.tcserver.configurator.tests.ConfigurationSchedulerTest;
 import com.vmware.vfabric.ide.eclipse.tcserver.configurator.tests.ConfiguratorActionTest;
 import com.vmware.vfabric.ide.eclipse.tcserver.configurator.tests.ConfiguratorImporterTest;
+import com.vmware.vfabric.ide.eclipse.tcserver.configurator.tests.DirectoryCopierTest;
+import com.vmware.vfabric.ide.eclipse.tcserver.configurator.tests.InstallLocationIndexTest;
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.ClassDataSharingTest;
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.ClassHistogramTest;
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.ConfigurationChangeTest;
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.ConfigurationLedgerTest;
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.ConnectorTuningTest;
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.ContextConfigurationFingerprintTest;
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.DeployerLoadHarnessTest;
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.InstanceFactoryTest;
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.InstanceProvisionerTest;
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.JarScanAnalyzerTest;
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.LaunchProfilesTest;
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.LogFileTest;
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.ParallelStartupTest;
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.PropertiesDocumentTest;
 import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.PropertyWriterTest;
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.PublishMetricsTest;
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.ReloadTelemetryTest;
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.ReloadingAgentTest;
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.SampleRingTest;
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.ServerDiagnosticsTest;
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.ServerMonitorTest;
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.SharedJmxConnectorTest;
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.StaticResourceFilterTest;
 import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.TcServer40TemplatePropertiesReaderTest;
 import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.TcServerBehaviourTest;
 import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.TcServerConfiguratorImporterTest;
@@ -26,6 +51,8 @@ import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.TcServerRuntimeClas
 import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.TcServerRuntimeTest;
 import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.TcServerTemplatePropertiesReaderTest;
 import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.TcServerVersionHandlerTest;
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.ThreadSamplerTest;
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.TomcatVersionRegistryTest;
 
 /**
  * Runs all automated tests for tc Server support.
@@ -37,6 +64,8 @@ import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.TcServerVersionHand
 @SuiteClasses({ PropertyWriterTest.class, //
 		ConfiguratorActionTest.class,
 		ConfiguratorImporterTest.class,
+		InstallLocationIndexTest.class, //
+		ConfigurationSchedulerTest.class, //
 		TcServerBehaviourTest.class, //
 		TcServerConfiguratorImporterTest.class, //
 		TcServerDeploymentTest.class, //
@@ -46,7 +75,32 @@ import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.TcServerVersionHand
 		TcServerProvisioningTest.class, //
 		TcServerTemplatePropertiesReaderTest.class, //
 		TcServer40TemplatePropertiesReaderTest.class, //
-		TcServerInstanceTest.class //
+		TcServerInstanceTest.class, //
+		InstanceProvisionerTest.class, //
+		InstanceFactoryTest.class, //
+		StaticResourceFilterTest.class, //
+		DeployerLoadHarnessTest.class, //
+		PublishMetricsTest.class, //
+		TomcatVersionRegistryTest.class, //
+		ContextConfigurationFingerprintTest.class, //
+		ConfigurationLedgerTest.class, //
+		ConfigurationChangeTest.class, //
+		ReloadingAgentTest.class, //
+		ReloadTelemetryTest.class, //
+		PropertiesDocumentTest.class, //
+		JarScanAnalyzerTest.class, //
+		ClassDataSharingTest.class, //
+		LaunchProfilesTest.class, //
+		ParallelStartupTest.class, //
+		ConnectorTuningTest.class, //
+		SampleRingTest.class, //
+		ServerMonitorTest.class, //
+		ClassHistogramTest.class, //
+		ServerDiagnosticsTest.class, //
+		ThreadSamplerTest.class, //
+		LogFileTest.class, //
+		SharedJmxConnectorTest.class, //
+		DirectoryCopierTest.class //
 })
 public class AllTcServerTests {
 	// goofy junit4, no class body needed
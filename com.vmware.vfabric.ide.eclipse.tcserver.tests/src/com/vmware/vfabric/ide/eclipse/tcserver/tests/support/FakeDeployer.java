@@ -0,0 +1,157 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.tests.support;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.RuntimeOperationsException;
+
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.AbstractTcDeployerCommand;
+
+/**
+ * An in-process stand-in for the tc Server Deployer MBean. Tracks the state of
+ * applications like tc Server does and fails operations that are not valid in
+ * the current state with a {@link RuntimeOperationsException}.
+ * <p>
+ * Every operation is delayed by the configured latency and fails with the
+ * configured probability to simulate slow or unreliable servers.
+ * </p>
+ */
+public class FakeDeployer implements FakeDeployerMBean {
+
+	private final Map<String, String> states = new ConcurrentHashMap<String, String>();
+
+	private final AtomicInteger invocationCount = new AtomicInteger();
+
+	private final Random random = new Random();
+
+	private volatile long latencyMillis;
+
+	private volatile long latencyJitterMillis;
+
+	private volatile double failureRate;
+
+	/**
+	 * Sets the time every operation takes. Each invocation takes
+	 * <code>latencyMillis</code> plus a random value up to
+	 * <code>jitterMillis</code>.
+	 */
+	public void setLatency(long latencyMillis, long jitterMillis) {
+		this.latencyMillis = latencyMillis;
+		this.latencyJitterMillis = jitterMillis;
+	}
+
+	/**
+	 * Sets the probability between 0 and 1 that an operation fails with an
+	 * injected error.
+	 */
+	public void setFailureRate(double failureRate) {
+		this.failureRate = failureRate;
+	}
+
+	public void setApplicationState(String service, String host, String contextPath, String state) {
+		states.put(key(service, host, contextPath), state);
+	}
+
+	public String deployApplication(String service, String host, String contextPath, String warFile) {
+		String key = invoke(service, host, contextPath);
+		if (states.containsKey(key)) {
+			throw fail("Application " + contextPath + " is already deployed");
+		}
+		states.put(key, AbstractTcDeployerCommand.STATE_AVAILABLE);
+		return null;
+	}
+
+	public String getApplicationState(String service, String host, String contextPath) {
+		String state = states.get(invoke(service, host, contextPath));
+		return (state != null) ? state : AbstractTcDeployerCommand.STATE_NOT_DEPLOYED;
+	}
+
+	public String reloadApplication(String service, String host, String contextPath) {
+		String key = invoke(service, host, contextPath);
+		if (!AbstractTcDeployerCommand.STATE_AVAILABLE.equals(states.get(key))) {
+			throw fail("Application " + contextPath + " is not running");
+		}
+		return null;
+	}
+
+	public String startApplication(String service, String host, String contextPath) {
+		String key = invoke(service, host, contextPath);
+		if (!states.containsKey(key)) {
+			throw fail("Application " + contextPath + " is not deployed");
+		}
+		states.put(key, AbstractTcDeployerCommand.STATE_AVAILABLE);
+		return null;
+	}
+
+	public String stopApplication(String service, String host, String contextPath) {
+		String key = invoke(service, host, contextPath);
+		if (!states.containsKey(key)) {
+			throw fail("Application " + contextPath + " is not deployed");
+		}
+		states.put(key, AbstractTcDeployerCommand.STATE_CONFIGURED);
+		return null;
+	}
+
+	public String undeployApplication(String service, String host, String contextPath) {
+		String key = invoke(service, host, contextPath);
+		if (states.remove(key) == null) {
+			throw fail("Application " + contextPath + " is not deployed");
+		}
+		return null;
+	}
+
+	public int getInvocationCount() {
+		return invocationCount.get();
+	}
+
+	private String invoke(String service, String host, String contextPath) {
+		invocationCount.incrementAndGet();
+		long latency = latencyMillis;
+		long jitter = latencyJitterMillis;
+		if (jitter > 0) {
+			synchronized (random) {
+				latency += (long) (random.nextDouble() * jitter);
+			}
+		}
+		if (latency > 0) {
+			try {
+				Thread.sleep(latency);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		double rate = failureRate;
+		if (rate > 0) {
+			boolean failed;
+			synchronized (random) {
+				failed = random.nextDouble() < rate;
+			}
+			if (failed) {
+				throw fail("Injected failure");
+			}
+		}
+		return key(service, host, contextPath);
+	}
+
+	private static String key(String service, String host, String contextPath) {
+		return service + "/" + host + "/" + contextPath;
+	}
+
+	private static RuntimeOperationsException fail(String message) {
+		return new RuntimeOperationsException(new IllegalStateException(message), message);
+	}
+
+}
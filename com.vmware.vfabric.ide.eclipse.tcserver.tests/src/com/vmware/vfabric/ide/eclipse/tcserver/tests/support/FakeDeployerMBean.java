@@ -0,0 +1,34 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.tests.support;
+
+/**
+ * Management interface of {@link FakeDeployer}. Mirrors the operations of the
+ * tc Server <code>tcServer:type=Serviceability,name=Deployer</code> MBean
+ * that are invoked by the deployer commands.
+ */
+public interface FakeDeployerMBean {
+
+	String deployApplication(String service, String host, String contextPath, String warFile);
+
+	String getApplicationState(String service, String host, String contextPath);
+
+	String reloadApplication(String service, String host, String contextPath);
+
+	String startApplication(String service, String host, String contextPath);
+
+	String stopApplication(String service, String host, String contextPath);
+
+	String undeployApplication(String service, String host, String contextPath);
+
+	int getInvocationCount();
+
+}
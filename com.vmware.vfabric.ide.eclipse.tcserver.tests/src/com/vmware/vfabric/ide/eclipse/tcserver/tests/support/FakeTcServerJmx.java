@@ -0,0 +1,173 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.tests.support;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.rmi.NoSuchObjectException;
+import java.rmi.registry.LocateRegistry;
+import java.rmi.registry.Registry;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.Notification;
+import javax.management.NotificationListener;
+import javax.management.ObjectName;
+import javax.management.remote.JMXConnectionNotification;
+import javax.management.remote.JMXConnectorServer;
+import javax.management.remote.JMXConnectorServerFactory;
+import javax.management.remote.JMXServiceURL;
+
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.JmxUtils;
+
+/**
+ * Runs a {@link FakeDeployer} on an RMI connector that is reachable through
+ * the same URL format the deployer commands use for tc Server, see
+ * {@link JmxUtils#JMX_CONNECTOR_URL}. Allows measuring the JMX deploy path
+ * without a tc Server installation.
+ * <p>
+ * Counts the connections opened by clients.
+ * </p>
+ */
+public class FakeTcServerJmx {
+
+	public static final String DEPLOYER_NAME = "tcServer:type=Serviceability,name=Deployer";
+
+	private static final String HOST = "localhost";
+
+	private final FakeDeployer deployer = new FakeDeployer();
+
+	private final AtomicInteger openedConnections = new AtomicInteger();
+
+	private final AtomicInteger peakConnections = new AtomicInteger();
+
+	private final Set<String> openConnections = ConcurrentHashMap.<String> newKeySet();
+
+	private Registry registry;
+
+	private JMXConnectorServer connectorServer;
+
+	private int port;
+
+	public FakeDeployer getDeployer() {
+		return deployer;
+	}
+
+	public String getHost() {
+		return HOST;
+	}
+
+	public int getPort() {
+		return port;
+	}
+
+	public String getJmxUrl() {
+		return String.format(JmxUtils.JMX_CONNECTOR_URL, HOST, port);
+	}
+
+	/**
+	 * Returns the number of connections that were opened since the server was
+	 * started.
+	 */
+	public int getOpenedConnections() {
+		return openedConnections.get();
+	}
+
+	/**
+	 * Returns the number of connections that are currently open.
+	 */
+	public int getOpenConnections() {
+		return openConnections.size();
+	}
+
+	/**
+	 * Returns the maximum number of connections that were open at the same
+	 * time.
+	 */
+	public int getPeakConnections() {
+		return peakConnections.get();
+	}
+
+	public void resetConnectionCounts() {
+		openedConnections.set(0);
+		peakConnections.set(openConnections.size());
+	}
+
+	public void start() throws IOException, JMException {
+		port = findFreePort();
+		registry = LocateRegistry.createRegistry(port);
+		MBeanServer mbeanServer = MBeanServerFactory.newMBeanServer();
+		mbeanServer.registerMBean(deployer, ObjectName.getInstance(DEPLOYER_NAME));
+		connectorServer = JMXConnectorServerFactory.newJMXConnectorServer(new JMXServiceURL(getJmxUrl()), null,
+				mbeanServer);
+		connectorServer.addNotificationListener(new NotificationListener() {
+			public void handleNotification(Notification notification, Object handback) {
+				if (!(notification instanceof JMXConnectionNotification)) {
+					return;
+				}
+				String id = ((JMXConnectionNotification) notification).getConnectionId();
+				String type = notification.getType();
+				if (JMXConnectionNotification.OPENED.equals(type)) {
+					openedConnections.incrementAndGet();
+					openConnections.add(id);
+					int open = openConnections.size();
+					int peak;
+					while (open > (peak = peakConnections.get())) {
+						if (peakConnections.compareAndSet(peak, open)) {
+							break;
+						}
+					}
+				}
+				else if (JMXConnectionNotification.CLOSED.equals(type)
+						|| JMXConnectionNotification.FAILED.equals(type)) {
+					openConnections.remove(id);
+				}
+			}
+		}, null, null);
+		connectorServer.start();
+	}
+
+	public void stop() throws IOException {
+		try {
+			if (connectorServer != null) {
+				connectorServer.stop();
+			}
+		}
+		finally {
+			connectorServer = null;
+			if (registry != null) {
+				try {
+					UnicastRemoteObject.unexportObject(registry, true);
+				}
+				catch (NoSuchObjectException e) {
+					// ignore
+				}
+				registry = null;
+			}
+		}
+	}
+
+	private static int findFreePort() throws IOException {
+		ServerSocket socket = new ServerSocket(0);
+		try {
+			return socket.getLocalPort();
+		}
+		finally {
+			socket.close();
+		}
+	}
+
+}
@@ -0,0 +1,180 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.ui;
+
+import java.io.File;
+import java.io.IOException;
+
+import javax.management.JMException;
+import javax.management.remote.JMXConnector;
+
+import org.eclipse.core.commands.AbstractHandler;
+import org.eclipse.core.commands.ExecutionEvent;
+import org.eclipse.core.commands.ExecutionException;
+import org.eclipse.core.filesystem.EFS;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.jface.dialogs.MessageDialog;
+import org.eclipse.jface.viewers.ISelection;
+import org.eclipse.jface.viewers.IStructuredSelection;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.ui.ISources;
+import org.eclipse.ui.IWorkbenchPage;
+import org.eclipse.ui.IWorkbenchWindow;
+import org.eclipse.ui.PartInitException;
+import org.eclipse.ui.handlers.HandlerUtil;
+import org.eclipse.ui.ide.IDE;
+import org.eclipse.ui.statushandlers.StatusManager;
+import org.eclipse.wst.server.core.IServer;
+import org.eclipse.wst.server.ui.IServerModule;
+
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.JmxUtils;
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.ServerDiagnostics;
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.ServerDiagnostics.Kind;
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.TcServerBehaviour;
+
+/**
+ * Captures a thread dump, class histogram or heap dump of the selected server
+ * and opens the capture. After a class histogram is captured, the classes that
+ * grew most across the recent captures are shown.
+ */
+public class CaptureDiagnosticsHandler extends AbstractHandler {
+
+	public static final String PARAMETER_KIND = "com.vmware.server.tc.ui.command.captureDiagnostics.kind";
+
+	/** The number of class histograms that are compared. */
+	private static final int TREND_CAPTURES = 10;
+
+	/** The number of classes that are listed when comparing histograms. */
+	private static final int TREND_CLASSES = 30;
+
+	public Object execute(ExecutionEvent event) throws ExecutionException {
+		IServer server = getSelectedServer(HandlerUtil.getCurrentSelection(event));
+		final TcServerBehaviour behaviour = getBehaviour(server);
+		if (behaviour == null) {
+			return null;
+		}
+		final Kind kind = Kind.valueOf(event.getParameter(PARAMETER_KIND));
+		Shell shell = HandlerUtil.getActiveShell(event);
+		if (kind == Kind.HEAP_DUMP
+				&& !MessageDialog.openConfirm(shell, "Capture Heap Dump",
+						"Writing a heap dump suspends the server and may create a large file. Continue?")) {
+			return null;
+		}
+
+		final IWorkbenchWindow window = HandlerUtil.getActiveWorkbenchWindow(event);
+		Job job = new Job("Capturing diagnostics of " + server.getName()) {
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				monitor.beginTask(getName(), IProgressMonitor.UNKNOWN);
+				try {
+					open(window, kind, capture(behaviour, kind));
+					return Status.OK_STATUS;
+				}
+				catch (IOException e) {
+					return new Status(IStatus.ERROR, TcServerUiPlugin.PLUGIN_ID, "Failed to capture diagnostics", e);
+				}
+				catch (JMException e) {
+					return new Status(IStatus.ERROR, TcServerUiPlugin.PLUGIN_ID, "Failed to capture diagnostics", e);
+				}
+				finally {
+					monitor.done();
+				}
+			}
+		};
+		job.setUser(true);
+		job.schedule();
+		return null;
+	}
+
+	/**
+	 * Captures <code>kind</code> in the calling thread. Heap dumps and class
+	 * histograms of large heaps take longer than the timeout of server
+	 * commands, hence the capture waits for the server as long as it takes.
+	 */
+	private File capture(TcServerBehaviour behaviour, Kind kind) throws IOException, JMException {
+		ServerDiagnostics diagnostics = behaviour.getServerDiagnostics();
+		JMXConnector connector = JmxUtils.getJmxConnector(behaviour);
+		File file;
+		try {
+			file = diagnostics.capture(connector.getMBeanServerConnection(), kind, System.currentTimeMillis());
+		}
+		finally {
+			try {
+				connector.close();
+			}
+			catch (IOException e) {
+				// ignore, the server may have been stopped
+			}
+		}
+		if (kind == Kind.CLASS_HISTOGRAM && diagnostics.getCaptures(kind).size() > 1) {
+			return diagnostics.writeHistogramTrend(TREND_CAPTURES, TREND_CLASSES);
+		}
+		return file;
+	}
+
+	private void open(final IWorkbenchWindow window, final Kind kind, final File file) {
+		Display.getDefault().asyncExec(new Runnable() {
+			public void run() {
+				if (window == null || window.getShell().isDisposed()) {
+					return;
+				}
+				if (kind == Kind.HEAP_DUMP) {
+					MessageDialog.openInformation(window.getShell(), "Capture Heap Dump", "The heap dump was written to "
+							+ file.getAbsolutePath() + ".");
+					return;
+				}
+				IWorkbenchPage page = window.getActivePage();
+				if (page != null) {
+					try {
+						IDE.openEditorOnFileStore(page, EFS.getLocalFileSystem().getStore(file.toURI()));
+					}
+					catch (PartInitException e) {
+						StatusManager.getManager().handle(
+								new Status(IStatus.ERROR, TcServerUiPlugin.PLUGIN_ID, "Failed to open " + file, e),
+								StatusManager.LOG | StatusManager.SHOW);
+					}
+				}
+			}
+		});
+	}
+
+	@Override
+	public void setEnabled(Object evaluationContext) {
+		Object selection = HandlerUtil.getVariable(evaluationContext, ISources.ACTIVE_CURRENT_SELECTION_NAME);
+		IServer server = (selection instanceof ISelection) ? getSelectedServer((ISelection) selection) : null;
+		setBaseEnabled(getBehaviour(server) != null);
+	}
+
+	private TcServerBehaviour getBehaviour(IServer server) {
+		if (server == null || server.getServerState() != IServer.STATE_STARTED) {
+			return null;
+		}
+		return (TcServerBehaviour) server.loadAdapter(TcServerBehaviour.class, null);
+	}
+
+	private IServer getSelectedServer(ISelection selection) {
+		if (selection instanceof IStructuredSelection && !selection.isEmpty()) {
+			Object obj = ((IStructuredSelection) selection).getFirstElement();
+			if (obj instanceof IServer) {
+				return (IServer) obj;
+			}
+			else if (obj instanceof IServerModule) {
+				return ((IServerModule) obj).getServer();
+			}
+		}
+		return null;
+	}
+
+}
@@ -0,0 +1,355 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.ui;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.jface.layout.GridDataFactory;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.events.ModifyEvent;
+import org.eclipse.swt.events.ModifyListener;
+import org.eclipse.swt.events.SelectionAdapter;
+import org.eclipse.swt.events.SelectionEvent;
+import org.eclipse.swt.layout.GridData;
+import org.eclipse.swt.layout.GridLayout;
+import org.eclipse.swt.widgets.Button;
+import org.eclipse.swt.widgets.Combo;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Label;
+import org.eclipse.swt.widgets.Text;
+import org.eclipse.ui.IEditorInput;
+import org.eclipse.ui.IEditorSite;
+import org.eclipse.ui.forms.IFormColors;
+import org.eclipse.ui.forms.widgets.ExpandableComposite;
+import org.eclipse.ui.forms.widgets.FormToolkit;
+import org.eclipse.ui.forms.widgets.Section;
+import org.eclipse.wst.server.ui.editor.ServerEditorSection;
+
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.ConnectorTuning;
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.ConnectorTuning.Protocol;
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.TcServer;
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.TcServerConfiguration;
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.TcServerPort;
+
+/**
+ * Server configuration editor section for tuning the protocol, thread pool,
+ * keep-alive and compression settings of connectors. Changes are written to
+ * server.xml and take effect when the configuration is published.
+ */
+public class ConnectorEditorSection extends ServerEditorSection {
+
+	private class AttributeModifyListener implements ModifyListener {
+
+		private final String attribute;
+
+		public AttributeModifyListener(String attribute) {
+			this.attribute = attribute;
+		}
+
+		public void modifyText(ModifyEvent e) {
+			if (updating || connectorId == null) {
+				return;
+			}
+			try {
+				updating = true;
+				String text = ((Text) e.widget).getText().trim();
+				String value = (text.length() > 0) ? text : null;
+				if (Boolean.TRUE.equals(e.widget.getData())) {
+					execute(new ModifyConnectorAttributeCommand(configuration, connectorId, attribute, value));
+				}
+				else {
+					execute(new ModifyExecutorAttributeCommand(configuration, connectorId, attribute, value));
+				}
+			}
+			finally {
+				updating = false;
+			}
+		}
+	}
+
+	private TcServerConfiguration configuration;
+
+	private PropertyChangeListener listener;
+
+	private final List<TcServerPort> connectors = new ArrayList<TcServerPort>();
+
+	private String connectorId;
+
+	private Combo connectorCombo;
+
+	private Combo protocolCombo;
+
+	private Button executorButton;
+
+	private Text maxThreadsText;
+
+	private Text minSpareThreadsText;
+
+	private Text maxQueueSizeText;
+
+	private Text acceptCountText;
+
+	private Text keepAliveTimeoutText;
+
+	private Text maxKeepAliveRequestsText;
+
+	private Combo compressionCombo;
+
+	protected boolean updating;
+
+	protected void addChangeListener() {
+		listener = new PropertyChangeListener() {
+			public void propertyChange(PropertyChangeEvent event) {
+				if (TcServerConfiguration.MODIFY_CONNECTOR_PROPERTY.equals(event.getPropertyName())) {
+					update();
+				}
+			}
+		};
+		configuration.addPropertyChangeListener(listener);
+	}
+
+	protected Label createLabel(FormToolkit toolkit, Composite parent, String text) {
+		Label label = toolkit.createLabel(parent, text);
+		label.setForeground(toolkit.getColors().getColor(IFormColors.TITLE));
+		return label;
+	}
+
+	@Override
+	public void createSection(Composite parent) {
+		super.createSection(parent);
+		FormToolkit toolkit = getFormToolkit(parent.getDisplay());
+
+		Section section = toolkit.createSection(parent, ExpandableComposite.TWISTIE | ExpandableComposite.TITLE_BAR
+				| Section.DESCRIPTION | ExpandableComposite.FOCUS_TITLE);
+		section.setText("Connector Performance");
+		section.setDescription("Tune the protocol, thread pool and keep-alive settings of connectors. "
+				+ "Leave fields empty to use the defaults of the server.");
+		section.setLayoutData(new GridData(GridData.FILL_HORIZONTAL | GridData.VERTICAL_ALIGN_FILL));
+
+		Composite composite = toolkit.createComposite(section);
+		GridLayout layout = new GridLayout(2, false);
+		layout.marginHeight = 8;
+		layout.marginWidth = 8;
+		composite.setLayout(layout);
+		toolkit.paintBordersFor(composite);
+		section.setClient(composite);
+
+		createLabel(toolkit, composite, "Connector:");
+		connectorCombo = new Combo(composite, SWT.READ_ONLY);
+		toolkit.adapt(connectorCombo);
+		GridDataFactory.fillDefaults().grab(true, false).applyTo(connectorCombo);
+		connectorCombo.addSelectionListener(new SelectionAdapter() {
+			@Override
+			public void widgetSelected(SelectionEvent e) {
+				int index = connectorCombo.getSelectionIndex();
+				connectorId = (index != -1) ? connectors.get(index).getId() : null;
+				update();
+			}
+		});
+
+		createLabel(toolkit, composite, "Protocol:");
+		protocolCombo = new Combo(composite, SWT.READ_ONLY);
+		for (Protocol protocol : Protocol.values()) {
+			protocolCombo.add(protocol.getLabel());
+		}
+		toolkit.adapt(protocolCombo);
+		GridDataFactory.fillDefaults().grab(true, false).applyTo(protocolCombo);
+		protocolCombo.addSelectionListener(new SelectionAdapter() {
+			@Override
+			public void widgetSelected(SelectionEvent e) {
+				int index = protocolCombo.getSelectionIndex();
+				if (index != -1) {
+					modifyConnectorAttribute(ConnectorTuning.ATTRIBUTE_PROTOCOL, Protocol.values()[index].getValue());
+				}
+			}
+		});
+
+		executorButton = toolkit.createButton(composite, "Use shared thread pool", SWT.CHECK);
+		GridDataFactory.fillDefaults().span(2, 1).applyTo(executorButton);
+		executorButton.setToolTipText("Serves requests from an Executor named '" + ConnectorTuning.DEFAULT_EXECUTOR
+				+ "' that can be shared by connectors");
+		executorButton.addSelectionListener(new SelectionAdapter() {
+			@Override
+			public void widgetSelected(SelectionEvent e) {
+				modifyConnectorAttribute(ConnectorTuning.ATTRIBUTE_EXECUTOR,
+						(executorButton.getSelection()) ? ConnectorTuning.DEFAULT_EXECUTOR : null);
+			}
+		});
+
+		createLabel(toolkit, composite, "Max threads:");
+		maxThreadsText = createText(toolkit, composite, ConnectorTuning.ATTRIBUTE_MAX_THREADS);
+
+		createLabel(toolkit, composite, "Min spare threads:");
+		minSpareThreadsText = createText(toolkit, composite, ConnectorTuning.ATTRIBUTE_MIN_SPARE_THREADS);
+
+		createLabel(toolkit, composite, "Max queue size:");
+		maxQueueSizeText = createText(toolkit, composite, ConnectorTuning.ATTRIBUTE_MAX_QUEUE_SIZE);
+
+		// spacer
+		GridDataFactory.fillDefaults().span(2, 1).applyTo(createLabel(toolkit, composite, ""));
+
+		createLabel(toolkit, composite, "Accept count:");
+		acceptCountText = createText(toolkit, composite, ConnectorTuning.ATTRIBUTE_ACCEPT_COUNT);
+
+		createLabel(toolkit, composite, "Keep-alive timeout (ms):");
+		keepAliveTimeoutText = createText(toolkit, composite, ConnectorTuning.ATTRIBUTE_KEEP_ALIVE_TIMEOUT);
+
+		createLabel(toolkit, composite, "Max keep-alive requests:");
+		maxKeepAliveRequestsText = createText(toolkit, composite, ConnectorTuning.ATTRIBUTE_MAX_KEEP_ALIVE_REQUESTS);
+
+		createLabel(toolkit, composite, "Compression:");
+		compressionCombo = new Combo(composite, SWT.READ_ONLY);
+		compressionCombo.add("");
+		for (String value : ConnectorTuning.COMPRESSION_VALUES) {
+			compressionCombo.add(value);
+		}
+		toolkit.adapt(compressionCombo);
+		GridDataFactory.fillDefaults().grab(true, false).applyTo(compressionCombo);
+		compressionCombo.addSelectionListener(new SelectionAdapter() {
+			@Override
+			public void widgetSelected(SelectionEvent e) {
+				String value = compressionCombo.getText();
+				modifyConnectorAttribute(ConnectorTuning.ATTRIBUTE_COMPRESSION, (value.length() > 0) ? value : null);
+			}
+		});
+
+		initialize();
+	}
+
+	private Text createText(FormToolkit toolkit, Composite composite, String attribute) {
+		Text text = toolkit.createText(composite, "");
+		text.addModifyListener(new AttributeModifyListener(attribute));
+		text.setLayoutData(new GridData(GridData.FILL_HORIZONTAL));
+		return text;
+	}
+
+	@Override
+	public void dispose() {
+		if (configuration != null) {
+			configuration.removePropertyChangeListener(listener);
+		}
+	}
+
+	@Override
+	public void init(IEditorSite site, IEditorInput input) {
+		super.init(site, input);
+		TcServer ts = (TcServer) server.loadAdapter(TcServer.class, null);
+		try {
+			configuration = ts.getTomcatConfiguration();
+		}
+		catch (CoreException e) {
+			// ignore
+		}
+		if (configuration != null) {
+			addChangeListener();
+		}
+		initialize();
+	}
+
+	/**
+	 * Initialize the fields in this editor.
+	 */
+	protected void initialize() {
+		if (connectorCombo == null || configuration == null) {
+			return;
+		}
+
+		connectors.clear();
+		connectorCombo.removeAll();
+		for (TcServerPort port : configuration.getTcServerPorts()) {
+			if (!"server".equals(port.getId())) {
+				connectors.add(port);
+				connectorCombo.add(port.getName() + " (" + port.getPortString() + ")");
+			}
+		}
+		if (!connectors.isEmpty()) {
+			connectorCombo.select(0);
+			connectorId = connectors.get(0).getId();
+		}
+		update();
+	}
+
+	private void modifyConnectorAttribute(String attribute, String value) {
+		if (updating || connectorId == null) {
+			return;
+		}
+		try {
+			updating = true;
+			execute(new ModifyConnectorAttributeCommand(configuration, connectorId, attribute, value));
+		}
+		finally {
+			updating = false;
+		}
+		update();
+	}
+
+	private void update() {
+		if (updating || connectorCombo == null || connectorCombo.isDisposed()) {
+			return;
+		}
+		try {
+			updating = true;
+
+			boolean enabled = connectorId != null && !readOnly;
+			Protocol protocol = (connectorId != null) ? Protocol.fromValue(configuration.getConnectorAttribute(
+					connectorId, ConnectorTuning.ATTRIBUTE_PROTOCOL)) : null;
+			protocolCombo.setEnabled(enabled && protocol != null);
+			if (protocol != null) {
+				protocolCombo.select(protocol.ordinal());
+			}
+			else {
+				protocolCombo.deselectAll();
+			}
+
+			boolean shared = connectorId != null
+					&& configuration.getConnectorAttribute(connectorId, ConnectorTuning.ATTRIBUTE_EXECUTOR) != null;
+			executorButton.setEnabled(enabled);
+			executorButton.setSelection(shared);
+
+			// without an executor the connector manages its own thread pool
+			updateText(maxThreadsText, ConnectorTuning.ATTRIBUTE_MAX_THREADS, !shared, enabled);
+			updateText(minSpareThreadsText, ConnectorTuning.ATTRIBUTE_MIN_SPARE_THREADS, !shared, enabled);
+			updateText(maxQueueSizeText, ConnectorTuning.ATTRIBUTE_MAX_QUEUE_SIZE, false, enabled && shared);
+			updateText(acceptCountText, ConnectorTuning.ATTRIBUTE_ACCEPT_COUNT, true, enabled);
+			updateText(keepAliveTimeoutText, ConnectorTuning.ATTRIBUTE_KEEP_ALIVE_TIMEOUT, true, enabled);
+			updateText(maxKeepAliveRequestsText, ConnectorTuning.ATTRIBUTE_MAX_KEEP_ALIVE_REQUESTS, true, enabled);
+
+			String compression = (connectorId != null) ? configuration.getConnectorAttribute(connectorId,
+					ConnectorTuning.ATTRIBUTE_COMPRESSION) : null;
+			compressionCombo.setEnabled(enabled);
+			compressionCombo.setText((compression != null) ? compression : "");
+		}
+		finally {
+			updating = false;
+		}
+	}
+
+	/**
+	 * Shows the value of <code>attribute</code> of the connector or the shared
+	 * executor of the connector. The target is stored as the data of
+	 * <code>text</code> for {@link AttributeModifyListener}.
+	 */
+	private void updateText(Text text, String attribute, boolean connector, boolean enabled) {
+		String value = null;
+		if (connectorId != null) {
+			value = (connector) ? configuration.getConnectorAttribute(connectorId, attribute) : configuration
+					.getExecutorAttribute(connectorId, attribute);
+		}
+		text.setText((value != null) ? value : "");
+		text.setEnabled(enabled);
+		text.setData(Boolean.valueOf(connector));
+	}
+
+}
@@ -0,0 +1,61 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.ui;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import org.eclipse.core.commands.AbstractHandler;
+import org.eclipse.core.commands.ExecutionEvent;
+import org.eclipse.core.commands.ExecutionException;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.jface.dialogs.MessageDialog;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.FileDialog;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.ui.handlers.HandlerUtil;
+
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.PublishMetrics;
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.TcServerCorePlugin;
+
+/**
+ * Writes the metrics collected for publish operations to a JSON file.
+ */
+public class DumpPublishMetricsHandler extends AbstractHandler {
+
+	public Object execute(ExecutionEvent event) throws ExecutionException {
+		Shell shell = HandlerUtil.getActiveShell(event);
+		FileDialog dialog = new FileDialog(shell, SWT.SAVE);
+		dialog.setText("Dump Publish Metrics");
+		dialog.setFileName("publish-metrics.json");
+		dialog.setFilterExtensions(new String[] { "*.json" });
+		dialog.setOverwrite(true);
+		String path = dialog.open();
+		if (path == null) {
+			return null;
+		}
+
+		try {
+			Files.write(Paths.get(path), PublishMetrics.getDefault().toJson().getBytes(StandardCharsets.UTF_8));
+		}
+		catch (IOException e) {
+			TcServerCorePlugin.log(new Status(IStatus.ERROR, TcServerUiPlugin.PLUGIN_ID,
+					"Failed to write publish metrics to " + path, e));
+			MessageDialog.openError(shell, "Dump Publish Metrics", "Failed to write publish metrics: "
+					+ e.getMessage());
+		}
+		return null;
+	}
+
+}
@@ -41,6 +41,7 @@ import org.eclipse.swt.graphics.Image;
 import org.eclipse.swt.layout.GridData;
 import org.eclipse.swt.layout.GridLayout;
 import org.eclipse.swt.widgets.Button;
+import org.eclipse.swt.widgets.Combo;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Label;
 import org.eclipse.swt.widgets.Table;
@@ -59,6 +60,8 @@ import org.eclipse.wst.server.core.IServer;
 import org.eclipse.wst.server.ui.editor.ServerEditorSection;
 
 import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.TcServer;
+import com.vmware.vfabric.ide.eclipse.tcserver.reloading.ReloadingProfile;
+import com.vmware.vfabric.ide.eclipse.tcserver.reloading.ReloadingProfiles;
 
 /**
  * Allows to configure filename patterns to control reloading of web
@@ -142,6 +145,8 @@ public class ExtendedTcStaticResourcesEditorSection extends ServerEditorSection
 
 	private Text agentOptionsText;
 
+	private Combo agentProfileCombo;
+
 	protected void addConfigurationChangeListener() {
 		listener = new PropertyChangeListener() {
 			public void propertyChange(PropertyChangeEvent event) {
@@ -154,6 +159,13 @@ public class ExtendedTcStaticResourcesEditorSection extends ServerEditorSection
 				else if (TcServer.PROPERTY_STATIC_FILENAMES.equals(event.getPropertyName())) {
 					filenamesTableViewer.setInput(server);
 				}
+				else if (TcServer.PROPERTY_AGENT_PROFILE.equals(event.getPropertyName())) {
+					if (!updating) {
+						updating = true;
+						updateAgentProfile();
+						updating = false;
+					}
+				}
 				else if (TcServer.PROPERTY_AGENT_OPTIONS.equals(event.getPropertyName())) {
 					if (!updating) {
 						updating = true;
@@ -235,6 +247,34 @@ public class ExtendedTcStaticResourcesEditorSection extends ServerEditorSection
 		GridDataFactory.fillDefaults().applyTo(optionsComposite);
 		toolkit.paintBordersFor(optionsComposite);
 
+		toolkit.createLabel(optionsComposite, "Profile:");
+		agentProfileCombo = new Combo(optionsComposite, SWT.READ_ONLY);
+		for (ReloadingProfile profile : ReloadingProfiles.getProfiles()) {
+			agentProfileCombo.add(profile.getLabel());
+		}
+		toolkit.adapt(agentProfileCombo);
+		GridDataFactory.fillDefaults().applyTo(agentProfileCombo);
+		agentProfileCombo.addSelectionListener(new SelectionAdapter() {
+			@Override
+			public void widgetSelected(SelectionEvent e) {
+				if (updating) {
+					return;
+				}
+				try {
+					updating = true;
+					int index = agentProfileCombo.getSelectionIndex();
+					if (index != -1) {
+						ReloadingProfile profile = ReloadingProfiles.getProfiles().get(index);
+						agentProfileCombo.setToolTipText(profile.getDescription());
+						execute(new ModifyAgentProfileCommand(serverWorkingCopy, profile.getId()));
+					}
+				}
+				finally {
+					updating = false;
+				}
+			}
+		});
+
 		toolkit.createLabel(optionsComposite, "Options:");
 		agentOptionsText = toolkit.createText(optionsComposite, "");
 		GridDataFactory.fillDefaults().grab(true, false).applyTo(agentOptionsText);
@@ -465,11 +505,18 @@ public class ExtendedTcStaticResourcesEditorSection extends ServerEditorSection
 		enableButton.setSelection(serverWorkingCopy.isEnhancedRedeployEnabled());
 		enableAgentButton.setSelection(serverWorkingCopy.isAgentRedeployEnabled());
 		agentOptionsText.setText(serverWorkingCopy.getAgentOptions());
+		updateAgentProfile();
 		filenamesTableViewer.setInput(server);
 		deleteButton.setEnabled(false);
 		updating = false;
 	}
 
+	private void updateAgentProfile() {
+		ReloadingProfile profile = ReloadingProfiles.getProfile(serverWorkingCopy.getAgentProfile());
+		agentProfileCombo.select(ReloadingProfiles.getProfiles().indexOf(profile));
+		agentProfileCombo.setToolTipText(profile.getDescription());
+	}
+
 	private void updateButtons() {
 		IStructuredSelection selection = (IStructuredSelection) filenamesTableViewer.getSelection();
 		Object selectedArtefact = selection.getFirstElement();
@@ -502,6 +549,7 @@ public class ExtendedTcStaticResourcesEditorSection extends ServerEditorSection
 		addButton.setEnabled(jmxEnabled);
 
 		agentOptionsText.setEnabled(agentEnabled);
+		agentProfileCombo.setEnabled(agentEnabled);
 
 		enableButton.setEnabled(!agentEnabled);
 		enableAgentButton.setEnabled(!jmxEnabled);
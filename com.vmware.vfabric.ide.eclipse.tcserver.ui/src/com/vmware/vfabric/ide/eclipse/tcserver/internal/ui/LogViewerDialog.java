@@ -0,0 +1,476 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.ui;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.jface.dialogs.Dialog;
+import org.eclipse.jface.dialogs.IDialogConstants;
+import org.eclipse.jface.layout.GridDataFactory;
+import org.eclipse.jface.resource.JFaceResources;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.events.ModifyEvent;
+import org.eclipse.swt.events.ModifyListener;
+import org.eclipse.swt.events.SelectionAdapter;
+import org.eclipse.swt.events.SelectionEvent;
+import org.eclipse.swt.graphics.Point;
+import org.eclipse.swt.layout.GridLayout;
+import org.eclipse.swt.widgets.Button;
+import org.eclipse.swt.widgets.Combo;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Event;
+import org.eclipse.swt.widgets.Label;
+import org.eclipse.swt.widgets.Listener;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.swt.widgets.Table;
+import org.eclipse.swt.widgets.TableItem;
+import org.eclipse.swt.widgets.Text;
+import org.eclipse.ui.statushandlers.StatusManager;
+
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.LogFile;
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.LogFile.Level;
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.LogFilter;
+
+/**
+ * Shows the log files of a server instance. Lines are read on demand through
+ * a {@link LogFile}, hence large files can be viewed and filtered without
+ * reading them into memory. While following, appended lines are shown and the
+ * viewer switches to the most recent file of a family of rotated files.
+ * Indexing and filtering run in a {@link RefreshJob}, the table is updated
+ * with the results on the UI thread.
+ */
+public class LogViewerDialog extends Dialog {
+
+	private static final int REFRESH_INTERVAL = 1000;
+
+	private static final int FILTER_DELAY = 300;
+
+	/** The number of lines that are filtered before checking for cancellation. */
+	private static final int FILTER_BATCH = 10000;
+
+	private static final Level[] LEVELS = { Level.SEVERE, Level.WARNING, Level.INFO, Level.CONFIG, Level.FINE,
+			Level.FINER, Level.FINEST };
+
+	private final String serverName;
+
+	private final File directory;
+
+	/** The file that is indexed by the refresh job. */
+	private volatile LogFile logFile;
+
+	private String family;
+
+	/** The filter that is applied by the refresh job. */
+	private volatile LogFilter filter = new LogFilter(null, null, null, -1);
+
+	/** The file that is shown in the table. */
+	private LogFile shownFile;
+
+	private int shownGeneration;
+
+	/** The indices of the shown lines, if a filter is set. */
+	private int[] shownMatches;
+
+	private int shownCount;
+
+	private final RefreshJob refreshJob;
+
+	private Combo familyCombo;
+
+	private Combo levelCombo;
+
+	private Text loggerText;
+
+	private Text patternText;
+
+	private Button followButton;
+
+	private Table table;
+
+	private Label statusLabel;
+
+	private final Runnable refreshRunnable = new Runnable() {
+		public void run() {
+			if (table != null && !table.isDisposed()) {
+				if (followButton.getSelection()) {
+					refresh();
+				}
+				table.getDisplay().timerExec(REFRESH_INTERVAL, this);
+			}
+		}
+	};
+
+	private final Runnable filterRunnable = new Runnable() {
+		public void run() {
+			if (table != null && !table.isDisposed()) {
+				applyFilter();
+			}
+		}
+	};
+
+	public LogViewerDialog(Shell parentShell, String serverName, File directory) {
+		super(parentShell);
+		this.serverName = serverName;
+		this.directory = directory;
+		this.refreshJob = new RefreshJob();
+		setShellStyle(SWT.DIALOG_TRIM | SWT.RESIZE | SWT.MAX | SWT.MODELESS);
+		setBlockOnOpen(false);
+	}
+
+	@Override
+	protected void configureShell(Shell shell) {
+		super.configureShell(shell);
+		shell.setText("Logs of " + serverName);
+	}
+
+	@Override
+	protected Point getInitialSize() {
+		return new Point(900, 600);
+	}
+
+	@Override
+	protected Control createDialogArea(Composite parent) {
+		Composite composite = (Composite) super.createDialogArea(parent);
+
+		Composite controls = new Composite(composite, SWT.NONE);
+		controls.setLayout(new GridLayout(9, false));
+		GridDataFactory.fillDefaults().grab(true, false).applyTo(controls);
+
+		new Label(controls, SWT.NONE).setText("Log:");
+		familyCombo = new Combo(controls, SWT.READ_ONLY);
+		List<String> families = LogFile.getFamilies(directory);
+		familyCombo.setItems(families.toArray(new String[families.size()]));
+		familyCombo.addSelectionListener(new SelectionAdapter() {
+			@Override
+			public void widgetSelected(SelectionEvent e) {
+				openFamily(familyCombo.getText());
+			}
+		});
+
+		new Label(controls, SWT.NONE).setText("Level:");
+		levelCombo = new Combo(controls, SWT.READ_ONLY);
+		levelCombo.add("All");
+		for (Level level : LEVELS) {
+			levelCombo.add(level.name());
+		}
+		levelCombo.select(0);
+		levelCombo.addSelectionListener(new SelectionAdapter() {
+			@Override
+			public void widgetSelected(SelectionEvent e) {
+				applyFilter();
+			}
+		});
+
+		ModifyListener modifyListener = new ModifyListener() {
+			public void modifyText(ModifyEvent e) {
+				table.getDisplay().timerExec(FILTER_DELAY, filterRunnable);
+			}
+		};
+		new Label(controls, SWT.NONE).setText("Logger:");
+		loggerText = new Text(controls, SWT.BORDER);
+		GridDataFactory.fillDefaults().hint(150, SWT.DEFAULT).applyTo(loggerText);
+		loggerText.addModifyListener(modifyListener);
+
+		new Label(controls, SWT.NONE).setText("Find:");
+		patternText = new Text(controls, SWT.BORDER);
+		patternText.setMessage("Regular expression");
+		GridDataFactory.fillDefaults().grab(true, false).applyTo(patternText);
+		patternText.addModifyListener(modifyListener);
+
+		followButton = new Button(controls, SWT.CHECK);
+		followButton.setText("Follow");
+		followButton.setSelection(true);
+
+		table = new Table(composite, SWT.VIRTUAL | SWT.FULL_SELECTION | SWT.MULTI | SWT.BORDER);
+		table.setFont(JFaceResources.getTextFont());
+		GridDataFactory.fillDefaults().grab(true, true).applyTo(table);
+		table.addListener(SWT.SetData, new Listener() {
+			public void handleEvent(Event event) {
+				updateItem((TableItem) event.item, event.index);
+			}
+		});
+
+		statusLabel = new Label(composite, SWT.NONE);
+		GridDataFactory.fillDefaults().grab(true, false).applyTo(statusLabel);
+
+		if (families.size() > 0) {
+			String initial = families.contains("catalina.out") ? "catalina.out" : families.get(0);
+			familyCombo.setText(initial);
+			openFamily(initial);
+		}
+		else {
+			statusLabel.setText("No log files found in " + directory + ".");
+		}
+		table.getDisplay().timerExec(REFRESH_INTERVAL, refreshRunnable);
+		return composite;
+	}
+
+	@Override
+	protected void createButtonsForButtonBar(Composite parent) {
+		createButton(parent, IDialogConstants.CLOSE_ID, IDialogConstants.CLOSE_LABEL, true);
+	}
+
+	@Override
+	protected void buttonPressed(int buttonId) {
+		if (buttonId == IDialogConstants.CLOSE_ID) {
+			close();
+		}
+		else {
+			super.buttonPressed(buttonId);
+		}
+	}
+
+	@Override
+	public boolean close() {
+		refreshJob.cancel();
+		closeLogFile();
+		return super.close();
+	}
+
+	private void openFamily(String family) {
+		this.family = family;
+		File file = LogFile.getLatest(directory, family);
+		closeLogFile();
+		logFile = (file != null) ? new LogFile(file) : null;
+		refresh();
+	}
+
+	private void closeLogFile() {
+		LogFile file = logFile;
+		logFile = null;
+		shownFile = null;
+		shownCount = 0;
+		if (table != null && !table.isDisposed()) {
+			table.setItemCount(0);
+		}
+		if (file != null) {
+			close(file);
+		}
+	}
+
+	private static void close(LogFile file) {
+		try {
+			file.close();
+		}
+		catch (IOException e) {
+			// ignore
+		}
+	}
+
+	private void applyFilter() {
+		Level level = (levelCombo.getSelectionIndex() > 0) ? LEVELS[levelCombo.getSelectionIndex() - 1] : null;
+		Pattern pattern = null;
+		if (patternText.getText().length() > 0) {
+			try {
+				pattern = Pattern.compile(patternText.getText());
+			}
+			catch (PatternSyntaxException e) {
+				statusLabel.setText("Invalid regular expression: " + e.getDescription());
+				return;
+			}
+		}
+		filter = new LogFilter(level, loggerText.getText().trim(), pattern, -1);
+		// abort filtering with the previous filter
+		refreshJob.cancel();
+		refresh();
+	}
+
+	/**
+	 * Schedules indexing of appended lines. If the file was rotated, the most
+	 * recent file of the family is opened.
+	 */
+	private void refresh() {
+		if (family == null) {
+			return;
+		}
+		File latest = LogFile.getLatest(directory, family);
+		if (latest != null && (logFile == null || !latest.equals(logFile.getFile()))) {
+			closeLogFile();
+			logFile = new LogFile(latest);
+		}
+		if (logFile == null) {
+			table.setItemCount(0);
+			statusLabel.setText("No log files found for " + family + ".");
+			return;
+		}
+		refreshJob.schedule();
+	}
+
+	/**
+	 * Shows the lines of <code>file</code>. Invoked on the UI thread with the
+	 * results of the refresh job.
+	 * @param matches the indices of the lines that match <code>filter</code>
+	 * or null, if no filter is set
+	 */
+	private void show(LogFile file, LogFilter filter, int generation, int[] matches, int count, int lineCount) {
+		if (table.isDisposed() || file != logFile || filter != this.filter) {
+			// the results are stale, the job has been rescheduled
+			return;
+		}
+		if (file != shownFile || generation != shownGeneration) {
+			table.clearAll();
+		}
+		shownFile = file;
+		shownGeneration = generation;
+		shownMatches = matches;
+		shownCount = count;
+		table.setItemCount(count);
+		if (followButton.getSelection() && count > 0) {
+			table.setTopIndex(count - 1);
+		}
+		statusLabel.setText(String.format("%,d of %,d lines of %s", count, lineCount, file.getFile().getName()));
+	}
+
+	private void showError(LogFile file, IOException e) {
+		if (table.isDisposed() || file != logFile) {
+			return;
+		}
+		StatusManager.getManager().handle(
+				new Status(IStatus.WARNING, TcServerUiPlugin.PLUGIN_ID, "Failed to read " + file.getFile(), e),
+				StatusManager.LOG);
+		statusLabel.setText("Failed to read " + file.getFile().getName() + ": " + e.getMessage());
+	}
+
+	private void updateItem(TableItem item, int index) {
+		LogFile file = shownFile;
+		if (file == null || index >= shownCount) {
+			return;
+		}
+		int line = (shownMatches != null) ? shownMatches[index] : index;
+		try {
+			String text;
+			Level level;
+			synchronized (file) {
+				// the index is rebuilt if the file was truncated
+				if (file.getGeneration() != shownGeneration || line >= file.getLineCount()) {
+					return;
+				}
+				text = file.getLine(line);
+				level = file.getLevel(line);
+			}
+			item.setText(text);
+			if (level == Level.SEVERE) {
+				item.setForeground(table.getDisplay().getSystemColor(SWT.COLOR_DARK_RED));
+			}
+			else if (level == Level.WARNING) {
+				item.setForeground(table.getDisplay().getSystemColor(SWT.COLOR_DARK_YELLOW));
+			}
+			else {
+				item.setForeground(null);
+			}
+		}
+		catch (IOException e) {
+			item.setText("");
+		}
+	}
+
+	/**
+	 * Indexes appended lines and filters them in the background. Matches are
+	 * accumulated across runs, hence only appended lines are filtered unless
+	 * the file, the filter or the generation of the index changes.
+	 */
+	private class RefreshJob extends Job {
+
+		private LogFile file;
+
+		private LogFilter filter;
+
+		private int generation;
+
+		private int[] matches = new int[0];
+
+		private int matchCount;
+
+		/** The number of lines that were filtered. */
+		private int filteredLines;
+
+		public RefreshJob() {
+			super("Refreshing logs of " + serverName);
+			setSystem(true);
+		}
+
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			final LogFile file = logFile;
+			final LogFilter filter = LogViewerDialog.this.filter;
+			if (file == null) {
+				return Status.OK_STATUS;
+			}
+			try {
+				boolean changed = file.update();
+				if (file != this.file || filter != this.filter || file.getGeneration() != generation) {
+					this.file = file;
+					this.filter = filter;
+					generation = file.getGeneration();
+					// allocate a new array since the table may still show the
+					// previous matches
+					matches = new int[0];
+					matchCount = 0;
+					filteredLines = 0;
+					changed = true;
+				}
+				final int lineCount = file.getLineCount();
+				while (!filter.isEmpty() && filteredLines < lineCount) {
+					if (monitor.isCanceled()) {
+						return Status.CANCEL_STATUS;
+					}
+					int toIndex = Math.min(filteredLines + FILTER_BATCH, lineCount);
+					int[] result = file.filter(filter, filteredLines, toIndex);
+					if (matchCount + result.length > matches.length) {
+						matches = Arrays.copyOf(matches, Math.max(matches.length * 2, matchCount + result.length));
+					}
+					System.arraycopy(result, 0, matches, matchCount, result.length);
+					matchCount += result.length;
+					filteredLines = toIndex;
+					changed = true;
+				}
+				if (changed) {
+					// matches below matchCount are not modified by later runs
+					final int[] shownMatches = filter.isEmpty() ? null : matches;
+					final int count = filter.isEmpty() ? lineCount : matchCount;
+					final int shownGeneration = generation;
+					Display.getDefault().asyncExec(new Runnable() {
+						public void run() {
+							show(file, filter, shownGeneration, shownMatches, count, lineCount);
+						}
+					});
+				}
+			}
+			catch (final IOException e) {
+				Display.getDefault().asyncExec(new Runnable() {
+					public void run() {
+						showError(file, e);
+					}
+				});
+			}
+			finally {
+				if (file != logFile) {
+					// the file was closed while it was indexed
+					close(file);
+				}
+			}
+			return Status.OK_STATUS;
+		}
+
+	}
+
+}
@@ -0,0 +1,51 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.ui;
+
+import org.eclipse.jst.server.tomcat.core.internal.command.ConfigurationCommand;
+
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.TcServerConfiguration;
+
+/**
+ * Command to change an attribute of the shared executor that is used by a
+ * connector in the server configuration.
+ */
+public class ModifyExecutorAttributeCommand extends ConfigurationCommand {
+
+	protected String id;
+
+	protected String name;
+
+	protected String value;
+
+	protected String oldValue;
+
+	private final TcServerConfiguration tcServerConfiguration;
+
+	public ModifyExecutorAttributeCommand(TcServerConfiguration configuration, String id, String name, String value) {
+		super(configuration, "Modify executor");
+		this.tcServerConfiguration = configuration;
+		this.id = id;
+		this.name = name;
+		this.value = value;
+	}
+
+	@Override
+	public void execute() {
+		oldValue = tcServerConfiguration.getExecutorAttribute(id, name);
+		tcServerConfiguration.modifyExecutorAttribute(id, name, value);
+	}
+
+	@Override
+	public void undo() {
+		tcServerConfiguration.modifyExecutorAttribute(id, name, oldValue);
+	}
+}
@@ -0,0 +1,57 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.ui;
+
+import org.eclipse.core.commands.ExecutionException;
+import org.eclipse.core.commands.operations.AbstractOperation;
+import org.eclipse.core.runtime.IAdaptable;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.TcServer;
+
+/**
+ * {@link AbstractOperation} to enable/disable skipping of jars that do not
+ * need to be scanned on startup.
+ */
+public class ModifyJarScanOptimizationCommand extends AbstractOperation {
+
+	private final TcServer workingCopy;
+
+	private final boolean oldValue;
+
+	private final boolean newValue;
+
+	public ModifyJarScanOptimizationCommand(TcServer workingCopy, boolean newValue) {
+		super("Modify jar scanning");
+		this.workingCopy = workingCopy;
+		this.oldValue = workingCopy.isJarScanOptimizationEnabled();
+		this.newValue = newValue;
+	}
+
+	@Override
+	public IStatus execute(IProgressMonitor monitor, IAdaptable info) throws ExecutionException {
+		workingCopy.setJarScanOptimizationEnabled(newValue);
+		return Status.OK_STATUS;
+	}
+
+	@Override
+	public IStatus redo(IProgressMonitor monitor, IAdaptable info) throws ExecutionException {
+		return execute(monitor, info);
+	}
+
+	@Override
+	public IStatus undo(IProgressMonitor monitor, IAdaptable info) throws ExecutionException {
+		workingCopy.setJarScanOptimizationEnabled(oldValue);
+		return Status.OK_STATUS;
+	}
+}
@@ -0,0 +1,77 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.ui;
+
+import org.eclipse.core.commands.ExecutionException;
+import org.eclipse.core.commands.operations.AbstractOperation;
+import org.eclipse.core.runtime.IAdaptable;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.TcServer;
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.TcServerConfiguration;
+
+/**
+ * {@link AbstractOperation} to enable/disable starting of contexts in
+ * parallel. The settings in server.xml are sized when the configuration is
+ * saved, disabling restores serial startup.
+ */
+public class ModifyParallelStartupCommand extends AbstractOperation {
+
+	private final TcServer workingCopy;
+
+	private final TcServerConfiguration configuration;
+
+	private final boolean oldValue;
+
+	private final boolean newValue;
+
+	private final String oldStartStopThreads;
+
+	private final boolean oldParallelAnnotationScanning;
+
+	public ModifyParallelStartupCommand(TcServer workingCopy, TcServerConfiguration configuration, boolean newValue) {
+		super("Modify parallel startup");
+		this.workingCopy = workingCopy;
+		this.configuration = configuration;
+		this.oldValue = workingCopy.isParallelStartupEnabled();
+		this.newValue = newValue;
+		this.oldStartStopThreads = (configuration != null) ? configuration.getStartStopThreads() : null;
+		this.oldParallelAnnotationScanning = (configuration != null) ? configuration.isParallelAnnotationScanning()
+				: false;
+	}
+
+	@Override
+	public IStatus execute(IProgressMonitor monitor, IAdaptable info) throws ExecutionException {
+		workingCopy.setParallelStartupEnabled(newValue);
+		if (!newValue && configuration != null) {
+			configuration.modifyStartStopThreads(null);
+			configuration.modifyParallelAnnotationScanning(false);
+		}
+		return Status.OK_STATUS;
+	}
+
+	@Override
+	public IStatus redo(IProgressMonitor monitor, IAdaptable info) throws ExecutionException {
+		return execute(monitor, info);
+	}
+
+	@Override
+	public IStatus undo(IProgressMonitor monitor, IAdaptable info) throws ExecutionException {
+		workingCopy.setParallelStartupEnabled(oldValue);
+		if (!newValue && configuration != null) {
+			configuration.modifyStartStopThreads(oldStartStopThreads);
+			configuration.modifyParallelAnnotationScanning(oldParallelAnnotationScanning);
+		}
+		return Status.OK_STATUS;
+	}
+}
@@ -0,0 +1,252 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.ui;
+
+import java.util.Locale;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.jface.layout.GridDataFactory;
+import org.eclipse.jface.viewers.ArrayContentProvider;
+import org.eclipse.jface.viewers.ITableLabelProvider;
+import org.eclipse.jface.viewers.LabelProvider;
+import org.eclipse.jface.viewers.TableViewer;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.layout.GridLayout;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Event;
+import org.eclipse.swt.widgets.Label;
+import org.eclipse.swt.widgets.Listener;
+import org.eclipse.swt.widgets.Table;
+import org.eclipse.swt.widgets.TableColumn;
+import org.eclipse.ui.IEditorInput;
+import org.eclipse.ui.IEditorSite;
+import org.eclipse.ui.forms.widgets.ExpandableComposite;
+import org.eclipse.ui.forms.widgets.FormToolkit;
+import org.eclipse.ui.forms.widgets.ScrolledForm;
+import org.eclipse.ui.forms.widgets.Section;
+import org.eclipse.wst.server.core.IServer;
+import org.eclipse.wst.server.ui.editor.ServerEditorPart;
+
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.SampleRing;
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.ServerMonitor;
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.TcServerBehaviour;
+
+/**
+ * Server editor page that shows heap, GC, thread and per-context request
+ * metrics of the running server. Metrics are only sampled while the page is
+ * visible.
+ */
+public class MonitorEditorPage extends ServerEditorPart {
+
+	private static final String[] COLUMNS = { "Context", "Requests/s", "Mean Time", "Sessions" };
+
+	private static final int[] COLUMN_WIDTHS = { 160, 80, 80, 70 };
+
+	private static final double MB = 1024 * 1024;
+
+	private class ContextLabelProvider extends LabelProvider implements ITableLabelProvider {
+
+		public Image getColumnImage(Object element, int columnIndex) {
+			return null;
+		}
+
+		public String getColumnText(Object element, int columnIndex) {
+			String path = (String) element;
+			switch (columnIndex) {
+			case 0:
+				return path;
+			case 1:
+				return format(monitor.getSeries(ServerMonitor.CONTEXT_REQUESTS + path), "%.1f");
+			case 2:
+				return format(monitor.getSeries(ServerMonitor.CONTEXT_PROCESSING_TIME + path), "%.1f ms");
+			case 3:
+				return format(monitor.getSeries(ServerMonitor.CONTEXT_SESSIONS + path), "%.0f");
+			}
+			return "";
+		}
+
+	}
+
+	private ServerMonitor monitor;
+
+	private ServerMonitor.Listener monitorListener;
+
+	private boolean subscribed;
+
+	private ScrolledForm form;
+
+	private Label statusLabel;
+
+	private SampleChart heapChart;
+
+	private SampleChart gcChart;
+
+	private SampleChart threadsChart;
+
+	private TableViewer contextViewer;
+
+	@Override
+	public void init(IEditorSite site, IEditorInput input) {
+		super.init(site, input);
+		IServer original = server.getOriginal();
+		TcServerBehaviour behaviour = (original != null)
+				? (TcServerBehaviour) original.loadAdapter(TcServerBehaviour.class, null)
+				: null;
+		if (behaviour != null) {
+			monitor = behaviour.getServerMonitor();
+			monitorListener = new ServerMonitor.Listener() {
+				public void samplesChanged(ServerMonitor monitor) {
+					Display.getDefault().asyncExec(new Runnable() {
+						public void run() {
+							if (form != null && !form.isDisposed()) {
+								refresh();
+							}
+						}
+					});
+				}
+			};
+		}
+	}
+
+	@Override
+	public void createPartControl(final Composite parent) {
+		FormToolkit toolkit = getFormToolkit(parent.getDisplay());
+		form = toolkit.createScrolledForm(parent);
+		form.setText("Monitoring");
+		Composite body = form.getBody();
+		body.setLayout(new GridLayout(2, true));
+
+		statusLabel = toolkit.createLabel(body, "", SWT.WRAP);
+		GridDataFactory.fillDefaults().span(2, 1).grab(true, false).applyTo(statusLabel);
+
+		heapChart = createChart(toolkit, body, "Heap", "Used and committed heap memory.", MB, "MB");
+		gcChart = createChart(toolkit, body, "Garbage Collection", "Time spent in garbage collection per second.", 1,
+				"ms/s");
+		threadsChart = createChart(toolkit, body, "Threads", "Live threads and busy threads of connector pools.", 1,
+				"");
+
+		Section section = createSection(toolkit, body, "Web Applications",
+				"Requests, mean processing time and active sessions per context.");
+		Table table = toolkit.createTable(section, SWT.FULL_SELECTION);
+		table.setHeaderVisible(true);
+		table.setLinesVisible(true);
+		for (int i = 0; i < COLUMNS.length; i++) {
+			TableColumn column = new TableColumn(table, (i == 0) ? SWT.LEFT : SWT.RIGHT);
+			column.setText(COLUMNS[i]);
+			column.setWidth(COLUMN_WIDTHS[i]);
+		}
+		GridDataFactory.fillDefaults().grab(true, false).hint(SWT.DEFAULT, 120).applyTo(table);
+		section.setClient(table);
+		contextViewer = new TableViewer(table);
+		contextViewer.setContentProvider(new ArrayContentProvider());
+		contextViewer.setLabelProvider(new ContextLabelProvider());
+
+		// only sample while the page is shown
+		Listener visibilityListener = new Listener() {
+			public void handleEvent(Event event) {
+				updateSubscription(event.type == SWT.Show);
+			}
+		};
+		parent.addListener(SWT.Show, visibilityListener);
+		parent.addListener(SWT.Hide, visibilityListener);
+		updateSubscription(parent.isVisible());
+
+		refresh();
+	}
+
+	private SampleChart createChart(FormToolkit toolkit, Composite parent, String title, String description,
+			double scale, String unit) {
+		Section section = createSection(toolkit, parent, title, description);
+		SampleChart chart = new SampleChart(section, scale, unit);
+		section.setClient(chart);
+		return chart;
+	}
+
+	private Section createSection(FormToolkit toolkit, Composite parent, String title, String description) {
+		Section section = toolkit.createSection(parent, ExpandableComposite.TITLE_BAR | Section.DESCRIPTION);
+		section.setText(title);
+		section.setDescription(description);
+		GridDataFactory.fillDefaults().grab(true, false).applyTo(section);
+		return section;
+	}
+
+	@Override
+	public void dispose() {
+		updateSubscription(false);
+		super.dispose();
+	}
+
+	@Override
+	public void setFocus() {
+		if (form != null) {
+			form.setFocus();
+		}
+	}
+
+	private void updateSubscription(boolean visible) {
+		if (monitor == null || visible == subscribed) {
+			return;
+		}
+		subscribed = visible;
+		if (visible) {
+			monitor.addListener(monitorListener);
+		}
+		else {
+			monitor.removeListener(monitorListener);
+		}
+	}
+
+	private void refresh() {
+		if (monitor == null) {
+			statusLabel.setText("Monitoring is not available for this server.");
+			return;
+		}
+
+		IStatus status = monitor.getStatus();
+		if (!status.isOK()) {
+			statusLabel.setText(status.getMessage()
+					+ ((status.getException() != null) ? ": " + status.getException().getMessage() : ""));
+		}
+		else {
+			statusLabel.setText(String.format(Locale.ENGLISH, "Sampling every %d s through JMX.",
+					monitor.getInterval() / 1000));
+		}
+
+		heapChart.clearSeries();
+		heapChart.addSeries("Used", monitor.getSeries(ServerMonitor.HEAP_USED));
+		heapChart.addSeries("Committed", monitor.getSeries(ServerMonitor.HEAP_COMMITTED));
+		heapChart.redraw();
+
+		gcChart.clearSeries();
+		gcChart.addSeries("GC", monitor.getSeries(ServerMonitor.GC_TIME));
+		gcChart.redraw();
+
+		threadsChart.clearSeries();
+		threadsChart.addSeries("Live", monitor.getSeries(ServerMonitor.THREADS));
+		for (String pool : monitor.getNames(ServerMonitor.THREAD_POOL_BUSY)) {
+			threadsChart.addSeries(pool, monitor.getSeries(ServerMonitor.THREAD_POOL_BUSY + pool));
+		}
+		threadsChart.redraw();
+
+		contextViewer.setInput(monitor.getNames(ServerMonitor.CONTEXT_REQUESTS).toArray());
+		form.getBody().layout();
+	}
+
+	private static String format(SampleRing ring, String format) {
+		if (ring == null || ring.size() == 0) {
+			return "";
+		}
+		return String.format(Locale.ENGLISH, format, ring.getLastValue());
+	}
+
+}
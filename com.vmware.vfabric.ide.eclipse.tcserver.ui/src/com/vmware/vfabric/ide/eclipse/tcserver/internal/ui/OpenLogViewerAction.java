@@ -0,0 +1,60 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.ui;
+
+import java.io.File;
+
+import org.eclipse.jface.action.IAction;
+import org.eclipse.jface.viewers.ISelection;
+import org.eclipse.jface.viewers.IStructuredSelection;
+import org.eclipse.ui.IObjectActionDelegate;
+import org.eclipse.ui.IWorkbenchPart;
+import org.eclipse.wst.server.core.IServer;
+
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.TcServerBehaviour;
+
+/**
+ * Opens the log files of the selected server instance.
+ */
+public class OpenLogViewerAction implements IObjectActionDelegate {
+
+	private IWorkbenchPart targetPart;
+
+	private IServer selectedServer;
+
+	public void run(IAction action) {
+		if (selectedServer == null) {
+			return;
+		}
+		TcServerBehaviour behaviour = (TcServerBehaviour) selectedServer.loadAdapter(TcServerBehaviour.class, null);
+		if (behaviour != null) {
+			File directory = behaviour.getRuntimeBaseDirectory().append("logs").toFile();
+			LogViewerDialog dialog = new LogViewerDialog(targetPart.getSite().getShell(), selectedServer.getName(),
+					directory);
+			dialog.open();
+		}
+	}
+
+	public void selectionChanged(IAction action, ISelection selection) {
+		selectedServer = null;
+		if (selection instanceof IStructuredSelection && !selection.isEmpty()) {
+			Object obj = ((IStructuredSelection) selection).getFirstElement();
+			if (obj instanceof IServer) {
+				selectedServer = (IServer) obj;
+			}
+		}
+	}
+
+	public void setActivePart(IAction action, IWorkbenchPart targetPart) {
+		this.targetPart = targetPart;
+	}
+
+}
@@ -0,0 +1,213 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.ui;
+
+import java.util.Locale;
+
+import org.eclipse.jface.layout.GridDataFactory;
+import org.eclipse.jface.viewers.ArrayContentProvider;
+import org.eclipse.jface.viewers.ITableLabelProvider;
+import org.eclipse.jface.viewers.LabelProvider;
+import org.eclipse.jface.viewers.TableViewer;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.events.SelectionAdapter;
+import org.eclipse.swt.events.SelectionEvent;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.layout.GridData;
+import org.eclipse.swt.layout.GridLayout;
+import org.eclipse.swt.widgets.Button;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Table;
+import org.eclipse.swt.widgets.TableColumn;
+import org.eclipse.ui.IEditorInput;
+import org.eclipse.ui.IEditorSite;
+import org.eclipse.ui.forms.widgets.ExpandableComposite;
+import org.eclipse.ui.forms.widgets.FormToolkit;
+import org.eclipse.ui.forms.widgets.Section;
+import org.eclipse.wst.server.core.IServer;
+import org.eclipse.wst.server.ui.editor.ServerEditorSection;
+
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.ReloadStatistics;
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.ReloadStatistics.ModuleStatistics;
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.TcServerBehaviour;
+
+/**
+ * Server editor section that shows the latency and failures of types reloaded
+ * by the Spring Loaded agent for each module.
+ */
+public class ReloadStatisticsEditorSection extends ServerEditorSection {
+
+	private static final String[] COLUMNS = { "Module", "Reloads", "Failed", "Median \u2264", "99% \u2264", "Max",
+			"Last Type" };
+
+	/**
+	 * Percentiles are read from a histogram with power of two buckets, hence
+	 * only an upper bound is known.
+	 */
+	private static final String[] COLUMN_TOOLTIPS = { null, null, null,
+			"Upper bound of the median latency, accurate within a factor of two",
+			"Upper bound of the 99th percentile latency, accurate within a factor of two", null, null };
+
+	private static final int[] COLUMN_WIDTHS = { 120, 60, 50, 70, 70, 60, 200 };
+
+	private class StatisticsLabelProvider extends LabelProvider implements ITableLabelProvider {
+
+		public Image getColumnImage(Object element, int columnIndex) {
+			return null;
+		}
+
+		public String getColumnText(Object element, int columnIndex) {
+			ModuleStatistics statistics = (ModuleStatistics) element;
+			switch (columnIndex) {
+			case 0:
+				return statistics.getName();
+			case 1:
+				return Long.toString(statistics.getReloadCount());
+			case 2:
+				return Long.toString(statistics.getFailureCount());
+			case 3:
+				return formatLatency(statistics.getLatencyCount(), statistics.getP50Latency());
+			case 4:
+				return formatLatency(statistics.getLatencyCount(), statistics.getP99Latency());
+			case 5:
+				return formatLatency(statistics.getLatencyCount(), statistics.getMaxLatency());
+			case 6:
+				return (statistics.getLastType() != null) ? statistics.getLastType() : "";
+			}
+			return "";
+		}
+
+	}
+
+	private ReloadStatistics statistics;
+
+	private ReloadStatistics.Listener listener;
+
+	private TableViewer viewer;
+
+	private boolean refreshScheduled;
+
+	@Override
+	public void createSection(Composite parent) {
+		super.createSection(parent);
+		FormToolkit toolkit = getFormToolkit(parent.getDisplay());
+
+		Section section = toolkit.createSection(parent, ExpandableComposite.TWISTIE | ExpandableComposite.TITLE_BAR
+				| Section.DESCRIPTION | ExpandableComposite.FOCUS_TITLE);
+		section.setText("Reload Statistics");
+		section.setDescription(
+				"Latency from the modification of a class file to its reload by the agent since the server was started.");
+		section.setLayoutData(new GridData(GridData.FILL_HORIZONTAL | GridData.VERTICAL_ALIGN_FILL));
+
+		Composite composite = toolkit.createComposite(section);
+		GridLayout layout = new GridLayout(2, false);
+		layout.marginHeight = 5;
+		layout.marginWidth = 1;
+		layout.horizontalSpacing = 10;
+		composite.setLayout(layout);
+		toolkit.paintBordersFor(composite);
+		section.setClient(composite);
+
+		Table table = toolkit.createTable(composite, SWT.SINGLE | SWT.V_SCROLL | SWT.H_SCROLL | SWT.FULL_SELECTION);
+		table.setHeaderVisible(true);
+		for (int i = 0; i < COLUMNS.length; i++) {
+			TableColumn column = new TableColumn(table, (i == 0 || i == COLUMNS.length - 1) ? SWT.LEFT : SWT.RIGHT);
+			column.setText(COLUMNS[i]);
+			column.setToolTipText(COLUMN_TOOLTIPS[i]);
+			column.setWidth(COLUMN_WIDTHS[i]);
+		}
+		GridDataFactory.fillDefaults().grab(true, false).hint(SWT.DEFAULT, 100).applyTo(table);
+		viewer = new TableViewer(table);
+		viewer.setContentProvider(new ArrayContentProvider());
+		viewer.setLabelProvider(new StatisticsLabelProvider());
+
+		Button resetButton = toolkit.createButton(composite, "Reset", SWT.PUSH);
+		GridDataFactory.fillDefaults().align(SWT.FILL, SWT.BEGINNING).applyTo(resetButton);
+		resetButton.addSelectionListener(new SelectionAdapter() {
+			@Override
+			public void widgetSelected(SelectionEvent e) {
+				if (statistics != null) {
+					statistics.reset();
+				}
+			}
+		});
+		resetButton.setEnabled(statistics != null);
+
+		initialize();
+	}
+
+	@Override
+	public void init(IEditorSite site, IEditorInput input) {
+		super.init(site, input);
+		IServer original = (server != null) ? server.getOriginal() : null;
+		TcServerBehaviour behaviour = (original != null)
+				? (TcServerBehaviour) original.loadAdapter(TcServerBehaviour.class, null)
+				: null;
+		if (behaviour != null) {
+			statistics = behaviour.getReloadStatistics();
+			listener = new ReloadStatistics.Listener() {
+				public void statisticsChanged(ReloadStatistics statistics) {
+					scheduleRefresh();
+				}
+			};
+			statistics.addListener(listener);
+		}
+		initialize();
+	}
+
+	@Override
+	public void dispose() {
+		if (statistics != null) {
+			statistics.removeListener(listener);
+		}
+		super.dispose();
+	}
+
+	protected void initialize() {
+		if (viewer == null || statistics == null) {
+			return;
+		}
+		viewer.setInput(statistics.getModules());
+	}
+
+	/**
+	 * Coalesces refreshes since events may arrive in bursts when many types
+	 * are reloaded.
+	 */
+	private synchronized void scheduleRefresh() {
+		if (refreshScheduled || viewer == null) {
+			return;
+		}
+		refreshScheduled = true;
+		Display.getDefault().asyncExec(new Runnable() {
+			public void run() {
+				synchronized (ReloadStatisticsEditorSection.this) {
+					refreshScheduled = false;
+				}
+				if (!viewer.getControl().isDisposed()) {
+					initialize();
+				}
+			}
+		});
+	}
+
+	private static String formatLatency(long count, long latency) {
+		if (count == 0) {
+			return "";
+		}
+		if (latency < 1000) {
+			return latency + " ms";
+		}
+		return String.format(Locale.ENGLISH, "%.1f s", latency / 1000.0);
+	}
+
+}
@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.ui;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.events.PaintEvent;
+import org.eclipse.swt.events.PaintListener;
+import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.graphics.Point;
+import org.eclipse.swt.graphics.Rectangle;
+import org.eclipse.swt.widgets.Canvas;
+import org.eclipse.swt.widgets.Composite;
+
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.SampleRing;
+
+/**
+ * Draws the values of one or more {@link SampleRing}s as lines that share a
+ * vertical scale. The newest sample is drawn at the right edge.
+ */
+public class SampleChart extends Canvas {
+
+	private static final int[] COLORS = { SWT.COLOR_DARK_BLUE, SWT.COLOR_DARK_GREEN, SWT.COLOR_DARK_RED,
+			SWT.COLOR_DARK_MAGENTA, SWT.COLOR_DARK_CYAN, SWT.COLOR_DARK_YELLOW };
+
+	private final List<SampleRing> series = new ArrayList<SampleRing>();
+
+	private final List<String> labels = new ArrayList<String>();
+
+	private final double scale;
+
+	private final String unit;
+
+	private double[] buffer = new double[0];
+
+	/**
+	 * @param scale values are divided by scale for display, e.g. to show bytes
+	 * as megabytes
+	 * @param unit the unit of the scaled values
+	 */
+	public SampleChart(Composite parent, double scale, String unit) {
+		super(parent, SWT.DOUBLE_BUFFERED);
+		this.scale = scale;
+		this.unit = unit;
+		addPaintListener(new PaintListener() {
+			public void paintControl(PaintEvent e) {
+				paint(e.gc);
+			}
+		});
+	}
+
+	public void clearSeries() {
+		series.clear();
+		labels.clear();
+	}
+
+	public void addSeries(String label, SampleRing ring) {
+		if (ring != null) {
+			series.add(ring);
+			labels.add(label);
+		}
+	}
+
+	@Override
+	public Point computeSize(int wHint, int hHint, boolean changed) {
+		return new Point((wHint != SWT.DEFAULT) ? wHint : 300, (hHint != SWT.DEFAULT) ? hHint : 120);
+	}
+
+	private void paint(GC gc) {
+		Rectangle area = getClientArea();
+		gc.setBackground(getDisplay().getSystemColor(SWT.COLOR_LIST_BACKGROUND));
+		gc.fillRectangle(area);
+		gc.setForeground(getDisplay().getSystemColor(SWT.COLOR_WIDGET_NORMAL_SHADOW));
+		gc.drawRectangle(area.x, area.y, area.width - 1, area.height - 1);
+
+		int lineHeight = gc.getFontMetrics().getHeight();
+		Rectangle plot = new Rectangle(area.x + 2, area.y + lineHeight + 2, area.width - 4, area.height - lineHeight
+				- 4);
+		if (series.isEmpty() || plot.width <= 1 || plot.height <= 1) {
+			gc.drawText("No samples", area.x + 4, area.y + 2, true);
+			return;
+		}
+
+		double max = 0;
+		for (SampleRing ring : series) {
+			max = Math.max(max, ring.getMaxValue());
+		}
+		if (max <= 0) {
+			max = 1;
+		}
+
+		if (buffer.length < plot.width) {
+			buffer = new double[plot.width];
+		}
+		StringBuilder legend = new StringBuilder();
+		for (int s = 0; s < series.size(); s++) {
+			SampleRing ring = series.get(s);
+			gc.setForeground(getDisplay().getSystemColor(COLORS[s % COLORS.length]));
+			int count = ring.copyValues(buffer);
+			int step = Math.max(1, plot.width / Math.max(1, ring.getCapacity() - 1));
+			int[] points = new int[count * 2];
+			for (int i = 0; i < count; i++) {
+				points[i * 2] = plot.x + plot.width - 1 - (count - 1 - i) * step;
+				points[i * 2 + 1] = plot.y + plot.height - 1 - (int) (buffer[i] / max * (plot.height - 1));
+			}
+			if (count > 1) {
+				gc.drawPolyline(points);
+			}
+			if (legend.length() > 0) {
+				legend.append("  ");
+			}
+			legend.append(labels.get(s)).append(": ").append(format(ring.getLastValue()));
+		}
+
+		gc.setForeground(getDisplay().getSystemColor(SWT.COLOR_WIDGET_FOREGROUND));
+		gc.drawText(legend.toString(), area.x + 4, area.y + 2, true);
+		String maxLabel = "max " + format(max);
+		gc.drawText(maxLabel, area.x + area.width - gc.textExtent(maxLabel).x - 4, area.y + 2, true);
+	}
+
+	private String format(double value) {
+		if (Double.isNaN(value)) {
+			return "-";
+		}
+		return String.format(Locale.ENGLISH, "%.1f %s", value / scale, unit);
+	}
+
+}
@@ -0,0 +1,381 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.ui;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.Locale;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.jdt.launching.IVMInstall;
+import org.eclipse.jdt.launching.IVMInstall2;
+import org.eclipse.jface.layout.GridDataFactory;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.events.SelectionAdapter;
+import org.eclipse.swt.events.SelectionEvent;
+import org.eclipse.swt.layout.GridData;
+import org.eclipse.swt.layout.GridLayout;
+import org.eclipse.swt.widgets.Button;
+import org.eclipse.swt.widgets.Combo;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Label;
+import org.eclipse.ui.IEditorInput;
+import org.eclipse.ui.IEditorSite;
+import org.eclipse.ui.forms.widgets.ExpandableComposite;
+import org.eclipse.ui.forms.widgets.FormToolkit;
+import org.eclipse.ui.forms.widgets.Section;
+import org.eclipse.wst.server.core.IServer;
+import org.eclipse.wst.server.ui.editor.ServerEditorSection;
+
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.InstanceProvisioner;
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.LaunchProfile;
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.LaunchProfiles;
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.ParallelStartup;
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.StartupStatistics;
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.TcServer;
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.TcServerBehaviour;
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.TcServerConfiguration;
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.TcServerRuntime;
+
+/**
+ * Server editor section to configure the VM tuning profile and options that
+ * reduce the startup time: excluding jars that do not contain TLDs, web
+ * fragments or container initializers from scanning, class data sharing,
+ * starting contexts in parallel and linking the jars of the test environment.
+ * Shows the measured startup times with and without skipped jars.
+ */
+public class StartupEditorSection extends ServerEditorSection {
+
+	private TcServer serverWorkingCopy;
+
+	private TcServerConfiguration configuration;
+
+	private PropertyChangeListener listener;
+
+	private StartupStatistics statistics;
+
+	private StartupStatistics.Listener statisticsListener;
+
+	private Combo launchProfileCombo;
+
+	private Label launchProfileStatusLabel;
+
+	private Button enableButton;
+
+	private Button classDataSharingButton;
+
+	private Button parallelStartupButton;
+
+	private Label parallelStartupStatusLabel;
+
+	private Button linkJarsButton;
+
+	private Label startupLabel;
+
+	private boolean updating;
+
+	@Override
+	public void createSection(Composite parent) {
+		super.createSection(parent);
+		FormToolkit toolkit = getFormToolkit(parent.getDisplay());
+
+		Section section = toolkit.createSection(parent, ExpandableComposite.TWISTIE | ExpandableComposite.TITLE_BAR
+				| Section.DESCRIPTION | ExpandableComposite.FOCUS_TITLE);
+		section.setText("Startup");
+		section.setDescription("Tune the VM and reduce the time spent loading classes and scanning jars on startup.");
+		section.setLayoutData(new GridData(GridData.FILL_HORIZONTAL | GridData.VERTICAL_ALIGN_FILL));
+
+		Composite composite = toolkit.createComposite(section);
+		GridLayout layout = new GridLayout(2, false);
+		layout.marginHeight = 5;
+		layout.marginWidth = 1;
+		composite.setLayout(layout);
+		toolkit.paintBordersFor(composite);
+		section.setClient(composite);
+
+		toolkit.createLabel(composite, "VM tuning:");
+		launchProfileCombo = new Combo(composite, SWT.READ_ONLY);
+		for (LaunchProfile profile : LaunchProfiles.getProfiles()) {
+			launchProfileCombo.add(profile.getLabel());
+		}
+		toolkit.adapt(launchProfileCombo);
+		GridDataFactory.fillDefaults().applyTo(launchProfileCombo);
+		launchProfileCombo.addSelectionListener(new SelectionAdapter() {
+			@Override
+			public void widgetSelected(SelectionEvent e) {
+				if (updating) {
+					return;
+				}
+				try {
+					updating = true;
+					int index = launchProfileCombo.getSelectionIndex();
+					if (index != -1) {
+						execute(new ModifyLaunchProfileCommand(serverWorkingCopy, LaunchProfiles.getProfiles().get(index)
+								.getId()));
+						updateLaunchProfileStatus();
+					}
+				}
+				finally {
+					updating = false;
+				}
+			}
+		});
+
+		launchProfileStatusLabel = toolkit.createLabel(composite, "", SWT.WRAP);
+		GridDataFactory.fillDefaults().span(2, 1).grab(true, false).hint(300, SWT.DEFAULT)
+				.applyTo(launchProfileStatusLabel);
+
+		enableButton = toolkit.createButton(composite,
+				"Skip scanning of jars without TLDs, web fragments or initializers", SWT.CHECK);
+		GridDataFactory.fillDefaults().span(2, 1).applyTo(enableButton);
+		enableButton.setToolTipText(
+				"Updates the jarsToSkip property in catalina.properties when modules or their dependencies change");
+		enableButton.addSelectionListener(new SelectionAdapter() {
+			@Override
+			public void widgetSelected(SelectionEvent event) {
+				if (updating) {
+					return;
+				}
+				try {
+					updating = true;
+					execute(new ModifyJarScanOptimizationCommand(serverWorkingCopy, enableButton.getSelection()));
+				}
+				finally {
+					updating = false;
+				}
+			}
+		});
+
+		classDataSharingButton = toolkit.createButton(composite, "Use class data sharing archive (Java 11 or later)",
+				SWT.CHECK);
+		GridDataFactory.fillDefaults().span(2, 1).applyTo(classDataSharingButton);
+		classDataSharingButton.setToolTipText(
+				"Records the loaded classes on the first launch and maps them from an archive on subsequent launches");
+		classDataSharingButton.addSelectionListener(new SelectionAdapter() {
+			@Override
+			public void widgetSelected(SelectionEvent event) {
+				if (updating) {
+					return;
+				}
+				try {
+					updating = true;
+					execute(new ModifyClassDataSharingCommand(serverWorkingCopy, classDataSharingButton.getSelection()));
+				}
+				finally {
+					updating = false;
+				}
+			}
+		});
+
+		parallelStartupButton = toolkit.createButton(composite, "Start web applications in parallel", SWT.CHECK);
+		GridDataFactory.fillDefaults().span(2, 1).applyTo(parallelStartupButton);
+		parallelStartupButton.setToolTipText(
+				"Sets the startStopThreads of the host to use all available processors of the server");
+		parallelStartupButton.addSelectionListener(new SelectionAdapter() {
+			@Override
+			public void widgetSelected(SelectionEvent event) {
+				if (updating) {
+					return;
+				}
+				try {
+					updating = true;
+					execute(new ModifyParallelStartupCommand(serverWorkingCopy, configuration, parallelStartupButton
+							.getSelection()));
+					updateParallelStartupStatus();
+				}
+				finally {
+					updating = false;
+				}
+			}
+		});
+
+		parallelStartupStatusLabel = toolkit.createLabel(composite, "", SWT.WRAP);
+		GridDataFactory.fillDefaults().span(2, 1).grab(true, false).hint(300, SWT.DEFAULT)
+				.applyTo(parallelStartupStatusLabel);
+
+		linkJarsButton = toolkit.createButton(composite, "Link jars of the test environment instead of copying them",
+				SWT.CHECK);
+		GridDataFactory.fillDefaults().span(2, 1).applyTo(linkJarsButton);
+		linkJarsButton.setToolTipText(
+				"Hard links the jars of the instance base into the test environment if the file system supports it");
+		linkJarsButton.addSelectionListener(new SelectionAdapter() {
+			@Override
+			public void widgetSelected(SelectionEvent event) {
+				if (updating) {
+					return;
+				}
+				try {
+					updating = true;
+					InstanceProvisioner.Mode mode = (linkJarsButton.getSelection()) ? InstanceProvisioner.Mode.LINK
+							: InstanceProvisioner.Mode.COPY;
+					execute(new ModifyProvisioningModeCommand(serverWorkingCopy, mode));
+				}
+				finally {
+					updating = false;
+				}
+			}
+		});
+
+		startupLabel = toolkit.createLabel(composite, "", SWT.WRAP);
+		GridDataFactory.fillDefaults().span(2, 1).grab(true, false).hint(300, SWT.DEFAULT).applyTo(startupLabel);
+
+		initialize();
+	}
+
+	@Override
+	public void init(IEditorSite site, IEditorInput input) {
+		super.init(site, input);
+		serverWorkingCopy = (TcServer) server.loadAdapter(TcServer.class, null);
+		try {
+			configuration = serverWorkingCopy.getTomcatConfiguration();
+		}
+		catch (CoreException e) {
+			// ignore
+		}
+		listener = new PropertyChangeListener() {
+			public void propertyChange(PropertyChangeEvent event) {
+				if ((TcServer.PROPERTY_JAR_SCAN_OPTIMIZATION.equals(event.getPropertyName())
+						|| TcServer.PROPERTY_CLASS_DATA_SHARING.equals(event.getPropertyName())
+						|| TcServer.PROPERTY_LAUNCH_PROFILE.equals(event.getPropertyName())
+						|| TcServer.PROPERTY_PARALLEL_STARTUP.equals(event.getPropertyName())
+						|| TcServer.PROPERTY_PROVISIONING_MODE.equals(event.getPropertyName())) && !updating) {
+					updating = true;
+					initialize();
+					updating = false;
+				}
+			}
+		};
+		server.addPropertyChangeListener(listener);
+
+		IServer original = server.getOriginal();
+		TcServerBehaviour behaviour = (original != null)
+				? (TcServerBehaviour) original.loadAdapter(TcServerBehaviour.class, null)
+				: null;
+		if (behaviour != null) {
+			statistics = behaviour.getStartupStatistics();
+			statisticsListener = new StartupStatistics.Listener() {
+				public void statisticsChanged(StartupStatistics statistics) {
+					Display.getDefault().asyncExec(new Runnable() {
+						public void run() {
+							if (startupLabel != null && !startupLabel.isDisposed()) {
+								updateStartupLabel();
+							}
+						}
+					});
+				}
+			};
+			statistics.addListener(statisticsListener);
+		}
+		initialize();
+	}
+
+	@Override
+	public void dispose() {
+		if (server != null) {
+			server.removePropertyChangeListener(listener);
+		}
+		if (statistics != null) {
+			statistics.removeListener(statisticsListener);
+		}
+		super.dispose();
+	}
+
+	protected void initialize() {
+		if (enableButton == null || serverWorkingCopy == null) {
+			return;
+		}
+		launchProfileCombo.select(LaunchProfiles.getProfiles().indexOf(
+				LaunchProfiles.getProfile(serverWorkingCopy.getLaunchProfile())));
+		updateLaunchProfileStatus();
+		enableButton.setSelection(serverWorkingCopy.isJarScanOptimizationEnabled());
+		classDataSharingButton.setSelection(serverWorkingCopy.isClassDataSharingEnabled());
+		parallelStartupButton.setSelection(serverWorkingCopy.isParallelStartupEnabled());
+		updateParallelStartupStatus();
+		linkJarsButton.setSelection(serverWorkingCopy.getProvisioningMode() == InstanceProvisioner.Mode.LINK);
+		updateStartupLabel();
+	}
+
+	/**
+	 * Shows the description of the selected profile and a warning if the VM
+	 * of the runtime does not support it.
+	 */
+	private void updateLaunchProfileStatus() {
+		LaunchProfile profile = LaunchProfiles.getProfile(serverWorkingCopy.getLaunchProfile());
+		String status = profile.getDescription();
+		TcServerRuntime runtime = serverWorkingCopy.getTomcatRuntime();
+		IVMInstall vmInstall = (runtime != null) ? runtime.getVMInstall() : null;
+		if (vmInstall instanceof IVMInstall2) {
+			int javaVersion = LaunchProfiles.getJavaMajorVersion(((IVMInstall2) vmInstall).getJavaVersion());
+			if (!profile.isSupported(javaVersion)) {
+				status = "Not applied: requires Java " + profile.getRequiredJavaVersion() + " or later but '"
+						+ vmInstall.getName() + "' is Java " + javaVersion + ".";
+			}
+		}
+		launchProfileStatusLabel.setText(status);
+		launchProfileStatusLabel.getParent().layout();
+	}
+
+	/**
+	 * Shows the number of threads that start the contexts or a warning if the
+	 * Tomcat version of the runtime does not support parallel startup.
+	 */
+	private void updateParallelStartupStatus() {
+		String status = "";
+		if (serverWorkingCopy.isParallelStartupEnabled() && configuration != null) {
+			String tomcatVersion = configuration.getTomcatVersion();
+			if (!ParallelStartup.isStartStopThreadsSupported(tomcatVersion)) {
+				status = "Not applied: requires Tomcat 7.0.23 or later.";
+			}
+			else {
+				String value = configuration.getStartStopThreads();
+				if (value == null) {
+					value = ParallelStartup.START_STOP_THREADS_AVAILABLE_PROCESSORS;
+				}
+				int modules = server.getModules().length;
+				int threads = ParallelStartup.getStartStopThreads(value, modules,
+						Runtime.getRuntime().availableProcessors());
+				status = modules + " modules are started by up to " + threads + " threads";
+				if (ParallelStartup.isParallelAnnotationScanningSupported(tomcatVersion)) {
+					status += ", annotations are scanned in parallel";
+				}
+				status += ".";
+			}
+		}
+		parallelStartupStatusLabel.setText(status);
+		parallelStartupStatusLabel.getParent().layout();
+	}
+
+	private void updateStartupLabel() {
+		if (statistics == null || statistics.getLastDuration() == -1) {
+			startupLabel.setText("Startup time is measured when the server is started.");
+			return;
+		}
+
+		StringBuilder sb = new StringBuilder();
+		sb.append("Last startup: ").append(formatDuration(statistics.getLastDuration()));
+		if (statistics.getLastSkippedJars() > 0) {
+			sb.append(", ").append(statistics.getLastSkippedJars()).append(" jars skipped");
+		}
+		if (statistics.isSavingsKnown()) {
+			sb.append("\nAverage: ").append(formatDuration(statistics.getMeanDuration(false)));
+			sb.append(" without, ").append(formatDuration(statistics.getMeanDuration(true)));
+			sb.append(" with skipped jars (saves ").append(formatDuration(statistics.getSavings())).append(")");
+		}
+		startupLabel.setText(sb.toString());
+		startupLabel.getParent().layout();
+	}
+
+	private static String formatDuration(long duration) {
+		return String.format(Locale.ENGLISH, "%.1f s", duration / 1000.0);
+	}
+
+}
@@ -136,6 +136,8 @@ public class TcServer21InstanceCreationFragment extends WizardFragment {
 
 	private Button combinedLayoutButton;
 
+	private Button templateCacheCheckbox;
+
 	private IRuntime runtime;
 
 	private Text nameText;
@@ -304,6 +306,12 @@ public class TcServer21InstanceCreationFragment extends WizardFragment {
 		combinedLayoutButton = new Button(layoutGroup, SWT.RADIO);
 		combinedLayoutButton.setText("Combined");
 
+		templateCacheCheckbox = new Button(page, SWT.CHECK | SWT.LEFT);
+		templateCacheCheckbox.setText("Create instance from a cached copy of the selected templates");
+		templateCacheCheckbox.setToolTipText(
+				"Runs the instance creation script once per set of templates and copies the result for new instances");
+		GridDataFactory.fillDefaults().span(3, 1).applyTo(templateCacheCheckbox);
+
 		defaultLocationCheckbox = new Button(page, SWT.CHECK | SWT.LEFT);
 		defaultLocationCheckbox.setSelection(true);
 		defaultLocationCheckbox.setText("Use default instance location");
@@ -455,6 +463,10 @@ public class TcServer21InstanceCreationFragment extends WizardFragment {
 		}
 		InstanceConfiguration model = initModel();
 		getTaskModel().putObject(INSTANCE_CONFIGURATION, model);
+		TcServerCorePlugin plugin = TcServerCorePlugin.getDefault();
+		if (plugin != null && !templateCacheCheckbox.isDisposed()) {
+			plugin.setInstanceTemplateCacheEnabled(templateCacheCheckbox.getSelection());
+		}
 	}
 
 	private void initialize() {
@@ -467,6 +479,10 @@ public class TcServer21InstanceCreationFragment extends WizardFragment {
 		if (!separateLayoutButton.isDisposed()) {
 			separateLayoutButton.setSelection(true);
 		}
+		TcServerCorePlugin plugin = TcServerCorePlugin.getDefault();
+		if (plugin != null && !templateCacheCheckbox.isDisposed()) {
+			templateCacheCheckbox.setSelection(plugin.isInstanceTemplateCacheEnabled());
+		}
 
 		TcServerRuntime tcRuntime = (TcServerRuntime) runtime.loadAdapter(TcServerRuntime.class,
 				new NullProgressMonitor());
@@ -0,0 +1,273 @@
+/*******************************************************************************
+ * Copyright (c) 2012, 2020 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package com.vmware.vfabric.ide.eclipse.tcserver.internal.ui;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Locale;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.jface.dialogs.MessageDialog;
+import org.eclipse.jface.layout.GridDataFactory;
+import org.eclipse.jface.viewers.ArrayContentProvider;
+import org.eclipse.jface.viewers.ITableLabelProvider;
+import org.eclipse.jface.viewers.LabelProvider;
+import org.eclipse.jface.viewers.TableViewer;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.events.SelectionAdapter;
+import org.eclipse.swt.events.SelectionEvent;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.layout.GridLayout;
+import org.eclipse.swt.widgets.Button;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Label;
+import org.eclipse.swt.widgets.Spinner;
+import org.eclipse.swt.widgets.Table;
+import org.eclipse.swt.widgets.TableColumn;
+import org.eclipse.ui.IEditorInput;
+import org.eclipse.ui.IEditorSite;
+import org.eclipse.ui.forms.widgets.ExpandableComposite;
+import org.eclipse.ui.forms.widgets.FormToolkit;
+import org.eclipse.ui.forms.widgets.ScrolledForm;
+import org.eclipse.ui.forms.widgets.Section;
+import org.eclipse.ui.statushandlers.StatusManager;
+import org.eclipse.wst.server.core.IServer;
+import org.eclipse.wst.server.ui.editor.ServerEditorPart;
+
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.TcServerBehaviour;
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.ThreadSampler;
+import com.vmware.vfabric.ide.eclipse.tcserver.internal.core.ThreadSampler.Count;
+
+/**
+ * Server editor page that samples the threads of the running server and shows
+ * the most contended monitors and the hottest frames. Sampling stops when the
+ * editor is closed.
+ */
+public class ThreadSamplerEditorPage extends ServerEditorPart {
+
+	private static final int LIMIT = 25;
+
+	private static final int REFRESH_INTERVAL = 1000;
+
+	private class CountLabelProvider extends LabelProvider implements ITableLabelProvider {
+
+		public Image getColumnImage(Object element, int columnIndex) {
+			return null;
+		}
+
+		public String getColumnText(Object element, int columnIndex) {
+			Count count = (Count) element;
+			switch (columnIndex) {
+			case 0:
+				return count.getName();
+			case 1:
+				return Long.toString(count.getCount());
+			case 2:
+				long samples = sampler.getSampleCount();
+				return (samples > 0) ? String.format(Locale.ENGLISH, "%.1f%%", 100.0 * count.getCount() / samples)
+						: "";
+			}
+			return "";
+		}
+
+	}
+
+	private TcServerBehaviour behaviour;
+
+	private ThreadSampler sampler;
+
+	private ScrolledForm form;
+
+	private Label statusLabel;
+
+	private Spinner intervalSpinner;
+
+	private Button startButton;
+
+	private Button saveButton;
+
+	private TableViewer monitorsViewer;
+
+	private TableViewer framesViewer;
+
+	private final Runnable refreshRunnable = new Runnable() {
+		public void run() {
+			if (form != null && !form.isDisposed()) {
+				refresh();
+				if (sampler.isRunning()) {
+					form.getDisplay().timerExec(REFRESH_INTERVAL, this);
+				}
+			}
+		}
+	};
+
+	@Override
+	public void init(IEditorSite site, IEditorInput input) {
+		super.init(site, input);
+		IServer original = server.getOriginal();
+		behaviour = (original != null) ? (TcServerBehaviour) original.loadAdapter(TcServerBehaviour.class, null)
+				: null;
+		if (behaviour != null) {
+			sampler = behaviour.getThreadSampler();
+		}
+	}
+
+	@Override
+	public void createPartControl(Composite parent) {
+		FormToolkit toolkit = getFormToolkit(parent.getDisplay());
+		form = toolkit.createScrolledForm(parent);
+		form.setText("Thread Sampling");
+		Composite body = form.getBody();
+		body.setLayout(new GridLayout(1, false));
+
+		if (sampler == null) {
+			toolkit.createLabel(body, "Thread sampling is not available for this server.");
+			return;
+		}
+
+		Composite controls = toolkit.createComposite(body);
+		controls.setLayout(new GridLayout(5, false));
+		GridDataFactory.fillDefaults().grab(true, false).applyTo(controls);
+
+		toolkit.createLabel(controls, "Sampling interval (ms):");
+		intervalSpinner = new Spinner(controls, SWT.BORDER);
+		intervalSpinner.setValues((int) sampler.getInterval(), (int) ThreadSampler.MIN_INTERVAL, 10000, 0, 10, 100);
+		intervalSpinner.addSelectionListener(new SelectionAdapter() {
+			@Override
+			public void widgetSelected(SelectionEvent e) {
+				sampler.setInterval(intervalSpinner.getSelection());
+			}
+		});
+
+		startButton = toolkit.createButton(controls, "", SWT.PUSH);
+		startButton.addSelectionListener(new SelectionAdapter() {
+			@Override
+			public void widgetSelected(SelectionEvent e) {
+				toggleSampling();
+			}
+		});
+
+		Button resetButton = toolkit.createButton(controls, "Reset", SWT.PUSH);
+		resetButton.addSelectionListener(new SelectionAdapter() {
+			@Override
+			public void widgetSelected(SelectionEvent e) {
+				sampler.reset();
+				refresh();
+			}
+		});
+
+		saveButton = toolkit.createButton(controls, "Save Collapsed Stacks", SWT.PUSH);
+		saveButton.addSelectionListener(new SelectionAdapter() {
+			@Override
+			public void widgetSelected(SelectionEvent e) {
+				saveCollapsedStacks();
+			}
+		});
+
+		statusLabel = toolkit.createLabel(body, "", SWT.WRAP);
+		GridDataFactory.fillDefaults().grab(true, false).applyTo(statusLabel);
+
+		monitorsViewer = createTable(toolkit, body, "Blocked Monitors",
+				"Monitors that threads were blocked on, in percent of samples.", "Monitor");
+		framesViewer = createTable(toolkit, body, "Hot Frames",
+				"Methods that runnable threads were executing, in percent of samples.", "Frame");
+
+		refresh();
+	}
+
+	private TableViewer createTable(FormToolkit toolkit, Composite parent, String title, String description,
+			String name) {
+		Section section = toolkit.createSection(parent, ExpandableComposite.TITLE_BAR | Section.DESCRIPTION);
+		section.setText(title);
+		section.setDescription(description);
+		GridDataFactory.fillDefaults().grab(true, false).applyTo(section);
+
+		Table table = toolkit.createTable(section, SWT.FULL_SELECTION);
+		table.setHeaderVisible(true);
+		table.setLinesVisible(true);
+		String[] columns = { name, "Samples", "Percent" };
+		int[] widths = { 450, 80, 80 };
+		for (int i = 0; i < columns.length; i++) {
+			TableColumn column = new TableColumn(table, (i == 0) ? SWT.LEFT : SWT.RIGHT);
+			column.setText(columns[i]);
+			column.setWidth(widths[i]);
+		}
+		GridDataFactory.fillDefaults().grab(true, false).hint(SWT.DEFAULT, 160).applyTo(table);
+		section.setClient(table);
+
+		TableViewer viewer = new TableViewer(table);
+		viewer.setContentProvider(new ArrayContentProvider());
+		viewer.setLabelProvider(new CountLabelProvider());
+		return viewer;
+	}
+
+	private void toggleSampling() {
+		if (sampler.isRunning()) {
+			sampler.stop();
+		}
+		else {
+			sampler.setInterval(intervalSpinner.getSelection());
+			sampler.start();
+			form.getDisplay().timerExec(REFRESH_INTERVAL, refreshRunnable);
+		}
+		refresh();
+	}
+
+	private void saveCollapsedStacks() {
+		try {
+			File directory = sampler.writeCollapsedStacks(behaviour.getServerDiagnostics(), System.currentTimeMillis());
+			MessageDialog.openInformation(getSite().getShell(), "Save Collapsed Stacks",
+					"The collapsed stacks of each context were written to " + directory.getAbsolutePath() + ".");
+		}
+		catch (IOException e) {
+			StatusManager.getManager().handle(
+					new Status(IStatus.ERROR, TcServerUiPlugin.PLUGIN_ID, "Failed to write collapsed stacks: "
+							+ e.getMessage(), e), StatusManager.LOG | StatusManager.SHOW);
+		}
+	}
+
+	private void refresh() {
+		boolean running = sampler.isRunning();
+		startButton.setText(running ? "Stop" : "Start");
+		saveButton.setEnabled(sampler.getSampleCount() > 0);
+
+		IStatus status = sampler.getStatus();
+		if (!status.isOK()) {
+			statusLabel.setText(status.getMessage()
+					+ ((status.getException() != null) ? ": " + status.getException().getMessage() : ""));
+		}
+		else {
+			statusLabel.setText(String.format(Locale.ENGLISH, "%d samples%s.", sampler.getSampleCount(),
+					running ? ", sampling" : ""));
+		}
+
+		monitorsViewer.setInput(sampler.getTopBlockedMonitors(LIMIT).toArray());
+		framesViewer.setInput(sampler.getTopFrames(LIMIT).toArray());
+		form.getBody().layout(true, true);
+	}
+
+	@Override
+	public void dispose() {
+		if (sampler != null) {
+			sampler.stop();
+		}
+		super.dispose();
+	}
+
+	@Override
+	public void setFocus() {
+		if (form != null) {
+			form.setFocus();
+		}
+	}
+
+}